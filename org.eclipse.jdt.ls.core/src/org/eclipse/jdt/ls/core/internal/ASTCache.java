@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.manipulation.CoreASTProvider;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps the resolved ASTs of the recently used documents, on top of the single
+ * AST of the active element kept by {@link CoreASTProvider}, so that switching
+ * between documents doesn't recreate their ASTs.
+ *
+ * An AST is reused as long as the modification stamp of its document doesn't
+ * change, and until a document or a Java element changes, since its bindings
+ * may depend on them. The cache is bounded by the estimated size of its ASTs,
+ * set by the {@link JDTEnvironmentUtils#AST_CACHE_SIZE ast.cache.size} option.
+ */
+public class ASTCache implements IElementChangedListener {
+
+	/**
+	 * The estimated size of the binding environment retained by a resolved AST
+	 */
+	private static final int BINDINGS_SIZE_KB = 1024;
+
+	/**
+	 * The estimated size of the nodes of an AST, per character of its source
+	 */
+	private static final int BYTES_PER_CHAR = 48;
+
+	private static ASTCache instance;
+
+	private final Cache<ITypeRoot, Entry> asts;
+
+	private final AtomicLong generation = new AtomicLong();
+
+	public ASTCache(long budgetInMB) {
+		this.asts = CacheBuilder.newBuilder().maximumWeight(budgetInMB * 1024).weigher((ITypeRoot root, Entry entry) -> entry.weight).build();
+	}
+
+	public static synchronized ASTCache getInstance() {
+		if (instance == null) {
+			instance = new ASTCache(JDTEnvironmentUtils.getASTCacheSize());
+			JavaCore.addElementChangedListener(instance, ElementChangedEvent.POST_CHANGE);
+		}
+		return instance;
+	}
+
+	public static synchronized void shutdown() {
+		if (instance != null) {
+			JavaCore.removeElementChangedListener(instance);
+			instance.invalidate();
+			instance = null;
+		}
+	}
+
+	/**
+	 * Returns the AST of the given type root, from the cache if its document
+	 * didn't change, otherwise from {@link CoreASTProvider}.
+	 *
+	 * @see CoreASTProvider#getAST(ITypeRoot,
+	 *      org.eclipse.jdt.core.manipulation.CoreASTProvider.WAIT_FLAG,
+	 *      IProgressMonitor)
+	 */
+	public CompilationUnit getAST(ITypeRoot root, CoreASTProvider.WAIT_FLAG waitFlag, IProgressMonitor monitor) {
+		CoreASTProvider provider = CoreASTProvider.getInstance();
+		if (root == null) {
+			return provider.getAST(root, waitFlag, monitor);
+		}
+		long currentGeneration = generation.get();
+		long stamp = getModificationStamp(root);
+		if (stamp != IResource.NULL_STAMP) {
+			Entry entry = asts.getIfPresent(root);
+			if (entry != null && entry.stamp == stamp && entry.generation == currentGeneration) {
+				if (root.equals(provider.getActiveJavaElement()) && provider.getCachedAST() == null) {
+					provider.cache(entry.ast, root);
+				}
+				return entry.ast;
+			}
+		}
+		CompilationUnit ast = provider.getAST(root, waitFlag, monitor);
+		if (ast != null && stamp != IResource.NULL_STAMP && (monitor == null || !monitor.isCanceled())) {
+			asts.put(root, new Entry(ast, stamp, currentGeneration));
+		}
+		return ast;
+	}
+
+	/**
+	 * Drops all the ASTs, when a document changes
+	 */
+	public void invalidate() {
+		generation.incrementAndGet();
+		asts.invalidateAll();
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		if (asts.size() > 0) {
+			invalidate();
+		}
+	}
+
+	/**
+	 * @return the number of cached ASTs
+	 */
+	long size() {
+		return asts.size();
+	}
+
+	/**
+	 * Returns the modification stamp of the document of the given type root: the
+	 * stamp of the document of a working copy, of the file of a compilation unit
+	 * or of a saved working copy, or of the archive of a class file.
+	 *
+	 * @return the stamp, or {@link IResource#NULL_STAMP} if it's unknown
+	 */
+	public static long getModificationStamp(ITypeRoot root) {
+		try {
+			if (root instanceof ICompilationUnit && ((ICompilationUnit) root).isWorkingCopy()) {
+				IBuffer buffer = root.getBuffer();
+				IDocument document = buffer instanceof DocumentAdapter ? ((DocumentAdapter) buffer).getDocument() : null;
+				if (document instanceof IDocumentExtension4) {
+					long stamp = ((IDocumentExtension4) document).getModificationStamp();
+					return stamp == IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP ? IResource.NULL_STAMP : stamp;
+				}
+				if (buffer == null || buffer.hasUnsavedChanges()) {
+					return IResource.NULL_STAMP;
+				}
+			}
+			IResource resource = root.getResource();
+			if (resource != null) {
+				return resource.getModificationStamp();
+			}
+			IJavaElement packageFragmentRoot = root.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+			IPath path = packageFragmentRoot == null ? null : packageFragmentRoot.getPath();
+			if (path != null && path.toFile().isFile()) {
+				return path.toFile().lastModified();
+			}
+		} catch (JavaModelException e) {
+			// not cached
+		}
+		return IResource.NULL_STAMP;
+	}
+
+	private static class Entry {
+		private final CompilationUnit ast;
+		private final long stamp;
+		private final long generation;
+		private final int weight;
+
+		Entry(CompilationUnit ast, long stamp, long generation) {
+			this.ast = ast;
+			this.stamp = stamp;
+			this.generation = generation;
+			this.weight = BINDINGS_SIZE_KB + (int) ((long) ast.getLength() * BYTES_PER_CHAR / 1024);
+		}
+	}
+}
@@ -72,10 +72,33 @@ public class BaseJDTLanguageServer {
 	}
 
 	protected <R> CompletableFuture<R> computeAsync(Function<IProgressMonitor, R> code) {
-		return CompletableFutures.computeAsync(cc -> code.apply(toMonitor(cc)));
+		long timeout = RequestScheduler.getCurrentTimeout();
+		// the time budget doesn't count the time spent waiting in the queue
+		return scheduleAsync(cc -> code.apply(toMonitor(cc, RequestScheduler.getDeadline(timeout))));
+	}
+
+	/**
+	 * Schedules the computation of the current request according to its
+	 * priority, see {@link RequestScheduler}.
+	 */
+	protected <R> CompletableFuture<R> scheduleAsync(Function<CancelChecker, R> code) {
+		RequestScheduler scheduler = JavaLanguageServerPlugin.getRequestScheduler();
+		if (scheduler == null) {
+			return CompletableFutures.computeAsync(code);
+		}
+		return scheduler.computeAsync(code);
 	}
 
 	protected IProgressMonitor toMonitor(CancelChecker checker) {
-		return new CancellableProgressMonitor(checker);
+		return toMonitor(checker, 0);
+	}
+
+	/**
+	 * @param deadline
+	 *            the time, in milliseconds, after which the monitor is
+	 *            cancelled, or <code>0</code> for no deadline
+	 */
+	protected IProgressMonitor toMonitor(CancelChecker checker, long deadline) {
+		return new CancellableProgressMonitor(checker, deadline);
 	}
 }
@@ -14,6 +14,7 @@ package org.eclipse.jdt.ls.core.internal;
 
 import java.util.concurrent.CancellationException;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 
@@ -21,16 +22,44 @@ import org.eclipse.lsp4j.jsonrpc.CancelChecker;
  * Progress monitor wrapping a {@link CancelChecker}. Cancelling the
  * CancelChecker will also cancel this monitor.
  *
+ * The monitor can also have a deadline, after which it is cancelled. A request
+ * whose computation was cancelled by its deadline, see
+ * {@link #isTimedOut(IProgressMonitor)}, returns the partial result computed
+ * so far.
+ *
  * @author Gorkem Ercan
  */
 public class CancellableProgressMonitor extends NullProgressMonitor {
 
 	private final CancelChecker cancelChecker;
 
+	/**
+	 * the time in milliseconds after which the monitor is cancelled, or
+	 * <code>0</code> if there is none
+	 */
+	private final long deadline;
+
+	/**
+	 * whether the monitor was found cancelled because its deadline expired
+	 */
+	private volatile boolean timedOut;
+
 	private boolean done;
 
 	public CancellableProgressMonitor(CancelChecker checker) {
+		this(checker, 0);
+	}
+
+	/**
+	 * @param checker
+	 *            the cancel checker of the request
+	 * @param deadline
+	 *            the time, in milliseconds, after which the monitor is
+	 *            cancelled, or <code>0</code> for no deadline
+	 */
+	public CancellableProgressMonitor(CancelChecker checker, long deadline) {
 		this.cancelChecker = checker;
+		this.deadline = deadline;
 	}
 
 	@Override
@@ -38,6 +67,10 @@ public class CancellableProgressMonitor extends NullProgressMonitor {
 		if (super.isCanceled()) {
 			return true;
 		}
+		if (isDeadlineExpired()) {
+			timedOut = true;
+			return true;
+		}
 		if(cancelChecker != null ){
 			try {
 				cancelChecker.checkCanceled();
@@ -57,4 +90,30 @@ public class CancellableProgressMonitor extends NullProgressMonitor {
 	public boolean isDone() {
 		return done;
 	}
+
+	public long getDeadline() {
+		return deadline;
+	}
+
+	public boolean isDeadlineExpired() {
+		return deadline > 0 && System.currentTimeMillis() >= deadline;
+	}
+
+	/**
+	 * @return <code>true</code> if the monitor was found cancelled because its
+	 *         deadline expired, i.e. the computation using it may have been cut
+	 *         short
+	 */
+	public boolean isTimedOut() {
+		return timedOut;
+	}
+
+	/**
+	 * @return <code>true</code> if the monitor is a
+	 *         {@link CancellableProgressMonitor} found cancelled because its
+	 *         deadline expired
+	 */
+	public static boolean isTimedOut(IProgressMonitor monitor) {
+		return monitor instanceof CancellableProgressMonitor && ((CancellableProgressMonitor) monitor).isTimedOut();
+	}
 }
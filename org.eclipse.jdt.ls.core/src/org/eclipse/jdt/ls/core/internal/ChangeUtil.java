@@ -13,11 +13,18 @@
 package org.eclipse.jdt.ls.core.internal;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -48,6 +55,10 @@ import org.eclipse.jdt.ls.core.internal.corext.refactoring.changes.RenameCompila
 import org.eclipse.jdt.ls.core.internal.corext.refactoring.changes.RenamePackageChange;
 import org.eclipse.jdt.ls.core.internal.corext.refactoring.nls.changes.CreateFileChange;
 import org.eclipse.jdt.ls.core.internal.corext.util.JavaElementUtil;
+import org.eclipse.jdt.ls.core.internal.handlers.LineOffsetIndex;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
 import org.eclipse.lsp4j.CreateFile;
 import org.eclipse.lsp4j.CreateFileOptions;
 import org.eclipse.lsp4j.DeleteFile;
@@ -64,9 +75,14 @@ import org.eclipse.ltk.core.refactoring.Change;
 import org.eclipse.ltk.core.refactoring.CompositeChange;
 import org.eclipse.ltk.core.refactoring.TextChange;
 import org.eclipse.ltk.core.refactoring.resource.ResourceChange;
+import org.eclipse.text.edits.DeleteEdit;
 import org.eclipse.text.edits.InsertEdit;
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
 import org.eclipse.text.edits.TextEdit;
 
+import com.google.common.collect.Lists;
+
 /**
  * Utility methods for converting Refactoring changes.
  *
@@ -96,6 +112,36 @@ public class ChangeUtil {
 		return edit;
 	}
 
+	/**
+	 * Converts Change to WorkspaceEdit, with the text changes made of
+	 * insertions, deletions and replacements converted edit by edit, with the
+	 * line index of their document looked up once, rather than as a
+	 * replacement of the whole changed region. This keeps the edits of large
+	 * refactorings, such as renaming a type used across the workspace, small.
+	 *
+	 * @param change
+	 *            {@link Change} to convert
+	 * @return {@link WorkspaceEdit} converted from the change
+	 * @throws CoreException
+	 */
+	public static WorkspaceEdit convertToWorkspaceEditByEdit(Change change) throws CoreException {
+		WorkspaceEdit edit = new WorkspaceEdit();
+		convertChangeByEdit(change, edit);
+		return edit;
+	}
+
+	private static void convertChangeByEdit(Change change, WorkspaceEdit edit) throws CoreException {
+		if (change instanceof CompositeChange) {
+			for (Change child : ((CompositeChange) change).getChildren()) {
+				convertChangeByEdit(child, edit);
+			}
+		} else if (change instanceof TextChange) {
+			convertTextChangeByEdit((TextChange) change, edit);
+		} else {
+			convertSingleChange(change, edit);
+		}
+	}
+
 	private static void convertSingleChange(Change change, WorkspaceEdit edit) throws CoreException {
 		if (change instanceof CompositeChange) {
 			return;
@@ -269,7 +315,58 @@ public class ChangeUtil {
 		}
 
 		TextEditConverter converter = new TextEditConverter(unit, edit);
-		List<org.eclipse.lsp4j.TextEdit> textEdits = filterTextEdits(converter.convert());
+		addTextEdits(root, unit, filterTextEdits(converter.convert()));
+	}
+
+	/**
+	 * Converts the insertions, deletions and replacements of a text change one
+	 * by one. Changes with other edits, such as moves, are converted by
+	 * {@link TextEditConverter}.
+	 */
+	private static void convertTextChangeByEdit(TextChange textChange, WorkspaceEdit rootEdit) throws JavaModelException {
+		Object modifiedElement = textChange.getModifiedElement();
+		TextEdit edit = textChange.getEdit();
+		if (!(modifiedElement instanceof IJavaElement) || edit == null) {
+			return;
+		}
+		ICompilationUnit unit = (ICompilationUnit) ((IJavaElement) modifiedElement).getAncestor(IJavaElement.COMPILATION_UNIT);
+		List<TextEdit> leaves = new ArrayList<>();
+		LineOffsetIndex index = unit == null || !collectLeaves(edit, leaves) ? null : LineOffsetIndex.get(unit.getBuffer());
+		if (index == null) {
+			convertTextEdit(rootEdit, unit, edit);
+			return;
+		}
+		List<org.eclipse.lsp4j.TextEdit> textEdits = new ArrayList<>(leaves.size());
+		for (TextEdit leaf : leaves) {
+			String newText = leaf instanceof ReplaceEdit ? ((ReplaceEdit) leaf).getText() : leaf instanceof InsertEdit ? ((InsertEdit) leaf).getText() : "";
+			textEdits.add(new org.eclipse.lsp4j.TextEdit(JDTUtils.toRange(index, leaf.getOffset(), leaf.getLength()), newText));
+		}
+		addTextEdits(rootEdit, unit, filterTextEdits(textEdits));
+	}
+
+	/**
+	 * Collects the insertions, deletions and replacements of a tree of edits, in
+	 * order.
+	 *
+	 * @return <code>false</code> if the tree has other edits
+	 */
+	private static boolean collectLeaves(TextEdit edit, List<TextEdit> leaves) {
+		if (edit instanceof MultiTextEdit) {
+			for (TextEdit child : edit.getChildren()) {
+				if (!collectLeaves(child, leaves)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if ((edit instanceof ReplaceEdit || edit instanceof InsertEdit || edit instanceof DeleteEdit) && !edit.hasChildren()) {
+			leaves.add(edit);
+			return true;
+		}
+		return false;
+	}
+
+	private static void addTextEdits(WorkspaceEdit root, ICompilationUnit unit, List<org.eclipse.lsp4j.TextEdit> textEdits) {
 		if (textEdits == null || textEdits.isEmpty()) {
 			return;
 		}
@@ -295,6 +392,11 @@ public class ChangeUtil {
 		}
 	}
 
+	private static int getDocumentCount(WorkspaceEdit edit) {
+		int count = edit.getDocumentChanges() == null ? 0 : edit.getDocumentChanges().size();
+		return edit.getChanges() == null ? count : count + edit.getChanges().size();
+	}
+
 	private static List<org.eclipse.lsp4j.TextEdit> filterTextEdits(List<org.eclipse.lsp4j.TextEdit> textEdits) {
 		if (textEdits == null || textEdits.isEmpty()) {
 			return textEdits;
@@ -484,4 +586,329 @@ public class ChangeUtil {
 			}
 		}
 	}
+
+	/**
+	 * Splits a workspace edit into edits of at most the given number of
+	 * documents, with all the edits of a document in the same edit. The
+	 * resource operations, and the edits of the documents they affect or which
+	 * can't be split, are added to the last edit, in their original order.
+	 *
+	 * @param edit
+	 *            the edit to split
+	 * @param maxDocuments
+	 *            the maximum number of split documents of each edit, or 0 not
+	 *            to split the edit
+	 * @param splittable
+	 *            whether the edits of the document with the given uri can be
+	 *            split out of the last edit
+	 * @return the edits, in order
+	 */
+	public static List<WorkspaceEdit> splitChanges(WorkspaceEdit edit, int maxDocuments, Predicate<String> splittable) {
+		if (maxDocuments <= 0) {
+			return Collections.singletonList(edit);
+		}
+		List<Either<TextDocumentEdit, ResourceOperation>> documentChanges = edit.getDocumentChanges() == null ? Collections.emptyList() : edit.getDocumentChanges();
+		Set<String> resources = new HashSet<>();
+		for (Either<TextDocumentEdit, ResourceOperation> change : documentChanges) {
+			if (change.isRight()) {
+				resources.addAll(getUris(change.getRight()));
+			}
+		}
+		// a resource operation may be a move of the folder of the document
+		Predicate<String> split = uri -> splittable.test(uri) && resources.stream().noneMatch(resource -> uri.equals(resource) || uri.startsWith(resource.endsWith("/") ? resource : resource + "/"));
+		WorkspaceEdit last = new WorkspaceEdit();
+		Map<String, List<Either<TextDocumentEdit, ResourceOperation>>> splitDocumentChanges = new LinkedHashMap<>();
+		for (Either<TextDocumentEdit, ResourceOperation> change : documentChanges) {
+			if (change.isLeft() && split.test(change.getLeft().getTextDocument().getUri())) {
+				splitDocumentChanges.computeIfAbsent(change.getLeft().getTextDocument().getUri(), uri -> new ArrayList<>()).add(change);
+			} else {
+				if (last.getDocumentChanges() == null) {
+					last.setDocumentChanges(new ArrayList<>());
+				}
+				last.getDocumentChanges().add(change);
+			}
+		}
+		Map<String, List<org.eclipse.lsp4j.TextEdit>> splitChanges = new LinkedHashMap<>();
+		if (edit.getChanges() != null) {
+			for (Entry<String, List<org.eclipse.lsp4j.TextEdit>> entry : edit.getChanges().entrySet()) {
+				(split.test(entry.getKey()) ? splitChanges : last.getChanges()).put(entry.getKey(), entry.getValue());
+			}
+		}
+		Set<String> uris = new LinkedHashSet<>(splitDocumentChanges.keySet());
+		uris.addAll(splitChanges.keySet());
+		List<WorkspaceEdit> edits = new ArrayList<>();
+		WorkspaceEdit current = null;
+		int documents = 0;
+		for (String uri : uris) {
+			if (current == null || documents == maxDocuments) {
+				current = new WorkspaceEdit();
+				edits.add(current);
+				documents = 0;
+			}
+			if (splitDocumentChanges.containsKey(uri)) {
+				if (current.getDocumentChanges() == null) {
+					current.setDocumentChanges(new ArrayList<>());
+				}
+				current.getDocumentChanges().addAll(splitDocumentChanges.get(uri));
+			}
+			if (splitChanges.containsKey(uri)) {
+				current.getChanges().put(uri, splitChanges.get(uri));
+			}
+			documents++;
+		}
+		if (edits.isEmpty()) {
+			edits.add(last);
+		} else {
+			appendChanges(current, last, false);
+		}
+		return edits;
+	}
+
+	private static List<String> getUris(ResourceOperation operation) {
+		if (operation instanceof RenameFile) {
+			return Arrays.asList(((RenameFile) operation).getOldUri(), ((RenameFile) operation).getNewUri());
+		} else if (operation instanceof CreateFile) {
+			return Collections.singletonList(((CreateFile) operation).getUri());
+		} else if (operation instanceof DeleteFile) {
+			return Collections.singletonList(((DeleteFile) operation).getUri());
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Applies a workspace edit in chunks of at most the given number of
+	 * documents: all of them but the last one, which is returned, are applied
+	 * by the client one after the other. Only the edits of compilation units are
+	 * split out of the last chunk. If the client fails to apply a chunk, the
+	 * documents of the chunks it applied are restored.
+	 *
+	 * @param edit
+	 *            the edit to apply
+	 * @param maxDocuments
+	 *            the maximum number of documents of each chunk, or 0 not to
+	 *            split the edit
+	 * @param client
+	 *            applies an edit with <code>workspace/applyEdit</code>, and
+	 *            returns whether it was applied
+	 * @return the last chunk, or <code>null</code> if the client failed to
+	 *         apply a chunk
+	 * @throws CoreException
+	 */
+	public static WorkspaceEdit applyInChunks(WorkspaceEdit edit, int maxDocuments, Predicate<WorkspaceEdit> client) throws CoreException {
+		List<WorkspaceEdit> chunks = splitChanges(edit, maxDocuments, uri -> {
+			ICompilationUnit unit = JDTUtils.resolveCompilationUnit(uri);
+			return unit != null && unit.exists();
+		});
+		ChunkSender sender = new ChunkSender(client);
+		for (WorkspaceEdit chunk : chunks.subList(0, chunks.size() - 1)) {
+			if (!sender.send(chunk)) {
+				return null;
+			}
+		}
+		return chunks.get(chunks.size() - 1);
+	}
+
+	/**
+	 * Converts Change to WorkspaceEdits incrementally, file by file, like
+	 * {@link #convertToWorkspaceEditByEdit(Change)}, and has the client apply
+	 * them as soon as they reach the given number of documents, so that the
+	 * edits of large refactorings, such as renaming a type used across the
+	 * workspace, aren't all held at once.
+	 *
+	 * Only the text changes of existing compilation units are applied by the
+	 * client, once per document. The resource operations, the changes after
+	 * them, and the other text changes are returned with the last documents. If
+	 * the client fails to apply a chunk, the documents of the chunks it applied
+	 * are restored.
+	 *
+	 * @param change
+	 *            {@link Change} to convert
+	 * @param maxDocuments
+	 *            the maximum number of documents of each chunk, or 0 to convert
+	 *            the change to a single edit
+	 * @param client
+	 *            applies an edit with <code>workspace/applyEdit</code>, and
+	 *            returns whether it was applied
+	 * @return the last chunk, or <code>null</code> if the client failed to
+	 *         apply a chunk
+	 * @throws CoreException
+	 */
+	public static WorkspaceEdit applyInChunks(Change change, int maxDocuments, Predicate<WorkspaceEdit> client) throws CoreException {
+		if (maxDocuments <= 0) {
+			return convertToWorkspaceEditByEdit(change);
+		}
+		ChunkedConversion conversion = new ChunkedConversion(maxDocuments, new ChunkSender(client));
+		return conversion.convert(change) ? conversion.close() : null;
+	}
+
+	/**
+	 * @return an edit restoring the current content of the documents of the
+	 *         given edit once it's applied, with the replaced text of its edits
+	 *         only
+	 */
+	private static WorkspaceEdit getRollback(WorkspaceEdit chunk) throws CoreException {
+		Map<String, IDocument> documents = new HashMap<>();
+		WorkspaceEdit rollback = new WorkspaceEdit();
+		if (chunk.getDocumentChanges() != null) {
+			List<Either<TextDocumentEdit, ResourceOperation>> changes = new ArrayList<>();
+			for (Either<TextDocumentEdit, ResourceOperation> change : chunk.getDocumentChanges()) {
+				String uri = change.getLeft().getTextDocument().getUri();
+				List<org.eclipse.lsp4j.TextEdit> edits = revert(documents, uri, change.getLeft().getEdits());
+				changes.add(Either.forLeft(new TextDocumentEdit(new VersionedTextDocumentIdentifier(uri, null), edits)));
+			}
+			// the edits of a document edit apply to the result of the previous one
+			rollback.setDocumentChanges(new ArrayList<>(Lists.reverse(changes)));
+		}
+		for (Entry<String, List<org.eclipse.lsp4j.TextEdit>> entry : chunk.getChanges().entrySet()) {
+			rollback.getChanges().put(entry.getKey(), revert(documents, entry.getKey(), entry.getValue()));
+		}
+		return rollback;
+	}
+
+	private static List<org.eclipse.lsp4j.TextEdit> revert(Map<String, IDocument> documents, String uri, List<org.eclipse.lsp4j.TextEdit> edits) throws CoreException {
+		IDocument document = documents.get(uri);
+		if (document == null) {
+			document = new Document(JDTUtils.resolveCompilationUnit(uri).getBuffer().getContents());
+			documents.put(uri, document);
+		}
+		try {
+			return apply(document, edits);
+		} catch (BadLocationException e) {
+			throw new CoreException(StatusFactory.newErrorStatus("Invalid edit of " + uri, e));
+		}
+	}
+
+	/**
+	 * Applies text edits to a document.
+	 *
+	 * @return the edits reverting them
+	 */
+	private static List<org.eclipse.lsp4j.TextEdit> apply(IDocument document, List<org.eclipse.lsp4j.TextEdit> edits) throws BadLocationException {
+		int[] offsets = new int[edits.size()];
+		int[] ends = new int[edits.size()];
+		for (int i = 0; i < edits.size(); i++) {
+			Range range = edits.get(i).getRange();
+			offsets[i] = document.getLineOffset(range.getStart().getLine()) + range.getStart().getCharacter();
+			ends[i] = document.getLineOffset(range.getEnd().getLine()) + range.getEnd().getCharacter();
+		}
+		Integer[] order = new Integer[edits.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> offsets[a] != offsets[b] ? Integer.compare(offsets[a], offsets[b]) : Integer.compare(a, b));
+		String[] replaced = new String[edits.size()];
+		for (int i = 0; i < edits.size(); i++) {
+			replaced[i] = document.get(offsets[i], ends[i] - offsets[i]);
+		}
+		// applied from the end, so that the offsets of the other edits don't move
+		for (int i : Lists.reverse(Arrays.asList(order))) {
+			document.replace(offsets[i], ends[i] - offsets[i], edits.get(i).getNewText());
+		}
+		List<org.eclipse.lsp4j.TextEdit> reverted = new ArrayList<>(edits.size());
+		int shift = 0;
+		for (int i : order) {
+			int start = offsets[i] + shift;
+			int end = start + edits.get(i).getNewText().length();
+			reverted.add(new org.eclipse.lsp4j.TextEdit(new Range(getPosition(document, start), getPosition(document, end)), replaced[i]));
+			shift += edits.get(i).getNewText().length() - replaced[i].length();
+		}
+		return reverted;
+	}
+
+	private static Position getPosition(IDocument document, int offset) throws BadLocationException {
+		int line = document.getLineOfOffset(offset);
+		return new Position(line, offset - document.getLineOffset(line));
+	}
+
+	/**
+	 * Sends the chunks of an edit to the client. The rollback of a chunk is
+	 * computed right before it's sent, and kept until the edit is applied.
+	 */
+	private static class ChunkSender {
+		private final Predicate<WorkspaceEdit> client;
+		private final List<WorkspaceEdit> rollbacks = new ArrayList<>();
+
+		ChunkSender(Predicate<WorkspaceEdit> client) {
+			this.client = client;
+		}
+
+		/**
+		 * @return whether the client applied the chunk. If it didn't, the
+		 *         documents of the chunks it applied are restored.
+		 */
+		boolean send(WorkspaceEdit chunk) throws CoreException {
+			WorkspaceEdit rollback = getRollback(chunk);
+			if (client.test(chunk)) {
+				rollbacks.add(rollback);
+				return true;
+			}
+			for (WorkspaceEdit applied : Lists.reverse(rollbacks)) {
+				if (!client.test(applied)) {
+					JavaLanguageServerPlugin.logError("Failed to roll back the edits of a chunk of " + getDocumentCount(applied) + " documents");
+				}
+			}
+			rollbacks.clear();
+			return false;
+		}
+	}
+
+	/**
+	 * Converts the children of a change one at a time into the current chunk,
+	 * which is sent once it's full, or into the last chunk.
+	 */
+	private static class ChunkedConversion {
+		private final int maxDocuments;
+		private final ChunkSender sender;
+		private final Set<String> uris = new HashSet<>();
+		private final WorkspaceEdit last = new WorkspaceEdit();
+		private WorkspaceEdit current = new WorkspaceEdit();
+		private int documents;
+		private boolean pinned;
+
+		ChunkedConversion(int maxDocuments, ChunkSender sender) {
+			this.maxDocuments = maxDocuments;
+			this.sender = sender;
+		}
+
+		/**
+		 * @return <code>false</code> if the client failed to apply a chunk
+		 */
+		boolean convert(Change change) throws CoreException {
+			if (change instanceof CompositeChange) {
+				for (Change child : ((CompositeChange) change).getChildren()) {
+					if (!convert(child)) {
+						return false;
+					}
+				}
+				return true;
+			}
+			ICompilationUnit unit = getCompilationUnit(change);
+			// the changes after a resource operation may apply to the moved documents
+			if (pinned || unit == null || !unit.exists() || !uris.add(JDTUtils.toURI(unit))) {
+				pinned |= !(change instanceof TextChange);
+				convertChangeByEdit(change, last);
+				return true;
+			}
+			convertTextChangeByEdit((TextChange) change, current);
+			if (++documents < maxDocuments) {
+				return true;
+			}
+			WorkspaceEdit chunk = current;
+			current = new WorkspaceEdit();
+			documents = 0;
+			return sender.send(chunk);
+		}
+
+		WorkspaceEdit close() {
+			appendChanges(current, last, false);
+			return current;
+		}
+
+		private static ICompilationUnit getCompilationUnit(Change change) {
+			if (change instanceof TextChange && change.getModifiedElement() instanceof IJavaElement) {
+				return (ICompilationUnit) ((IJavaElement) change.getModifiedElement()).getAncestor(IJavaElement.COMPILATION_UNIT);
+			}
+			return null;
+		}
+	}
 }
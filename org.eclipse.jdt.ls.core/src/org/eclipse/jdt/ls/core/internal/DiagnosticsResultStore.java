@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.lsp4j.Diagnostic;
+
+/**
+ * Keeps the last diagnostics computed for each document, together with the
+ * result id reported to clients using pull diagnostics. The result id of a
+ * document only changes when its diagnostics change.
+ */
+public class DiagnosticsResultStore {
+
+	/**
+	 * Signature of diagnostics computed by reconciling a working copy with all
+	 * the compilation problems.
+	 */
+	public static final String FULL_RECONCILE = "reconcile:full";
+
+	/**
+	 * Signature of diagnostics computed by reconciling a working copy with the
+	 * syntax problems only.
+	 */
+	public static final String SYNTAX_RECONCILE = "reconcile:syntax";
+
+	private final String sessionId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+	private final AtomicLong idSeed = new AtomicLong(0);
+	private final Map<String, DiagnosticsResult> results = new ConcurrentHashMap<>();
+
+	public DiagnosticsResult get(String uri) {
+		return uri == null ? null : results.get(uri);
+	}
+
+	/**
+	 * Stores the diagnostics of the given document.
+	 *
+	 * @param uri
+	 *            the client uri of the document
+	 * @param diagnostics
+	 *            the current diagnostics of the document
+	 * @param signature
+	 *            describes the input the diagnostics were computed from, e.g.
+	 *            the markers of a closed file or the error level of a working
+	 *            copy. Signatures are compared with <code>equals</code>.
+	 * @return the stored result. Its result id is the previous one if the
+	 *         diagnostics didn't change.
+	 */
+	public DiagnosticsResult update(String uri, List<Diagnostic> diagnostics, Object signature) {
+		List<Diagnostic> items = diagnostics == null ? Collections.emptyList() : Collections.unmodifiableList(diagnostics);
+		return results.compute(uri, (key, old) -> {
+			String resultId = (old != null && old.getDiagnostics().equals(items)) ? old.getResultId() : newResultId();
+			return new DiagnosticsResult(resultId, items, signature);
+		});
+	}
+
+	public void remove(String uri) {
+		if (uri != null) {
+			results.remove(uri);
+		}
+	}
+
+	public void clear() {
+		results.clear();
+	}
+
+	private String newResultId() {
+		// prefix with the session, so result ids of a previous server instance are never reused
+		return sessionId + "-" + idSeed.incrementAndGet();
+	}
+
+	public static class DiagnosticsResult {
+		private final String resultId;
+		private final List<Diagnostic> diagnostics;
+		private final Object signature;
+
+		public DiagnosticsResult(String resultId, List<Diagnostic> diagnostics, Object signature) {
+			this.resultId = resultId;
+			this.diagnostics = diagnostics;
+			this.signature = signature;
+		}
+
+		public String getResultId() {
+			return resultId;
+		}
+
+		public List<Diagnostic> getDiagnostics() {
+			return diagnostics;
+		}
+
+		public Object getSignature() {
+			return signature;
+		}
+
+		public boolean isUnchanged(String previousResultId) {
+			return Objects.equals(resultId, previousResultId);
+		}
+	}
+}
@@ -12,14 +12,19 @@
  *******************************************************************************/
 package org.eclipse.jdt.ls.core.internal;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
@@ -33,6 +38,7 @@ import org.eclipse.jdt.core.ILocalVariable;
 import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.ISourceRange;
 import org.eclipse.jdt.core.ITypeParameter;
 import org.eclipse.jdt.core.ITypeRoot;
@@ -56,6 +62,8 @@ import org.eclipse.jface.text.Region;
 import org.eclipse.lsp4j.MarkedString;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.io.CharStreams;
 
 public class HoverInfoProvider {
@@ -79,6 +87,14 @@ public class HoverInfoProvider {
 
 	private static final String LANGUAGE_ID = "java";
 
+	private static final int MAX_CACHED_HOVERS = 500;
+
+	/**
+	 * The rendered hovers, shared across documents. See
+	 * {@link #getCacheKey(IJavaElement)}
+	 */
+	private static final Cache<String, List<Either<String, MarkedString>>> hoverCache = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_HOVERS).build();
+
 	private final ITypeRoot unit;
 
 	private final PreferenceManager preferenceManager;
@@ -122,6 +138,12 @@ public class HoverInfoProvider {
 				return cancelled(res);
 			}
 			if (JDTEnvironmentUtils.isSyntaxServer() || isResolved(curr, monitor)) {
+				String cacheKey = getCacheKey(curr);
+				List<Either<String, MarkedString>> cached = cacheKey == null ? null : hoverCache.getIfPresent(cacheKey);
+				if (cached != null) {
+					res.addAll(cached);
+					return res;
+				}
 				IBuffer buffer = curr.getOpenable().getBuffer();
 				if (buffer == null && curr instanceof BinaryMember) {
 					IClassFile classFile = ((BinaryMember) curr).getClassFile();
@@ -132,7 +154,8 @@ public class HoverInfoProvider {
 						}
 					}
 				}
-				if (monitor.isCanceled()) {
+				// the signature doesn't need the source, so it's still returned when the time budget expired
+				if (monitor.isCanceled() && !CancellableProgressMonitor.isTimedOut(monitor)) {
 					return cancelled(res);
 				}
 				MarkedString signature = computeSignature(curr);
@@ -140,28 +163,119 @@ public class HoverInfoProvider {
 					res.add(Either.forRight(signature));
 				}
 				if (monitor.isCanceled()) {
-					return cancelled(res);
+					return cancelled(res, monitor);
 				}
 				MarkedString javadoc = computeJavadoc(curr);
 				if (javadoc != null && javadoc.getValue() != null && !javadoc.getValue().isBlank()) {
 					res.add(Either.forLeft(javadoc.getValue()));
 				}
+				// the sources may have been discovered
+				cacheKey = getCacheKey(curr);
+				if (cacheKey != null && !monitor.isCanceled()) {
+					hoverCache.put(cacheKey, Collections.unmodifiableList(new ArrayList<>(res)));
+				}
 			}
 		} catch (Exception e) {
 			JavaLanguageServerPlugin.logException("Error computing hover", e);
 		}
 		if (monitor.isCanceled()) {
-			return cancelled(res);
+			return cancelled(res, monitor);
 		}
 		return res;
 	}
 
+	private List<Either<String, MarkedString>> cancelled(List<Either<String, MarkedString>> res, IProgressMonitor monitor) {
+		if (!res.isEmpty() && CancellableProgressMonitor.isTimedOut(monitor)) {
+			JavaLanguageServerPlugin.logInfo("Hover time budget expired, returning a partial hover");
+			return res;
+		}
+		return cancelled(res);
+	}
+
 	private List<Either<String, MarkedString>> cancelled(List<Either<String, MarkedString>> res) {
 		res.clear();
 		res.add(Either.forLeft(""));
 		return res;
 	}
 
+	/**
+	 * Returns the key of the rendered hover of the given element: its handle
+	 * identifier and the stamp of its source. Binary elements use the timestamps
+	 * of their archive and source attachment, and aren't cached until they have
+	 * a source attachment, so that the sources are still discovered. Source
+	 * elements use the modification stamp of their compilation unit, and aren't
+	 * cached while opened as a working copy, since their content changes with
+	 * every keystroke. Methods inheriting their Javadoc aren't cached either,
+	 * since the Javadoc of their super types isn't part of the key.
+	 *
+	 * @param element
+	 *            the hovered element
+	 * @return the cache key, or <code>null</code> if the hover can't be cached
+	 */
+	public static String getCacheKey(IJavaElement element) throws JavaModelException {
+		if (element == null) {
+			return null;
+		}
+		IPackageFragmentRoot root = (IPackageFragmentRoot) element.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+		if (root == null) {
+			return null;
+		}
+		StringBuilder key = new StringBuilder(element.getHandleIdentifier());
+		if (root.getKind() == IPackageFragmentRoot.K_BINARY) {
+			key.append('|').append(getTimestamp(root.getResource(), root.getPath()));
+			IPath sourcePath = root.getSourceAttachmentPath();
+			if (sourcePath == null) {
+				return null;
+			}
+			IResource sourceResource = root.getJavaModel().getWorkspace().getRoot().findMember(sourcePath);
+			key.append('|').append(sourcePath).append('|').append(getTimestamp(sourceResource, sourcePath));
+		} else {
+			ICompilationUnit cu = (ICompilationUnit) element.getAncestor(IJavaElement.COMPILATION_UNIT);
+			if (cu == null || cu.isWorkingCopy() || cu.getResource() == null) {
+				return null;
+			}
+			key.append('|').append(cu.getResource().getModificationStamp());
+		}
+		if (element instanceof IMethod && inheritsJavadoc((IMethod) element)) {
+			return null;
+		}
+		// the default values of annotation members are formatted differently for markdown
+		PreferenceManager preferences = JavaLanguageServerPlugin.getPreferencesManager();
+		key.append('|').append(preferences != null && preferences.getClientPreferences() != null && preferences.getClientPreferences().isSupportsCompletionDocumentationMarkdown());
+		return key.toString();
+	}
+
+	/**
+	 * Returns whether the Javadoc of a method is missing or uses
+	 * <code>{@inheritDoc}</code>, in which case it's taken from the overridden
+	 * methods.
+	 */
+	private static boolean inheritsJavadoc(IMethod method) throws JavaModelException {
+		ISourceRange range = method.getJavadocRange();
+		if (range == null) {
+			return true;
+		}
+		IBuffer buffer = method.getOpenable().getBuffer();
+		if (buffer == null) {
+			return true;
+		}
+		return buffer.getText(range.getOffset(), range.getLength()).contains("{@inheritDoc");
+	}
+
+	private static long getTimestamp(IResource resource, IPath path) {
+		if (resource != null && resource.getLocation() != null) {
+			return resource.getLocation().toFile().lastModified();
+		}
+		return path == null ? 0 : new File(path.toOSString()).lastModified();
+	}
+
+	/**
+	 * Discards the rendered hovers
+	 */
+	public static void clearCache() {
+		hoverCache.invalidateAll();
+	}
+
 	private boolean isResolved(IJavaElement element, IProgressMonitor monitor) throws CoreException {
 		if (!(unit instanceof ICompilationUnit)) {
 			return true;
@@ -47,10 +47,18 @@ public class JDTDelegateCommandHandler implements IDelegateCommandHandler {
 			switch (commandId) {
 				case "java.edit.organizeImports":
 					final OrganizeImportsCommand c = new OrganizeImportsCommand();
-					final Object result = c.organizeImports(arguments);
+					final Object result = c.organizeImports(arguments, monitor);
 					final boolean applyNow = JavaLanguageServerPlugin.getPreferencesManager().getClientPreferences().isWorkspaceApplyEditSupported();
 					if (applyNow) {
-						JavaLanguageServerPlugin.getInstance().getClientConnection().applyWorkspaceEdit((WorkspaceEdit) result);
+						// the edits of a project or folder may be applied in chunks
+						JavaClientConnection connection = JavaLanguageServerPlugin.getInstance().getClientConnection();
+						int maxFiles = JavaLanguageServerPlugin.getPreferencesManager().getPreferences().getOrganizeImportsMaxFilesPerEdit();
+						WorkspaceEdit last = ChangeUtil.applyInChunks((WorkspaceEdit) result, maxFiles, connection::applyWorkspaceEdit);
+						if (last == null) {
+							JavaLanguageServerPlugin.logError("The client failed to apply the organized imports, which were rolled back");
+						} else {
+							connection.applyWorkspaceEdit(last);
+						}
 						// return an empty object to avoid errors on client
 						return new Object();
 					} else {
@@ -82,6 +90,13 @@ public class JDTDelegateCommandHandler implements IDelegateCommandHandler {
 					return ProjectCommand.isTestFile((String) arguments.get(0));
 				case "java.project.getAll":
 					return ProjectCommand.getAllJavaProjects();
+				case "java.server.metrics":
+					// an optional boolean argument resets the metrics once returned
+					ServerMetrics.MetricsReport report = ServerMetrics.getReport();
+					if (arguments != null && !arguments.isEmpty() && Boolean.TRUE.equals(arguments.get(0))) {
+						ServerMetrics.reset();
+					}
+					return report;
 				case "java.project.refreshDiagnostics":
 					return DiagnosticsCommand.refreshDiagnostics((String) arguments.get(0), (String) arguments.get(1), (boolean) arguments.get(2));
 				case "java.project.provideSemanticTokens":
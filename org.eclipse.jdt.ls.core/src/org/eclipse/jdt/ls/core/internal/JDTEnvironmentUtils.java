@@ -12,6 +12,8 @@
  *******************************************************************************/
 package org.eclipse.jdt.ls.core.internal;
 
+import java.io.File;
+
 import org.eclipse.core.runtime.Platform;
 
 import com.google.common.base.Preconditions;
@@ -30,6 +32,32 @@ public class JDTEnvironmentUtils {
 	 */
 	public static final String SOCKET_STREAM_DEBUG = "socket.stream.debug";
 
+	/**
+	 * Environment variable or system property enabling the execution of the
+	 * requests on virtual threads, when the JDK supports them.
+	 */
+	public static final String VIRTUAL_THREADS = "virtual.threads";
+
+	/**
+	 * Environment variable or system property setting the interval, in seconds,
+	 * at which the server metrics are written to the state location.
+	 */
+	public static final String METRICS_DUMP_INTERVAL = "metrics.dump.interval";
+
+	/**
+	 * Environment variable or system property setting the directory of the
+	 * Javadoc extracted from the libraries, shared across workspaces. Defaults to
+	 * <code>~/.cache/jdtls/javadoc</code>.
+	 */
+	public static final String JAVADOC_STORE = "javadoc.store";
+
+	/**
+	 * Environment variable or system property setting the memory budget, in
+	 * megabytes, of the ASTs kept for the recently used documents. Defaults to a
+	 * sixteenth of the maximum heap size, <code>0</code> disables the cache.
+	 */
+	public static final String AST_CACHE_SIZE = "ast.cache.size";
+
 	/**
 	 * Returns with the client port if set. Otherwise, returns with {@code null}.
 	 * Throw an {@link IllegalStateException} if the port is set but it has an
@@ -72,4 +100,52 @@ public class JDTEnvironmentUtils {
 	public static boolean isSyntaxServer() {
 		return Boolean.parseBoolean(Environment.get(SYNTAX_SERVER_ID, "false"));
 	}
+
+	/**
+	 * Returns {@code true} if the {@link JDTEnvironmentUtils#VIRTUAL_THREADS
+	 * virtual.threads} option is set to {@code true}. The requests then run on
+	 * virtual threads if the JDK supports them, and pinned virtual threads are
+	 * logged.
+	 */
+	public static boolean isVirtualThreads() {
+		return Boolean.parseBoolean(Environment.get(VIRTUAL_THREADS, "false"));
+	}
+
+	/**
+	 * Returns the {@link JDTEnvironmentUtils#METRICS_DUMP_INTERVAL
+	 * metrics.dump.interval} option, in seconds, or {@code 0} if the server
+	 * metrics aren't written to the state location.
+	 */
+	public static long getMetricsDumpInterval() {
+		try {
+			return Math.max(0, Long.parseLong(Environment.get(METRICS_DUMP_INTERVAL, "0")));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Returns the {@link JDTEnvironmentUtils#JAVADOC_STORE javadoc.store}
+	 * directory.
+	 */
+	public static File getJavadocStoreLocation() {
+		String location = Environment.get(JAVADOC_STORE);
+		if (location != null && !location.isBlank()) {
+			return new File(location);
+		}
+		return new File(System.getProperty("user.home"), ".cache/jdtls/javadoc");
+	}
+
+	/**
+	 * Returns the {@link JDTEnvironmentUtils#AST_CACHE_SIZE ast.cache.size}
+	 * option, in megabytes.
+	 */
+	public static long getASTCacheSize() {
+		long defaultSize = Runtime.getRuntime().maxMemory() / (16 * 1024 * 1024);
+		try {
+			return Math.max(0, Long.parseLong(Environment.get(AST_CACHE_SIZE, String.valueOf(defaultSize))));
+		} catch (NumberFormatException e) {
+			return defaultSize;
+		}
+	}
 }
@@ -51,7 +51,6 @@ import org.eclipse.jdt.core.CompletionProposal;
 import org.eclipse.jdt.core.Flags;
 import org.eclipse.jdt.core.IAnnotatable;
 import org.eclipse.jdt.core.IAnnotation;
-import org.eclipse.jdt.core.IBuffer;
 import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jdt.core.ICompilationUnit;
@@ -119,6 +118,7 @@ import org.eclipse.jdt.launching.JavaRuntime;
 import org.eclipse.jdt.launching.environments.IExecutionEnvironment;
 import org.eclipse.jdt.launching.environments.IExecutionEnvironmentsManager;
 import org.eclipse.jdt.ls.core.internal.handlers.JsonRpcHelpers;
+import org.eclipse.jdt.ls.core.internal.handlers.LineOffsetIndex;
 import org.eclipse.jdt.ls.core.internal.hover.JavaElementLabelComposer;
 import org.eclipse.jdt.ls.core.internal.hover.JavaElementLabels;
 import org.eclipse.jdt.ls.core.internal.javadoc.JavaElementLinks;
@@ -845,14 +845,30 @@ public final class JDTUtils {
 	 * @throws JavaModelException
 	 */
 	public static Range toRange(IOpenable openable, int offset, int length) throws JavaModelException{
+		if (offset > 0 || length > 0) {
+			return toRange(LineOffsetIndex.get(openable.getBuffer()), offset, length);
+		}
+		return newRange();
+	}
+
+	/**
+	 * Creates a range for the given offset and length for a
+	 * {@link LineOffsetIndex}, so that the ranges of many edits of the same
+	 * text can be computed without looking its index up for each of them.
+	 *
+	 * @param index
+	 * @param offset
+	 * @param length
+	 * @return
+	 */
+	public static Range toRange(LineOffsetIndex index, int offset, int length) {
 		Range range = newRange();
 		if (offset > 0 || length > 0) {
 			int[] loc = null;
 			int[] endLoc = null;
-			IBuffer buffer = openable.getBuffer();
-			if (buffer != null) {
-				loc = JsonRpcHelpers.toLine(buffer, offset);
-				endLoc = JsonRpcHelpers.toLine(buffer, offset + length);
+			if (index != null) {
+				loc = JsonRpcHelpers.toLine(index, offset);
+				endLoc = JsonRpcHelpers.toLine(index, offset + length);
 			}
 			if (loc == null) {
 				loc = new int[2];
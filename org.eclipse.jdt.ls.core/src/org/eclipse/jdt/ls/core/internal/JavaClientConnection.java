@@ -15,6 +15,7 @@ package org.eclipse.jdt.ls.core.internal;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -35,6 +36,7 @@ import org.eclipse.lsp4j.ShowMessageRequestParams;
 import org.eclipse.lsp4j.UnregistrationParams;
 import org.eclipse.lsp4j.WorkspaceEdit;
 import org.eclipse.lsp4j.jsonrpc.services.JsonNotification;
+import org.eclipse.lsp4j.jsonrpc.services.JsonRequest;
 import org.eclipse.lsp4j.services.LanguageClient;
 
 import com.google.common.collect.ImmutableList;
@@ -73,6 +75,14 @@ public class JavaClientConnection {
 		@JsonNotification("language/progressReport")
 		void sendProgressReport(ProgressReport report);
 
+		/**
+		 * The diagnostic refresh request is sent from a server to the client to ask
+		 * the client to pull the diagnostics of the workspace and of the open
+		 * documents again.
+		 */
+		@JsonRequest("workspace/diagnostic/refresh")
+		CompletableFuture<Void> refreshDiagnostics();
+
 	}
 
 	private final LogHandler logHandler;
@@ -186,6 +196,14 @@ public class JavaClientConnection {
 		client.publishDiagnostics(diagnostics);
 	}
 
+	/**
+	 * Asks the client to pull the diagnostics again. Only relevant for clients
+	 * using pull diagnostics.
+	 */
+	public void refreshDiagnostics() {
+		client.refreshDiagnostics();
+	}
+
 
 	/**
 	 * Sends a message to client to apply the given workspace edit.
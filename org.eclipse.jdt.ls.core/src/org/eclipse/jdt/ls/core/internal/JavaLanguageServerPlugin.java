@@ -38,6 +38,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.eclipse.core.internal.net.ProxySelector;
 import org.eclipse.core.net.proxy.IProxyData;
 import org.eclipse.core.net.proxy.IProxyService;
+import org.eclipse.core.resources.IResourceChangeEvent;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.IWorkspaceDescription;
 import org.eclipse.core.resources.IWorkspaceRoot;
@@ -62,17 +63,25 @@ import org.eclipse.jdt.ls.core.internal.JavaClientConnection.JavaLanguageClient;
 import org.eclipse.jdt.ls.core.internal.contentassist.TypeFilter;
 import org.eclipse.jdt.ls.core.internal.corext.template.java.JavaContextType;
 import org.eclipse.jdt.ls.core.internal.corext.template.java.JavaLanguageServerTemplateStore;
+import org.eclipse.jdt.ls.core.internal.corrections.StaticImportResolver;
+import org.eclipse.jdt.ls.core.internal.corrections.TypeNameResolver;
+import org.eclipse.jdt.ls.core.internal.handlers.CallHierarchyCache;
+import org.eclipse.jdt.ls.core.internal.handlers.DocumentResponseCache;
 import org.eclipse.jdt.ls.core.internal.handlers.JDTLanguageServer;
+import org.eclipse.jdt.ls.core.internal.managers.ArtifactIdentificationCache;
 import org.eclipse.jdt.ls.core.internal.managers.ContentProviderManager;
 import org.eclipse.jdt.ls.core.internal.managers.DigestStore;
 import org.eclipse.jdt.ls.core.internal.managers.ISourceDownloader;
 import org.eclipse.jdt.ls.core.internal.managers.MavenSourceDownloader;
 import org.eclipse.jdt.ls.core.internal.managers.ProjectsManager;
 import org.eclipse.jdt.ls.core.internal.managers.StandardProjectsManager;
+import org.eclipse.jdt.ls.core.internal.managers.UpdateClasspathJob;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
 import org.eclipse.jdt.ls.core.internal.preferences.StandardPreferenceManager;
+import org.eclipse.jdt.ls.core.internal.search.text.TrigramIndex;
 import org.eclipse.jdt.ls.core.internal.syntaxserver.SyntaxLanguageServer;
 import org.eclipse.jdt.ls.core.internal.syntaxserver.SyntaxProjectsManager;
+import org.eclipse.jdt.ls.core.internal.text.correction.RefactoringAvailabilityCache;
 import org.eclipse.jface.text.templates.TemplateVariableResolver;
 import org.eclipse.lsp4j.jsonrpc.Launcher;
 import org.eclipse.lsp4j.jsonrpc.MessageConsumer;
@@ -142,6 +151,10 @@ public class JavaLanguageServerPlugin extends Plugin {
 
 	private DiagnosticsState nonProjectDiagnosticsState;
 
+	private DiagnosticsResultStore diagnosticsResultStore;
+
+	private RequestScheduler requestScheduler;
+
 	public static LanguageServer getLanguageServer() {
 		return pluginInstance == null ? null : pluginInstance.languageServer;
 	}
@@ -195,6 +208,17 @@ public class JavaLanguageServerPlugin extends Plugin {
 		}
 		contentProviderManager = new ContentProviderManager(preferenceManager);
 		nonProjectDiagnosticsState = new DiagnosticsState();
+		diagnosticsResultStore = new DiagnosticsResultStore();
+		requestScheduler = new RequestScheduler(JDTEnvironmentUtils.isVirtualThreads());
+		if (requestScheduler.isVirtualThreads()) {
+			logInfo("Requests run on virtual threads");
+			VirtualThreads.startPinningMonitor();
+		} else if (JDTEnvironmentUtils.isVirtualThreads()) {
+			logInfo("Virtual threads are not supported by the JDK " + System.getProperty("java.version"));
+		}
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(ServerMetrics.BUILD_LISTENER, IResourceChangeEvent.PRE_BUILD | IResourceChangeEvent.POST_BUILD);
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(UpdateClasspathJob.PROJECT_LISTENER, IResourceChangeEvent.PRE_CLOSE | IResourceChangeEvent.PRE_DELETE);
+		ServerMetrics.startDump(getStateLocation().append(ServerMetrics.DUMP_FILE).toFile(), JDTEnvironmentUtils.getMetricsDumpInterval());
 		logInfo(getClass() + " is started");
 		configureProxy();
 		// turn off substring code completion if isn't explicitly set
@@ -370,7 +394,8 @@ public class JavaLanguageServerPlugin extends Plugin {
 
 	private void startConnection() throws IOException {
 		Launcher<JavaLanguageClient> launcher;
-		ExecutorService executorService = Executors.newCachedThreadPool();
+		// only runs the message reader, the requests are computed by the request scheduler
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
 		if (JDTEnvironmentUtils.isSyntaxServer()) {
 			protocol = new SyntaxLanguageServer(contentProviderManager, projectsManager, preferenceManager);
 		} else {
@@ -385,7 +410,7 @@ public class JavaLanguageServerPlugin extends Plugin {
 				AsynchronousSocketChannel socketChannel = serverSocket.accept().get();
 				InputStream in = Channels.newInputStream(socketChannel);
 				OutputStream out = Channels.newOutputStream(socketChannel);
-				Function<MessageConsumer, MessageConsumer> messageConsumer = it -> it;
+				Function<MessageConsumer, MessageConsumer> messageConsumer = requestScheduler.wrapMessages(it -> it);
 				launcher = Launcher.createIoLauncher(protocol, JavaLanguageClient.class, in, out, executorService, messageConsumer);
 			} catch (InterruptedException | ExecutionException e) {
 				throw new RuntimeException("Error when opening a socket channel at " + host + ":" + port + ".", e);
@@ -400,6 +425,7 @@ public class JavaLanguageServerPlugin extends Plugin {
 			} else {
 				wrapper = new ParentProcessWatcher(this.languageServer);
 			}
+			wrapper = requestScheduler.wrapMessages(wrapper);
 			launcher = Launcher.createLauncher(protocol, JavaLanguageClient.class, in, out, executorService, wrapper);
 		}
 		protocol.connectClient(launcher.getRemoteProxy());
@@ -419,6 +445,23 @@ public class JavaLanguageServerPlugin extends Plugin {
 		projectsManager = null;
 		contentProviderManager = null;
 		languageServer = null;
+		if (requestScheduler != null) {
+			requestScheduler.shutdown();
+			requestScheduler = null;
+		}
+		VirtualThreads.stopPinningMonitor();
+		TrigramIndex.shutdown();
+		ASTCache.shutdown();
+		TypeHierarchyCache.shutdown();
+		CallHierarchyCache.shutdown();
+		RefactoringAvailabilityCache.shutdown();
+		StaticImportResolver.shutdown();
+		TypeNameResolver.shutdown();
+		DocumentResponseCache.shutdown();
+		ArtifactIdentificationCache.shutdown();
+		ServerMetrics.stopDump();
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(ServerMetrics.BUILD_LISTENER);
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(UpdateClasspathJob.PROJECT_LISTENER);
 	}
 
 	public WorkingCopyOwner getWorkingCopyOwner() {
@@ -433,6 +476,14 @@ public class JavaLanguageServerPlugin extends Plugin {
 		return pluginInstance.nonProjectDiagnosticsState;
 	}
 
+	public static DiagnosticsResultStore getDiagnosticsResultStore() {
+		return pluginInstance.diagnosticsResultStore;
+	}
+
+	public static RequestScheduler getRequestScheduler() {
+		return pluginInstance == null ? null : pluginInstance.requestScheduler;
+	}
+
 	public static void log(IStatus status) {
 		if (context != null) {
 			Platform.getLog(JavaLanguageServerPlugin.context.getBundle()).log(status);
@@ -28,6 +28,7 @@ import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.jobs.IJobManager;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.ls.core.internal.handlers.BaseInitHandler;
+import org.eclipse.jdt.ls.core.internal.managers.MavenSourceDownloader;
 import org.eclipse.m2e.core.internal.embedder.MavenExecutionContext;
 import org.eclipse.m2e.core.internal.jobs.IBackgroundProcessingQueue;
 
@@ -173,6 +174,14 @@ public final class JobHelpers {
 		waitForJobs(DownloadSourcesJobMatcher.INSTANCE, maxTimeMillis);
 	}
 
+	/**
+	 * @return <code>true</code> if the given job is the m2e job downloading and
+	 *         attaching sources
+	 */
+	public static boolean isDownloadSourcesJob(Job job) {
+		return "org.eclipse.m2e.jdt.internal.DownloadSourcesJob".equals(job.getClass().getName());
+	}
+
 	public static void waitForJobs(IJobMatcher matcher, int maxWaitMillis) {
 		final long limit = System.currentTimeMillis() + maxWaitMillis;
 		while(true) {
@@ -264,7 +273,11 @@ public final class JobHelpers {
 
 		@Override
 		public boolean matches(Job job) {
-			return ("org.eclipse.m2e.jdt.internal.DownloadSourcesJob".equals(job.getClass().getName()));
+			// the source discovery job itself waits for the downloads
+			if (job.belongsTo(MavenSourceDownloader.JOB_FAMILY)) {
+				return job != Job.getJobManager().currentJob();
+			}
+			return isDownloadSourcesJob(job);
 		}
 
 	}
@@ -19,18 +19,19 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.codehaus.plexus.util.DirectoryScanner;
+import org.codehaus.plexus.util.SelectorUtils;
 import org.eclipse.buildship.core.internal.configuration.GradleProjectNature;
 import org.eclipse.core.resources.ICommand;
 import org.eclipse.core.resources.IFolder;
@@ -371,34 +372,76 @@ public final class ProjectUtils {
 	}
 
 	public static void updateBinaries(IJavaProject javaProject, Map<Path, IPath> libraries, IProgressMonitor monitor) throws CoreException {
+		updateBinaries(javaProject, libraries, null, monitor);
+	}
+
+	/**
+	 * Updates the library entries of the raw classpath of the given project to
+	 * match the given libraries. Only the removed, added and re-attached
+	 * libraries are changed, the other entries are kept in place, and the
+	 * classpath isn't set if it's unchanged, so it doesn't trigger indexing.
+	 *
+	 * @param javaProject
+	 *            the project
+	 * @param libraries
+	 *            the library binaries, with their source attachment or
+	 *            <code>null</code>
+	 * @param changedArchives
+	 *            the changed library binaries and directories, whose libraries
+	 *            are refreshed if the classpath is unchanged, or
+	 *            <code>null</code> to refresh all the archives of the project
+	 * @param monitor
+	 *            the progress monitor
+	 * @return <code>true</code> if the classpath changed
+	 */
+	public static boolean updateBinaries(IJavaProject javaProject, Map<Path, IPath> libraries, Collection<Path> changedArchives, IProgressMonitor monitor) throws CoreException {
 		if (monitor.isCanceled()) {
-			return;
+			return false;
 		}
 		IClasspathEntry[] rawClasspath = javaProject.getRawClasspath();
-		List<IClasspathEntry> newEntries = Arrays.stream(rawClasspath).filter(cpe -> cpe.getEntryKind() != IClasspathEntry.CPE_LIBRARY).collect(Collectors.toCollection(ArrayList::new));
-		List<IClasspathEntry> libEntries = Arrays.stream(rawClasspath).filter(cpe -> cpe.getEntryKind() == IClasspathEntry.CPE_LIBRARY && cpe.getSourceAttachmentPath() != null && cpe.getSourceAttachmentPath().toFile().exists())
-				.collect(Collectors.toCollection(ArrayList::new));
-
-		for (Map.Entry<Path, IPath> library : libraries.entrySet()) {
+		Map<Path, IPath> added = new LinkedHashMap<>(libraries);
+		List<IClasspathEntry> newEntries = new ArrayList<>(rawClasspath.length + libraries.size());
+		for (IClasspathEntry cpe : rawClasspath) {
+			if (cpe.getEntryKind() != IClasspathEntry.CPE_LIBRARY) {
+				newEntries.add(cpe);
+				continue;
+			}
+			Path binary = cpe.getPath().toFile().toPath();
+			if (!added.containsKey(binary)) {
+				JavaLanguageServerPlugin.logInfo(">> Removing " + binary + " from the classpath");
+				continue;
+			}
+			IPath source = added.remove(binary);
+			IPath attached = cpe.getSourceAttachmentPath();
+			if (source == null && attached != null && attached.toFile().exists()) {
+				// keep the sources attached by other means
+				source = attached;
+			}
+			newEntries.add(Objects.equals(source, attached) ? cpe : JavaCore.newLibraryEntry(cpe.getPath(), source, null));
+		}
+		for (Map.Entry<Path, IPath> library : added.entrySet()) {
 			if (monitor.isCanceled()) {
-				return;
+				return false;
 			}
 			IPath binary = new org.eclipse.core.runtime.Path(library.getKey().toString());
-			IPath source = library.getValue();
-			if (source == null && !libEntries.isEmpty()) {
-				Optional<IClasspathEntry> result = libEntries.stream().filter(cpe -> cpe.getPath().equals(binary)).findAny();
-				source = result.isPresent() ? result.get().getSourceAttachmentPath() : null;
-			}
-			IClasspathEntry newEntry = JavaCore.newLibraryEntry(binary, source, null);
 			JavaLanguageServerPlugin.logInfo(">> Adding " + binary + " to the classpath");
-			newEntries.add(newEntry);
+			newEntries.add(JavaCore.newLibraryEntry(binary, library.getValue(), null));
 		}
 		IClasspathEntry[] newClasspath = newEntries.toArray(new IClasspathEntry[newEntries.size()]);
 		if (!Arrays.equals(rawClasspath, newClasspath)) {
 			javaProject.setRawClasspath(newClasspath, monitor);
+			return true;
+		}
+		if (changedArchives == null) {
+			javaProject.getJavaModel().refreshExternalArchives(new IJavaElement[] { javaProject }, monitor);
 		} else {
-			javaProject.getJavaModel().refreshExternalArchives(new IJavaElement[]{javaProject}, monitor);
+			// a changed directory refreshes the libraries it contains
+			IJavaElement[] roots = libraries.keySet().stream().filter(binary -> changedArchives.stream().anyMatch(binary::startsWith)).map(binary -> javaProject.getPackageFragmentRoot(binary.toString())).toArray(IJavaElement[]::new);
+			if (roots.length > 0) {
+				javaProject.getJavaModel().refreshExternalArchives(roots, monitor);
+			}
 		}
+		return false;
 	}
 
 	public static Set<Path> collectBinaries(IPath projectDir, Set<String> include, Set<String> exclude, IProgressMonitor monitor) throws CoreException {
@@ -441,6 +484,39 @@ public final class ProjectUtils {
 		return binaries;
 	}
 
+	/**
+	 * @return <code>true</code> if the given file is a library binary matching
+	 *         the given include globs and none of the exclude globs, as
+	 *         collected by
+	 *         {@link #collectBinaries(IPath, Set, Set, IProgressMonitor)}
+	 */
+	public static boolean isLibrary(IPath projectDir, Set<String> include, Set<String> exclude, Path file) {
+		if (!isBinary(file)) {
+			return false;
+		}
+		String path = file.toString();
+		return include.stream().anyMatch(glob -> matchPattern(projectDir, glob, path)) && exclude.stream().noneMatch(glob -> matchPattern(projectDir, glob, path));
+	}
+
+	public static boolean matchPattern(IPath base, String pattern, String path) {
+		String glob = resolveGlobPath(base, pattern).toOSString();
+		if (base.getDevice() != null) {
+			return SelectorUtils.matchPath(glob, path, false); // Case insensitive match in Windows
+		} else {
+			return SelectorUtils.matchPath(glob, path); // Case sensitive match in *nix
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the given path is a directory which may
+	 *         contain files matching the given glob, e.g. <code>lib</code> for
+	 *         <code>lib/**&#47;*.jar</code>
+	 */
+	public static boolean matchPatternStart(IPath base, String pattern, String path) {
+		String glob = resolveGlobPath(base, pattern).toOSString();
+		return SelectorUtils.matchPatternStart(glob, path, base.getDevice() == null); // Case insensitive match in Windows
+	}
+
 	public static IPath detectSources(Path file) {
 		String filename = file.getFileName().toString();
 		//better approach would be to (also) resolve sources using Maven central, or anything smarter really
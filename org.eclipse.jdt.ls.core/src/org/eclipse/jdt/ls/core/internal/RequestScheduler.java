@@ -0,0 +1,466 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.ls.core.internal.ServerMetrics.Outcome;
+import org.eclipse.jdt.ls.core.internal.jfr.RequestEvent;
+import org.eclipse.jdt.ls.core.internal.jfr.ServerEvents;
+import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.eclipse.lsp4j.jsonrpc.CompletableFutures;
+import org.eclipse.lsp4j.jsonrpc.MessageConsumer;
+import org.eclipse.lsp4j.jsonrpc.json.StreamMessageConsumer;
+import org.eclipse.lsp4j.jsonrpc.messages.NotificationMessage;
+import org.eclipse.lsp4j.jsonrpc.messages.RequestMessage;
+
+/**
+ * Runs the language server requests on bounded thread pools, one per
+ * {@link Priority}, so that a burst of background requests doesn't delay the
+ * requests the user is waiting for.
+ *
+ * A request of a supersedable method is cancelled when a new request of the
+ * same method is received for the same document, and the same position for
+ * the methods with a position, such as hover.
+ *
+ * When the <code>java.requestTimeouts.enabled</code> preference is set, some
+ * methods have a time budget, counted from the start of their computation, see
+ * {@link #getTimeout(String)}. When it expires, the monitor of the request is
+ * cancelled, and the handler returns what it computed so far, e.g. the
+ * references found before the budget expired. Completion always has a budget,
+ * after which an incomplete list is returned.
+ *
+ * The latency, queue wait time, outcome and result size of every request are
+ * recorded in {@link ServerMetrics}.
+ *
+ * In virtual thread mode, each request runs on a new virtual thread and the
+ * concurrent requests of a priority are limited by a semaphore, which allows
+ * more concurrent requests, since requests blocked on jobs or workspace locks
+ * no longer hold a platform thread.
+ */
+public class RequestScheduler {
+
+	public enum Priority {
+		/**
+		 * Requests the user is waiting for, e.g. completion or hover
+		 */
+		INTERACTIVE,
+		/**
+		 * Requests refreshing the editor decorations, e.g. code lenses or folding
+		 * ranges
+		 */
+		BACKGROUND,
+		/**
+		 * Long running, workspace wide requests
+		 */
+		BULK
+	}
+
+	private static final Map<String, Priority> PRIORITIES = new HashMap<>();
+
+	static {
+		for (String method : Arrays.asList("textDocument/documentSymbol", "textDocument/codeLens", "codeLens/resolve", "textDocument/foldingRange", "textDocument/diagnostic", "workspace/symbol")) {
+			PRIORITIES.put(method, Priority.BACKGROUND);
+		}
+		for (String method : Arrays.asList("workspace/diagnostic", "java/buildWorkspace")) {
+			PRIORITIES.put(method, Priority.BULK);
+		}
+	}
+
+	/**
+	 * The methods for which only the latest request per document is relevant
+	 */
+	private static final Set<String> SUPERSEDABLE = new HashSet<>(Arrays.asList("textDocument/documentSymbol", "textDocument/codeLens", "textDocument/foldingRange", "textDocument/documentHighlight", "textDocument/hover",
+			"textDocument/signatureHelp", "textDocument/selectionRange", "textDocument/diagnostic", "workspace/symbol"));
+
+	private static final String COMPLETION = "textDocument/completion";
+
+	private static final String LEGACY_COMPLETION_TIMEOUT = "completion.timeout";
+
+	/**
+	 * The default time budgets, in milliseconds, of the methods which can be
+	 * cancelled when they take too long
+	 */
+	private static final Map<String, Long> TIMEOUTS = new HashMap<>();
+
+	static {
+		TIMEOUTS.put(COMPLETION, 5000L);
+		TIMEOUTS.put("textDocument/hover", 5000L);
+		TIMEOUTS.put("textDocument/codeAction", 5000L);
+		TIMEOUTS.put("textDocument/documentSymbol", 5000L);
+		TIMEOUTS.put("textDocument/references", 10000L);
+	}
+
+	/**
+	 * How many more concurrent requests are allowed on virtual threads
+	 */
+	private static final int VIRTUAL_THREADS_CONCURRENCY = 4;
+
+	/**
+	 * How often, in milliseconds, a request waiting for a permit checks whether
+	 * it was cancelled
+	 */
+	private static final long PERMIT_POLL_INTERVAL = 50;
+
+	private static final ThreadLocal<RequestMessage> currentRequest = new ThreadLocal<>();
+
+	private final Map<Priority, ExecutorService> executors = new EnumMap<>(Priority.class);
+	/**
+	 * The concurrent requests allowed per priority in virtual thread mode
+	 */
+	private final Map<Priority, Semaphore> permits = new EnumMap<>(Priority.class);
+	private final Map<String, CompletableFuture<?>> supersedable = new ConcurrentHashMap<>();
+	private final boolean virtualThreads;
+
+	public RequestScheduler() {
+		this(false);
+	}
+
+	/**
+	 * @param virtualThreads
+	 *            whether to run the requests on virtual threads. Ignored if the
+	 *            JDK doesn't support virtual threads.
+	 */
+	public RequestScheduler(boolean virtualThreads) {
+		this(Runtime.getRuntime().availableProcessors(), virtualThreads);
+	}
+
+	public RequestScheduler(int processors) {
+		this(processors, false);
+	}
+
+	public RequestScheduler(int processors, boolean virtualThreads) {
+		ExecutorService virtualExecutor = virtualThreads ? VirtualThreads.newVirtualThreadPerTaskExecutor() : null;
+		this.virtualThreads = virtualExecutor != null;
+		Map<Priority, Integer> sizes = new EnumMap<>(Priority.class);
+		sizes.put(Priority.INTERACTIVE, Math.max(2, processors));
+		sizes.put(Priority.BACKGROUND, Math.max(1, processors / 2));
+		sizes.put(Priority.BULK, Math.max(1, processors / 4));
+		sizes.forEach((priority, size) -> {
+			if (virtualExecutor != null) {
+				executors.put(priority, virtualExecutor);
+				permits.put(priority, new Semaphore(VIRTUAL_THREADS_CONCURRENCY * size, true));
+			} else {
+				executors.put(priority, newExecutor(priority, size));
+			}
+		});
+	}
+
+	private static ExecutorService newExecutor(Priority priority, int size) {
+		return newDaemonExecutor("jdtls-" + priority.name().toLowerCase() + "-", size);
+	}
+
+	/**
+	 * Creates a pool of daemon threads with an unbounded queue, see
+	 * {@link #newDaemonExecutor(String, int, BlockingQueue)}.
+	 */
+	public static ThreadPoolExecutor newDaemonExecutor(String prefix, int size) {
+		return newDaemonExecutor(prefix, size, new LinkedBlockingQueue<>());
+	}
+
+	/**
+	 * Creates a pool of daemon threads, which don't prevent the server from
+	 * exiting. The idle threads are released after a minute.
+	 *
+	 * @param prefix
+	 *            the name prefix of the threads, followed by an increasing
+	 *            number, e.g. <code>jdtls-validation-</code>
+	 * @param size
+	 *            the maximum number of threads
+	 * @param queue
+	 *            the queue of the tasks waiting for a thread
+	 * @return the executor
+	 */
+	public static ThreadPoolExecutor newDaemonExecutor(String prefix, int size, BlockingQueue<Runnable> queue) {
+		AtomicInteger count = new AtomicInteger();
+		ThreadFactory threadFactory = runnable -> {
+			Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60L, TimeUnit.SECONDS, queue, threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Wraps the incoming message consumer, so that the request being dispatched
+	 * is known when its handler schedules its computation.
+	 */
+	public Function<MessageConsumer, MessageConsumer> wrapMessages(Function<MessageConsumer, MessageConsumer> wrapper) {
+		return consumer -> {
+			MessageConsumer wrapped = wrapper.apply(consumer);
+			if (consumer instanceof StreamMessageConsumer) {
+				// the launcher also wraps the outgoing messages
+				return wrapped;
+			}
+			return message -> {
+				if (message instanceof NotificationMessage) {
+					// notifications, e.g. document changes, are handled synchronously
+					long start = System.nanoTime();
+					wrapped.consume(message);
+					String method = ((NotificationMessage) message).getMethod();
+					if (method != null && !method.startsWith("$/")) {
+						ServerMetrics.record(method, start, -1);
+					}
+					return;
+				}
+				if (!(message instanceof RequestMessage)) {
+					wrapped.consume(message);
+					return;
+				}
+				RequestMessage previous = currentRequest.get();
+				currentRequest.set((RequestMessage) message);
+				try {
+					wrapped.consume(message);
+				} finally {
+					currentRequest.set(previous);
+				}
+			};
+		};
+	}
+
+	/**
+	 * Computes the result of the request currently dispatched on the executor
+	 * of its priority. Computations scheduled outside of a request run with the
+	 * {@link Priority#INTERACTIVE} priority.
+	 *
+	 * @param code
+	 *            the computation
+	 * @return the future result
+	 */
+	public <R> CompletableFuture<R> computeAsync(Function<CancelChecker, R> code) {
+		RequestMessage request = currentRequest.get();
+		String method = request == null ? null : request.getMethod();
+		long queued = System.nanoTime();
+		AtomicBoolean started = new AtomicBoolean();
+		String uri = ServerEvents.isAvailable() && request != null && request.getParams() != null ? getDocumentUri(request.getParams()) : null;
+		Priority priority = getPriority(method);
+		Semaphore semaphore = permits.get(priority);
+		CompletableFuture<R> result = CompletableFutures.computeAsync(executors.get(priority), cc -> {
+			if (semaphore == null) {
+				started.set(true);
+				return measure(method, uri, queued, code, cc);
+			}
+			acquire(semaphore, cc);
+			try {
+				started.set(true);
+				return measure(method, uri, queued, code, cc);
+			} finally {
+				semaphore.release();
+			}
+		});
+		if (method != null) {
+			result.whenComplete((r, e) -> {
+				if (!started.get() && result.isCancelled()) {
+					// cancelled while queued
+					ServerMetrics.record(method, System.nanoTime() - queued, 0, Outcome.CANCELLED, -1);
+				}
+			});
+		}
+		String key = getSupersedeKey(method, request == null ? null : request.getParams());
+		if (key != null) {
+			CompletableFuture<?> superseded = supersedable.put(key, result);
+			if (superseded != null) {
+				// cancelling a request still in the queue drops it without computing it
+				superseded.cancel(true);
+			}
+			result.whenComplete((r, e) -> supersedable.remove(key, result));
+		}
+		return result;
+	}
+
+	/**
+	 * Waits for a permit of the priority, giving up as soon as the request is
+	 * cancelled, e.g. when it's superseded while waiting.
+	 */
+	private static void acquire(Semaphore semaphore, CancelChecker checker) {
+		try {
+			while (!semaphore.tryAcquire(PERMIT_POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+				checker.checkCanceled();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException();
+		}
+		if (checker.isCanceled()) {
+			semaphore.release();
+			throw new CancellationException();
+		}
+	}
+
+	private static <R> R measure(String method, String uri, long queued, Function<CancelChecker, R> code, CancelChecker checker) {
+		long start = System.nanoTime();
+		RequestEvent event = method != null && ServerEvents.isAvailable() ? RequestEvent.start(method, uri, start - queued) : null;
+		Outcome outcome = Outcome.FAILED;
+		R result = null;
+		try {
+			result = code.apply(checker);
+			outcome = checker.isCanceled() ? Outcome.CANCELLED : Outcome.COMPLETED;
+			return result;
+		} catch (CancellationException | OperationCanceledException e) {
+			outcome = Outcome.CANCELLED;
+			throw e;
+		} finally {
+			int size = ServerMetrics.sizeOf(result);
+			ServerMetrics.record(method, start - queued, System.nanoTime() - start, outcome, size);
+			if (event != null) {
+				event.done(outcome == Outcome.CANCELLED, outcome == Outcome.FAILED, size);
+			}
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the requests run on virtual threads
+	 */
+	public boolean isVirtualThreads() {
+		return virtualThreads;
+	}
+
+	public static Priority getPriority(String method) {
+		Priority priority = method == null ? null : PRIORITIES.get(method);
+		return priority == null ? Priority.INTERACTIVE : priority;
+	}
+
+	/**
+	 * Returns the time budget of a method. The default budget can be changed
+	 * with the <code>&lt;method&gt;.timeout</code> system property, where the
+	 * slashes of the method are replaced by dots, e.g.
+	 * <code>textDocument.hover.timeout</code>. The completion budget can also be
+	 * changed with the former <code>completion.timeout</code> property.
+	 *
+	 * @param method
+	 *            the LSP method
+	 * @return the budget in milliseconds, or <code>0</code> if the method has no
+	 *         budget
+	 */
+	public static long getTimeout(String method) {
+		if (method == null) {
+			return 0;
+		}
+		Long timeout = TIMEOUTS.get(method);
+		long defaultTimeout = timeout == null ? 0 : timeout;
+		if (COMPLETION.equals(method)) {
+			defaultTimeout = Long.getLong(LEGACY_COMPLETION_TIMEOUT, defaultTimeout);
+		}
+		return Math.max(0, Long.getLong(method.replace('/', '.') + ".timeout", defaultTimeout));
+	}
+
+	/**
+	 * Returns the time budget of the request currently dispatched. The budgets
+	 * other than the completion one are only enabled with the
+	 * <code>java.requestTimeouts.enabled</code> preference.
+	 *
+	 * @return the budget in milliseconds, or <code>0</code> if the request has
+	 *         no time budget or if no request is dispatched
+	 */
+	public static long getCurrentTimeout() {
+		RequestMessage request = currentRequest.get();
+		if (request == null || (!COMPLETION.equals(request.getMethod()) && !isTimeoutsEnabled())) {
+			return 0;
+		}
+		return getTimeout(request.getMethod());
+	}
+
+	private static boolean isTimeoutsEnabled() {
+		PreferenceManager preferenceManager = JavaLanguageServerPlugin.getPreferencesManager();
+		return preferenceManager != null && preferenceManager.getPreferences().isRequestTimeoutsEnabled();
+	}
+
+	/**
+	 * Returns the deadline of a computation starting now.
+	 *
+	 * @param timeout
+	 *            the time budget of the computation, see
+	 *            {@link #getCurrentTimeout()}
+	 * @return the deadline in milliseconds, or <code>0</code> for no deadline
+	 */
+	public static long getDeadline(long timeout) {
+		return timeout > 0 ? System.currentTimeMillis() + timeout : 0;
+	}
+
+	static String getSupersedeKey(String method, Object params) {
+		if (method == null || !SUPERSEDABLE.contains(method)) {
+			return null;
+		}
+		if (method.startsWith("workspace/")) {
+			return method;
+		}
+		String uri = params == null ? null : getDocumentUri(params);
+		if (uri == null) {
+			return null;
+		}
+		// a request at a position only supersedes the requests at the same position
+		Position position = getPosition(params);
+		return position == null ? method + "|" + uri : method + "|" + uri + "|" + position.getLine() + ":" + position.getCharacter();
+	}
+
+	private static Position getPosition(Object params) {
+		try {
+			Object position = params.getClass().getMethod("getPosition").invoke(params);
+			return position instanceof Position ? (Position) position : null;
+		} catch (ReflectiveOperationException e) {
+			// no position
+			return null;
+		}
+	}
+
+
+	private static String getDocumentUri(Object params) {
+		try {
+			Object textDocument;
+			try {
+				Method getTextDocument = params.getClass().getMethod("getTextDocument");
+				textDocument = getTextDocument.invoke(params);
+			} catch (NoSuchMethodException e) {
+				// the protocol extensions not defined by lsp4j use public fields
+				textDocument = params.getClass().getField("textDocument").get(params);
+			}
+			if (textDocument instanceof TextDocumentIdentifier) {
+				return ((TextDocumentIdentifier) textDocument).getUri();
+			}
+		} catch (ReflectiveOperationException e) {
+			// no text document
+		}
+		return null;
+	}
+
+	public void shutdown() {
+		new HashSet<>(executors.values()).forEach(ExecutorService::shutdownNow);
+		supersedable.clear();
+	}
+
+}
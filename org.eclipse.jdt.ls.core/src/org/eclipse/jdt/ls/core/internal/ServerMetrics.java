@@ -0,0 +1,379 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.lsp4j.CompletionList;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Latency, queue wait time, cancellation and result size metrics of the
+ * language server requests and background jobs. The requests are recorded by
+ * {@link RequestScheduler} under their LSP method, the background jobs under a
+ * <code>job/</code> prefixed name.
+ *
+ * The metrics are returned by the <code>java.server.metrics</code> command, and
+ * can be periodically written to the state location, see
+ * {@link JDTEnvironmentUtils#getMetricsDumpInterval()}.
+ */
+public final class ServerMetrics {
+
+	public static final String RECONCILE = "job/reconcile";
+	public static final String PUBLISH_DIAGNOSTICS = "job/publishDiagnostics";
+	public static final String IMPORT = "job/import";
+	public static final String UPDATE_PROJECT = "job/updateProject";
+	public static final String BUILD = "job/build";
+	public static final String SOURCE_DOWNLOAD = "job/sourceDownload";
+
+	public static final String DUMP_FILE = "metrics.json";
+
+	public enum Outcome {
+		COMPLETED, CANCELLED, FAILED
+	}
+
+	/**
+	 * The upper bounds, in milliseconds, of the latency histogram buckets. The
+	 * last bucket is unbounded.
+	 */
+	private static final long[] BUCKETS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000 };
+
+	private static final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+
+	private static volatile long startTime = System.currentTimeMillis();
+
+	private static Job dumpJob;
+
+	/**
+	 * Times the workspace builds, whether they are triggered by the client or by
+	 * the auto-build
+	 */
+	public static final IResourceChangeListener BUILD_LISTENER = new IResourceChangeListener() {
+
+		private volatile long buildStart;
+
+		@Override
+		public void resourceChanged(IResourceChangeEvent event) {
+			if (event.getType() == IResourceChangeEvent.PRE_BUILD) {
+				buildStart = System.nanoTime();
+			} else if (event.getType() == IResourceChangeEvent.POST_BUILD && buildStart != 0) {
+				record(BUILD, buildStart, -1);
+				buildStart = 0;
+			}
+		}
+	};
+
+	private ServerMetrics() {
+		//avoid instantiation
+	}
+
+	/**
+	 * Records a completed operation started at the given time.
+	 *
+	 * @param operation
+	 *            the operation name
+	 * @param startNanos
+	 *            the {@link System#nanoTime()} at which the operation started
+	 * @param size
+	 *            the size of the result, or <code>-1</code> if the operation
+	 *            has no sized result
+	 */
+	public static void record(String operation, long startNanos, int size) {
+		record(operation, 0, System.nanoTime() - startNanos, Outcome.COMPLETED, size);
+	}
+
+	/**
+	 * Records a completed operation which took the given time.
+	 *
+	 * @param operation
+	 *            the operation name
+	 * @param elapsedMillis
+	 *            the duration of the operation, in milliseconds
+	 * @param size
+	 *            the size of the result, or <code>-1</code> if the operation
+	 *            has no sized result
+	 */
+	public static void recordMillis(String operation, long elapsedMillis, int size) {
+		record(operation, 0, TimeUnit.MILLISECONDS.toNanos(elapsedMillis), Outcome.COMPLETED, size);
+	}
+
+	/**
+	 * Records an operation.
+	 *
+	 * @param operation
+	 *            the operation name
+	 * @param queueNanos
+	 *            the time the operation waited before it started
+	 * @param durationNanos
+	 *            the time the operation ran
+	 * @param outcome
+	 *            how the operation ended
+	 * @param size
+	 *            the size of the result, or <code>-1</code> if the operation
+	 *            has no sized result
+	 */
+	public static void record(String operation, long queueNanos, long durationNanos, Outcome outcome, int size) {
+		if (operation == null) {
+			return;
+		}
+		operations.computeIfAbsent(operation, k -> new OperationMetrics()).add(queueNanos, durationNanos, outcome, size);
+	}
+
+	/**
+	 * @return the number of items of a request result, or <code>-1</code> if the
+	 *         result isn't a list of items
+	 */
+	public static int sizeOf(Object result) {
+		if (result instanceof Either) {
+			Either<?, ?> either = (Either<?, ?>) result;
+			return sizeOf(either.isLeft() ? either.getLeft() : either.getRight());
+		}
+		if (result instanceof CompletionList) {
+			return sizeOf(((CompletionList) result).getItems());
+		}
+		if (result instanceof Collection) {
+			return ((Collection<?>) result).size();
+		}
+		if (result instanceof Map) {
+			return ((Map<?, ?>) result).size();
+		}
+		if (result != null && result.getClass().isArray()) {
+			return Array.getLength(result);
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the metrics recorded since the server started, or since they were
+	 *         last reset
+	 */
+	public static MetricsReport getReport() {
+		MetricsReport report = new MetricsReport();
+		report.since = startTime;
+		report.uptime = System.currentTimeMillis() - startTime;
+		report.operations = new TreeMap<>();
+		operations.forEach((name, metrics) -> report.operations.put(name, metrics.toReport(report.uptime)));
+		return report;
+	}
+
+	public static void reset() {
+		operations.clear();
+		startTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Periodically writes the metrics report to a file, as JSON.
+	 *
+	 * @param file
+	 *            the file to write
+	 * @param intervalSeconds
+	 *            the interval between 2 writes
+	 */
+	public static synchronized void startDump(File file, long intervalSeconds) {
+		if (dumpJob != null || intervalSeconds <= 0) {
+			return;
+		}
+		long interval = TimeUnit.SECONDS.toMillis(intervalSeconds);
+		dumpJob = new Job("Write server metrics") {
+
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				dump(file);
+				if (!monitor.isCanceled()) {
+					schedule(interval);
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		dumpJob.setSystem(true);
+		dumpJob.schedule(interval);
+	}
+
+	public static synchronized void stopDump() {
+		if (dumpJob != null) {
+			dumpJob.cancel();
+			dumpJob = null;
+		}
+	}
+
+	/**
+	 * Writes the metrics report to a file, as JSON.
+	 */
+	public static void dump(File file) {
+		Gson gson = new GsonBuilder().setPrettyPrinting().create();
+		File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+		try {
+			try (Writer writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+				gson.toJson(getReport(), writer);
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			JavaLanguageServerPlugin.logException("Failed to write the server metrics to " + file, e);
+		}
+	}
+
+	private static final class OperationMetrics {
+		private final LongAdder count = new LongAdder();
+		private final LongAdder cancelled = new LongAdder();
+		private final LongAdder failed = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final AtomicLong maxNanos = new AtomicLong();
+		private final LongAdder totalQueueNanos = new LongAdder();
+		private final AtomicLong maxQueueNanos = new AtomicLong();
+		private final LongAdder sized = new LongAdder();
+		private final LongAdder totalSize = new LongAdder();
+		private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS.length + 1);
+
+		void add(long queueNanos, long durationNanos, Outcome outcome, int size) {
+			count.increment();
+			if (outcome == Outcome.CANCELLED) {
+				cancelled.increment();
+			} else if (outcome == Outcome.FAILED) {
+				failed.increment();
+			}
+			totalNanos.add(durationNanos);
+			maxNanos.accumulateAndGet(durationNanos, Math::max);
+			totalQueueNanos.add(queueNanos);
+			maxQueueNanos.accumulateAndGet(queueNanos, Math::max);
+			if (size >= 0) {
+				sized.increment();
+				totalSize.add(size);
+			}
+			histogram.incrementAndGet(bucketOf(TimeUnit.NANOSECONDS.toMillis(durationNanos)));
+		}
+
+		private static int bucketOf(long millis) {
+			for (int i = 0; i < BUCKETS.length; i++) {
+				if (millis < BUCKETS[i]) {
+					return i;
+				}
+			}
+			return BUCKETS.length;
+		}
+
+		OperationReport toReport(long uptime) {
+			OperationReport report = new OperationReport();
+			report.count = count.sum();
+			report.cancelled = cancelled.sum();
+			report.failed = failed.sum();
+			report.perMinute = uptime > 0 ? report.count * 60000.0 / uptime : 0;
+			report.meanMs = report.count > 0 ? toMillis(totalNanos.sum()) / report.count : 0;
+			report.maxMs = toMillis(maxNanos.get());
+			report.meanQueueMs = report.count > 0 ? toMillis(totalQueueNanos.sum()) / report.count : 0;
+			report.maxQueueMs = toMillis(maxQueueNanos.get());
+			long sizedCount = sized.sum();
+			report.meanSize = sizedCount > 0 ? (double) totalSize.sum() / sizedCount : 0;
+			long[] counts = new long[histogram.length()];
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] = histogram.get(i);
+			}
+			report.histogram = new LinkedHashMap<>();
+			for (int i = 0; i < counts.length; i++) {
+				if (counts[i] > 0) {
+					report.histogram.put(i < BUCKETS.length ? "<" + BUCKETS[i] + "ms" : ">=" + BUCKETS[BUCKETS.length - 1] + "ms", counts[i]);
+				}
+			}
+			report.p50Ms = percentile(counts, 0.5);
+			report.p90Ms = percentile(counts, 0.9);
+			report.p99Ms = percentile(counts, 0.99);
+			return report;
+		}
+
+		/**
+		 * @return the upper bound of the bucket containing the percentile, or
+		 *         <code>-1</code> if it's in the unbounded bucket
+		 */
+		private static long percentile(long[] counts, double percentile) {
+			long total = 0;
+			for (long c : counts) {
+				total += c;
+			}
+			if (total == 0) {
+				return 0;
+			}
+			long rank = (long) Math.ceil(total * percentile);
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank) {
+					return i < BUCKETS.length ? BUCKETS[i] : -1;
+				}
+			}
+			return -1;
+		}
+
+		private static double toMillis(long nanos) {
+			return nanos / 1_000_000.0;
+		}
+	}
+
+	public static class MetricsReport {
+		/**
+		 * the time, in milliseconds since the epoch, since which the metrics are
+		 * recorded
+		 */
+		public long since;
+		/**
+		 * the duration, in milliseconds, during which the metrics were recorded
+		 */
+		public long uptime;
+		public Map<String, OperationReport> operations;
+	}
+
+	public static class OperationReport {
+		public long count;
+		public long cancelled;
+		public long failed;
+		public double perMinute;
+		public double meanMs;
+		public double maxMs;
+		/**
+		 * the approximate percentiles: the upper bound of the histogram bucket
+		 * containing them, or <code>-1</code> if above all bounds
+		 */
+		public long p50Ms;
+		public long p90Ms;
+		public long p99Ms;
+		public double meanQueueMs;
+		public double maxQueueMs;
+		public double meanSize;
+		/**
+		 * the non-empty histogram buckets, by upper bound
+		 */
+		public Map<String, Long> histogram;
+	}
+}
@@ -0,0 +1,385 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.ITypeHierarchyChangedListener;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.internal.corext.util.SuperTypeHierarchyCache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+
+/**
+ * Shares the full type hierarchies, with subtypes, between the type hierarchy,
+ * implementations and rename features, as {@link SuperTypeHierarchyCache} does
+ * for the supertype hierarchies.
+ *
+ * A cached hierarchy is refreshed on its next use once a Java delta affects
+ * it, and it also answers the subtypes of its subtypes. The hierarchies are
+ * stored in the state location with a fingerprint of the classpath they were
+ * computed on, so they're reused by the next sessions while their projects
+ * and libraries are unchanged. The fingerprints of the source folders are
+ * kept until a Java delta affects them.
+ */
+public class TypeHierarchyCache implements ITypeHierarchyChangedListener, IElementChangedListener {
+
+	private static final String DIRECTORY = "type-hierarchies";
+	private static final String FILE_EXTENSION = ".hierarchy";
+
+	/**
+	 * Bumped when the format of the stored hierarchies changes
+	 */
+	private static final int FORMAT_VERSION = 1;
+
+	private static final int MAX_CACHED_HIERARCHIES = 20;
+	private static final int MAX_STORED_HIERARCHIES = 100;
+
+	private static TypeHierarchyCache instance;
+
+	private final File location;
+
+	private final Cache<String, Entry> hierarchies;
+
+	private final Set<ITypeHierarchy> stale = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * The fingerprints of the source folders and projects, by path
+	 */
+	private final Map<IPath, Long> sourceFingerprints = new ConcurrentHashMap<>();
+
+	/**
+	 * @param location
+	 *            the directory of the stored hierarchies, or <code>null</code>
+	 *            if they aren't stored
+	 */
+	public TypeHierarchyCache(File location) {
+		this.location = location;
+		RemovalListener<String, Entry> removalListener = notification -> {
+			ITypeHierarchy hierarchy = notification.getValue().hierarchy;
+			hierarchy.removeTypeHierarchyChangedListener(this);
+			stale.remove(hierarchy);
+		};
+		this.hierarchies = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_HIERARCHIES).removalListener(removalListener).build();
+	}
+
+	public static synchronized TypeHierarchyCache getInstance() {
+		if (instance == null) {
+			JavaLanguageServerPlugin plugin = JavaLanguageServerPlugin.getInstance();
+			instance = new TypeHierarchyCache(plugin == null ? null : plugin.getStateLocation().append(DIRECTORY).toFile());
+			JavaCore.addElementChangedListener(instance, ElementChangedEvent.POST_CHANGE);
+		}
+		return instance;
+	}
+
+	public static synchronized void shutdown() {
+		if (instance != null) {
+			JavaCore.removeElementChangedListener(instance);
+			instance.hierarchies.invalidateAll();
+			instance = null;
+		}
+	}
+
+	/**
+	 * Returns the hierarchy of the given type, with its supertypes and subtypes
+	 * within the given project, or within the workspace.
+	 *
+	 * @param type
+	 *            the type
+	 * @param project
+	 *            the project the subtypes are searched in, or <code>null</code>
+	 *            for the whole workspace
+	 * @param monitor
+	 *            the progress monitor
+	 * @return a hierarchy containing the type and all its subtypes. Its focus
+	 *         may be a supertype of the given type.
+	 */
+	public ITypeHierarchy getTypeHierarchy(IType type, IJavaProject project, IProgressMonitor monitor) throws JavaModelException {
+		String key = getKey(type, project);
+		Entry entry = hierarchies.getIfPresent(key);
+		if (entry == null) {
+			entry = findCovering(type, project);
+		}
+		if (entry != null) {
+			ITypeHierarchy hierarchy = entry.hierarchy;
+			if (stale.remove(hierarchy)) {
+				long fingerprint = getFingerprint(type, project);
+				try {
+					hierarchy.refresh(monitor);
+				} catch (JavaModelException | OperationCanceledException e) {
+					stale.add(hierarchy);
+					throw e;
+				}
+				store(entry.key, fingerprint, hierarchy);
+			}
+			if (hierarchy.exists() && hierarchy.contains(type)) {
+				return hierarchy;
+			}
+			hierarchies.invalidate(entry.key);
+		}
+		long fingerprint = getFingerprint(type, project);
+		ITypeHierarchy hierarchy = load(key, type, fingerprint, monitor);
+		if (hierarchy == null) {
+			hierarchy = project == null ? type.newTypeHierarchy(monitor) : type.newTypeHierarchy(project, monitor);
+			store(key, fingerprint, hierarchy);
+		}
+		hierarchy.addTypeHierarchyChangedListener(this);
+		hierarchies.put(key, new Entry(key, project, hierarchy));
+		return hierarchy;
+	}
+
+	/**
+	 * @return a cached hierarchy within the same scope whose focus is the given
+	 *         type or one of its supertypes
+	 */
+	private Entry findCovering(IType type, IJavaProject project) {
+		for (Entry entry : hierarchies.asMap().values()) {
+			ITypeHierarchy hierarchy = entry.hierarchy;
+			if (stale.contains(hierarchy) || !equals(project, entry.project) || !hierarchy.contains(type)) {
+				continue;
+			}
+			IType focus = hierarchy.getType();
+			if (type.equals(focus) || Arrays.asList(hierarchy.getAllSupertypes(type)).contains(focus)) {
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	private static boolean equals(IJavaProject project, IJavaProject other) {
+		return project == null ? other == null : project.equals(other);
+	}
+
+	@Override
+	public void typeHierarchyChanged(ITypeHierarchy typeHierarchy) {
+		stale.add(typeHierarchy);
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		if (!sourceFingerprints.isEmpty()) {
+			sourcesChanged(event.getDelta());
+		}
+	}
+
+	/**
+	 * Drops the fingerprints of the source folders and projects affected by the
+	 * given delta
+	 */
+	private void sourcesChanged(IJavaElementDelta delta) {
+		IJavaElement element = delta.getElement();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				break;
+			case IJavaElement.JAVA_PROJECT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & (IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED | IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED)) != 0) {
+					sourceFingerprints.clear();
+					return;
+				}
+				sourceFingerprints.remove(element.getPath());
+				break;
+			default:
+				IJavaElement root = element.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+				if (root != null) {
+					sourceFingerprints.remove(root.getPath());
+				}
+				sourceFingerprints.remove(element.getJavaProject().getPath());
+				return;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			sourcesChanged(child);
+		}
+	}
+
+	static String getKey(IType type, IJavaProject project) {
+		return type.getHandleIdentifier() + "|" + (project == null ? "" : project.getHandleIdentifier());
+	}
+
+	/**
+	 * Returns a fingerprint of the classpath the hierarchy of the given type is
+	 * computed on: its source files, libraries and projects. Any change to
+	 * these, while the server is running or not, changes the fingerprint.
+	 */
+	long getFingerprint(IType type, IJavaProject project) throws JavaModelException {
+		IJavaProject[] projects = project == null ? ProjectUtils.getJavaProjects() : new IJavaProject[] { project };
+		long fingerprint = 17;
+		for (IJavaProject javaProject : projects) {
+			fingerprint = 31 * fingerprint + javaProject.getElementName().hashCode();
+			for (IClasspathEntry entry : javaProject.getResolvedClasspath(true)) {
+				fingerprint = 31 * fingerprint + entry.getPath().hashCode();
+				switch (entry.getEntryKind()) {
+					case IClasspathEntry.CPE_LIBRARY:
+						File file = getFile(entry.getPath());
+						fingerprint = 31 * fingerprint + Long.hashCode(file.lastModified() ^ file.length());
+						break;
+					case IClasspathEntry.CPE_SOURCE:
+					case IClasspathEntry.CPE_PROJECT:
+						// the file stamps are only walked again once a delta affected the folder
+						fingerprint = 31 * fingerprint + sourceFingerprints.computeIfAbsent(entry.getPath(), TypeHierarchyCache::getSourceFingerprint);
+						break;
+					default:
+						break;
+				}
+			}
+		}
+		return fingerprint;
+	}
+
+	private static File getFile(IPath path) {
+		IResource resource = ResourcesPlugin.getWorkspace().getRoot().findMember(path);
+		if (resource != null && resource.getLocation() != null) {
+			return resource.getLocation().toFile();
+		}
+		return path.toFile();
+	}
+
+	/**
+	 * @return a fingerprint of the paths and stamps of the Java files of the
+	 *         given folder, read from the resource tree
+	 */
+	private static long getSourceFingerprint(IPath path) {
+		IResource folder = ResourcesPlugin.getWorkspace().getRoot().findMember(path);
+		if (folder == null) {
+			return 0;
+		}
+		long[] fingerprint = new long[1];
+		try {
+			folder.accept(proxy -> {
+				if (proxy.getType() == IResource.FILE) {
+					if (proxy.getName().endsWith(".java")) {
+						// the stamps restart from 0 in a new workspace, unlike the time stamps
+						fingerprint[0] += (proxy.requestFullPath().hashCode() * 31L + proxy.getModificationStamp()) * 31 + proxy.requestResource().getLocalTimeStamp();
+					}
+					return false;
+				}
+				return true;
+			}, IResource.NONE);
+		} catch (CoreException e) {
+			JavaLanguageServerPlugin.logException("Failed to visit " + path, e);
+		}
+		return fingerprint[0];
+	}
+
+	private File getFile(String key) {
+		return new File(location, Integer.toHexString(key.hashCode()) + FILE_EXTENSION);
+	}
+
+	/**
+	 * @return the stored hierarchy of the given type if its fingerprint didn't
+	 *         change, or <code>null</code>
+	 */
+	ITypeHierarchy load(String key, IType type, long fingerprint, IProgressMonitor monitor) {
+		if (location == null) {
+			return null;
+		}
+		File file = getFile(key);
+		if (!file.isFile()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() == FORMAT_VERSION && in.readUTF().equals(key) && in.readLong() == fingerprint) {
+				ITypeHierarchy hierarchy = type.loadTypeHierachy(in, monitor);
+				if (hierarchy != null && hierarchy.exists()) {
+					// the modification time orders the stored hierarchies by use
+					file.setLastModified(System.currentTimeMillis());
+					return hierarchy;
+				}
+			}
+		} catch (IOException | JavaModelException e) {
+			JavaLanguageServerPlugin.logException("Failed to read the stored type hierarchy of " + type.getFullyQualifiedName(), e);
+		}
+		file.delete();
+		return null;
+	}
+
+	void store(String key, long fingerprint, ITypeHierarchy hierarchy) {
+		if (location == null) {
+			return;
+		}
+		try {
+			location.mkdirs();
+			File file = getFile(key);
+			File tmp = File.createTempFile(Integer.toHexString(key.hashCode()), FILE_EXTENSION, location);
+			try {
+				try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+					out.writeInt(FORMAT_VERSION);
+					out.writeUTF(key);
+					out.writeLong(fingerprint);
+					hierarchy.store(out, null);
+				}
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			} finally {
+				tmp.delete();
+			}
+			prune();
+		} catch (IOException | JavaModelException e) {
+			JavaLanguageServerPlugin.logException("Failed to store the type hierarchy of " + hierarchy.getType().getFullyQualifiedName(), e);
+		}
+	}
+
+	/**
+	 * Deletes the least recently used stored hierarchies
+	 */
+	private void prune() {
+		File[] files = location.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+		if (files != null && files.length > MAX_STORED_HIERARCHIES) {
+			Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+			for (int i = 0; i < files.length - MAX_STORED_HIERARCHIES; i++) {
+				files[i].delete();
+			}
+		}
+	}
+
+	private static class Entry {
+		private final String key;
+		private final IJavaProject project;
+		private final ITypeHierarchy hierarchy;
+
+		Entry(String key, IJavaProject project, ITypeHierarchy hierarchy) {
+			this.key = key;
+			this.project = project;
+			this.hierarchy = hierarchy;
+		}
+	}
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Access to the virtual threads of the running JDK. The language server
+ * targets Java 11, so virtual threads are created reflectively and are only
+ * available when running on a JDK supporting them.
+ */
+public final class VirtualThreads {
+
+	/**
+	 * The JFR event emitted when a virtual thread blocks while pinned to its
+	 * carrier thread, e.g. inside a <code>synchronized</code> block
+	 */
+	private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+	private static final Duration PINNED_THRESHOLD = Duration.ofMillis(20);
+
+	private static final AtomicLong pinnedCount = new AtomicLong();
+
+	private static AutoCloseable pinningStream;
+
+	private VirtualThreads() {
+		//avoid instantiation
+	}
+
+	/**
+	 * @return <code>true</code> if the running JDK supports virtual threads
+	 */
+	public static boolean isSupported() {
+		try {
+			Thread.class.getMethod("ofVirtual");
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns an executor starting a new virtual thread for each task, see
+	 * <code>Executors.newVirtualThreadPerTaskExecutor()</code>.
+	 *
+	 * @return the executor, or <code>null</code> if virtual threads are not
+	 *         supported
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Starts logging the virtual threads pinned to their carrier thread for more
+	 * than 20ms, with the stack trace of the pinning frames. Requires JFR event
+	 * streaming.
+	 */
+	public static synchronized void startPinningMonitor() {
+		if (pinningStream != null) {
+			return;
+		}
+		try {
+			Class<?> streamClass = Class.forName("jdk.jfr.consumer.RecordingStream");
+			Object stream = streamClass.getConstructor().newInstance();
+			Object settings = streamClass.getMethod("enable", String.class).invoke(stream, PINNED_EVENT);
+			Class<?> settingsClass = Class.forName("jdk.jfr.EventSettings");
+			settingsClass.getMethod("withThreshold", Duration.class).invoke(settings, PINNED_THRESHOLD);
+			settingsClass.getMethod("withStackTrace").invoke(settings);
+			Consumer<Object> onPinned = event -> {
+				pinnedCount.incrementAndGet();
+				JavaLanguageServerPlugin.logInfo("Virtual thread pinned: " + event);
+			};
+			Method onEvent = streamClass.getMethod("onEvent", String.class, Consumer.class);
+			onEvent.invoke(stream, PINNED_EVENT, onPinned);
+			streamClass.getMethod("startAsync").invoke(stream);
+			pinningStream = (AutoCloseable) stream;
+		} catch (ReflectiveOperationException | LinkageError e) {
+			JavaLanguageServerPlugin.logInfo("Virtual thread pinning events are not available: " + e);
+		}
+	}
+
+	public static synchronized void stopPinningMonitor() {
+		if (pinningStream != null) {
+			try {
+				pinningStream.close();
+			} catch (Exception e) {
+				JavaLanguageServerPlugin.logException("Failed to stop the virtual thread pinning monitor", e);
+			}
+			pinningStream = null;
+		}
+	}
+
+	/**
+	 * @return the number of pinned virtual thread events seen since the monitor
+	 *         was started
+	 */
+	public static long getPinnedCount() {
+		return pinnedCount.get();
+	}
+}
@@ -75,6 +75,10 @@ public class DiagnosticsCommand {
 					}
 				}
 			}, new NullProgressMonitor());
+			if (JavaLanguageServerPlugin.getPreferencesManager().getClientPreferences().isPullDiagnosticsSupported()) {
+				// the new diagnostics are only in the store, let the client pull them
+				connection.refreshDiagnostics();
+			}
 		} catch (CoreException e) {
 			JavaLanguageServerPlugin.logException("Refresh Diagnostics for non-project Java files", e);
 		}
@@ -15,7 +15,13 @@ package org.eclipse.jdt.ls.core.internal.commands;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.core.resources.IProject;
@@ -24,8 +30,12 @@ import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
@@ -34,11 +44,11 @@ import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.CompilationUnit;
-import org.eclipse.jdt.core.manipulation.OrganizeImportsOperation;
 import org.eclipse.jdt.ls.core.internal.ChangeUtil;
 import org.eclipse.jdt.ls.core.internal.IConstants;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.RequestScheduler;
 import org.eclipse.jdt.ls.core.internal.ResourceUtils;
 import org.eclipse.jdt.ls.core.internal.TextEditConverter;
 import org.eclipse.jdt.ls.core.internal.corrections.InnovationContext;
@@ -53,7 +63,13 @@ import org.eclipse.text.edits.TextEdit;
 
 public class OrganizeImportsCommand {
 
+	private static ExecutorService executor;
+
 	public Object organizeImports(List<Object> arguments) throws CoreException {
+		return organizeImports(arguments, new NullProgressMonitor());
+	}
+
+	public Object organizeImports(List<Object> arguments, IProgressMonitor monitor) throws CoreException {
 		WorkspaceEdit edit = new WorkspaceEdit();
 		if (arguments != null && !arguments.isEmpty() && arguments.get(0) instanceof String) {
 			final String fileUri = (String) arguments.get(0);
@@ -71,10 +87,10 @@ public class OrganizeImportsCommand {
 				int type = resource.getType();
 				switch (type) {
 					case IResource.PROJECT:
-						edit = command.organizeImportsInProject(resource.getAdapter(IProject.class));
+						edit = command.organizeImportsInProject(resource.getAdapter(IProject.class), monitor);
 						break;
 					case IResource.FOLDER:
-						edit = command.organizeImportsInDirectory(fileUri, resource.getProject());
+						edit = command.organizeImportsInDirectory(fileUri, resource.getProject(), monitor);
 						break;
 					case IResource.FILE:
 						edit = command.organizeImportsInFile(fileUri);
@@ -96,15 +112,24 @@ public class OrganizeImportsCommand {
 	 * @return
 	 */
 	public WorkspaceEdit organizeImportsInProject(IProject proj) {
+		return organizeImportsInProject(proj, new NullProgressMonitor());
+	}
+
+	/**
+	 * Organize imports when select a project.
+	 *
+	 * @param proj
+	 *            the target project
+	 * @param monitor
+	 *            the progress monitor
+	 * @return
+	 */
+	public WorkspaceEdit organizeImportsInProject(IProject proj, IProgressMonitor monitor) {
 		WorkspaceEdit rootEdit = new WorkspaceEdit();
 		HashSet<IJavaElement> result = new HashSet<>();
 
 		collectCompilationUnits(JavaCore.create(proj), result, null);
-		for (IJavaElement elem : result) {
-			if (elem.getElementType() == IJavaElement.COMPILATION_UNIT) {
-				organizeImportsInCompilationUnit((ICompilationUnit) elem, rootEdit);
-			}
-		}
+		organizeImportsInCompilationUnits(result, rootEdit, monitor);
 		return rootEdit;
 	}
 
@@ -119,6 +144,22 @@ public class OrganizeImportsCommand {
 	 * @throws CoreException
 	 */
 	public WorkspaceEdit organizeImportsInDirectory(String folderUri, IProject proj) throws CoreException {
+		return organizeImportsInDirectory(folderUri, proj, new NullProgressMonitor());
+	}
+
+	/**
+	 * Organize imports underlying a directory
+	 *
+	 * @param folderUri
+	 *            Selected folder URI
+	 * @param proj
+	 *            the folder associated project
+	 * @param monitor
+	 *            the progress monitor
+	 * @return
+	 * @throws CoreException
+	 */
+	public WorkspaceEdit organizeImportsInDirectory(String folderUri, IProject proj, IProgressMonitor monitor) throws CoreException {
 		WorkspaceEdit rootEdit = new WorkspaceEdit();
 		IPackageFragment fragment = null;
 		if (JDTUtils.toURI(folderUri) != null) {
@@ -126,7 +167,7 @@ public class OrganizeImportsCommand {
 		}
 		// Select an individual package
 		if (fragment != null) {
-			organizeImportsInPackageFragment(fragment, rootEdit);
+			organizeImportsInPackageFragment(fragment, rootEdit, monitor);
 		} else if (proj != null) {
 			// Search the packages under the selected folder:
 			IJavaProject javaProject = JavaCore.create(proj);
@@ -141,11 +182,7 @@ public class OrganizeImportsCommand {
 					}
 				}
 			}
-			for (IJavaElement elem : result) {
-				if (elem.getElementType() == IJavaElement.COMPILATION_UNIT) {
-					organizeImportsInCompilationUnit((ICompilationUnit) elem, rootEdit);
-				}
-			}
+			organizeImportsInCompilationUnits(result, rootEdit, monitor);
 		}
 		return rootEdit;
 	}
@@ -164,37 +201,89 @@ public class OrganizeImportsCommand {
 	}
 
 	public void organizeImportsInPackageFragment(IPackageFragment fragment, WorkspaceEdit rootEdit) throws CoreException {
+		organizeImportsInPackageFragment(fragment, rootEdit, new NullProgressMonitor());
+	}
+
+	public void organizeImportsInPackageFragment(IPackageFragment fragment, WorkspaceEdit rootEdit, IProgressMonitor monitor) throws CoreException {
 		HashSet<IJavaElement> result = new HashSet<>();
 		collectCompilationUnits(fragment.getParent(), result, fragment.getElementName());
-		for (IJavaElement elem : result) {
-			if (elem.getElementType() == IJavaElement.COMPILATION_UNIT) {
-				organizeImportsInCompilationUnit((ICompilationUnit) elem, rootEdit);
-			}
-		}
+		organizeImportsInCompilationUnits(result, rootEdit, monitor);
 	}
 
-	public void organizeImportsInCompilationUnit(ICompilationUnit unit, WorkspaceEdit rootEdit) {
+	/**
+	 * Organizes the imports of the given compilation units concurrently, on a
+	 * bounded pool, and adds their edits to the given workspace edit.
+	 *
+	 * @throws OperationCanceledException
+	 *             if the monitor is canceled
+	 */
+	private void organizeImportsInCompilationUnits(Collection<IJavaElement> elements, WorkspaceEdit rootEdit, IProgressMonitor monitor) {
+		SubMonitor progress = SubMonitor.convert(monitor, elements.size());
+		Map<ICompilationUnit, Future<List<org.eclipse.lsp4j.TextEdit>>> futures = new LinkedHashMap<>();
 		try {
-			InnovationContext context = new InnovationContext(unit, 0, unit.getBuffer().getLength() - 1);
-			CUCorrectionProposal proposal = new CUCorrectionProposal("OrganizeImports", CodeActionKind.SourceOrganizeImports, unit, null, IProposalRelevance.ORGANIZE_IMPORTS) {
-				@Override
-				protected void addEdits(IDocument document, TextEdit editRoot) throws CoreException {
-					CompilationUnit astRoot = context.getASTRoot();
-					OrganizeImportsOperation op = new OrganizeImportsOperation(unit, astRoot, true, false, true, null);
-					TextEdit edit = op.createTextEdit(null);
-					TextEdit staticEdit = OrganizeImportsHandler.wrapStaticImports(edit, astRoot, unit);
-					if (staticEdit.getChildrenSize() > 0) {
-						editRoot.addChild(staticEdit);
+			for (IJavaElement elem : elements) {
+				if (elem.getElementType() == IJavaElement.COMPILATION_UNIT) {
+					ICompilationUnit unit = (ICompilationUnit) elem;
+					futures.put(unit, getExecutor().submit(() -> monitor.isCanceled() ? null : organizeImports(unit)));
+				}
+			}
+			for (Entry<ICompilationUnit, Future<List<org.eclipse.lsp4j.TextEdit>>> entry : futures.entrySet()) {
+				if (monitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+				try {
+					List<org.eclipse.lsp4j.TextEdit> edits = entry.getValue().get();
+					if (ChangeUtil.hasChanges(edits)) {
+						rootEdit.getChanges().put(JDTUtils.toURI(entry.getKey()), edits);
 					}
+				} catch (ExecutionException e) {
+					JavaLanguageServerPlugin.logException("Problem organize imports ", e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new OperationCanceledException();
 				}
-			};
+				progress.worked(1);
+			}
+		} finally {
+			futures.values().forEach(future -> future.cancel(false));
+		}
+	}
 
-			addWorkspaceEdit(unit, proposal, rootEdit);
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = RequestScheduler.newDaemonExecutor("jdtls-organize-imports-", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+		}
+		return executor;
+	}
+
+	public void organizeImportsInCompilationUnit(ICompilationUnit unit, WorkspaceEdit rootEdit) {
+		try {
+			List<org.eclipse.lsp4j.TextEdit> edits = organizeImports(unit);
+			if (ChangeUtil.hasChanges(edits)) {
+				rootEdit.getChanges().put(JDTUtils.toURI(unit), edits);
+			}
 		} catch (CoreException e) {
 			JavaLanguageServerPlugin.logException("Problem organize imports ", e);
 		}
 	}
 
+	private List<org.eclipse.lsp4j.TextEdit> organizeImports(ICompilationUnit unit) throws CoreException {
+		InnovationContext context = new InnovationContext(unit, 0, unit.getBuffer().getLength() - 1);
+		CUCorrectionProposal proposal = new CUCorrectionProposal("OrganizeImports", CodeActionKind.SourceOrganizeImports, unit, null, IProposalRelevance.ORGANIZE_IMPORTS) {
+			@Override
+			protected void addEdits(IDocument document, TextEdit editRoot) throws CoreException {
+				CompilationUnit astRoot = context.getASTRoot();
+				TextEdit staticEdit = OrganizeImportsHandler.createOrganizeImportsEdit(unit, astRoot, null, true, null);
+				if (staticEdit.getChildrenSize() > 0) {
+					editRoot.addChild(staticEdit);
+				}
+			}
+		};
+		TextChange textChange = proposal.getTextChange();
+		TextEditConverter converter = new TextEditConverter(unit, textChange.getEdit());
+		return converter.convert();
+	}
+
 	private void collectCompilationUnits(Object element, Collection<IJavaElement> result, String packagePrefix) {
 		try {
 			if (element instanceof IJavaElement) {
@@ -247,14 +336,4 @@ public class OrganizeImportsCommand {
 			}
 		}
 	}
-
-	private void addWorkspaceEdit(ICompilationUnit cu, CUCorrectionProposal proposal, WorkspaceEdit rootEdit) throws CoreException {
-		TextChange textChange = proposal.getTextChange();
-		TextEdit edit = textChange.getEdit();
-		TextEditConverter converter = new TextEditConverter(cu, edit);
-		List<org.eclipse.lsp4j.TextEdit> edits = converter.convert();
-		if (ChangeUtil.hasChanges(edits)) {
-			rootEdit.getChanges().put(JDTUtils.toURI(cu), edits);
-		}
-	}
 }
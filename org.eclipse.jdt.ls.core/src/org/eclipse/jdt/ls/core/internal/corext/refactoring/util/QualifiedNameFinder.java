@@ -15,6 +15,7 @@
  *******************************************************************************/
 package org.eclipse.jdt.ls.core.internal.corext.refactoring.util;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.StringTokenizer;
@@ -28,10 +29,13 @@ import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.internal.corext.refactoring.changes.TextChangeCompatibility;
+import org.eclipse.jdt.ls.core.internal.IConstants;
 import org.eclipse.jdt.ls.core.internal.corext.refactoring.RefactoringCoreMessages;
 import org.eclipse.jdt.ls.core.internal.corext.util.PatternConstructor;
 import org.eclipse.jdt.ls.core.internal.corext.util.QualifiedNameSearchResult;
@@ -39,6 +43,7 @@ import org.eclipse.jdt.ls.core.internal.search.text.TextSearchEngine;
 import org.eclipse.jdt.ls.core.internal.search.text.TextSearchMatchAccess;
 import org.eclipse.jdt.ls.core.internal.search.text.TextSearchRequestor;
 import org.eclipse.jdt.ls.core.internal.search.text.TextSearchScope;
+import org.eclipse.jdt.ls.core.internal.search.text.TrigramIndex;
 import org.eclipse.ltk.core.refactoring.GroupCategory;
 import org.eclipse.ltk.core.refactoring.GroupCategorySet;
 import org.eclipse.ltk.core.refactoring.TextChange;
@@ -68,6 +73,10 @@ public class QualifiedNameFinder {
 
 		@Override
 		public boolean acceptFile(IFile file) throws CoreException {
+			return isTextFile(file);
+		}
+
+		private boolean isTextFile(IFile file) {
 			IJavaElement element= JavaCore.create(file);
 			if ((element != null && element.exists())) {
 				return false;
@@ -144,7 +153,10 @@ public class QualifiedNameFinder {
 		TextSearchEngine engine = TextSearchEngine.createDefault();
 		Pattern searchPattern= PatternConstructor.createPattern(pattern, true, false);
 
-		engine.search(createScope(filePatterns, root), collector, searchPattern, monitor);
+		IFile[] files= createScope(filePatterns, root).evaluateFilesInScope(new MultiStatus(IConstants.PLUGIN_ID, IStatus.OK, "", null)); //$NON-NLS-1$
+		// only the text files which may contain the name are searched
+		IFile[] candidates= TrigramIndex.getInstance().filter(Arrays.stream(files).filter(collector::isTextFile).toArray(IFile[]::new), pattern, monitor);
+		engine.search(candidates, collector, searchPattern, monitor);
 	}
 
 	private static TextSearchScope createScope(String filePatterns, IProject root) {
@@ -14,7 +14,9 @@
  *******************************************************************************/
 package org.eclipse.jdt.ls.core.internal.corrections;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.jdt.core.CompletionProposal;
@@ -31,6 +33,8 @@ import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.Javadoc;
 import org.eclipse.jdt.core.dom.Name;
 import org.eclipse.jdt.core.dom.QualifiedName;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.search.TypeNameMatch;
 import org.eclipse.jdt.internal.corext.dom.ASTNodes;
 import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
 import org.eclipse.jdt.ls.core.internal.contentassist.TypeFilter;
@@ -56,7 +60,7 @@ public class SimilarElementsRequestor extends CompletionRequestor {
 	private HashSet<SimilarElement> fResult;
 	private boolean fExcludeTestCode;
 
-	private static boolean isTestSource(ICompilationUnit cu) {
+	static boolean isTestSource(ICompilationUnit cu) {
 		try {
 			IJavaProject javaProject = cu.getJavaProject();
 			if (javaProject == null) {
@@ -127,6 +131,34 @@ public class SimilarElementsRequestor extends CompletionRequestor {
 		}
 	}
 
+	/**
+	 * Returns the types the given unresolved type name can be imported from,
+	 * resolved together with the other unresolved type names of the AST, or the
+	 * similar elements if there are none. The types with similar names aren't
+	 * searched when the name can be imported, which is what the user most likely
+	 * meant.
+	 */
+	public static SimilarElement[] findSimilarTypes(ICompilationUnit cu, Name name, int kind) throws JavaModelException {
+		if (name.isSimpleName() && name.getRoot() instanceof CompilationUnit && ASTNodes.getParent(name, ASTNode.JAVADOC) == null) {
+			String identifier = ((SimpleName) name).getIdentifier();
+			List<String> names = TypeNameResolver.getUnresolvedTypeNames((CompilationUnit) name.getRoot());
+			if (!names.contains(identifier)) {
+				names.add(identifier);
+			}
+			List<SimilarElement> elements = new ArrayList<>();
+			for (TypeNameMatch match : TypeNameResolver.getInstance().resolve(cu, names, null).get(identifier)) {
+				int typeKind = getKind(match.getModifiers());
+				if ((kind & typeKind) != 0) {
+					elements.add(new SimilarElement(typeKind, match.getFullyQualifiedName(), 0));
+				}
+			}
+			if (!elements.isEmpty()) {
+				return elements.toArray(new SimilarElement[elements.size()]);
+			}
+		}
+		return findSimilarElement(cu, name, kind);
+	}
+
 	private static ICompilationUnit createPreparedCU(ICompilationUnit cu, Javadoc comment, int wordStart) throws JavaModelException {
 		int startpos= comment.getStartPosition();
 		boolean isTopLevel= comment.getParent().getParent() instanceof CompilationUnit;
@@ -215,6 +247,10 @@ public class SimilarElementsRequestor extends CompletionRequestor {
 		if (Signature.getTypeSignatureKind(typeNameSig) == Signature.TYPE_VARIABLE_SIGNATURE) {
 			return VARIABLES;
 		}
+		return getKind(flags);
+	}
+
+	private static final int getKind(int flags) {
 		if (Flags.isAnnotation(flags)) {
 			return ANNOTATIONS;
 		}
@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.corrections;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.Signature;
+import org.eclipse.jdt.internal.corext.util.JdtFlags;
+import org.eclipse.jdt.internal.corext.util.SuperTypeHierarchyCache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Resolves the simple names of static members to the favorite members they
+ * can be imported from, for organize imports and the static import quick fix.
+ *
+ * The static members of the favorite types are collected once per project and
+ * package, so that all the unresolved names of a document are answered
+ * together, rather than with two code completions each. They're kept until a
+ * Java element of the workspace or a classpath changes.
+ */
+public class StaticImportResolver implements IElementChangedListener {
+
+	private static final int MAX_CACHED_SCOPES = 20;
+
+	private static final String ON_DEMAND_SUFFIX = ".*";
+
+	/**
+	 * The flags of the deltas of a compilation unit which don't change its
+	 * members, such as opening or closing its working copy
+	 */
+	private static final int UNCHANGED_MEMBERS_FLAGS = IJavaElementDelta.F_PRIMARY_WORKING_COPY | IJavaElementDelta.F_AST_AFFECTED;
+
+	private static StaticImportResolver instance;
+
+	private final Cache<String, FavoriteMembers> members = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_SCOPES).build();
+
+	public static synchronized StaticImportResolver getInstance() {
+		if (instance == null) {
+			instance = new StaticImportResolver();
+			JavaCore.addElementChangedListener(instance, ElementChangedEvent.POST_CHANGE);
+		}
+		return instance;
+	}
+
+	public static synchronized void shutdown() {
+		if (instance != null) {
+			JavaCore.removeElementChangedListener(instance);
+			instance.invalidate();
+			instance = null;
+		}
+	}
+
+	/**
+	 * Returns the favorite members the given names can be imported from in the
+	 * given compilation unit.
+	 *
+	 * @param cu
+	 *            the compilation unit
+	 * @param names
+	 *            the simple names of the members
+	 * @param isMethod
+	 *            <code>true</code> for the names of methods, <code>false</code>
+	 *            for the names of fields
+	 * @param favorites
+	 *            the favorite types, as <code>pkg.Type.*</code>, and members, as
+	 *            <code>pkg.Type.member</code>
+	 * @return the qualified names of the members, as
+	 *         <code>pkg.Type.member</code>, by simple name. The names without
+	 *         favorite members are left out.
+	 */
+	public Map<String, String[]> resolve(ICompilationUnit cu, Collection<String> names, boolean isMethod, String[] favorites) throws JavaModelException {
+		Map<String, String[]> result = new HashMap<>();
+		if (favorites.length == 0) {
+			return result;
+		}
+		FavoriteMembers favoriteMembers = getFavoriteMembers(cu, favorites);
+		for (String name : names) {
+			Set<String> found = (isMethod ? favoriteMembers.methods : favoriteMembers.fields).get(name);
+			if (found != null) {
+				result.put(name, found.toArray(new String[found.size()]));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the favorite members the given name can be imported from in the
+	 * given compilation unit.
+	 *
+	 * @see #resolve(ICompilationUnit, Collection, boolean, String[])
+	 */
+	public String[] resolve(ICompilationUnit cu, String name, boolean isMethod, String[] favorites) throws JavaModelException {
+		String[] found = resolve(cu, Arrays.asList(name), isMethod, favorites).get(name);
+		return found == null ? new String[0] : found;
+	}
+
+	private FavoriteMembers getFavoriteMembers(ICompilationUnit cu, String[] favorites) throws JavaModelException {
+		IJavaProject project = cu.getJavaProject();
+		// the members visible from the package of the unit
+		String packageName = cu.getParent().getElementName();
+		String key = project.getHandleIdentifier() + "|" + packageName + "|" + String.join(",", favorites);
+		try {
+			return members.get(key, () -> collect(project, packageName, favorites));
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof JavaModelException) {
+				throw (JavaModelException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private static FavoriteMembers collect(IJavaProject project, String packageName, String[] favorites) throws JavaModelException {
+		FavoriteMembers favoriteMembers = new FavoriteMembers();
+		for (String favorite : favorites) {
+			boolean onDemand = favorite.endsWith(ON_DEMAND_SUFFIX);
+			String typeName = onDemand ? favorite.substring(0, favorite.length() - ON_DEMAND_SUFFIX.length()) : Signature.getQualifier(favorite);
+			IType type = typeName.isEmpty() ? null : project.findType(typeName);
+			if (type == null) {
+				continue;
+			}
+			String memberName = onDemand ? null : Signature.getSimpleName(favorite);
+			ITypeHierarchy hierarchy = SuperTypeHierarchyCache.getTypeHierarchy(type);
+			// the static methods of the interfaces aren't inherited, unlike their fields
+			favoriteMembers.addMethods(type, memberName, packageName);
+			for (IType superclass : hierarchy.getAllSuperclasses(type)) {
+				favoriteMembers.addMethods(superclass, memberName, packageName);
+			}
+			favoriteMembers.addFields(type, memberName, packageName);
+			for (IType supertype : hierarchy.getAllSupertypes(type)) {
+				favoriteMembers.addFields(supertype, memberName, packageName);
+			}
+		}
+		return favoriteMembers;
+	}
+
+	/**
+	 * Drops the collected members
+	 */
+	public void invalidate() {
+		members.invalidateAll();
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		if (members.size() > 0 && affectsMembers(event.getDelta())) {
+			invalidate();
+		}
+	}
+
+	private static boolean affectsMembers(IJavaElementDelta delta) {
+		int flags = delta.getFlags();
+		if (delta.getElement().getElementType() >= IJavaElement.COMPILATION_UNIT) {
+			return delta.getKind() != IJavaElementDelta.CHANGED || (flags & ~UNCHANGED_MEMBERS_FLAGS) != 0;
+		}
+		if (delta.getKind() != IJavaElementDelta.CHANGED || (flags & ~IJavaElementDelta.F_CHILDREN) != 0) {
+			return true;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			if (affectsMembers(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the number of projects and packages whose favorite members were
+	 *         collected
+	 */
+	long size() {
+		return members.size();
+	}
+
+	/**
+	 * The static members of the favorites, by simple name
+	 */
+	private static class FavoriteMembers {
+		private final Map<String, Set<String>> methods = new HashMap<>();
+		private final Map<String, Set<String>> fields = new HashMap<>();
+
+		void addMethods(IType type, String memberName, String packageName) throws JavaModelException {
+			for (IMember method : type.getMethods()) {
+				add(methods, method, memberName, packageName);
+			}
+		}
+
+		void addFields(IType type, String memberName, String packageName) throws JavaModelException {
+			for (IMember field : type.getFields()) {
+				add(fields, field, memberName, packageName);
+			}
+		}
+
+		private static void add(Map<String, Set<String>> members, IMember member, String memberName, String packageName) throws JavaModelException {
+			String name = member.getElementName();
+			if ((memberName != null && !memberName.equals(name)) || !JdtFlags.isStatic(member) || !isVisible(member, packageName)) {
+				return;
+			}
+			String qualifiedName = member.getDeclaringType().getFullyQualifiedName('.') + "." + name;
+			members.computeIfAbsent(name, n -> new LinkedHashSet<>()).add(qualifiedName);
+		}
+
+		private static boolean isVisible(IMember member, String packageName) throws JavaModelException {
+			if (JdtFlags.isPublic(member)) {
+				return true;
+			}
+			return !JdtFlags.isPrivate(member) && packageName.equals(member.getDeclaringType().getPackageFragment().getElementName());
+		}
+	}
+}
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.corrections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.IAccessRule;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.manipulation.ImportReferencesCollector;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.TypeNameMatch;
+import org.eclipse.jdt.core.search.TypeNameMatchRequestor;
+import org.eclipse.jdt.ls.core.internal.contentassist.TypeFilter;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Resolves unresolved simple type names to the types they can be imported
+ * from, for organize imports and the unresolved type quick fixes.
+ *
+ * All the names of a document are searched together, in one pass of the
+ * search engine, rather than one at a time. The types of the libraries are
+ * kept by project until its classpath or a library changes, so that only the
+ * source types are searched again.
+ */
+public class TypeNameResolver implements IElementChangedListener {
+
+	private static final int MAX_CACHED_PROJECTS = 20;
+
+	private static final int SOURCES = IJavaSearchScope.SOURCES | IJavaSearchScope.REFERENCED_PROJECTS;
+
+	private static final int LIBRARIES = IJavaSearchScope.APPLICATION_LIBRARIES | IJavaSearchScope.SYSTEM_LIBRARIES | IJavaSearchScope.REFERENCED_PROJECTS;
+
+	/**
+	 * The flags of the deltas of a project or package fragment root which don't
+	 * change the libraries, such as the change of a non-Java resource
+	 */
+	private static final int UNCHANGED_LIBRARIES_FLAGS = IJavaElementDelta.F_CHILDREN | IJavaElementDelta.F_CONTENT;
+
+	private static TypeNameResolver instance;
+
+	private final Cache<String, Map<String, List<TypeNameMatch>>> libraryTypes = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_PROJECTS).build();
+
+	public static synchronized TypeNameResolver getInstance() {
+		if (instance == null) {
+			instance = new TypeNameResolver();
+			JavaCore.addElementChangedListener(instance, ElementChangedEvent.POST_CHANGE);
+		}
+		return instance;
+	}
+
+	public static synchronized void shutdown() {
+		if (instance != null) {
+			JavaCore.removeElementChangedListener(instance);
+			instance.invalidate();
+			instance = null;
+		}
+	}
+
+	/**
+	 * Returns the types the given simple names can be imported from in the given
+	 * compilation unit: the public types of its project with these names, except
+	 * the types of its package or the default package, the filtered types, the
+	 * forbidden or discouraged types, and the test types if the unit isn't a
+	 * test.
+	 *
+	 * @param cu
+	 *            the compilation unit
+	 * @param names
+	 *            the simple names of the types
+	 * @param monitor
+	 *            the progress monitor
+	 * @return the types by simple name. The names without types are mapped to
+	 *         an empty list.
+	 */
+	public Map<String, List<TypeNameMatch>> resolve(ICompilationUnit cu, Collection<String> names, IProgressMonitor monitor) throws JavaModelException {
+		Map<String, List<TypeNameMatch>> result = new HashMap<>();
+		if (names.isEmpty()) {
+			return result;
+		}
+		IJavaProject project = cu.getJavaProject();
+		// the source types change with the edits, so they're always searched
+		Map<String, List<TypeNameMatch>> sources = search(project, SOURCES, names, monitor);
+		Map<String, List<TypeNameMatch>> libraries = getLibraryTypes(project);
+		List<String> missing = names.stream().filter(name -> !libraries.containsKey(name)).distinct().collect(Collectors.toList());
+		if (!missing.isEmpty()) {
+			Map<String, List<TypeNameMatch>> found = search(project, LIBRARIES, missing, monitor);
+			for (String name : missing) {
+				libraries.put(name, found.getOrDefault(name, Collections.emptyList()));
+			}
+		}
+		String packageName = cu.getParent().getElementName();
+		boolean excludeTestCode = !SimilarElementsRequestor.isTestSource(cu);
+		for (String name : names) {
+			List<TypeNameMatch> types = new ArrayList<>();
+			for (List<TypeNameMatch> matches : Arrays.asList(sources.getOrDefault(name, Collections.emptyList()), libraries.get(name))) {
+				for (TypeNameMatch match : matches) {
+					if (isImportable(match, packageName, excludeTestCode)) {
+						types.add(match);
+					}
+				}
+			}
+			result.put(name, types);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the simple names of the unresolved type references of the given
+	 * AST, except the lower case ones, which are rather variables.
+	 */
+	public static List<String> getUnresolvedTypeNames(CompilationUnit astRoot) {
+		List<SimpleName> typeReferences = new ArrayList<>();
+		ImportReferencesCollector.collect(astRoot, astRoot.getJavaElement().getJavaProject(), null, typeReferences, new ArrayList<>());
+		Set<String> names = new LinkedHashSet<>();
+		for (SimpleName reference : typeReferences) {
+			IBinding binding = reference.resolveBinding();
+			String name = reference.getIdentifier();
+			if ((binding == null || (binding instanceof ITypeBinding && ((ITypeBinding) binding).isRecovered())) && Character.isUpperCase(name.charAt(0))) {
+				names.add(name);
+			}
+		}
+		return new ArrayList<>(names);
+	}
+
+	private Map<String, List<TypeNameMatch>> getLibraryTypes(IJavaProject project) {
+		try {
+			return libraryTypes.get(project.getHandleIdentifier(), ConcurrentHashMap::new);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private static Map<String, List<TypeNameMatch>> search(IJavaProject project, int includeMask, Collection<String> names, IProgressMonitor monitor) throws JavaModelException {
+		Map<String, List<TypeNameMatch>> found = new HashMap<>();
+		IJavaSearchScope scope = SearchEngine.createJavaSearchScope(new IJavaElement[] { project }, includeMask);
+		char[][] typeNames = names.stream().map(String::toCharArray).toArray(char[][]::new);
+		TypeNameMatchRequestor requestor = new TypeNameMatchRequestor() {
+			@Override
+			public void acceptTypeNameMatch(TypeNameMatch match) {
+				found.computeIfAbsent(match.getSimpleTypeName(), name -> new ArrayList<>()).add(match);
+			}
+		};
+		new SearchEngine().searchAllTypeNames(null, typeNames, scope, requestor, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
+		return found;
+	}
+
+	private static boolean isImportable(TypeNameMatch match, String packageName, boolean excludeTestCode) {
+		String typePackage = match.getPackageName();
+		if (typePackage.isEmpty() || typePackage.equals(packageName) || !Flags.isPublic(match.getModifiers()) || match.getAccessibility() != IAccessRule.K_ACCESSIBLE || TypeFilter.isFiltered(match)) {
+			return false;
+		}
+		try {
+			return !excludeTestCode || !match.getPackageFragmentRoot().getResolvedClasspathEntry().isTest();
+		} catch (JavaModelException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Drops the types of the libraries
+	 */
+	public void invalidate() {
+		libraryTypes.invalidateAll();
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		if (libraryTypes.size() > 0 && affectsLibraries(event.getDelta())) {
+			invalidate();
+		}
+	}
+
+	private static boolean affectsLibraries(IJavaElementDelta delta) {
+		// the changes of the packages and their units only change the source types
+		if (delta.getElement().getElementType() >= IJavaElement.PACKAGE_FRAGMENT) {
+			return false;
+		}
+		if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & ~UNCHANGED_LIBRARIES_FLAGS) != 0) {
+			return true;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			if (affectsLibraries(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the number of projects whose library types were searched
+	 */
+	long size() {
+		return libraryTypes.size();
+	}
+}
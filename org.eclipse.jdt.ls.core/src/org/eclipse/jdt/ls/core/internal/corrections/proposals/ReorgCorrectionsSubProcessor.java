@@ -32,7 +32,6 @@ import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.Modifier;
 import org.eclipse.jdt.core.dom.SimpleName;
-import org.eclipse.jdt.core.manipulation.OrganizeImportsOperation;
 import org.eclipse.jdt.core.refactoring.CompilationUnitChange;
 import org.eclipse.jdt.internal.core.manipulation.util.BasicElementLabels;
 import org.eclipse.jdt.internal.corext.fix.IProposableFix;
@@ -45,6 +44,7 @@ import org.eclipse.jdt.ls.core.internal.corext.refactoring.changes.MoveCompilati
 import org.eclipse.jdt.ls.core.internal.corext.refactoring.changes.RenameCompilationUnitChange;
 import org.eclipse.jdt.ls.core.internal.corrections.CorrectionMessages;
 import org.eclipse.jdt.ls.core.internal.corrections.IInvocationContext;
+import org.eclipse.jdt.ls.core.internal.handlers.OrganizeImportsHandler;
 import org.eclipse.jdt.ls.core.internal.hover.JavaElementLabels;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.lsp4j.CodeActionKind;
@@ -165,8 +165,7 @@ public class ReorgCorrectionsSubProcessor {
 			@Override
 			protected void addEdits(IDocument document, TextEdit editRoot) throws CoreException {
 				CompilationUnit astRoot = context.getASTRoot();
-				OrganizeImportsOperation op = new OrganizeImportsOperation(cu, astRoot, true, false, true, null);
-				editRoot.addChild(op.createTextEdit(null));
+				editRoot.addChild(OrganizeImportsHandler.createOrganizeImportsEdit(cu, astRoot, null, false, null));
 			}
 		};
 		proposals.add(proposal);
@@ -101,6 +101,7 @@ import org.eclipse.jdt.ls.core.internal.corrections.IInvocationContext;
 import org.eclipse.jdt.ls.core.internal.corrections.NameMatcher;
 import org.eclipse.jdt.ls.core.internal.corrections.SimilarElement;
 import org.eclipse.jdt.ls.core.internal.corrections.SimilarElementsRequestor;
+import org.eclipse.jdt.ls.core.internal.corrections.StaticImportResolver;
 import org.eclipse.jdt.ls.core.internal.corrections.proposals.ChangeMethodSignatureProposal.ChangeDescription;
 import org.eclipse.jdt.ls.core.internal.corrections.proposals.ChangeMethodSignatureProposal.EditDescription;
 import org.eclipse.jdt.ls.core.internal.corrections.proposals.ChangeMethodSignatureProposal.InsertDescription;
@@ -660,7 +661,7 @@ public class UnresolvedElementsSubProcessor {
 
 	private static void addSimilarTypeProposals(int kind, ICompilationUnit cu, Name node, int relevance,
 			Collection<ChangeCorrectionProposal> proposals) throws CoreException {
-		SimilarElement[] elements = SimilarElementsRequestor.findSimilarElement(cu, node, kind);
+		SimilarElement[] elements = SimilarElementsRequestor.findSimilarTypes(cu, node, kind);
 
 		// try to resolve type in context -> highest severity
 		String resolvedTypeName= null;
@@ -985,7 +986,7 @@ public class UnresolvedElementsSubProcessor {
 			AST ast= root.getAST();
 
 			String name= node.getIdentifier();
-			String[] staticImports= SimilarElementsRequestor.getStaticImportFavorites(context.getCompilationUnit(), name, isMethod, favourites);
+			String[] staticImports= StaticImportResolver.getInstance().resolve(context.getCompilationUnit(), name, isMethod, favourites);
 			for (int i= 0; i < staticImports.length; i++) {
 				String curr= staticImports[i];
 
@@ -25,10 +25,12 @@ import org.eclipse.jdt.core.IOpenable;
 import org.eclipse.jdt.core.IProblemRequestor;
 import org.eclipse.jdt.core.compiler.IProblem;
 import org.eclipse.jdt.internal.compiler.problem.DefaultProblem;
+import org.eclipse.jdt.ls.core.internal.DiagnosticsResultStore;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaClientConnection;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.ResourceUtils;
+import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
 import org.eclipse.lsp4j.Diagnostic;
 import org.eclipse.lsp4j.DiagnosticSeverity;
 import org.eclipse.lsp4j.DiagnosticTag;
@@ -125,10 +127,22 @@ public abstract class BaseDiagnosticsHandler implements IProblemRequestor {
 	public void endReporting() {
 		JavaLanguageServerPlugin.logInfo(problems.size() + " problems reported for " + this.uri.substring(this.uri.lastIndexOf('/')));
 		boolean isDiagnosticTagSupported = JavaLanguageServerPlugin.getPreferencesManager().getClientPreferences().isDiagnosticTagSupported();
-		PublishDiagnosticsParams $ = new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), toDiagnosticsArray(this.cu, problems, isDiagnosticTagSupported));
+		List<Diagnostic> diagnostics = toDiagnosticsArray(this.cu, problems, isDiagnosticTagSupported);
+		if (isPullDiagnosticsSupported()) {
+			// the client pulls the diagnostics, see PullDiagnosticsHandler
+			String signature = isSyntaxMode() ? DiagnosticsResultStore.SYNTAX_RECONCILE : DiagnosticsResultStore.FULL_RECONCILE;
+			JavaLanguageServerPlugin.getDiagnosticsResultStore().update(ResourceUtils.toClientUri(uri), diagnostics, signature);
+			return;
+		}
+		PublishDiagnosticsParams $ = new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), diagnostics);
 		this.connection.publishDiagnostics($);
 	}
 
+	private static boolean isPullDiagnosticsSupported() {
+		PreferenceManager preferenceManager = JavaLanguageServerPlugin.getPreferencesManager();
+		return preferenceManager != null && preferenceManager.getClientPreferences() != null && preferenceManager.getClientPreferences().isPullDiagnosticsSupported();
+	}
+
 	@Override
 	public boolean isActive() {
 		return true;
@@ -273,6 +287,10 @@ public abstract class BaseDiagnosticsHandler implements IProblemRequestor {
 	public void clearDiagnostics() {
 		JavaLanguageServerPlugin.logInfo("Clearing problems for " + this.uri.substring(this.uri.lastIndexOf('/')));
 		problems.clear();
+		if (isPullDiagnosticsSupported()) {
+			JavaLanguageServerPlugin.getDiagnosticsResultStore().remove(ResourceUtils.toClientUri(uri));
+			return;
+		}
 		PublishDiagnosticsParams $ = new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), Collections.emptyList());
 		this.connection.publishDiagnostics($);
 	}
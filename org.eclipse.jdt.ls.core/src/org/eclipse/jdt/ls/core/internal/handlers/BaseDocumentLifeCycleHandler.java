@@ -18,7 +18,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
@@ -32,9 +41,11 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.jobs.MultiRule;
 import org.eclipse.jdt.core.IBuffer;
 import org.eclipse.jdt.core.ICompilationUnit;
@@ -48,10 +59,16 @@ import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.manipulation.CoreASTProvider;
 import org.eclipse.jdt.internal.core.OpenableElementInfo;
 import org.eclipse.jdt.internal.core.PackageFragment;
+import org.eclipse.jdt.ls.core.internal.ASTCache;
 import org.eclipse.jdt.ls.core.internal.DocumentAdapter;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.JobHelpers;
+import org.eclipse.jdt.ls.core.internal.RequestScheduler;
+import org.eclipse.jdt.ls.core.internal.ServerMetrics;
+import org.eclipse.jdt.ls.core.internal.jfr.DiagnosticsEvent;
+import org.eclipse.jdt.ls.core.internal.jfr.ReconcileEvent;
+import org.eclipse.jdt.ls.core.internal.jfr.ServerEvents;
 import org.eclipse.jdt.ls.core.internal.managers.ProjectsManager;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
@@ -72,10 +89,27 @@ public abstract class BaseDocumentLifeCycleHandler {
 	public static final String DOCUMENT_LIFE_CYCLE_JOBS = "DocumentLifeCycleJobs";
 	public static final String PUBLISH_DIAGNOSTICS_JOBS = "DocumentLifeCyclePublishDiagnosticsJobs";
 
+	/**
+	 * Validates the open working copies concurrently, shared by the handlers
+	 */
+	private static ExecutorService validationExecutor;
+
+	private static final long VALIDATION_POLL_MILLIS = 50;
+
 	private CoreASTProvider sharedASTProvider;
 	private WorkspaceJob validationTimer;
 	private WorkspaceJob publishDiagnosticsJob;
 	private Set<ICompilationUnit> toReconcile = new HashSet<>();
+	/**
+	 * Guards {@link #toReconcile}. A lock rather than a monitor, so that virtual
+	 * threads waiting for it don't pin their carrier thread.
+	 */
+	private final ReentrantLock toReconcileLock = new ReentrantLock();
+	/**
+	 * The last validation of each unit on the validation pool. It may still run
+	 * after its job is cancelled, until the reconcile checks its monitor.
+	 */
+	private final Map<ICompilationUnit, Future<?>> validations = new ConcurrentHashMap<>();
 
 	public BaseDocumentLifeCycleHandler(boolean delayValidation) {
 		this.sharedASTProvider = CoreASTProvider.getInstance();
@@ -122,16 +156,21 @@ public abstract class BaseDocumentLifeCycleHandler {
 	}
 
 	protected void triggerValidation(ICompilationUnit cu, long delay) throws JavaModelException {
-		synchronized (toReconcile) {
+		Set<ICompilationUnit> units;
+		toReconcileLock.lock();
+		try {
 			toReconcile.add(cu);
+			units = new HashSet<>(toReconcile);
 			if (!cu.equals(sharedASTProvider.getActiveJavaElement())) {
 				sharedASTProvider.disposeAST();
 			}
 			sharedASTProvider.setActiveJavaElement(cu);
+		} finally {
+			toReconcileLock.unlock();
 		}
 		if (validationTimer != null) {
 			validationTimer.cancel();
-			ISchedulingRule rule = getRule(toReconcile);
+			ISchedulingRule rule = getRule(units);
 			if (publishDiagnosticsJob != null) {
 				publishDiagnosticsJob.cancel();
 				publishDiagnosticsJob.setRule(rule);
@@ -159,27 +198,39 @@ public abstract class BaseDocumentLifeCycleHandler {
 		long start = System.currentTimeMillis();
 
 		List<ICompilationUnit> cusToReconcile;
-		synchronized (toReconcile) {
+		toReconcileLock.lock();
+		try {
 			if (toReconcile.isEmpty()) {
 				return Status.OK_STATUS;
 			}
 			cusToReconcile = new ArrayList<>(toReconcile.size());
 			cusToReconcile.addAll(toReconcile);
 			toReconcile.clear();
+		} finally {
+			toReconcileLock.unlock();
 		}
 		if (monitor.isCanceled()) {
 			return Status.CANCEL_STATUS;
 		}
 		// first reconcile all units with content changes
 		SubMonitor progress = SubMonitor.convert(monitor, cusToReconcile.size() + 1);
+		ReconcileEvent event = ServerEvents.isAvailable() ? ReconcileEvent.start() : null;
 		for (ICompilationUnit cu : cusToReconcile) {
 			if (monitor.isCanceled()) {
+				if (event != null) {
+					event.done(cusToReconcile.size(), true);
+				}
 				return Status.CANCEL_STATUS;
 			}
 			cu.makeConsistent(progress);
 			//cu.reconcile(ICompilationUnit.NO_AST, false, null, progress.newChild(1));
 		}
-		JavaLanguageServerPlugin.logInfo("Reconciled " + cusToReconcile.size() + ". Took " + (System.currentTimeMillis() - start) + " ms");
+		if (event != null) {
+			event.done(cusToReconcile.size(), false);
+		}
+		long elapsed = System.currentTimeMillis() - start;
+		ServerMetrics.recordMillis(ServerMetrics.RECONCILE, elapsed, cusToReconcile.size());
+		JavaLanguageServerPlugin.logInfo("Reconciled " + cusToReconcile.size() + ". Took " + elapsed + " ms");
 		if (monitor.isCanceled()) {
 			return Status.CANCEL_STATUS;
 		}
@@ -211,28 +262,124 @@ public abstract class BaseDocumentLifeCycleHandler {
 			return Status.OK_STATUS;
 		}
 		SubMonitor progress = SubMonitor.convert(monitor, toValidate.size() + 1);
-		if (monitor.isCanceled()) {
-			return Status.CANCEL_STATUS;
-		}
-		for (ICompilationUnit rootToValidate : toValidate) {
-			if (monitor.isCanceled()) {
-				return Status.CANCEL_STATUS;
-			}
-			CompilationUnit astRoot = this.sharedASTProvider.getAST(rootToValidate, CoreASTProvider.WAIT_YES, monitor);
+		validations.values().removeIf(Future::isDone);
+		// the focused unit is validated first, to publish its diagnostics as soon as possible
+		IJavaElement active = sharedASTProvider.getActiveJavaElement();
+		if (active instanceof ICompilationUnit && toValidate.contains(active)) {
+			CompilationUnit astRoot = ASTCache.getInstance().getAST((ICompilationUnit) active, CoreASTProvider.WAIT_YES, monitor);
+			awaitValidation((ICompilationUnit) active, monitor);
 			if (monitor.isCanceled()) {
 				return Status.CANCEL_STATUS;
 			}
 			if (astRoot != null) {
 				// report errors, even if there are no problems in the file: The client need to know that they got fixed.
-				ICompilationUnit unit = (ICompilationUnit) astRoot.getTypeRoot();
-				publishDiagnostics(unit, progress.newChild(1));
+				publishDiagnostics((ICompilationUnit) active, progress.newChild(1));
 			}
 		}
-		JavaLanguageServerPlugin.logInfo("Validated " + toValidate.size() + ". Took " + (System.currentTimeMillis() - start) + " ms");
+		// then the units guarded by the rule of this thread are validated here,
+		// and the others concurrently on the validation pool
+		ISchedulingRule currentRule = Job.getJobManager().currentRule();
+		List<ICompilationUnit> guarded = new ArrayList<>();
+		List<Future<?>> futures = new ArrayList<>();
+		// the pooled validations are cancelled with the job, or when it returns
+		IProgressMonitor cancellation = new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return super.isCanceled() || monitor.isCanceled();
+			}
+		};
+		try {
+			for (ICompilationUnit unit : toValidate) {
+				if (unit.equals(active)) {
+					continue;
+				} else if (currentRule != null && unit.getResource() != null && currentRule.isConflicting(unit.getResource())) {
+					guarded.add(unit);
+				} else {
+					// a unit is never reconciled by two validations at once
+					awaitValidation(unit, monitor);
+					if (monitor.isCanceled()) {
+						return Status.CANCEL_STATUS;
+					}
+					Future<?> future = getValidationExecutor().submit(() -> {
+						if (!cancellation.isCanceled() && unit.exists()) {
+							publishDiagnostics(unit, cancellation);
+						}
+						return null;
+					});
+					validations.put(unit, future);
+					futures.add(future);
+				}
+			}
+			for (ICompilationUnit unit : guarded) {
+				awaitValidation(unit, monitor);
+				if (monitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
+				}
+				if (unit.exists()) {
+					publishDiagnostics(unit, progress.newChild(1));
+				}
+			}
+			for (Future<?> future : futures) {
+				if (monitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
+				}
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof OperationCanceledException) {
+						return Status.CANCEL_STATUS;
+					} else if (e.getCause() instanceof JavaModelException) {
+						throw (JavaModelException) e.getCause();
+					}
+					JavaLanguageServerPlugin.logException("Failed to validate a document", e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return Status.CANCEL_STATUS;
+				}
+				progress.worked(1);
+			}
+		} finally {
+			cancellation.setCanceled(true);
+		}
+		long elapsed = System.currentTimeMillis() - start;
+		ServerMetrics.recordMillis(ServerMetrics.PUBLISH_DIAGNOSTICS, elapsed, toValidate.size());
+		JavaLanguageServerPlugin.logInfo("Validated " + toValidate.size() + ". Took " + elapsed + " ms");
 		return Status.OK_STATUS;
 	}
 
-	private void publishDiagnostics(ICompilationUnit unit, IProgressMonitor monitor) throws JavaModelException {
+	/**
+	 * Waits for the previous validation of the unit on the validation pool,
+	 * until the given monitor is cancelled.
+	 */
+	private void awaitValidation(ICompilationUnit unit, IProgressMonitor monitor) {
+		Future<?> previous = validations.get(unit);
+		while (previous != null && !previous.isDone() && !monitor.isCanceled()) {
+			try {
+				previous.get(VALIDATION_POLL_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				// check the cancellation again
+			} catch (ExecutionException | CancellationException e) {
+				// already reported by the previous validation
+				return;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private static synchronized ExecutorService getValidationExecutor() {
+		if (validationExecutor == null) {
+			validationExecutor = RequestScheduler.newDaemonExecutor("jdtls-validation-", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+		}
+		return validationExecutor;
+	}
+
+	/**
+	 * Reconciles the given unit and reports its problems to the diagnostics
+	 * handler created by {@link #createDiagnosticsHandler(ICompilationUnit)}.
+	 */
+	public void publishDiagnostics(ICompilationUnit unit, IProgressMonitor monitor) throws JavaModelException {
 		final BaseDiagnosticsHandler handler = createDiagnosticsHandler(unit);
 		WorkingCopyOwner wcOwner = new WorkingCopyOwner() {
 
@@ -261,7 +408,11 @@ public abstract class BaseDocumentLifeCycleHandler {
 
 		};
 		int flags = ICompilationUnit.FORCE_PROBLEM_DETECTION | ICompilationUnit.ENABLE_BINDINGS_RECOVERY | ICompilationUnit.ENABLE_STATEMENTS_RECOVERY;
+		DiagnosticsEvent event = ServerEvents.isAvailable() ? DiagnosticsEvent.start(JDTUtils.toURI(unit)) : null;
 		unit.reconcile(ICompilationUnit.NO_AST, flags, wcOwner, monitor);
+		if (event != null) {
+			event.done(handler.problems.size());
+		}
 	}
 
 	public void didClose(DidCloseTextDocumentParams params) {
@@ -377,6 +528,8 @@ public abstract class BaseDocumentLifeCycleHandler {
 			if (unit.equals(sharedASTProvider.getActiveJavaElement())) {
 				sharedASTProvider.disposeAST();
 			}
+			// the bindings of the other ASTs may depend on the changed document
+			ASTCache.getInstance().invalidate();
 			List<TextDocumentContentChangeEvent> contentChanges = params.getContentChanges();
 			for (TextDocumentContentChangeEvent changeEvent : contentChanges) {
 
@@ -421,8 +574,11 @@ public abstract class BaseDocumentLifeCycleHandler {
 			return unit;
 		}
 		try {
-			synchronized (toReconcile) {
+			toReconcileLock.lock();
+			try {
 				toReconcile.remove(unit);
+			} finally {
+				toReconcileLock.unlock();
 			}
 			if (isSyntaxMode(unit) || !unit.exists() || unit.getResource().isDerived()) {
 				createDiagnosticsHandler(unit).clearDiagnostics();
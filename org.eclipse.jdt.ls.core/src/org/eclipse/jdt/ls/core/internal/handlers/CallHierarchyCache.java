@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchyCore;
+import org.eclipse.jdt.internal.corext.callhierarchy.MethodWrapper;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.RequestScheduler;
+
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps the calls found by the call hierarchy until a Java element changes,
+ * so that expanding a member again, from the same or another hierarchy,
+ * doesn't search its calls again.
+ *
+ * Once the incoming calls of a member are found, the incoming calls of its
+ * first callers are searched concurrently in the background, while the client
+ * shows them, so that expanding the next level is answered from the cache. The
+ * searches ahead are cancelled when a new call hierarchy is prepared.
+ *
+ * The calls of a member are searched from its own root, so they don't depend
+ * on the path by which the member was reached.
+ */
+public class CallHierarchyCache implements IElementChangedListener {
+
+	/**
+	 * The maximum number of callers whose calls are searched ahead, per
+	 * expanded member
+	 */
+	private static final int MAX_PREFETCHED_CALLERS = 8;
+
+	/**
+	 * The maximum number of searches ahead waiting for a thread. The others are
+	 * dropped, and searched when requested.
+	 */
+	private static final int MAX_QUEUED_PREFETCHES = 32;
+
+	/**
+	 * The maximum number of members whose calls are kept, per direction
+	 */
+	private static final int MAX_NODES = 2000;
+
+	/**
+	 * The flags of the deltas of a compilation unit which don't change its
+	 * calls, such as opening or closing its working copy
+	 */
+	private static final int UNCHANGED_CALLS_FLAGS = IJavaElementDelta.F_PRIMARY_WORKING_COPY | IJavaElementDelta.F_AST_AFFECTED;
+
+	private static CallHierarchyCache instance;
+
+	private final ThreadPoolExecutor executor;
+
+	private volatile State state = new State();
+
+	/**
+	 * Cancels the searches ahead, when the cache is invalidated or a new call
+	 * hierarchy is prepared
+	 */
+	private volatile NullProgressMonitor prefetchMonitor = new NullProgressMonitor();
+
+	public CallHierarchyCache() {
+		this.executor = RequestScheduler.newDaemonExecutor("jdtls-call-hierarchy-", Math.max(1, Runtime.getRuntime().availableProcessors() / 2), new ArrayBlockingQueue<>(MAX_QUEUED_PREFETCHES));
+		this.executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+	}
+
+	public static synchronized CallHierarchyCache getInstance() {
+		if (instance == null) {
+			instance = new CallHierarchyCache();
+			JavaCore.addElementChangedListener(instance, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+		}
+		return instance;
+	}
+
+	public static synchronized void shutdown() {
+		if (instance != null) {
+			JavaCore.removeElementChangedListener(instance);
+			instance.invalidate();
+			instance.executor.shutdownNow();
+			instance = null;
+		}
+	}
+
+	/**
+	 * Returns the calls of the given member, from the cache if they were
+	 * already found, and searches the incoming calls of the callers ahead.
+	 *
+	 * @param member
+	 *            the member
+	 * @param incoming
+	 *            <code>true</code> for the callers of the member,
+	 *            <code>false</code> for the members it calls
+	 * @param monitor
+	 *            the progress monitor
+	 * @return the calls, or <code>null</code> if the member has no call
+	 *         hierarchy
+	 */
+	public MethodWrapper[] getCalls(IMember member, boolean incoming, IProgressMonitor monitor) {
+		Map<IMember, Node> nodes = state.getNodes(incoming);
+		Node node = getNode(nodes, member, incoming);
+		if (node == null) {
+			return null;
+		}
+		MethodWrapper[] calls = node.getCalls(monitor);
+		if (calls == null || !incoming) {
+			return calls;
+		}
+		IProgressMonitor prefetch = prefetchMonitor;
+		int prefetched = 0;
+		for (MethodWrapper call : calls) {
+			if (prefetched >= MAX_PREFETCHED_CALLERS) {
+				break;
+			}
+			IMember caller = call.getMember();
+			// the calls are children of the member's own root, so a recursive
+			// call is a call of the member by itself, whatever the client's path
+			if (caller == null || call.isRecursive()) {
+				continue;
+			}
+			Node child = nodes.get(caller);
+			if (child == null || !child.isSearched()) {
+				prefetched++;
+				executor.execute(() -> {
+					Node callerNode = getNode(nodes, caller, true);
+					if (callerNode != null) {
+						callerNode.prefetch(prefetch);
+					}
+				});
+			}
+		}
+		return calls;
+	}
+
+	private static Node getNode(Map<IMember, Node> nodes, IMember member, boolean incoming) {
+		Node node = nodes.get(member);
+		if (node == null) {
+			MethodWrapper wrapper = getCallRoot(member, incoming);
+			if (wrapper == null) {
+				return null;
+			}
+			node = nodes.computeIfAbsent(member, m -> new Node(wrapper));
+		}
+		return node;
+	}
+
+	private static MethodWrapper getCallRoot(IMember member, boolean incoming) {
+		IMember[] members = { member };
+		CallHierarchyCore callHierarchy = CallHierarchyCore.getDefault();
+		MethodWrapper[] roots = incoming ? callHierarchy.getCallerRoots(members) : callHierarchy.getCalleeRoots(members);
+		return roots == null || roots.length < 1 ? null : roots[0];
+	}
+
+	/**
+	 * Drops the found calls and cancels the searches in progress
+	 */
+	public void invalidate() {
+		state = new State();
+		cancelPrefetches();
+	}
+
+	/**
+	 * Cancels the searches ahead, e.g. when the client prepares a new call
+	 * hierarchy. The calls already found are kept.
+	 */
+	public void cancelPrefetches() {
+		NullProgressMonitor previous = prefetchMonitor;
+		prefetchMonitor = new NullProgressMonitor();
+		previous.setCanceled(true);
+		executor.getQueue().clear();
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		if (!state.isEmpty() && affectsCalls(event.getDelta())) {
+			invalidate();
+		}
+	}
+
+	private static boolean affectsCalls(IJavaElementDelta delta) {
+		int flags = delta.getFlags();
+		if (delta.getElement().getElementType() >= IJavaElement.COMPILATION_UNIT) {
+			return delta.getKind() != IJavaElementDelta.CHANGED || (flags & ~UNCHANGED_CALLS_FLAGS) != 0;
+		}
+		if (delta.getKind() != IJavaElementDelta.CHANGED || (flags & ~IJavaElementDelta.F_CHILDREN) != 0) {
+			return true;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			if (affectsCalls(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return <code>true</code> if the calls of the given member were found
+	 */
+	boolean hasCalls(IMember member, boolean incoming) {
+		Node node = state.getNodes(incoming).get(member);
+		return node != null && node.hasCalls();
+	}
+
+	/**
+	 * @return the monitor of the current searches ahead
+	 */
+	IProgressMonitor getPrefetchMonitor() {
+		return prefetchMonitor;
+	}
+
+	private static class State {
+		private final Map<IMember, Node> incoming = newNodes();
+		private final Map<IMember, Node> outgoing = newNodes();
+
+		private static Map<IMember, Node> newNodes() {
+			return CacheBuilder.newBuilder().maximumSize(MAX_NODES).<IMember, Node>build().asMap();
+		}
+
+		Map<IMember, Node> getNodes(boolean isIncoming) {
+			return isIncoming ? incoming : outgoing;
+		}
+
+		boolean isEmpty() {
+			return incoming.isEmpty() && outgoing.isEmpty();
+		}
+	}
+
+	/**
+	 * A member of the hierarchy, whose calls are searched once, by a request
+	 * or ahead of it
+	 */
+	private static class Node {
+		private final MethodWrapper wrapper;
+		private final AtomicReference<CompletableFuture<MethodWrapper[]>> calls = new AtomicReference<>();
+
+		Node(MethodWrapper wrapper) {
+			this.wrapper = wrapper;
+		}
+
+		boolean isSearched() {
+			return calls.get() != null;
+		}
+
+		boolean hasCalls() {
+			CompletableFuture<MethodWrapper[]> future = calls.get();
+			return future != null && future.isDone() && !future.isCompletedExceptionally();
+		}
+
+		void prefetch(IProgressMonitor monitor) {
+			if (monitor.isCanceled()) {
+				return;
+			}
+			CompletableFuture<MethodWrapper[]> future = new CompletableFuture<>();
+			if (calls.compareAndSet(null, future)) {
+				try {
+					search(future, monitor);
+				} catch (OperationCanceledException e) {
+					// searched again when requested
+				} catch (RuntimeException e) {
+					JavaLanguageServerPlugin.logException("Failed to search the calls of " + wrapper.getName(), e);
+				}
+			}
+		}
+
+		/**
+		 * Returns the calls, searched by the current thread, or by the search in
+		 * progress. If that search fails, the calls are searched again.
+		 */
+		MethodWrapper[] getCalls(IProgressMonitor monitor) {
+			while (true) {
+				CompletableFuture<MethodWrapper[]> future = calls.get();
+				if (future == null) {
+					future = new CompletableFuture<>();
+					if (calls.compareAndSet(null, future)) {
+						return search(future, monitor);
+					}
+					continue;
+				}
+				try {
+					return future.get(100, TimeUnit.MILLISECONDS);
+				} catch (TimeoutException e) {
+					if (monitor != null && monitor.isCanceled()) {
+						throw new OperationCanceledException();
+					}
+				} catch (ExecutionException e) {
+					// the failed search was reset
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new OperationCanceledException();
+				}
+			}
+		}
+
+		private MethodWrapper[] search(CompletableFuture<MethodWrapper[]> future, IProgressMonitor monitor) {
+			try {
+				MethodWrapper[] result = wrapper.getCalls(monitor);
+				future.complete(result);
+				return result;
+			} catch (RuntimeException e) {
+				calls.set(null);
+				future.completeExceptionally(e);
+				throw e;
+			}
+		}
+	}
+}
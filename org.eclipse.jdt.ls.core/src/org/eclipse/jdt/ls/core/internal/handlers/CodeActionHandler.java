@@ -20,7 +20,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -35,10 +41,13 @@ import org.eclipse.jdt.core.formatter.DefaultCodeFormatterConstants;
 import org.eclipse.jdt.core.manipulation.CoreASTProvider;
 import org.eclipse.jdt.internal.ui.text.correction.IProblemLocationCore;
 import org.eclipse.jdt.internal.ui.text.correction.ProblemLocationCore;
+import org.eclipse.jdt.ls.core.internal.ASTCache;
+import org.eclipse.jdt.ls.core.internal.CancellableProgressMonitor;
 import org.eclipse.jdt.ls.core.internal.ChangeUtil;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaCodeActionKind;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.RequestScheduler;
 import org.eclipse.jdt.ls.core.internal.corrections.DiagnosticsHelper;
 import org.eclipse.jdt.ls.core.internal.corrections.InnovationContext;
 import org.eclipse.jdt.ls.core.internal.corrections.QuickFixProcessor;
@@ -67,6 +76,10 @@ public class CodeActionHandler {
 		= new ResponseStore<>(ForkJoinPool.commonPool().getParallelism());
 	public static final String COMMAND_ID_APPLY_EDIT = "java.apply.workspaceEdit";
 
+	private static final long PROCESSOR_POLL_MILLIS = 20;
+
+	private static ExecutorService processorExecutor;
+
 	private QuickFixProcessor quickFixProcessor;
 	private RefactorProcessor refactorProcessor;
 	private QuickAssistProcessor quickAssistProcessor;
@@ -150,50 +163,114 @@ public class CodeActionHandler {
 			codeActionKinds.addAll(defaultCodeActionKinds);
 		}
 
-		List<Either<Command, CodeAction>> codeActions = new ArrayList<>();
-		List<ChangeCorrectionProposal> proposals = new ArrayList<>();
-		ChangeCorrectionProposalComparator comparator = new ChangeCorrectionProposalComparator();
+		// the processors only read the shared AST, so they're evaluated concurrently
+		List<Future<List<Either<Command, CodeAction>>>> results = new ArrayList<>();
 		if (containsKind(codeActionKinds, CodeActionKind.QuickFix)) {
-			try {
-				codeActions.addAll(nonProjectFixProcessor.getCorrections(params, context, locations));
-				List<ChangeCorrectionProposal> quickfixProposals = this.quickFixProcessor.getCorrections(context, locations);
-				quickfixProposals.sort(comparator);
-				proposals.addAll(quickfixProposals);
-			} catch (CoreException e) {
-				JavaLanguageServerPlugin.logException("Problem resolving quick fix code actions", e);
-			}
+			results.add(submit(() -> nonProjectFixProcessor.getCorrections(params, context, locations), "Problem resolving non project quick fix code actions", monitor));
+			results.add(submit(() -> toCodeActions(quickFixProcessor.getCorrections(context, locations), params.getContext()), "Problem resolving quick fix code actions", monitor));
 		}
-		if (monitor.isCanceled()) {
-			return Collections.emptyList();
+		if (containsKind(codeActionKinds, CodeActionKind.Refactor)) {
+			results.add(submit(() -> toCodeActions(refactorProcessor.getProposals(params, context, locations), params.getContext()), "Problem resolving refactor code actions", monitor));
+		}
+		if (containsKind(codeActionKinds, JavaCodeActionKind.QUICK_ASSIST)) {
+			results.add(submit(() -> toCodeActions(quickAssistProcessor.getAssists(params, context, locations), params.getContext()), "Problem resolving quick assist code actions", monitor));
+		}
+		Future<List<Either<Command, CodeAction>>> sourceActions = null;
+		if (containsKind(codeActionKinds, CodeActionKind.Source)) {
+			sourceActions = submit(() -> sourceAssistProcessor.getSourceActionCommands(params, context, locations, monitor), "Problem resolving source code actions", monitor);
 		}
 
-		if (containsKind(codeActionKinds, CodeActionKind.Refactor)) {
-			try {
-				List<ChangeCorrectionProposal> refactorProposals = this.refactorProcessor.getProposals(params, context, locations);
-				refactorProposals.sort(comparator);
-				proposals.addAll(refactorProposals);
-			} catch (CoreException e) {
-				JavaLanguageServerPlugin.logException("Problem resolving refactor code actions", e);
+		List<Either<Command, CodeAction>> codeActions = new ArrayList<>();
+		try {
+			for (Future<List<Either<Command, CodeAction>>> result : results) {
+				for (Either<Command, CodeAction> codeAction : getResult(result, monitor)) {
+					if (!codeActions.contains(codeAction)) {
+						codeActions.add(codeAction);
+					}
+				}
+			}
+			if (sourceActions != null) {
+				codeActions.addAll(getResult(sourceActions, monitor));
+			}
+		} finally {
+			results.forEach(result -> result.cancel(false));
+			if (sourceActions != null) {
+				sourceActions.cancel(false);
 			}
 		}
-		if (monitor.isCanceled()) {
+		if (isAborted(monitor)) {
 			return Collections.emptyList();
 		}
-		if (containsKind(codeActionKinds, JavaCodeActionKind.QUICK_ASSIST)) {
+
+		if (CancellableProgressMonitor.isTimedOut(monitor)) {
+			JavaLanguageServerPlugin.logInfo("Code actions time budget expired, returning " + codeActions.size() + " code actions");
+		}
+		populateDataFields(codeActions);
+		return codeActions;
+	}
+
+	/**
+	 * Evaluates the given processor in the background, unless the request is
+	 * cancelled first.
+	 */
+	private static Future<List<Either<Command, CodeAction>>> submit(Callable<List<Either<Command, CodeAction>>> processor, String errorMessage, IProgressMonitor monitor) {
+		return getProcessorExecutor().submit(() -> {
+			if (monitor.isCanceled()) {
+				return Collections.<Either<Command, CodeAction>>emptyList();
+			}
 			try {
-				List<ChangeCorrectionProposal> quickassistProposals = this.quickAssistProcessor.getAssists(params, context, locations);
-				quickassistProposals.sort(comparator);
-				proposals.addAll(quickassistProposals);
+				return processor.call();
 			} catch (CoreException e) {
-				JavaLanguageServerPlugin.logException("Problem resolving quick assist code actions", e);
+				JavaLanguageServerPlugin.logException(errorMessage, e);
+				return Collections.<Either<Command, CodeAction>>emptyList();
+			}
+		});
+	}
+
+	/**
+	 * Waits for the code actions of a processor, until the request is
+	 * cancelled or its time budget expires.
+	 */
+	private static List<Either<Command, CodeAction>> getResult(Future<List<Either<Command, CodeAction>>> result, IProgressMonitor monitor) {
+		while (true) {
+			try {
+				return result.get(PROCESSOR_POLL_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				if (monitor.isCanceled()) {
+					break;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				JavaLanguageServerPlugin.logException("Problem resolving code actions", e.getCause());
+				break;
 			}
 		}
-		if (monitor.isCanceled()) {
-			return Collections.emptyList();
+		return Collections.emptyList();
+	}
+
+	private static synchronized ExecutorService getProcessorExecutor() {
+		if (processorExecutor == null) {
+			processorExecutor = RequestScheduler.newDaemonExecutor("jdtls-code-action-", Math.max(2, Runtime.getRuntime().availableProcessors()));
 		}
+		return processorExecutor;
+	}
+
+	/**
+	 * Converts the proposals of a processor, ordered by kind and relevance, to
+	 * code actions. Their edits are computed only if the client can't resolve
+	 * them later.
+	 */
+	private List<Either<Command, CodeAction>> toCodeActions(List<ChangeCorrectionProposal> proposals, CodeActionContext context) {
+		proposals.sort(new ChangeCorrectionProposalComparator());
+		List<Either<Command, CodeAction>> codeActions = new ArrayList<>();
 		try {
 			for (ChangeCorrectionProposal proposal : proposals) {
-				Optional<Either<Command, CodeAction>> codeActionFromProposal = getCodeActionFromProposal(proposal, params.getContext());
+				Optional<Either<Command, CodeAction>> codeActionFromProposal = getCodeActionFromProposal(proposal, context);
 				if (codeActionFromProposal.isPresent() && !codeActions.contains(codeActionFromProposal.get())) {
 					codeActions.add(codeActionFromProposal.get());
 				}
@@ -201,20 +278,18 @@ public class CodeActionHandler {
 		} catch (CoreException e) {
 			JavaLanguageServerPlugin.logException("Problem converting proposal to code actions", e);
 		}
-		if (monitor.isCanceled()) {
-			return Collections.emptyList();
-		}
-		if (containsKind(codeActionKinds, CodeActionKind.Source)) {
-			codeActions.addAll(sourceAssistProcessor.getSourceActionCommands(params, context, locations, monitor));
-		}
-		if (monitor.isCanceled()) {
-			return Collections.emptyList();
-		}
-
-		populateDataFields(codeActions);
 		return codeActions;
 	}
 
+	/**
+	 * @return <code>true</code> if the request was cancelled, rather than its time
+	 *         budget expired. An expired budget returns the code actions computed
+	 *         so far.
+	 */
+	private boolean isAborted(IProgressMonitor monitor) {
+		return monitor.isCanceled() && !CancellableProgressMonitor.isTimedOut(monitor);
+	}
+
 	private void populateDataFields(List<Either<Command, CodeAction>> codeActions) {
 		ResponseStore.ResponseItem<Either<ChangeCorrectionProposal, CodeActionProposal>> response = codeActionStore.createResponse();
 		List<Either<ChangeCorrectionProposal, CodeActionProposal>> proposals = new ArrayList<>();
@@ -318,7 +393,7 @@ public class CodeActionHandler {
 	}
 
 	public static CompilationUnit getASTRoot(ICompilationUnit unit, IProgressMonitor monitor) {
-		return CoreASTProvider.getInstance().getAST(unit, CoreASTProvider.WAIT_YES, monitor);
+		return ASTCache.getInstance().getAST(unit, CoreASTProvider.WAIT_YES, monitor);
 	}
 
 	private static class ChangeCorrectionProposalComparator implements Comparator<ChangeCorrectionProposal> {
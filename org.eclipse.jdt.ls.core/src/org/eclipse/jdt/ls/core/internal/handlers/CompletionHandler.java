@@ -22,12 +22,12 @@ import java.util.Set;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
-import org.eclipse.core.runtime.ProgressMonitorWrapper;
 import org.eclipse.jdt.core.CompletionProposal;
 import org.eclipse.jdt.core.IBuffer;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.internal.core.DefaultWorkingCopyOwner;
+import org.eclipse.jdt.ls.core.internal.CancellableProgressMonitor;
 import org.eclipse.jdt.ls.core.internal.JDTEnvironmentUtils;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
@@ -107,6 +107,7 @@ public class CompletionHandler{
 			return null;
 		}
 		List<CompletionItem> proposals = new ArrayList<>();
+		boolean timedOut = false;
 
 		final int offset = JsonRpcHelpers.toOffset(unit.getBuffer(), line, column);
 		CompletionProposalRequestor collector = new CompletionProposalRequestor(unit, offset, manager);
@@ -130,40 +131,36 @@ public class CompletionHandler{
 		if (offset >-1 && !monitor.isCanceled()) {
 			IBuffer buffer = unit.getBuffer();
 			if (buffer != null && buffer.getLength() >= offset) {
-				IProgressMonitor subMonitor = new ProgressMonitorWrapper(monitor) {
-					private long timeLimit;
-					private final long TIMEOUT = Long.getLong("completion.timeout", 5000);
-
-					@Override
-					public void beginTask(String name, int totalWork) {
-						timeLimit = System.currentTimeMillis() + TIMEOUT;
-					}
-
-					@Override
-					public boolean isCanceled() {
-						return super.isCanceled() || timeLimit <= System.currentTimeMillis();
-					}
-
-				};
+				// the time budget is the deadline of the request monitor, see RequestScheduler
+				boolean collected = false;
 				try {
 					if (isIndexEngineEnabled()) {
-						unit.codeComplete(offset, collector, subMonitor);
+						unit.codeComplete(offset, collector, monitor);
 					} else {
-						ModelBasedCompletionEngine.codeComplete(unit, offset, collector, DefaultWorkingCopyOwner.PRIMARY, subMonitor);
+						ModelBasedCompletionEngine.codeComplete(unit, offset, collector, DefaultWorkingCopyOwner.PRIMARY, monitor);
 					}
 					proposals.addAll(collector.getCompletionItems());
+					collected = true;
 					if (isSnippetStringSupported() && !UNSUPPORTED_RESOURCES.contains(unit.getResource().getName())) {
-						proposals.addAll(SnippetCompletionProposal.getSnippets(unit, collector.getContext(), subMonitor));
+						proposals.addAll(SnippetCompletionProposal.getSnippets(unit, collector.getContext(), monitor));
 					}
-					proposals.addAll(new JavadocCompletionProposal().getProposals(unit, offset, collector, subMonitor));
+					proposals.addAll(new JavadocCompletionProposal().getProposals(unit, offset, collector, monitor));
 				} catch (OperationCanceledException e) {
-					monitor.setCanceled(true);
+					if (CancellableProgressMonitor.isTimedOut(monitor)) {
+						// an expired time budget returns the proposals collected so far
+						timedOut = true;
+						if (!collected) {
+							proposals.addAll(collector.getCompletionItems());
+						}
+					} else {
+						monitor.setCanceled(true);
+					}
 				}
 			}
 		}
 		proposals.sort(PROPOSAL_COMPARATOR);
 		CompletionList list = new CompletionList(proposals);
-		list.setIsIncomplete(!collector.isComplete());
+		list.setIsIncomplete(timedOut || !collector.isComplete());
 		return list;
 	}
 
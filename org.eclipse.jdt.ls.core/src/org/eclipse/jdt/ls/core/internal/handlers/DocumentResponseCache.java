@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.ls.core.internal.ASTCache;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps the responses of the requests computed from a single document, such as
+ * its symbols or folding ranges, since clients ask for them again for the same
+ * version of the document when an editor gets the focus or is split.
+ *
+ * A response is reused as long as the modification stamp of its document
+ * doesn't change. The responses of a document are dropped when it's
+ * reconciled, and all the responses when a Java element changes, since some of
+ * them depend on bindings.
+ */
+public class DocumentResponseCache implements IElementChangedListener {
+
+	private static final int MAX_RESPONSES = 200;
+
+	private static DocumentResponseCache instance;
+
+	private final Cache<Key, Object> responses = CacheBuilder.newBuilder().maximumSize(MAX_RESPONSES).build();
+
+	private final AtomicLong generation = new AtomicLong();
+
+	public static synchronized DocumentResponseCache getInstance() {
+		if (instance == null) {
+			instance = new DocumentResponseCache();
+			JavaCore.addElementChangedListener(instance, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+		}
+		return instance;
+	}
+
+	public static synchronized void shutdown() {
+		if (instance != null) {
+			JavaCore.removeElementChangedListener(instance);
+			instance.invalidate();
+			instance = null;
+		}
+	}
+
+	/**
+	 * Returns the response of a request on the given document, from the cache if
+	 * it was already computed for the current version of the document. The
+	 * cached responses are shared, so they must not be modified.
+	 *
+	 * @param uri
+	 *            the uri of the document
+	 * @param method
+	 *            the method of the request, such as
+	 *            <code>textDocument/foldingRange</code>
+	 * @param arguments
+	 *            the other parameters of the request and the preferences the
+	 *            response depends on
+	 * @param monitor
+	 *            the progress monitor of the request. The responses of the
+	 *            cancelled requests, which may be partial, aren't cached.
+	 * @param request
+	 *            computes the response
+	 * @return the response
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(String uri, String method, List<?> arguments, IProgressMonitor monitor, Supplier<T> request) {
+		ITypeRoot root = JDTUtils.resolveTypeRoot(uri);
+		long stamp = root == null ? IResource.NULL_STAMP : ASTCache.getModificationStamp(root);
+		if (stamp == IResource.NULL_STAMP) {
+			return request.get();
+		}
+		Key key = new Key(generation.get(), root.getHandleIdentifier(), stamp, method, arguments);
+		Object response = responses.getIfPresent(key);
+		if (response != null) {
+			return (T) response;
+		}
+		T result = request.get();
+		if (result != null && (monitor == null || !monitor.isCanceled())) {
+			responses.put(key, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Drops the cached responses
+	 */
+	public void invalidate() {
+		generation.incrementAndGet();
+		responses.invalidateAll();
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		if (responses.size() == 0) {
+			return;
+		}
+		if (event.getType() == ElementChangedEvent.POST_RECONCILE) {
+			IJavaElement element = event.getDelta().getElement();
+			String handle = element.getHandleIdentifier();
+			responses.asMap().keySet().removeIf(key -> key.handle.equals(handle));
+		} else {
+			invalidate();
+		}
+	}
+
+	/**
+	 * @return the number of cached responses
+	 */
+	long size() {
+		return responses.size();
+	}
+
+	private static final class Key {
+		private final long generation;
+		private final String handle;
+		private final long stamp;
+		private final String method;
+		private final List<?> arguments;
+
+		Key(long generation, String handle, long stamp, String method, List<?> arguments) {
+			this.generation = generation;
+			this.handle = handle;
+			this.stamp = stamp;
+			this.method = method;
+			this.arguments = arguments;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(generation, handle, stamp, method, arguments);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return generation == other.generation && stamp == other.stamp && handle.equals(other.handle) && method.equals(other.method) && Objects.equals(arguments, other.arguments);
+		}
+	}
+}
@@ -44,6 +44,7 @@ import org.eclipse.jdt.core.IParent;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.ls.core.internal.CancellableProgressMonitor;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.ResourceUtils;
@@ -76,13 +77,18 @@ public class DocumentSymbolHandler {
 			return Collections.emptyList();
 		}
 
+		List<Either<SymbolInformation, DocumentSymbol>> result;
 		if (preferenceManager.getClientPreferences().isHierarchicalDocumentSymbolSupported()) {
 			List<DocumentSymbol> symbols = this.getHierarchicalOutline(unit, monitor);
-			return symbols.stream().map(Either::<SymbolInformation, DocumentSymbol>forRight).collect(toList());
+			result = symbols.stream().map(Either::<SymbolInformation, DocumentSymbol>forRight).collect(toList());
 		} else {
 			SymbolInformation[] elements = this.getOutline(unit, monitor);
-			return Arrays.asList(elements).stream().map(Either::<SymbolInformation, DocumentSymbol>forLeft).collect(toList());
+			result = Arrays.asList(elements).stream().map(Either::<SymbolInformation, DocumentSymbol>forLeft).collect(toList());
 		}
+		if (CancellableProgressMonitor.isTimedOut(monitor)) {
+			logInfo("Document symbols time budget expired, returning a partial outline of " + unit.getElementName());
+		}
+		return result;
 	}
 
 	private SymbolInformation[] getOutline(ITypeRoot unit, IProgressMonitor monitor) {
@@ -106,6 +112,10 @@ public class DocumentSymbolHandler {
 			throws JavaModelException {
 		for (IJavaElement element : elements) {
 			if (monitor.isCanceled()) {
+				// an expired time budget returns the symbols collected so far
+				if (CancellableProgressMonitor.isTimedOut(monitor)) {
+					return;
+				}
 				throw new OperationCanceledException();
 			}
 			if (element instanceof IParent) {
@@ -163,6 +173,10 @@ public class DocumentSymbolHandler {
 			return null;
 		}
 		if (monitor.isCanceled()) {
+			// an expired time budget returns the symbols collected so far
+			if (CancellableProgressMonitor.isTimedOut(monitor)) {
+				return null;
+			}
 			throw new OperationCanceledException("User abort");
 		}
 		DocumentSymbol symbol = new DocumentSymbol();
@@ -25,6 +25,7 @@ import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.internal.corext.util.MethodOverrideTester;
+import org.eclipse.jdt.internal.corext.util.SuperTypeHierarchyCache;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
@@ -77,7 +78,7 @@ public class FindLinksHandler {
 			return null;
 		}
 
-		ITypeHierarchy hierarchy = type.newSupertypeHierarchy(monitor);
+		ITypeHierarchy hierarchy = SuperTypeHierarchyCache.getTypeHierarchy(type, monitor);
 		MethodOverrideTester tester = new MethodOverrideTester(type, hierarchy);
 		IMethod found = tester.findOverriddenMethod(method, true);
 		if (found != null && !found.equals(method)) {
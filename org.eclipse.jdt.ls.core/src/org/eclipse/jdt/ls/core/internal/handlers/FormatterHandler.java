@@ -19,6 +19,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -29,6 +31,7 @@ import org.eclipse.jdt.core.ToolFactory;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.NodeFinder;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.core.formatter.CodeFormatter;
 import org.eclipse.jdt.core.formatter.DefaultCodeFormatterConstants;
 import org.eclipse.jdt.core.manipulation.CoreASTProvider;
@@ -36,6 +39,7 @@ import org.eclipse.jdt.internal.compiler.env.IModule;
 import org.eclipse.jdt.internal.corext.refactoring.util.TextEditUtil;
 import org.eclipse.jdt.internal.formatter.DefaultCodeFormatterOptions;
 import org.eclipse.jdt.internal.ui.preferences.formatter.ProfileVersionerCore;
+import org.eclipse.jdt.ls.core.internal.ASTCache;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
@@ -56,6 +60,9 @@ import org.eclipse.text.edits.MultiTextEdit;
 import org.eclipse.text.edits.ReplaceEdit;
 import org.eclipse.text.edits.TextEdit;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 /**
  * @author IBM Corporation (Markus Keller)
  */
@@ -64,6 +71,17 @@ public class FormatterHandler {
 	private static final char CLOSING_BRACE = '}';
 	private static final char NEW_LINE = '\n';
 
+	/**
+	 * The maximum number of option sets whose formatters are kept
+	 */
+	private static final int MAX_FORMATTER_OPTIONS = 4;
+
+	/**
+	 * The idle formatters of the recently used option sets. A formatter isn't
+	 * thread-safe, so it's used by one request at a time.
+	 */
+	private static final Cache<Map<String, String>, Queue<CodeFormatter>> formatters = CacheBuilder.newBuilder().maximumSize(MAX_FORMATTER_OPTIONS).build();
+
 	private PreferenceManager preferenceManager;
 
 	public FormatterHandler(PreferenceManager preferenceManager) {
@@ -108,12 +126,16 @@ public class FormatterHandler {
 			return Collections.emptyList();
 		}
 
-		CodeFormatter formatter = ToolFactory.createCodeFormatter(getOptions(options, cu));
-
+		Map<String, String> formatterOptions = getOptions(options, cu);
 		String lineDelimiter = TextUtilities.getDefaultLineDelimiter(document);
-		String sourceToFormat = document.get();
-		int kind = getFormattingKind(cu, includeComments);
-		TextEdit format = formatter.format(kind, sourceToFormat, region.getOffset(), region.getLength(), 0, lineDelimiter);
+		TextEdit format = null;
+		if (region.getLength() < document.getLength()) {
+			format = formatMembers(cu, document, region, formatterOptions, includeComments, lineDelimiter);
+		}
+		if (format == null) {
+			int kind = getFormattingKind(cu, includeComments);
+			format = format(formatterOptions, kind, document.get(), region.getOffset(), region.getLength(), lineDelimiter);
+		}
 		if (format == null || format.getChildren().length == 0 || monitor.isCanceled()) {
 			// nothing to return
 			return Collections.<org.eclipse.lsp4j.TextEdit>emptyList();
@@ -122,6 +144,102 @@ public class FormatterHandler {
 		return convertEdits(flatEdit.getChildren(), document);
 	}
 
+	/**
+	 * Formats the given region within the source of the class members it spans,
+	 * rather than within the whole document. The member preceding the region is
+	 * formatted along, so that the region is indented from the same lines as in
+	 * the document.
+	 *
+	 * @return the edit of the region, or <code>null</code> if the region isn't
+	 *         within the members of a class
+	 */
+	static TextEdit formatMembers(ICompilationUnit cu, IDocument document, IRegion region, Map<String, String> options, boolean includeComments, String lineDelimiter) {
+		CompilationUnit astRoot = ASTCache.getInstance().getAST(cu, CoreASTProvider.WAIT_YES, null);
+		if (astRoot == null || astRoot.getLength() != document.getLength()) {
+			return null;
+		}
+		TypeDeclaration type = null;
+		for (ASTNode node = NodeFinder.perform(astRoot, region.getOffset(), region.getLength()); node != null && type == null; node = node.getParent()) {
+			if (node instanceof TypeDeclaration && isMemberClass(node)) {
+				type = (TypeDeclaration) node;
+			}
+		}
+		if (type == null) {
+			return null;
+		}
+		try {
+			int startLine = document.getLineOfOffset(region.getOffset());
+			int endLine = document.getLineOfOffset(region.getOffset() + region.getLength());
+			List<?> members = type.bodyDeclarations();
+			ASTNode first = null;
+			ASTNode last = null;
+			for (int i = 0; i < members.size(); i++) {
+				ASTNode member = (ASTNode) members.get(i);
+				int memberStartLine = document.getLineOfOffset(member.getStartPosition());
+				if (first == null && document.getLineOfOffset(member.getStartPosition() + member.getLength()) >= startLine) {
+					if (memberStartLine < startLine) {
+						first = member;
+					} else if (i > 0) {
+						first = (ASTNode) members.get(i - 1);
+					} else {
+						// the region is indented from the class header
+						return null;
+					}
+				}
+				if (memberStartLine <= endLine) {
+					last = member;
+				}
+			}
+			if (first == null || last == null || last.getStartPosition() < first.getStartPosition()) {
+				return null;
+			}
+			int start = document.getLineOffset(document.getLineOfOffset(first.getStartPosition()));
+			int lastEnd = last.getStartPosition() + last.getLength();
+			IRegion lastLine = document.getLineInformationOfOffset(lastEnd);
+			int end = lastLine.getOffset() + lastLine.getLength();
+			if (region.getOffset() < start || region.getOffset() + region.getLength() > end || !document.get(start, first.getStartPosition() - start).trim().isEmpty() || !document.get(lastEnd, end - lastEnd).trim().isEmpty()) {
+				return null;
+			}
+			int kind = CodeFormatter.K_CLASS_BODY_DECLARATIONS | (includeComments ? CodeFormatter.F_INCLUDE_COMMENTS : 0);
+			TextEdit edit = format(options, kind, document.get(start, end - start), region.getOffset() - start, region.getLength(), lineDelimiter);
+			if (edit != null) {
+				edit.moveTree(start);
+			}
+			return edit;
+		} catch (BadLocationException e) {
+			JavaLanguageServerPlugin.logException(e.getMessage(), e);
+			return null;
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the given node is a top level class, or a
+	 *         member of such classes
+	 */
+	private static boolean isMemberClass(ASTNode node) {
+		ASTNode parent = node;
+		while (parent instanceof TypeDeclaration) {
+			parent = parent.getParent();
+		}
+		return parent instanceof CompilationUnit;
+	}
+
+	/**
+	 * Formats the given source with an idle formatter of the given options
+	 */
+	private static TextEdit format(Map<String, String> options, int kind, String source, int offset, int length, String lineDelimiter) {
+		Queue<CodeFormatter> idle = formatters.asMap().computeIfAbsent(options, key -> new ConcurrentLinkedQueue<>());
+		CodeFormatter formatter = idle.poll();
+		if (formatter == null) {
+			formatter = ToolFactory.createCodeFormatter(options);
+		}
+		try {
+			return formatter.format(kind, source, offset, length, 0, lineDelimiter);
+		} finally {
+			idle.offer(formatter);
+		}
+	}
+
 	private int getFormattingKind(ICompilationUnit cu, boolean includeComments) {
 		int kind = includeComments ? CodeFormatter.F_INCLUDE_COMMENTS : 0;
 		if (cu.getResource() != null && cu.getResource().getName().equals(IModule.MODULE_INFO_JAVA)) {
@@ -282,7 +400,7 @@ public class FormatterHandler {
 
 			if (triggerChar == CLOSING_BRACE) {
 				//Format whole block, from beginning of line to end of last line
-				CompilationUnit astRoot = CoreASTProvider.getInstance().getAST(cu, CoreASTProvider.WAIT_YES, null);
+				CompilationUnit astRoot = ASTCache.getInstance().getAST(cu, CoreASTProvider.WAIT_YES, null);
 				NodeFinder finder = new NodeFinder(astRoot, offset, length);
 				ASTNode block = finder.getCoveredNode();
 				if (block == null) {
@@ -336,13 +454,12 @@ public class FormatterHandler {
 		IDocument document = new Document();
 		document.set(content);
 		Map<String, String> formatOptions = (options == null) ? DefaultCodeFormatterOptions.getEclipseDefaultSettings().getMap() : ProfileVersionerCore.updateAndComplete(options, version);
-		CodeFormatter formatter = ToolFactory.createCodeFormatter(formatOptions);
 		IRegion region = new Region(0, document.getLength());
 		int kind = CodeFormatter.K_COMPILATION_UNIT;
 		if (preferenceManager.getPreferences().isJavaFormatComments()) {
 			kind = kind | CodeFormatter.F_INCLUDE_COMMENTS;
 		}
-		TextEdit edit = formatter.format(kind, content, region.getOffset(), region.getLength(), 0, TextUtilities.getDefaultLineDelimiter(document));
+		TextEdit edit = format(formatOptions, kind, content, region.getOffset(), region.getLength(), TextUtilities.getDefaultLineDelimiter(document));
 		if (edit != null) {
 			try {
 				edit.apply(document);
@@ -21,6 +21,7 @@ import java.util.Map;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.internal.corext.fix.LinkedProposalModelCore;
 import org.eclipse.jdt.internal.corext.fix.LinkedProposalPositionGroupCore;
 import org.eclipse.jdt.internal.corext.fix.LinkedProposalPositionGroupCore.PositionInformation;
@@ -58,7 +59,8 @@ public class GetRefactorEditHandler {
 		int start = DiagnosticsHelper.getStartOffset(unit, params.context.getRange());
 		int end = DiagnosticsHelper.getEndOffset(unit, params.context.getRange());
 		InnovationContext context = new InnovationContext(unit, start, end - start);
-		context.setASTRoot(CodeActionHandler.getASTRoot(unit));
+		CompilationUnit astRoot = CodeActionHandler.getASTRoot(unit);
+		context.setASTRoot(astRoot);
 		IProblemLocationCore[] locations = CodeActionHandler.getProblemLocationCores(unit, params.context.getContext().getDiagnostics());
 		boolean problemsAtLocation = locations.length != 0;
 		String positionKey = DEFAULT_POSITION_KEY;
@@ -71,6 +73,7 @@ public class GetRefactorEditHandler {
 				SelectionInfo info = (params.commandArguments != null && !params.commandArguments.isEmpty()) ? JSONUtility.toModel(params.commandArguments.get(0), SelectionInfo.class) : null;
 				if (info != null) {
 					context = new InnovationContext(unit, info.offset, info.length);
+					context.setASTRoot(astRoot);
 				}
 				proposal = (LinkedCorrectionProposal) getExtractVariableProposal(params.context, context, problemsAtLocation, params.command, formatterOptions);
 			} else if (RefactorProposalUtility.ASSIGN_VARIABLE_COMMAND.equals(params.command)) {
@@ -81,6 +84,7 @@ public class GetRefactorEditHandler {
 				SelectionInfo info = (params.commandArguments != null && !params.commandArguments.isEmpty()) ? JSONUtility.toModel(params.commandArguments.get(0), SelectionInfo.class) : null;
 				if (info != null) {
 					context = new InnovationContext(unit, info.offset, info.length);
+					context.setASTRoot(astRoot);
 				}
 				proposal = (LinkedCorrectionProposal) getExtractMethodProposal(params.context, context, context.getCoveringNode(), problemsAtLocation, formatterOptions);
 			} else if (RefactorProposalUtility.CONVERT_VARIABLE_TO_FIELD_COMMAND.equals(params.command)) {
@@ -91,6 +95,7 @@ public class GetRefactorEditHandler {
 				SelectionInfo info = (params.commandArguments != null && params.commandArguments.size() > 1) ? JSONUtility.toModel(params.commandArguments.get(1), SelectionInfo.class) : null;
 				if (info != null) {
 					context = new InnovationContext(unit, info.offset, info.length);
+					context.setASTRoot(astRoot);
 				}
 				proposal = (LinkedCorrectionProposal) RefactorProposalUtility.getExtractFieldProposal(params.context, context, problemsAtLocation, formatterOptions, initializeIn, false);
 			} else if (InvertBooleanUtility.INVERT_VARIABLE_COMMAND.equals(params.command)) {
@@ -54,8 +54,11 @@ import org.eclipse.jdt.internal.core.manipulation.JavaElementLabelsCore;
 import org.eclipse.jdt.internal.corext.dom.Bindings;
 import org.eclipse.jdt.internal.corext.util.JdtFlags;
 import org.eclipse.jdt.internal.corext.util.MethodOverrideTester;
+import org.eclipse.jdt.internal.corext.util.SuperTypeHierarchyCache;
+import org.eclipse.jdt.ls.core.internal.ASTCache;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.Messages;
+import org.eclipse.jdt.ls.core.internal.TypeHierarchyCache;
 import org.eclipse.jface.text.IRegion;
 
 
@@ -131,7 +134,7 @@ public class ImplementationCollector<T> {
 		try {
 			String typeLabel = JavaElementLabelsCore.getElementLabel(type, JavaElementLabelsCore.DEFAULT_QUALIFIED);
 			monitor.beginTask(Messages.format(JavaElementImplementationHyperlink_search_method_implementors, typeLabel), 10);
-			IType[] allTypes = type.newTypeHierarchy(monitor).getAllSubtypes(type);
+			IType[] allTypes = TypeHierarchyCache.getInstance().getTypeHierarchy(type, null, monitor).getAllSubtypes(type);
 			results = Arrays.stream(allTypes).map(el -> mapper.convert(el, 0, 0)).filter(Objects::nonNull).collect(Collectors.toList());
 			if (monitor.isCanceled()) {
 				throw new OperationCanceledException();
@@ -153,7 +156,7 @@ public class ImplementationCollector<T> {
 			return null;
 		}
 
-		CompilationUnit ast = CoreASTProvider.getInstance().getAST(typeRoot, CoreASTProvider.WAIT_YES, monitor);
+		CompilationUnit ast = ASTCache.getInstance().getAST(typeRoot, CoreASTProvider.WAIT_YES, monitor);
 		if (ast == null) {
 			return null;
 		}
@@ -272,7 +275,7 @@ public class ImplementationCollector<T> {
 	 * @since 3.6
 	 */
 	private static boolean isFullHierarchyNeeded(IProgressMonitor monitor, IMethod method, IType receiverType) throws JavaModelException {
-		ITypeHierarchy superTypeHierarchy= receiverType.newSupertypeHierarchy(monitor);
+		ITypeHierarchy superTypeHierarchy= SuperTypeHierarchyCache.getTypeHierarchy(receiverType, monitor);
 		MethodOverrideTester methodOverrideTester= new MethodOverrideTester(receiverType, superTypeHierarchy);
 		return methodOverrideTester.findOverriddenMethodInType(receiverType, method) == null;
 	}
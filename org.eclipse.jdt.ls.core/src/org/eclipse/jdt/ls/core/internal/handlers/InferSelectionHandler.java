@@ -17,7 +17,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.Expression;
@@ -42,6 +41,7 @@ public class InferSelectionHandler {
 		int start = DiagnosticsHelper.getStartOffset(unit, params.context.getRange());
 		int end = DiagnosticsHelper.getEndOffset(unit, params.context.getRange());
 		InnovationContext context = new InnovationContext(unit, start, end - start);
+		context.setASTRoot(CodeActionHandler.getASTRoot(unit));
 		List<SelectionInfo> selectionCandidates = new ArrayList<SelectionInfo>();
 		ASTNode parent = context.getCoveringNode();
 		try {
@@ -52,7 +52,7 @@ public class InferSelectionHandler {
 						continue;
 					}
 					ExtractMethodRefactoring refactoring = new ExtractMethodRefactoring(context.getASTRoot(), parent.getStartPosition(), parent.getLength());
-					if (refactoring.checkInitialConditions(new NullProgressMonitor()).isOK()) {
+					if (RefactorProposalUtility.isAvailable(context, RefactorProposalUtility.EXTRACT_METHOD_COMMAND, parent.getStartPosition(), parent.getLength(), true, refactoring)) {
 						selectionCandidates.add(new SelectionInfo(parent.toString(), parent.getStartPosition(), parent.getLength()));
 					}
 					parent = parent.getParent();
@@ -64,7 +64,7 @@ public class InferSelectionHandler {
 						continue;
 					}
 					ExtractTempRefactoring refactoring = new ExtractTempRefactoring(context.getASTRoot(), parent.getStartPosition(), parent.getLength());
-					if (refactoring.checkInitialConditions(new NullProgressMonitor()).isOK()) {
+					if (RefactorProposalUtility.isAvailable(context, RefactorProposalUtility.EXTRACT_VARIABLE_COMMAND, parent.getStartPosition(), parent.getLength(), true, refactoring)) {
 						selectionCandidates.add(new SelectionInfo(parent.toString(), parent.getStartPosition(), parent.getLength()));
 					}
 					parent = parent.getParent();
@@ -76,7 +76,7 @@ public class InferSelectionHandler {
 						continue;
 					}
 					ExtractConstantRefactoring refactoring = new ExtractConstantRefactoring(context.getASTRoot(), parent.getStartPosition(), parent.getLength());
-					if (refactoring.checkInitialConditions(new NullProgressMonitor()).isOK()) {
+					if (RefactorProposalUtility.isAvailable(context, RefactorProposalUtility.EXTRACT_CONSTANT_COMMAND, parent.getStartPosition(), parent.getLength(), true, refactoring)) {
 						selectionCandidates.add(new SelectionInfo(parent.toString(), parent.getStartPosition(), parent.getLength()));
 					}
 					parent = parent.getParent();
@@ -88,7 +88,7 @@ public class InferSelectionHandler {
 						continue;
 					}
 					ExtractFieldRefactoring refactoring = new ExtractFieldRefactoring(context.getASTRoot(), parent.getStartPosition(), parent.getLength());
-					if (refactoring.checkInitialConditions(new NullProgressMonitor()).isOK()) {
+					if (RefactorProposalUtility.isAvailable(context, RefactorProposalUtility.EXTRACT_FIELD_COMMAND, parent.getStartPosition(), parent.getLength(), false, refactoring)) {
 						List<String> scopes = RefactorProposalUtility.getInitializeScopes(refactoring);
 						if (!scopes.isEmpty()) {
 							selectionCandidates.add(new SelectionInfo(parent.toString(), parent.getStartPosition(), parent.getLength(), scopes));
@@ -19,6 +19,7 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -38,6 +39,7 @@ import org.eclipse.jdt.core.WorkingCopyOwner;
 import org.eclipse.jdt.launching.JavaRuntime;
 import org.eclipse.jdt.ls.core.internal.BaseJDTLanguageServer;
 import org.eclipse.jdt.ls.core.internal.BuildWorkspaceStatus;
+import org.eclipse.jdt.ls.core.internal.CancellableProgressMonitor;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JSONUtility;
 import org.eclipse.jdt.ls.core.internal.JVMConfigurator;
@@ -46,6 +48,7 @@ import org.eclipse.jdt.ls.core.internal.JavaClientConnection.JavaLanguageClient;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.JobHelpers;
 import org.eclipse.jdt.ls.core.internal.LanguageServerWorkingCopyOwner;
+import org.eclipse.jdt.ls.core.internal.RequestScheduler;
 import org.eclipse.jdt.ls.core.internal.ServiceStatus;
 import org.eclipse.jdt.ls.core.internal.codemanipulation.GenerateGetterSetterOperation.AccessorField;
 import org.eclipse.jdt.ls.core.internal.handlers.FindLinksHandler.FindLinksParams;
@@ -66,10 +69,17 @@ import org.eclipse.jdt.ls.core.internal.handlers.MoveHandler.MoveDestinationsRes
 import org.eclipse.jdt.ls.core.internal.handlers.MoveHandler.MoveParams;
 import org.eclipse.jdt.ls.core.internal.handlers.OverrideMethodsHandler.AddOverridableMethodParams;
 import org.eclipse.jdt.ls.core.internal.handlers.OverrideMethodsHandler.OverridableMethodsResponse;
+import org.eclipse.jdt.ls.core.internal.handlers.PullDiagnosticsHandler.DocumentDiagnosticParams;
+import org.eclipse.jdt.ls.core.internal.handlers.PullDiagnosticsHandler.DocumentDiagnosticReport;
+import org.eclipse.jdt.ls.core.internal.handlers.PullDiagnosticsHandler.WorkspaceDiagnosticParams;
+import org.eclipse.jdt.ls.core.internal.handlers.PullDiagnosticsHandler.WorkspaceDiagnosticReport;
 import org.eclipse.jdt.ls.core.internal.handlers.WorkspaceSymbolHandler.SearchSymbolParams;
+import org.eclipse.jdt.ls.core.internal.lsp.DocumentDiagnosticProtocol;
 import org.eclipse.jdt.ls.core.internal.lsp.JavaProtocolExtensions;
+import org.eclipse.jdt.ls.core.internal.lsp.WorkspaceDiagnosticProtocol;
 import org.eclipse.jdt.ls.core.internal.managers.ContentProviderManager;
 import org.eclipse.jdt.ls.core.internal.managers.ProjectsManager;
+import org.eclipse.jdt.ls.core.internal.preferences.ClientPreferences;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
 import org.eclipse.jdt.ls.core.internal.preferences.Preferences;
 import org.eclipse.lsp4j.CallHierarchyIncomingCall;
@@ -134,7 +144,6 @@ import org.eclipse.lsp4j.TypeDefinitionParams;
 import org.eclipse.lsp4j.WillSaveTextDocumentParams;
 import org.eclipse.lsp4j.WorkspaceEdit;
 import org.eclipse.lsp4j.WorkspaceSymbolParams;
-import org.eclipse.lsp4j.jsonrpc.CompletableFutures;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.jsonrpc.services.JsonDelegate;
 import org.eclipse.lsp4j.services.LanguageServer;
@@ -145,7 +154,7 @@ import org.eclipse.lsp4j.services.WorkspaceService;
  * @author Gorkem Ercan
  *
  */
-public class JDTLanguageServer extends BaseJDTLanguageServer implements LanguageServer, TextDocumentService, WorkspaceService, JavaProtocolExtensions {
+public class JDTLanguageServer extends BaseJDTLanguageServer implements LanguageServer, TextDocumentService, WorkspaceService, JavaProtocolExtensions, DocumentDiagnosticProtocol, WorkspaceDiagnosticProtocol {
 
 	public static final String JAVA_LSP_JOIN_ON_COMPLETION = "java.lsp.joinOnCompletion";
 	/**
@@ -287,6 +296,9 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 		if (preferenceManager.getClientPreferences().isSelectionRangeDynamicRegistered()) {
 			registerCapability(Preferences.SELECTION_RANGE_ID, Preferences.SELECTION_RANGE);
 		}
+		if (preferenceManager.getClientPreferences().isPullDiagnosticsSupported()) {
+			registerCapability(Preferences.DIAGNOSTIC_ID, Preferences.DIAGNOSTIC, PullDiagnosticsHandler.createOptions());
+		}
 		// we do not have the user setting initialized yet at this point but we should
 		// still call to enable defaults in case client does not support configuration changes
 		syncCapabilitiesToSettings();
@@ -522,7 +534,8 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 			return handler.completion(position, monitor);
 		});
 		result.join();
-		if (monitors[0].isCanceled()) {
+		// an expired time budget returns the incomplete list
+		if (monitors[0].isCanceled() && !CancellableProgressMonitor.isTimedOut(monitors[0])) {
 			result.cancel(true);
 		}
 		return result;
@@ -619,7 +632,8 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<List<? extends DocumentHighlight>> documentHighlight(DocumentHighlightParams position) {
 		logInfo(">> document/documentHighlight");
 		DocumentHighlightHandler handler = new DocumentHighlightHandler();
-		return computeAsync((monitor) -> handler.documentHighlight(position, monitor));
+		return computeAsync((monitor) -> DocumentResponseCache.getInstance().get(position.getTextDocument().getUri(), Preferences.DOCUMENT_HIGHLIGHT, Arrays.asList(position.getPosition()), monitor,
+				() -> handler.documentHighlight(position, monitor)));
 	}
 
 	/* (non-Javadoc)
@@ -631,7 +645,9 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 		DocumentSymbolHandler handler = new DocumentSymbolHandler(preferenceManager);
 		return computeAsync((monitor) -> {
 			waitForLifecycleJobs(monitor);
-			return handler.documentSymbol(params, monitor);
+			ClientPreferences clientPreferences = preferenceManager.getClientPreferences();
+			List<Boolean> arguments = Arrays.asList(clientPreferences.isHierarchicalDocumentSymbolSupported(), clientPreferences.isSymbolTagSupported());
+			return DocumentResponseCache.getInstance().get(params.getTextDocument().getUri(), Preferences.DOCUMENT_SYMBOL, arguments, monitor, () -> handler.documentSymbol(params, monitor));
 		});
 	}
 
@@ -747,6 +763,42 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 		});
 	}
 
+	/* (non-Javadoc)
+	 * @see org.eclipse.jdt.ls.core.internal.lsp.DocumentDiagnosticProtocol#diagnostic(org.eclipse.jdt.ls.core.internal.handlers.PullDiagnosticsHandler.DocumentDiagnosticParams)
+	 */
+	@Override
+	public CompletableFuture<DocumentDiagnosticReport> diagnostic(DocumentDiagnosticParams params) {
+		logInfo(">> document/diagnostic");
+		PullDiagnosticsHandler handler = new PullDiagnosticsHandler(documentLifeCycleHandler, pm, preferenceManager.getClientPreferences().isDiagnosticTagSupported());
+		return computeAsync((monitor) -> {
+			waitForLifecycleJobs(monitor);
+			JobHelpers.waitForJobs(DocumentLifeCycleHandler.PUBLISH_DIAGNOSTICS_JOBS, monitor);
+			try {
+				return handler.documentDiagnostic(params, monitor);
+			} catch (CoreException e) {
+				logException(e.getMessage(), e);
+				return new DocumentDiagnosticReport(PullDiagnosticsHandler.FULL, null, Collections.emptyList());
+			}
+		});
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.jdt.ls.core.internal.lsp.WorkspaceDiagnosticProtocol#diagnostic(org.eclipse.jdt.ls.core.internal.handlers.PullDiagnosticsHandler.WorkspaceDiagnosticParams)
+	 */
+	@Override
+	public CompletableFuture<WorkspaceDiagnosticReport> diagnostic(WorkspaceDiagnosticParams params) {
+		logInfo(">> workspace/diagnostic");
+		PullDiagnosticsHandler handler = new PullDiagnosticsHandler(documentLifeCycleHandler, pm, preferenceManager.getClientPreferences().isDiagnosticTagSupported());
+		return computeAsync((monitor) -> {
+			try {
+				return handler.workspaceDiagnostic(params, monitor);
+			} catch (CoreException e) {
+				logException(e.getMessage(), e);
+				return new WorkspaceDiagnosticReport(Collections.emptyList());
+			}
+		});
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.lsp4j.services.TextDocumentService#didOpen(org.eclipse.lsp4j.DidOpenTextDocumentParams)
 	 */
@@ -863,7 +915,9 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 		logInfo(">> document/foldingRange");
 		return computeAsyncWithClientProgress((monitor) -> {
 			waitForLifecycleJobs(monitor);
-			return new FoldingRangeHandler().foldingRange(params, monitor);
+			// the decompiled sources of class files may be folded
+			List<Boolean> arguments = Arrays.asList(preferenceManager.isClientSupportsClassFileContent() && preferenceManager.getPreferences().isIncludeDecompiledSources());
+			return DocumentResponseCache.getInstance().get(params.getTextDocument().getUri(), Preferences.FOLDINGRANGE, arguments, monitor, () -> new FoldingRangeHandler().foldingRange(params, monitor));
 		});
 	}
 
@@ -872,7 +926,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 		logInfo(">> document/selectionRange");
 		return computeAsyncWithClientProgress((monitor) -> {
 			waitForLifecycleJobs(monitor);
-			return new SelectionRangeHandler().selectionRange(params, monitor);
+			return DocumentResponseCache.getInstance().get(params.getTextDocument().getUri(), Preferences.SELECTION_RANGE, params.getPositions(), monitor, () -> new SelectionRangeHandler().selectionRange(params, monitor));
 		});
 	}
 
@@ -1003,8 +1057,9 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	}
 
 	private <R> CompletableFuture<R> computeAsyncWithClientProgress(Function<IProgressMonitor, R> code) {
-		return CompletableFutures.computeAsync((cc) -> {
-			IProgressMonitor monitor = progressReporterManager.getProgressReporter(cc);
+		long timeout = RequestScheduler.getCurrentTimeout();
+		return scheduleAsync((cc) -> {
+			IProgressMonitor monitor = progressReporterManager.getProgressReporter(cc, RequestScheduler.getDeadline(timeout));
 			return code.apply(monitor);
 		});
 	}
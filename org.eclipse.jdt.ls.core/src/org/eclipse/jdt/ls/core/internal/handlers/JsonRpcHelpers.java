@@ -47,7 +47,7 @@ final public class JsonRpcHelpers {
 	public static int toOffset(IOpenable openable, int line, int column) {
 		if (openable != null) {
 			try {
-				return convert(openable, (IDocument document) -> toOffset(document, line, column));
+				return convert(openable, (LineOffsetIndex index) -> toOffset(index, line, column));
 			} catch (JavaModelException e) {
 				JavaLanguageServerPlugin.log(e);
 			}
@@ -66,7 +66,26 @@ final public class JsonRpcHelpers {
 	 */
 	public static int toOffset(IBuffer buffer, int line, int column){
 		if (buffer != null) {
-			return toOffset(toDocument(buffer), line, column);
+			return toOffset(LineOffsetIndex.get(buffer), line, column);
+		}
+		return -1;
+	}
+
+	/**
+	 * Convert line, column to an offset.
+	 *
+	 * @param index
+	 * @param line
+	 * @param column
+	 * @return
+	 */
+	public static int toOffset(LineOffsetIndex index, int line, int column) {
+		if (index != null) {
+			try {
+				return index.toOffset(line, column);
+			} catch (BadLocationException e) {
+				JavaLanguageServerPlugin.logException(e.getMessage(), e);
+			}
 		}
 		return -1;
 	}
@@ -98,7 +117,25 @@ final public class JsonRpcHelpers {
 	 * @return
 	 */
 	public static int[] toLine(IBuffer buffer, int offset){
-		return toLine(toDocument(buffer), offset);
+		return toLine(LineOffsetIndex.get(buffer), offset);
+	}
+
+	/**
+	 * Convert offset to line number and column.
+	 *
+	 * @param index
+	 * @param offset
+	 * @return
+	 */
+	public static int[] toLine(LineOffsetIndex index, int offset) {
+		if (index != null) {
+			try {
+				return index.toLine(offset);
+			} catch (BadLocationException e) {
+				JavaLanguageServerPlugin.logException(e.getMessage(), e);
+			}
+		}
+		return null;
 	}
 
 	/**
@@ -114,7 +151,7 @@ final public class JsonRpcHelpers {
 	 */
 	public static int[] toLine(IOpenable openable, int offset) {
 		try {
-			return convert(openable, (IDocument document) -> toLine(document, offset));
+			return convert(openable, (LineOffsetIndex index) -> toLine(index, offset));
 		} catch (JavaModelException e) {
 			JavaLanguageServerPlugin.log(e);
 		}
@@ -122,7 +159,7 @@ final public class JsonRpcHelpers {
 		return null;
 	}
 
-	private static <T> T convert(IOpenable openable, Function<IDocument, T> consumer) throws JavaModelException {
+	private static <T> T convert(IOpenable openable, Function<LineOffsetIndex, T> consumer) throws JavaModelException {
 		Assert.isNotNull(openable, "openable");
 		boolean mustClose = false;
 		try {
@@ -131,7 +168,7 @@ final public class JsonRpcHelpers {
 				mustClose = openable.isOpen();
 			}
 			IBuffer buffer = openable.getBuffer();
-			return consumer.apply(toDocument(buffer));
+			return consumer.apply(LineOffsetIndex.get(buffer));
 		} finally {
 			if (mustClose) {
 				try {
@@ -0,0 +1,340 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.core.filebuffers.FileBuffers;
+import org.eclipse.core.filebuffers.ITextFileBuffer;
+import org.eclipse.core.filebuffers.LocationKind;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.IBufferChangedListener;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.ls.core.internal.ASTCache;
+import org.eclipse.jdt.ls.core.internal.DocumentAdapter;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+
+/**
+ * An immutable snapshot of a text, indexed by line. Offsets and columns are
+ * counted in UTF-16 code units, which is both the unit of Java strings and
+ * the default position encoding of the language server protocol.
+ *
+ * Indexes are shared: the index of a document, buffer or file is computed once
+ * per modification stamp and reused until the text changes.
+ */
+public final class LineOffsetIndex {
+
+	private static final int MAX_FILE_INDEXES = 64;
+
+	private static final Map<Object, LineOffsetIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private static final Map<IPath, LineOffsetIndex> FILE_INDEXES = Collections.synchronizedMap(new LinkedHashMap<IPath, LineOffsetIndex>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<IPath, LineOffsetIndex> eldest) {
+			return size() > MAX_FILE_INDEXES;
+		}
+	});
+
+	/**
+	 * Drops the index of a read-only buffer when its contents are replaced
+	 */
+	private static final IBufferChangedListener READ_ONLY_LISTENER = event -> INDEXES.remove(event.getBuffer());
+
+	private static final int[] NO_SURROGATES = new int[0];
+
+	private final String text;
+	private final long stamp;
+	/**
+	 * the offset of the first character of each line
+	 */
+	private final int[] lineOffsets;
+	/**
+	 * the sorted offsets of the low surrogates in the text, i.e. the offsets that
+	 * would split a surrogate pair
+	 */
+	private final int[] lowSurrogates;
+
+	private LineOffsetIndex(String text, long stamp) {
+		this.text = text;
+		this.stamp = stamp;
+		int length = text.length();
+		int[] lines = new int[16];
+		int lineCount = 1;
+		int[] surrogates = NO_SURROGATES;
+		int surrogateCount = 0;
+		for (int i = 0; i < length; i++) {
+			char c = text.charAt(i);
+			int next = -1;
+			if (c == '\n') {
+				next = i + 1;
+			} else if (c == '\r') {
+				if (i + 1 < length && text.charAt(i + 1) == '\n') {
+					i++;
+				}
+				next = i + 1;
+			} else if (Character.isLowSurrogate(c) && i > 0 && Character.isHighSurrogate(text.charAt(i - 1))) {
+				if (surrogateCount == surrogates.length) {
+					surrogates = Arrays.copyOf(surrogates, Math.max(8, surrogateCount * 2));
+				}
+				surrogates[surrogateCount++] = i;
+			}
+			if (next >= 0) {
+				if (lineCount == lines.length) {
+					lines = Arrays.copyOf(lines, lineCount * 2);
+				}
+				lines[lineCount++] = next;
+			}
+		}
+		this.lineOffsets = Arrays.copyOf(lines, lineCount);
+		this.lowSurrogates = surrogateCount == 0 ? NO_SURROGATES : Arrays.copyOf(surrogates, surrogateCount);
+	}
+
+	/**
+	 * Creates an index of the given text. The index isn't shared.
+	 *
+	 * @param text
+	 *            the text to index
+	 * @return the index of the text
+	 */
+	public static LineOffsetIndex of(String text) {
+		return new LineOffsetIndex(text == null ? "" : text, IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP);
+	}
+
+	/**
+	 * Returns the index of a document. The index is reused as long as the
+	 * modification stamp of the document doesn't change.
+	 *
+	 * @param document
+	 *            a document
+	 * @return the index of the document, or <code>null</code> if the document is
+	 *         <code>null</code>
+	 */
+	public static LineOffsetIndex get(IDocument document) {
+		if (document == null) {
+			return null;
+		}
+		if (!(document instanceof IDocumentExtension4)) {
+			return of(document.get());
+		}
+		IDocumentExtension4 extension = (IDocumentExtension4) document;
+		long stamp = extension.getModificationStamp();
+		LineOffsetIndex index = INDEXES.get(document);
+		if (index != null && stamp != IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP && index.stamp == stamp) {
+			return index;
+		}
+		index = new LineOffsetIndex(document.get(), stamp);
+		// the document may have been changed while it was read
+		if (stamp != IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP && stamp == extension.getModificationStamp()) {
+			INDEXES.put(document, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the index of a buffer. Buffers backed by a document share the
+	 * index of the document. Other buffers are indexed once per modification
+	 * stamp of their underlying file, if they have no unsaved changes. Read-only
+	 * buffers, e.g. of class files, are indexed once per modification stamp of
+	 * their owner, see {@link ASTCache#getModificationStamp(ITypeRoot)}, until
+	 * their contents are replaced.
+	 *
+	 * @param buffer
+	 *            a buffer
+	 * @return the index of the buffer, or <code>null</code> if the buffer is
+	 *         <code>null</code>
+	 */
+	public static LineOffsetIndex get(IBuffer buffer) {
+		if (buffer == null) {
+			return null;
+		}
+		if (buffer instanceof IDocument) {
+			return get((IDocument) buffer);
+		}
+		if (buffer instanceof DocumentAdapter) {
+			IDocument document = ((DocumentAdapter) buffer).getDocument();
+			if (document != null) {
+				return get(document);
+			}
+		}
+		if (buffer.isReadOnly()) {
+			long stamp = buffer.getOwner() instanceof ITypeRoot ? ASTCache.getModificationStamp((ITypeRoot) buffer.getOwner()) : IResource.NULL_STAMP;
+			LineOffsetIndex index = INDEXES.get(buffer);
+			if (index != null && index.stamp == stamp) {
+				return index;
+			}
+			buffer.addBufferChangedListener(READ_ONLY_LISTENER);
+			index = new LineOffsetIndex(buffer.getContents() == null ? "" : buffer.getContents(), stamp);
+			INDEXES.put(buffer, index);
+			return index;
+		}
+		long stamp = getModificationStamp(buffer);
+		if (stamp == IResource.NULL_STAMP) {
+			return of(buffer.getContents());
+		}
+		LineOffsetIndex index = INDEXES.get(buffer);
+		if (index != null && index.stamp == stamp) {
+			return index;
+		}
+		index = new LineOffsetIndex(buffer.getContents() == null ? "" : buffer.getContents(), stamp);
+		INDEXES.put(buffer, index);
+		return index;
+	}
+
+	/**
+	 * Returns the index of the contents of a file. If the file is connected to a
+	 * file buffer, the index of the file buffer's document is returned.
+	 * Otherwise, the file is read once per modification stamp.
+	 *
+	 * @param file
+	 *            a file
+	 * @return the index of the file, or <code>null</code> if the file can not be
+	 *         read
+	 */
+	public static LineOffsetIndex get(IFile file) {
+		if (file == null || !file.isAccessible()) {
+			return null;
+		}
+		IPath path = file.getFullPath();
+		ITextFileBuffer fileBuffer = FileBuffers.getTextFileBufferManager().getTextFileBuffer(path, LocationKind.IFILE);
+		if (fileBuffer != null) {
+			return get(fileBuffer.getDocument());
+		}
+		long stamp = file.getModificationStamp();
+		LineOffsetIndex index = FILE_INDEXES.get(path);
+		if (index != null && index.stamp == stamp) {
+			return index;
+		}
+		IDocument document = JsonRpcHelpers.toDocument(file);
+		if (document == null) {
+			return null;
+		}
+		index = new LineOffsetIndex(document.get(), stamp);
+		FILE_INDEXES.put(path, index);
+		return index;
+	}
+
+	private static long getModificationStamp(IBuffer buffer) {
+		if (!buffer.hasUnsavedChanges()) {
+			IResource resource = buffer.getUnderlyingResource();
+			if (resource != null && resource.getType() == IResource.FILE) {
+				return resource.getModificationStamp();
+			}
+		}
+		return IResource.NULL_STAMP;
+	}
+
+	/**
+	 * @return the indexed text
+	 */
+	public String getText() {
+		return text;
+	}
+
+	public int getLength() {
+		return text.length();
+	}
+
+	public char getChar(int offset) throws BadLocationException {
+		if (offset < 0 || offset >= text.length()) {
+			throw new BadLocationException("Offset " + offset + " is out of range");
+		}
+		return text.charAt(offset);
+	}
+
+	public int getNumberOfLines() {
+		return lineOffsets.length;
+	}
+
+	/**
+	 * Returns the offset of the first character of a line.
+	 *
+	 * @param line
+	 *            the line number, 0-based
+	 * @return the offset of the line
+	 * @throws BadLocationException
+	 *             if the line does not exist
+	 */
+	public int getLineOffset(int line) throws BadLocationException {
+		if (line < 0 || line >= lineOffsets.length) {
+			throw new BadLocationException("Line " + line + " is out of range");
+		}
+		return lineOffsets[line];
+	}
+
+	/**
+	 * Returns the line containing an offset.
+	 *
+	 * @param offset
+	 *            an offset, between 0 and the length of the text
+	 * @return the line number, 0-based
+	 * @throws BadLocationException
+	 *             if the offset is out of range
+	 */
+	public int getLineOfOffset(int offset) throws BadLocationException {
+		if (offset < 0 || offset > text.length()) {
+			throw new BadLocationException("Offset " + offset + " is out of range");
+		}
+		int line = Arrays.binarySearch(lineOffsets, offset);
+		return line >= 0 ? line : -line - 2;
+	}
+
+	/**
+	 * Converts a line and a UTF-16 column to an offset. A column splitting a
+	 * surrogate pair is moved to the start of the pair.
+	 *
+	 * @param line
+	 *            the line number, 0-based
+	 * @param column
+	 *            the column, in UTF-16 code units
+	 * @return the offset
+	 * @throws BadLocationException
+	 *             if the line does not exist
+	 */
+	public int toOffset(int line, int column) throws BadLocationException {
+		return snap(getLineOffset(line) + column);
+	}
+
+	/**
+	 * Converts an offset to a line and a UTF-16 column. An offset splitting a
+	 * surrogate pair is moved to the start of the pair.
+	 *
+	 * @param offset
+	 *            an offset, between 0 and the length of the text
+	 * @return the line and the column, 0-based
+	 * @throws BadLocationException
+	 *             if the offset is out of range
+	 */
+	public int[] toLine(int offset) throws BadLocationException {
+		int line = getLineOfOffset(offset);
+		return new int[] { line, snap(offset) - lineOffsets[line] };
+	}
+
+	private int snap(int offset) {
+		if (lowSurrogates.length > 0 && Arrays.binarySearch(lowSurrogates, offset) >= 0) {
+			return offset - 1;
+		}
+		return offset;
+	}
+
+}
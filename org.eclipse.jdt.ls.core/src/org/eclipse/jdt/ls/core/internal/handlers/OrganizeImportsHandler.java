@@ -19,6 +19,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.eclipse.core.runtime.CoreException;
@@ -29,10 +30,13 @@ import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.ISourceRange;
 import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.SourceRange;
 import org.eclipse.jdt.core.Signature;
+import org.eclipse.jdt.core.WorkingCopyOwner;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.IBinding;
+import org.eclipse.jdt.core.dom.ImportDeclaration;
 import org.eclipse.jdt.core.dom.Name;
 import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
@@ -41,15 +45,19 @@ import org.eclipse.jdt.core.manipulation.CodeStyleConfiguration;
 import org.eclipse.jdt.core.manipulation.CoreASTProvider;
 import org.eclipse.jdt.core.manipulation.ImportReferencesCollector;
 import org.eclipse.jdt.core.manipulation.OrganizeImportsOperation;
+import org.eclipse.jdt.core.manipulation.OrganizeImportsOperation.IChooseImportQuery;
 import org.eclipse.jdt.core.search.TypeNameMatch;
 import org.eclipse.jdt.internal.corext.codemanipulation.ContextSensitiveImportRewriteContext;
+import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
+import org.eclipse.jdt.internal.corext.refactoring.util.RefactoringASTParser;
 import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JSONUtility;
 import org.eclipse.jdt.ls.core.internal.JavaClientConnection;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.JobHelpers;
-import org.eclipse.jdt.ls.core.internal.corrections.SimilarElementsRequestor;
+import org.eclipse.jdt.ls.core.internal.corrections.StaticImportResolver;
+import org.eclipse.jdt.ls.core.internal.corrections.TypeNameResolver;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
 import org.eclipse.jdt.ls.core.internal.text.correction.SourceAssistProcessor;
 import org.eclipse.lsp4j.CodeActionParams;
@@ -58,6 +66,8 @@ import org.eclipse.lsp4j.WorkspaceEdit;
 import org.eclipse.text.edits.DeleteEdit;
 import org.eclipse.text.edits.InsertEdit;
 import org.eclipse.text.edits.MalformedTreeException;
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
 import org.eclipse.text.edits.TextEdit;
 
 import com.google.gson.Gson;
@@ -80,7 +90,7 @@ public final class OrganizeImportsHandler {
 			return null;
 		}
 
-		OrganizeImportsOperation op = new OrganizeImportsOperation(unit, astRoot, true, false, true, (TypeNameMatch[][] openChoices, ISourceRange[] ranges) -> {
+		IChooseImportQuery query = (TypeNameMatch[][] openChoices, ISourceRange[] ranges) -> {
 			List<ImportSelection> selections = new ArrayList<>();
 			for (int i = 0; i < openChoices.length; i++) {
 				ImportCandidate[] candidates = Stream.of(openChoices[i]).map((choice) -> new ImportCandidate(choice)).toArray(ImportCandidate[]::new);
@@ -104,13 +114,10 @@ public final class OrganizeImportsHandler {
 				typeMaps.put(x.getFullyQualifiedName() + "@" + x.hashCode(), x);
 			});
 			return Stream.of(chosens).filter(chosen -> chosen != null && typeMaps.containsKey(chosen.id)).map(chosen -> typeMaps.get(chosen.id)).toArray(TypeNameMatch[]::new);
-		});
+		};
 		try {
 			JobHelpers.waitForJobs(DocumentLifeCycleHandler.DOCUMENT_LIFE_CYCLE_JOBS, monitor);
-			TextEdit edit = op.createTextEdit(null);
-			// See https://bugs.eclipse.org/bugs/show_bug.cgi?id=283287
-			// and https://github.com/redhat-developer/vscode-java/issues/1472
-			TextEdit staticEdit = wrapStaticImports(edit, astRoot, unit);
+			TextEdit staticEdit = createOrganizeImportsEdit(unit, astRoot, query, true, monitor);
 			if (staticEdit.getChildrenSize() == 0) {
 				return null;
 			}
@@ -121,6 +128,97 @@ public final class OrganizeImportsHandler {
 		return null;
 	}
 
+	/**
+	 * Creates the edit organizing the imports of the given compilation unit.
+	 *
+	 * The unresolved type names are resolved together by the
+	 * {@link TypeNameResolver}, and the ones matching a single type are imported
+	 * first, in a working copy, so that the operation only searches the other
+	 * names again.
+	 *
+	 * @param unit
+	 *            the compilation unit
+	 * @param astRoot
+	 *            the AST of the compilation unit, with bindings
+	 * @param query
+	 *            chooses the types of the ambiguous names, or <code>null</code>
+	 *            to leave them unresolved
+	 * @param staticImports
+	 *            whether the favorite static members are imported too
+	 * @param monitor
+	 *            the progress monitor
+	 * @return the edit
+	 */
+	public static TextEdit createOrganizeImportsEdit(ICompilationUnit unit, CompilationUnit astRoot, IChooseImportQuery query, boolean staticImports, IProgressMonitor monitor) throws CoreException {
+		List<String> imports = getSingleTypeImports(unit, astRoot, monitor);
+		if (imports.isEmpty()) {
+			return createOrganizeImportsEdit(new OrganizeImportsOperation(unit, astRoot, true, false, true, query), astRoot, unit, staticImports, monitor);
+		}
+		// a new working copy of the current content, even if the unit is a working copy of another owner
+		ICompilationUnit workingCopy = unit.getPrimary().getWorkingCopy(new WorkingCopyOwner() {
+		}, monitor);
+		try {
+			workingCopy.getBuffer().setContents(unit.getSource());
+			ImportRewrite importRewrite = CodeStyleConfiguration.createImportRewrite(astRoot, true);
+			imports.forEach(importRewrite::addImport);
+			workingCopy.applyTextEdit(importRewrite.rewriteImports(monitor), monitor);
+			String source = unit.getSource();
+			// the names to choose are after the imports
+			int shift = workingCopy.getSource().length() - source.length();
+			IChooseImportQuery workingCopyQuery = query == null ? null : (openChoices, ranges) -> query.chooseImports(openChoices, Stream.of(ranges).map(range -> new SourceRange(range.getOffset() - shift, range.getLength())).toArray(ISourceRange[]::new));
+			CompilationUnit workingCopyRoot = new RefactoringASTParser(IASTSharedValues.SHARED_AST_LEVEL).parse(workingCopy, true, monitor);
+			TextEdit edit = createOrganizeImportsEdit(new OrganizeImportsOperation(workingCopy, workingCopyRoot, true, false, true, workingCopyQuery), workingCopyRoot, workingCopy, staticImports, monitor);
+			workingCopy.applyTextEdit(edit, monitor);
+			return createReplaceEdit(source, workingCopy.getSource());
+		} finally {
+			workingCopy.discardWorkingCopy();
+		}
+	}
+
+	private static TextEdit createOrganizeImportsEdit(OrganizeImportsOperation op, CompilationUnit astRoot, ICompilationUnit unit, boolean staticImports, IProgressMonitor monitor) throws CoreException {
+		TextEdit edit = op.createTextEdit(monitor);
+		if (!staticImports) {
+			return edit;
+		}
+		// See https://bugs.eclipse.org/bugs/show_bug.cgi?id=283287
+		// and https://github.com/redhat-developer/vscode-java/issues/1472
+		return wrapStaticImports(edit, astRoot, unit);
+	}
+
+	/**
+	 * Returns the types of the unresolved names matching a single type, except
+	 * the names of the single type imports, which are conflicts
+	 */
+	private static List<String> getSingleTypeImports(ICompilationUnit unit, CompilationUnit astRoot, IProgressMonitor monitor) throws JavaModelException {
+		List<String> names = TypeNameResolver.getUnresolvedTypeNames(astRoot);
+		for (Object declaration : astRoot.imports()) {
+			ImportDeclaration importDeclaration = (ImportDeclaration) declaration;
+			if (!importDeclaration.isOnDemand() && !importDeclaration.isStatic()) {
+				String importName = importDeclaration.getName().getFullyQualifiedName();
+				names.remove(importName.substring(importName.lastIndexOf('.') + 1));
+			}
+		}
+		Map<String, List<TypeNameMatch>> types = TypeNameResolver.getInstance().resolve(unit, names, monitor);
+		return names.stream().map(types::get).filter(matches -> matches.size() == 1).map(matches -> matches.get(0).getFullyQualifiedName()).collect(Collectors.toList());
+	}
+
+	private static TextEdit createReplaceEdit(String source, String newSource) {
+		TextEdit edit = new MultiTextEdit();
+		int length = Math.min(source.length(), newSource.length());
+		int start = 0;
+		while (start < length && source.charAt(start) == newSource.charAt(start)) {
+			start++;
+		}
+		int end = 0;
+		while (end < length - start && source.charAt(source.length() - end - 1) == newSource.charAt(newSource.length() - end - 1)) {
+			end++;
+		}
+		if (start + end < source.length() || start + end < newSource.length()) {
+			edit.addChild(new ReplaceEdit(start, source.length() - end - start, newSource.substring(start, newSource.length() - end)));
+		}
+		return edit;
+	}
+
 	public static TextEdit wrapStaticImports(TextEdit edit, CompilationUnit root, ICompilationUnit unit) throws MalformedTreeException, CoreException {
 		String[] favourites = PreferenceManager.getPrefs(unit.getResource()).getJavaCompletionFavoriteMembers();
 		if (favourites.length == 0) {
@@ -137,9 +235,13 @@ public final class OrganizeImportsHandler {
 			ImportRewrite importRewrite = CodeStyleConfiguration.createImportRewrite(root, true);
 			AST ast = root.getAST();
 			ASTRewrite astRewrite = ASTRewrite.create(ast);
+			// the favorite members of all the names are resolved together
+			List<String> names = staticReferences.stream().filter(node -> node.resolveBinding() == null).map(SimpleName::getIdentifier).collect(Collectors.toList());
+			Map<String, String[]> favouriteMethods = StaticImportResolver.getInstance().resolve(unit, names, true, favourites);
+			Map<String, String[]> favouriteFields = StaticImportResolver.getInstance().resolve(unit, names, false, favourites);
 			for (SimpleName node : staticReferences) {
-				addImports(root, unit, favourites, importRewrite, ast, astRewrite, node, true);
-				addImports(root, unit, favourites, importRewrite, ast, astRewrite, node, false);
+				addImports(root, favouriteMethods, importRewrite, ast, astRewrite, node, true);
+				addImports(root, favouriteFields, importRewrite, ast, astRewrite, node, false);
 			}
 			TextEdit staticEdit = importRewrite.rewriteImports(null);
 			if (staticEdit != null && staticEdit.getChildrenSize() > 0) {
@@ -181,13 +283,13 @@ public final class OrganizeImportsHandler {
 		return false;
 	}
 
-	private static void addImports(CompilationUnit root, ICompilationUnit unit, String[] favourites, ImportRewrite importRewrite, AST ast, ASTRewrite astRewrite, SimpleName node, boolean isMethod) throws JavaModelException {
+	private static void addImports(CompilationUnit root, Map<String, String[]> favouriteMembers, ImportRewrite importRewrite, AST ast, ASTRewrite astRewrite, SimpleName node, boolean isMethod) {
 		IBinding binding = node.resolveBinding();
 		if (binding != null) {
 			importRewrite.addStaticImport(binding);
 		} else {
 			String name = node.getIdentifier();
-			String[] imports = SimilarElementsRequestor.getStaticImportFavorites(unit, name, isMethod, favourites);
+			String[] imports = favouriteMembers.getOrDefault(name, new String[0]);
 			if (imports.length > 1) {
 				// See https://github.com/redhat-developer/vscode-java/issues/1472
 				return;
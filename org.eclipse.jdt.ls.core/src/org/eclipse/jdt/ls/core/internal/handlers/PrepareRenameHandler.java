@@ -16,18 +16,18 @@ package org.eclipse.jdt.ls.core.internal.handlers;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.ICompilationUnit;
-import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.IBinding;
-import org.eclipse.jdt.core.dom.Name;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.NodeFinder;
+import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.manipulation.CoreASTProvider;
-import org.eclipse.jdt.internal.core.manipulation.search.IOccurrencesFinder.OccurrenceLocation;
-import org.eclipse.jdt.internal.core.manipulation.search.OccurrencesFinder;
+import org.eclipse.jdt.ls.core.internal.ASTCache;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
-import org.eclipse.jdt.ls.core.internal.corext.refactoring.RefactoringAvailabilityTester;
-import org.eclipse.jdt.ls.core.internal.corrections.InnovationContext;
 import org.eclipse.lsp4j.PrepareRenameResult;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.TextDocumentPositionParams;
@@ -36,6 +36,14 @@ import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.jsonrpc.messages.ResponseError;
 import org.eclipse.lsp4j.jsonrpc.messages.ResponseErrorCode;
 
+/**
+ * Answers whether the name at a position can be renamed from the binding of
+ * the name in the AST of the document alone. The elements declared in
+ * binaries, packages and the other elements which can never be renamed are
+ * rejected, while the conditions which need the Java model or a search, such
+ * as the read-only resources or the overridden binary methods, are checked by
+ * the rename itself.
+ */
 public class PrepareRenameHandler {
 
 	public Either<Range, PrepareRenameResult> prepareRename(TextDocumentPositionParams params, IProgressMonitor monitor) {
@@ -43,54 +51,67 @@ public class PrepareRenameHandler {
 		final ICompilationUnit unit = JDTUtils.resolveCompilationUnit(params.getTextDocument().getUri());
 		if (unit != null) {
 			try {
-				OccurrencesFinder finder = new OccurrencesFinder();
-				CompilationUnit ast = CoreASTProvider.getInstance().getAST(unit, CoreASTProvider.WAIT_YES, monitor);
+				CompilationUnit ast = ASTCache.getInstance().getAST(unit, CoreASTProvider.WAIT_YES, monitor);
 
 				if (ast != null) {
 					int offset = JsonRpcHelpers.toOffset(unit.getBuffer(), params.getPosition().getLine(), params.getPosition().getCharacter());
-					String error = finder.initialize(ast, offset, 0);
-					if (error == null) {
-						OccurrenceLocation[] occurrences = finder.getOccurrences();
-						if (occurrences != null) {
-							for (OccurrenceLocation loc : occurrences) {
-								if (monitor.isCanceled()) {
-									return Either.forLeft(new Range());
-								}
-								if (loc.getOffset() <= offset && loc.getOffset() + loc.getLength() >= offset) {
-									InnovationContext context = new InnovationContext(unit, loc.getOffset(), loc.getLength());
-									context.setASTRoot(ast);
-									ASTNode node = context.getCoveredNode();
-									// Rename package is not fully supported yet.
-									if (!isBinaryOrPackage(node)) {
-										return Either.forLeft(JDTUtils.toRange(unit, loc.getOffset(), loc.getLength()));
-									}
-								}
-							}
-						}
+					ASTNode node = NodeFinder.perform(ast, offset, 0);
+					// Rename package is not fully supported yet.
+					if (node instanceof SimpleName && isRenameAvailable(((SimpleName) node).resolveBinding())) {
+						return Either.forLeft(JDTUtils.toRange(unit, node.getStartPosition(), node.getLength()));
 					}
 				}
 
 			} catch (CoreException e) {
-				JavaLanguageServerPlugin.logException("Problem computing occurrences for" + unit.getElementName() + " in prepareRename", e);
+				JavaLanguageServerPlugin.logException("Problem preparing rename for " + unit.getElementName(), e);
 			}
 		}
 		throw new ResponseErrorException(new ResponseError(ResponseErrorCode.InvalidRequest, "Renaming this element is not supported.", null));
 	}
 
-	private boolean isBinaryOrPackage(ASTNode node) {
-		if (node instanceof Name) {
-			IBinding resolvedBinding = ((Name) node).resolveBinding();
-			IJavaElement element = resolvedBinding != null ? resolvedBinding.getJavaElement() : null;
-			try {
-				if (element == null || element.getElementType() == IJavaElement.PACKAGE_FRAGMENT || !RefactoringAvailabilityTester.isRenameElementAvailable(element)) {
-					return true;
+	private static boolean isRenameAvailable(IBinding binding) {
+		if (binding == null || binding.isRecovered()) {
+			return false;
+		}
+		switch (binding.getKind()) {
+			case IBinding.TYPE:
+				return isRenameAvailable((ITypeBinding) binding);
+			case IBinding.METHOD:
+				IMethodBinding method = ((IMethodBinding) binding).getMethodDeclaration();
+				if (method.isConstructor()) {
+					return isRenameAvailable(method.getDeclaringClass());
 				}
-			} catch (CoreException e) {
-				JavaLanguageServerPlugin.logException(e.getMessage(), e);
-				return true;
-			}
+				return isSource(method.getDeclaringClass()) && !isToString(method);
+			case IBinding.VARIABLE:
+				IVariableBinding variable = ((IVariableBinding) binding).getVariableDeclaration();
+				// the local variables are declared in the document
+				return !variable.isField() || isSource(variable.getDeclaringClass());
+			default:
+				return false;
+		}
+	}
+
+	private static boolean isRenameAvailable(ITypeBinding type) {
+		if (type == null) {
+			return false;
 		}
-		return false;
+		ITypeBinding declaration = type.getTypeDeclaration();
+		if (declaration.isTypeVariable()) {
+			return declaration.isFromSource();
+		}
+		if (!isSource(declaration) || declaration.isAnonymous()) {
+			return false;
+		}
+		// the types of java.lang can't be renamed
+		return declaration.getPackage() == null || !"java.lang".equals(declaration.getPackage().getName());
+	}
+
+	private static boolean isSource(ITypeBinding type) {
+		return type != null && type.isFromSource() && (type.isClass() || type.isInterface() || type.isEnum() || type.isAnnotation() || type.isRecord());
+	}
+
+	private static boolean isToString(IMethodBinding method) {
+		return "toString".equals(method.getName()) && method.getParameterTypes().length == 0 && "java.lang.String".equals(method.getReturnType().getQualifiedName());
 	}
 
 }
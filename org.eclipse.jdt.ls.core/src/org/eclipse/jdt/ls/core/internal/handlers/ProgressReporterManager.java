@@ -69,7 +69,18 @@ public class ProgressReporterManager extends ProgressProvider {
 	}
 
 	public IProgressMonitor getProgressReporter(CancelChecker checker) {
-		return new ProgressReporter(checker);
+		return getProgressReporter(checker, 0);
+	}
+
+	/**
+	 * @param checker
+	 *            the cancel checker of the request
+	 * @param deadline
+	 *            the time, in milliseconds, after which the monitor is
+	 *            cancelled, or <code>0</code> for no deadline
+	 */
+	public IProgressMonitor getProgressReporter(CancelChecker checker, long deadline) {
+		return new ProgressReporter(checker, deadline);
 	}
 
 	@Override
@@ -172,8 +183,8 @@ public class ProgressReporterManager extends ProgressProvider {
 			this.job = job;
 		}
 
-		public ProgressReporter(CancelChecker checker) {
-			super(checker);
+		public ProgressReporter(CancelChecker checker, long deadline) {
+			super(checker, deadline);
 		}
 
 		@Override
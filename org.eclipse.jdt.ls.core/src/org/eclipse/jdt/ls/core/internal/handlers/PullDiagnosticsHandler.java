@@ -0,0 +1,328 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaModelMarker;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.ls.core.internal.DiagnosticsResultStore;
+import org.eclipse.jdt.ls.core.internal.DiagnosticsResultStore.DiagnosticsResult;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.ResourceUtils;
+import org.eclipse.jdt.ls.core.internal.managers.ProjectsManager;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.m2e.core.internal.IMavenConstants;
+
+/**
+ * Handler for the pull diagnostics requests (<code>textDocument/diagnostic</code>
+ * and <code>workspace/diagnostic</code>).
+ *
+ * Diagnostics of working copies are computed by the document life cycle
+ * handler, diagnostics of the other files are computed from their markers.
+ * Files whose diagnostics didn't change since the result id known by the
+ * client are reported as <code>unchanged</code>.
+ */
+@SuppressWarnings("restriction")
+public class PullDiagnosticsHandler {
+
+	public static final String FULL = "full";
+	public static final String UNCHANGED = "unchanged";
+
+	private static final Range ZERO_RANGE = new Range(new Position(0, 0), new Position(0, 0));
+
+	private final BaseDocumentLifeCycleHandler documentLifeCycleHandler;
+	private final ProjectsManager projectsManager;
+	private final DiagnosticsResultStore store;
+	private final boolean isDiagnosticTagSupported;
+
+	public PullDiagnosticsHandler(BaseDocumentLifeCycleHandler documentLifeCycleHandler, ProjectsManager projectsManager, boolean isDiagnosticTagSupported) {
+		this.documentLifeCycleHandler = documentLifeCycleHandler;
+		this.projectsManager = projectsManager;
+		this.store = JavaLanguageServerPlugin.getDiagnosticsResultStore();
+		this.isDiagnosticTagSupported = isDiagnosticTagSupported;
+	}
+
+	public static DiagnosticRegistrationOptions createOptions() {
+		DiagnosticRegistrationOptions options = new DiagnosticRegistrationOptions();
+		options.identifier = JavaLanguageServerPlugin.SERVER_SOURCE_ID;
+		options.interFileDependencies = true;
+		options.workspaceDiagnostics = true;
+		return options;
+	}
+
+	public DocumentDiagnosticReport documentDiagnostic(DocumentDiagnosticParams params, IProgressMonitor monitor) throws CoreException {
+		String uri = params.textDocument.getUri();
+		ICompilationUnit unit = JDTUtils.resolveCompilationUnit(uri);
+		if (unit != null && unit.isWorkingCopy()) {
+			String key = ResourceUtils.toClientUri(JDTUtils.toURI(unit));
+			// the error level of a non-project file can be changed by the user, see DiagnosticsState
+			String signature = documentLifeCycleHandler.createDiagnosticsHandler(unit).isSyntaxMode() ? DiagnosticsResultStore.SYNTAX_RECONCILE : DiagnosticsResultStore.FULL_RECONCILE;
+			DiagnosticsResult result = store.get(key);
+			if (result == null || !Objects.equals(signature, result.getSignature())) {
+				documentLifeCycleHandler.publishDiagnostics(unit, monitor);
+				result = store.get(key);
+			}
+			return toReport(result, params.previousResultId);
+		}
+		IFile file = JDTUtils.findFile(uri);
+		if (file == null || !file.isAccessible()) {
+			return new DocumentDiagnosticReport(FULL, null, Collections.emptyList());
+		}
+		MarkerGroup group = new MarkerGroup(file);
+		if (JavaCore.isJavaLikeFileName(file.getName())) {
+			IJavaProject javaProject = unit == null ? null : unit.getJavaProject();
+			if (javaProject != null && javaProject.isOnClasspath(unit)) {
+				group.markers.addAll(Arrays.asList(file.findMarkers(IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER, false, IResource.DEPTH_ZERO)));
+				group.markers.addAll(Arrays.asList(file.findMarkers(IJavaModelMarker.TASK_MARKER, false, IResource.DEPTH_ZERO)));
+			}
+		} else if (projectsManager.isBuildFile(file)) {
+			group.markers.addAll(Arrays.asList(file.findMarkers(null, true, IResource.DEPTH_ZERO)));
+		}
+		String key = ResourceUtils.toClientUri(JDTUtils.getFileURI(file));
+		return toReport(getResult(key, group), params.previousResultId);
+	}
+
+	public WorkspaceDiagnosticReport workspaceDiagnostic(WorkspaceDiagnosticParams params, IProgressMonitor monitor) throws CoreException {
+		Map<String, String> previousResultIds = new HashMap<>();
+		if (params.previousResultIds != null) {
+			for (PreviousResultId previous : params.previousResultIds) {
+				previousResultIds.put(previous.uri, previous.value);
+			}
+		}
+		Map<String, MarkerGroup> groups = groupByDocument(WorkspaceDiagnosticsHandler.getProblemMarkers(projectsManager, monitor));
+		List<WorkspaceDocumentDiagnosticReport> items = new ArrayList<>(groups.size());
+		for (Map.Entry<String, MarkerGroup> entry : groups.entrySet()) {
+			if (monitor != null && monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			String key = entry.getKey();
+			if (isWorkingCopy(key)) {
+				// working copies are reported by textDocument/diagnostic
+				continue;
+			}
+			DiagnosticsResult result = getResult(key, entry.getValue());
+			items.add(new WorkspaceDocumentDiagnosticReport(key, toReport(result, previousResultIds.get(key))));
+		}
+		// documents known by the client which don't have any markers anymore
+		for (Map.Entry<String, String> previous : previousResultIds.entrySet()) {
+			String key = previous.getKey();
+			if (groups.containsKey(key) || isWorkingCopy(key)) {
+				continue;
+			}
+			DiagnosticsResult result = store.get(key);
+			if (result == null || !result.getDiagnostics().isEmpty()) {
+				result = store.update(key, Collections.emptyList(), null);
+			}
+			if (!result.isUnchanged(previous.getValue())) {
+				items.add(new WorkspaceDocumentDiagnosticReport(key, toReport(result, previous.getValue())));
+			}
+		}
+		return new WorkspaceDiagnosticReport(items);
+	}
+
+	private Map<String, MarkerGroup> groupByDocument(List<IMarker> markers) throws CoreException {
+		Map<String, MarkerGroup> groups = new LinkedHashMap<>();
+		for (IMarker marker : markers) {
+			IResource resource = marker.getResource();
+			if (resource instanceof IProject) {
+				IProject project = (IProject) resource;
+				IFile pom = project.getFile("pom.xml");
+				if (IMavenConstants.MARKER_CONFIGURATION_ID.equals(marker.getType()) && pom.exists()) {
+					getGroup(groups, pom).resourceMarkers.add(marker);
+				} else {
+					getGroup(groups, project).resourceMarkers.add(marker);
+				}
+			} else if (resource instanceof IFile) {
+				getGroup(groups, resource).markers.add(marker);
+			}
+		}
+		return groups;
+	}
+
+	private static MarkerGroup getGroup(Map<String, MarkerGroup> groups, IResource resource) {
+		String key = ResourceUtils.toClientUri(JDTUtils.getFileURI(resource));
+		return groups.computeIfAbsent(key, k -> new MarkerGroup(resource));
+	}
+
+	private boolean isWorkingCopy(String uri) {
+		ICompilationUnit unit = JavaCore.isJavaLikeFileName(uri) ? JDTUtils.resolveCompilationUnit(uri) : null;
+		return unit != null && unit.isWorkingCopy();
+	}
+
+	/**
+	 * Returns the diagnostics of a closed document. The markers are only
+	 * converted to diagnostics when they changed since the last request.
+	 */
+	private DiagnosticsResult getResult(String key, MarkerGroup group) throws CoreException {
+		Object signature = group.getSignature();
+		DiagnosticsResult result = store.get(key);
+		if (result != null && Objects.equals(signature, result.getSignature())) {
+			return result;
+		}
+		return store.update(key, toDiagnostics(group), signature);
+	}
+
+	private List<Diagnostic> toDiagnostics(MarkerGroup group) throws JavaModelException {
+		List<Diagnostic> diagnostics = new ArrayList<>();
+		if (!group.markers.isEmpty()) {
+			LineOffsetIndex index = null;
+			if (JavaCore.isJavaLikeFileName(group.resource.getName())) {
+				ICompilationUnit unit = JDTUtils.resolveCompilationUnit((IFile) group.resource);
+				if (unit != null) {
+					index = LineOffsetIndex.get(unit.getBuffer());
+				}
+			} else {
+				index = LineOffsetIndex.get((IFile) group.resource);
+			}
+			if (index != null) {
+				diagnostics.addAll(WorkspaceDiagnosticsHandler.toDiagnosticsArray(index, group.markers.toArray(new IMarker[0]), isDiagnosticTagSupported));
+			}
+		}
+		if (!group.resourceMarkers.isEmpty()) {
+			diagnostics.addAll(WorkspaceDiagnosticsHandler.toDiagnosticArray(ZERO_RANGE, group.resourceMarkers, isDiagnosticTagSupported));
+		}
+		return diagnostics;
+	}
+
+	private static DocumentDiagnosticReport toReport(DiagnosticsResult result, String previousResultId) {
+		if (result == null) {
+			return new DocumentDiagnosticReport(FULL, null, Collections.emptyList());
+		}
+		if (result.isUnchanged(previousResultId)) {
+			return new DocumentDiagnosticReport(UNCHANGED, result.getResultId(), null);
+		}
+		return new DocumentDiagnosticReport(FULL, result.getResultId(), result.getDiagnostics());
+	}
+
+	private static class MarkerGroup {
+		private final IResource resource;
+		/**
+		 * Markers located in the document
+		 */
+		private final List<IMarker> markers = new ArrayList<>();
+		/**
+		 * Markers reported at the beginning of the document
+		 */
+		private final List<IMarker> resourceMarkers = new ArrayList<>();
+
+		MarkerGroup(IResource resource) {
+			this.resource = resource;
+		}
+
+		/**
+		 * Returns the modification stamp of the resource with the ids and the
+		 * attributes of its markers. The attributes are compared rather than
+		 * hashed, so that a change can't be missed.
+		 */
+		List<Object> getSignature() throws CoreException {
+			return Arrays.asList(resource.getModificationStamp(), getSignature(markers), getSignature(resourceMarkers));
+		}
+
+		private static List<Object> getSignature(List<IMarker> markers) throws CoreException {
+			List<Object> signature = new ArrayList<>(markers.size() * 2);
+			for (IMarker marker : markers) {
+				if (marker.exists()) {
+					signature.add(marker.getId());
+					// a copy of the attributes
+					signature.add(marker.getAttributes());
+				}
+			}
+			return signature;
+		}
+	}
+
+	public static class DiagnosticRegistrationOptions {
+		public String identifier;
+		public boolean interFileDependencies;
+		public boolean workspaceDiagnostics;
+	}
+
+	public static class DocumentDiagnosticParams {
+		public TextDocumentIdentifier textDocument;
+		public String identifier;
+		public String previousResultId;
+	}
+
+	public static class PreviousResultId {
+		public String uri;
+		public String value;
+	}
+
+	public static class WorkspaceDiagnosticParams {
+		public String identifier;
+		public List<PreviousResultId> previousResultIds;
+	}
+
+	public static class DocumentDiagnosticReport {
+		/**
+		 * Either {@link PullDiagnosticsHandler#FULL} or
+		 * {@link PullDiagnosticsHandler#UNCHANGED}
+		 */
+		public String kind;
+		public String resultId;
+		/**
+		 * The diagnostics, <code>null</code> for unchanged reports
+		 */
+		public List<Diagnostic> items;
+
+		public DocumentDiagnosticReport(String kind, String resultId, List<Diagnostic> items) {
+			this.kind = kind;
+			this.resultId = resultId;
+			this.items = items;
+		}
+	}
+
+	public static class WorkspaceDocumentDiagnosticReport extends DocumentDiagnosticReport {
+		public String uri;
+		/**
+		 * The version of the document, always <code>null</code> since only the
+		 * closed documents are reported
+		 */
+		public Integer version;
+
+		public WorkspaceDocumentDiagnosticReport(String uri, DocumentDiagnosticReport report) {
+			super(report.kind, report.resultId, report.items);
+			this.uri = uri;
+		}
+	}
+
+	public static class WorkspaceDiagnosticReport {
+		public List<WorkspaceDocumentDiagnosticReport> items;
+
+		public WorkspaceDiagnosticReport(List<WorkspaceDocumentDiagnosticReport> items) {
+			this.items = items;
+		}
+	}
+}
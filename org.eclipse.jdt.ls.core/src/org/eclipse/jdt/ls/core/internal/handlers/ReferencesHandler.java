@@ -19,6 +19,7 @@ import java.util.List;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.IAnnotation;
 import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.ICompilationUnit;
@@ -39,8 +40,11 @@ import org.eclipse.jdt.core.search.SearchParticipant;
 import org.eclipse.jdt.core.search.SearchPattern;
 import org.eclipse.jdt.core.search.SearchRequestor;
 import org.eclipse.jdt.internal.corext.codemanipulation.GetterSetterUtil;
+import org.eclipse.jdt.ls.core.internal.CancellableProgressMonitor;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.jfr.SearchEvent;
+import org.eclipse.jdt.ls.core.internal.jfr.ServerEvents;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
 import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.ReferenceParams;
@@ -81,7 +85,7 @@ public final class ReferencesHandler {
 			}
 			search(elementToSearch, locations, monitor);
 			if (monitor.isCanceled()) {
-				return Collections.emptyList();
+				return cancelled(locations, monitor);
 			}
 			if (preferenceManager.getPreferences().isIncludeAccessors() && elementToSearch instanceof IField) { // IField
 				IField field = (IField) elementToSearch;
@@ -90,19 +94,19 @@ public final class ReferencesHandler {
 					search(getter, locations, monitor);
 				}
 				if (monitor.isCanceled()) {
-					return Collections.emptyList();
+					return cancelled(locations, monitor);
 				}
 				IMethod setter = GetterSetterUtil.getSetter(field);
 				if (setter != null) {
 					search(setter, locations, monitor);
 				}
 				if (monitor.isCanceled()) {
-					return Collections.emptyList();
+					return cancelled(locations, monitor);
 				}
 				String builderName = getBuilderName(field);
 				IType builder = field.getJavaProject().findType(builderName);
 				if (monitor.isCanceled()) {
-					return Collections.emptyList();
+					return cancelled(locations, monitor);
 				}
 				if (builder != null) {
 					String fieldSignature = field.getTypeSignature();
@@ -114,9 +118,14 @@ public final class ReferencesHandler {
 					}
 				}
 				if (monitor.isCanceled()) {
-					return Collections.emptyList();
+					return cancelled(locations, monitor);
 				}
 			}
+		} catch (OperationCanceledException e) {
+			if (!CancellableProgressMonitor.isTimedOut(monitor)) {
+				throw e;
+			}
+			return cancelled(locations, monitor);
 		} catch (CoreException e) {
 			JavaLanguageServerPlugin.logException("Find references failure ", e);
 		} finally {
@@ -125,6 +134,15 @@ public final class ReferencesHandler {
 		return locations;
 	}
 
+	private List<Location> cancelled(List<Location> locations, IProgressMonitor monitor) {
+		// an expired time budget returns the references found so far
+		if (CancellableProgressMonitor.isTimedOut(monitor)) {
+			JavaLanguageServerPlugin.logInfo("References time budget expired, returning " + locations.size() + " references");
+			return locations;
+		}
+		return Collections.emptyList();
+	}
+
 	private String getBuilderName(IField field) {
 		IType declaringType = field.getDeclaringType();
 		IAnnotation annotation = declaringType.getAnnotation("Builder");
@@ -154,31 +172,42 @@ public final class ReferencesHandler {
 		boolean includeDecompiledSources = preferenceManager.getPreferences().isIncludeDecompiledSources();
 		SearchEngine engine = new SearchEngine();
 		SearchPattern pattern = SearchPattern.createPattern(elementToSearch, IJavaSearchConstants.REFERENCES);
-		engine.search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() }, createSearchScope(), new SearchRequestor() {
+		IJavaSearchScope scope = createSearchScope();
+		SearchEvent event = ServerEvents.isAvailable() ? SearchEvent.start(String.valueOf(pattern), scope) : null;
+		try {
+			engine.search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() }, scope, new SearchRequestor() {
 
-			@Override
-			public void acceptSearchMatch(SearchMatch match) throws CoreException {
-				Object o = match.getElement();
-				if (o instanceof IJavaElement) {
-					IJavaElement element = (IJavaElement) o;
-					ICompilationUnit compilationUnit = (ICompilationUnit) element.getAncestor(IJavaElement.COMPILATION_UNIT);
-					if (compilationUnit != null) {
-						Location location = JDTUtils.toLocation(compilationUnit, match.getOffset(), match.getLength());
-						locations.add(location);
-					} else if (includeClassFiles) {
-						IClassFile cf = (IClassFile) element.getAncestor(IJavaElement.CLASS_FILE);
-						if (cf != null && cf.getSourceRange() != null) {
-							Location location = JDTUtils.toLocation(cf, match.getOffset(), match.getLength());
+				@Override
+				public void acceptSearchMatch(SearchMatch match) throws CoreException {
+					if (event != null) {
+						event.match();
+					}
+					Object o = match.getElement();
+					if (o instanceof IJavaElement) {
+						IJavaElement element = (IJavaElement) o;
+						ICompilationUnit compilationUnit = (ICompilationUnit) element.getAncestor(IJavaElement.COMPILATION_UNIT);
+						if (compilationUnit != null) {
+							Location location = JDTUtils.toLocation(compilationUnit, match.getOffset(), match.getLength());
 							locations.add(location);
-						} else if (includeDecompiledSources && cf != null) {
-							List<Location> result = JDTUtils.searchDecompiledSources(element, cf, false, false, monitor);
-							locations.addAll(result);
+						} else if (includeClassFiles) {
+							IClassFile cf = (IClassFile) element.getAncestor(IJavaElement.CLASS_FILE);
+							if (cf != null && cf.getSourceRange() != null) {
+								Location location = JDTUtils.toLocation(cf, match.getOffset(), match.getLength());
+								locations.add(location);
+							} else if (includeDecompiledSources && cf != null) {
+								List<Location> result = JDTUtils.searchDecompiledSources(element, cf, false, false, monitor);
+								locations.addAll(result);
+							}
 						}
-					}
 
+					}
 				}
+			}, monitor);
+		} finally {
+			if (event != null) {
+				event.done();
 			}
-		}, monitor);
+		}
 	}
 
 }
\ No newline at end of file
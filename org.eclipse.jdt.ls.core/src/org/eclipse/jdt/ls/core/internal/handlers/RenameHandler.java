@@ -23,6 +23,7 @@ import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.ls.core.internal.ChangeUtil;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.JavaClientConnection;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.corext.refactoring.rename.RenameSupport;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
@@ -94,11 +95,31 @@ public class RenameHandler {
 			}
 
 			Change change = create.getChange();
-			return ChangeUtil.convertToWorkspaceEdit(change);
+			return convertToWorkspaceEdit(change);
 		} catch (CoreException ex) {
 			JavaLanguageServerPlugin.logException("Problem with rename for " + params.getTextDocument().getUri(), ex);
 		}
 
 		return edit;
 	}
+
+	/**
+	 * Converts the change of a rename. The rename is answered with a single
+	 * edit, unless the experimental <code>java.rename.maxFilesPerEdit</code>
+	 * preference is set: the edits of the first files are then applied with
+	 * <code>workspace/applyEdit</code> requests as soon as they're converted,
+	 * and the rename is answered with the edits of the last files.
+	 */
+	private WorkspaceEdit convertToWorkspaceEdit(Change change) throws CoreException {
+		int maxFiles = preferenceManager.getPreferences().getRenameMaxFilesPerEdit();
+		if (maxFiles <= 0 || !preferenceManager.getClientPreferences().isWorkspaceApplyEditSupported()) {
+			return ChangeUtil.convertToWorkspaceEditByEdit(change);
+		}
+		JavaClientConnection connection = JavaLanguageServerPlugin.getInstance().getClientConnection();
+		WorkspaceEdit last = ChangeUtil.applyInChunks(change, maxFiles, connection::applyWorkspaceEdit);
+		if (last == null) {
+			throw new ResponseErrorException(new ResponseError(ResponseErrorCode.InternalError, "The client failed to apply the edits of the rename, which were rolled back", null));
+		}
+		return last;
+	}
 }
@@ -33,8 +33,11 @@ import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaModelMarker;
 import org.eclipse.jdt.core.IJavaProject;
@@ -67,9 +70,12 @@ import org.eclipse.m2e.core.internal.Messages;
 public final class WorkspaceDiagnosticsHandler implements IResourceChangeListener, IResourceDeltaVisitor {
 
 	public static final String PROJECT_CONFIGURATION_IS_NOT_UP_TO_DATE_WITH_POM_XML = "Project configuration is not up-to-date with pom.xml, requires an update.";
+	private static final long REFRESH_DIAGNOSTICS_DELAY = 500;
 	private final JavaClientConnection connection;
 	private final ProjectsManager projectsManager;
 	private final boolean isDiagnosticTagSupported;
+	private final boolean isPullDiagnosticsSupported;
+	private final Job refreshDiagnosticsJob;
 
 	@Deprecated
 	public WorkspaceDiagnosticsHandler(JavaClientConnection connection, ProjectsManager projectsManager) {
@@ -80,6 +86,15 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 		this.connection = connection;
 		this.projectsManager = projectsManager;
 		this.isDiagnosticTagSupported = prefs != null ? prefs.isDiagnosticTagSupported() : false;
+		this.isPullDiagnosticsSupported = prefs != null ? prefs.isPullDiagnosticsSupported() : false;
+		this.refreshDiagnosticsJob = new Job("Refresh Diagnostics") {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				connection.refreshDiagnostics();
+				return Status.OK_STATUS;
+			}
+		};
+		this.refreshDiagnosticsJob.setSystem(true);
 	}
 
 	public void addResourceChangeListener() {
@@ -92,6 +107,13 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 
 	@Override
 	public void resourceChanged(IResourceChangeEvent event) {
+		if (isPullDiagnosticsSupported) {
+			// the client pulls the diagnostics, only notify it when some markers changed
+			if (event.findMarkerDeltas(null, true).length > 0) {
+				refreshDiagnosticsJob.schedule(REFRESH_DIAGNOSTICS_DELAY);
+			}
+			return;
+		}
 		try {
 			IResourceDelta delta = event.getDelta();
 			delta.accept(this);
@@ -152,7 +174,7 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 			return false;
 		}
 		IFile file = (IFile) resource;
-		IDocument document = null;
+		LineOffsetIndex index = null;
 		IMarker[] markers = null;
 		// Check if it is a Java ...
 		if (JavaCore.isJavaLikeFileName(file.getName())) {
@@ -169,16 +191,16 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 			IMarker[] taskMarkers = resource.findMarkers(IJavaModelMarker.TASK_MARKER, false, IResource.DEPTH_ONE);
 			markers = Arrays.copyOf(javaMarkers, javaMarkers.length + taskMarkers.length);
 			System.arraycopy(taskMarkers, 0, markers, javaMarkers.length, taskMarkers.length);
-			document = JsonRpcHelpers.toDocument(cu.getBuffer());
+			index = LineOffsetIndex.get(cu.getBuffer());
 		} // or a build file
 		else if (projectsManager.isBuildFile(file)) {
 			//all errors on that build file should be relevant
 			markers = file.findMarkers(null, true, 1);
-			document = JsonRpcHelpers.toDocument(file);
+			index = LineOffsetIndex.get(file);
 		}
-		if (document != null) {
+		if (index != null) {
 			String uri = JDTUtils.getFileURI(resource);
-			this.connection.publishDiagnostics(new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), toDiagnosticsArray(document, markers, isDiagnosticTagSupported)));
+			this.connection.publishDiagnostics(new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), toDiagnosticsArray(index, markers, isDiagnosticTagSupported)));
 		}
 		return false;
 	}
@@ -205,8 +227,8 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 		String clientUri = ResourceUtils.toClientUri(uri);
 		connection.publishDiagnostics(new PublishDiagnosticsParams(clientUri, diagnostics));
 		if (pom.exists()) {
-			IDocument document = JsonRpcHelpers.toDocument(pom);
-			diagnostics = toDiagnosticsArray(document, pom.findMarkers(null, true, IResource.DEPTH_ZERO), isDiagnosticTagSupported);
+			LineOffsetIndex index = LineOffsetIndex.get(pom);
+			diagnostics = index == null ? new ArrayList<>() : toDiagnosticsArray(index, pom.findMarkers(null, true, IResource.DEPTH_ZERO), isDiagnosticTagSupported);
 			List<Diagnostic> diagnosicts2 = toDiagnosticArray(range, pomMarkers, isDiagnosticTagSupported);
 			diagnostics.addAll(diagnosicts2);
 			String pomSuffix = clientUri.endsWith("/") ? "pom.xml" : "/pom.xml";
@@ -215,12 +237,20 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 	}
 
 	public List<IMarker> publishDiagnostics(IProgressMonitor monitor) throws CoreException {
-		List<IMarker> problemMarkers = getProblemMarkers(monitor);
-		publishDiagnostics(problemMarkers);
+		List<IMarker> problemMarkers = getProblemMarkers(projectsManager, monitor);
+		if (isPullDiagnosticsSupported) {
+			refreshDiagnosticsJob.schedule();
+		} else {
+			publishDiagnostics(problemMarkers);
+		}
 		return problemMarkers;
 	}
 
-	private List<IMarker> getProblemMarkers(IProgressMonitor monitor) throws CoreException {
+	/**
+	 * Returns the problem markers of all the projects, except the default
+	 * project, that are reported as diagnostics.
+	 */
+	public static List<IMarker> getProblemMarkers(ProjectsManager projectsManager, IProgressMonitor monitor) throws CoreException {
 		IProject[] projects = ResourcesPlugin.getWorkspace().getRoot().getProjects();
 		List<IMarker> markers = new ArrayList<>();
 		for (IProject project : projects) {
@@ -265,23 +295,23 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 			if (file == null) {
 				continue;
 			}
-			IDocument document = null;
+			LineOffsetIndex index = null;
 			String uri = JDTUtils.getFileURI(file);
 			if (JavaCore.isJavaLikeFileName(file.getName())) {
 				ICompilationUnit cu = JDTUtils.resolveCompilationUnit(uri);
 				//ignoring working copies, they're handled in the DocumentLifecycleHandler
 				if (cu != null && !cu.isWorkingCopy()) {
 					try {
-						document = JsonRpcHelpers.toDocument(cu.getBuffer());
+						index = LineOffsetIndex.get(cu.getBuffer());
 					} catch (JavaModelException e) {
 						JavaLanguageServerPlugin.logException("Failed to publish diagnostics for " + uri, e);
 					}
 				}
 			} else if (projectsManager.isBuildFile(file)) {
-				document = JsonRpcHelpers.toDocument(file);
+				index = LineOffsetIndex.get(file);
 			}
-			if (document != null) {
-				List<Diagnostic> diagnostics = WorkspaceDiagnosticsHandler.toDiagnosticsArray(document, entry.getValue().toArray(new IMarker[0]), isDiagnosticTagSupported);
+			if (index != null) {
+				List<Diagnostic> diagnostics = WorkspaceDiagnosticsHandler.toDiagnosticsArray(index, entry.getValue().toArray(new IMarker[0]), isDiagnosticTagSupported);
 				connection.publishDiagnostics(new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), diagnostics));
 			}
 		}
@@ -339,14 +369,31 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 	 * @return a list of {@link Diagnostic}s
 	 */
 	public static List<Diagnostic> toDiagnosticsArray(IDocument document, IMarker[] markers, boolean isDiagnosticTagSupported) {
+		return toDiagnosticsArray(new DocumentLines(document), markers, isDiagnosticTagSupported);
+	}
+
+	/**
+	 * Transforms {@link IMarker}s of an indexed text into a list of
+	 * {@link Diagnostic}s.
+	 *
+	 * @param index
+	 *            the line index of the text the markers belong to
+	 * @param markers
+	 * @return a list of {@link Diagnostic}s
+	 */
+	public static List<Diagnostic> toDiagnosticsArray(LineOffsetIndex index, IMarker[] markers, boolean isDiagnosticTagSupported) {
+		return toDiagnosticsArray(new IndexLines(index), markers, isDiagnosticTagSupported);
+	}
+
+	private static List<Diagnostic> toDiagnosticsArray(Lines lines, IMarker[] markers, boolean isDiagnosticTagSupported) {
 		List<Diagnostic> diagnostics = Stream.of(markers)
-				.map(m -> toDiagnostic(document, m, isDiagnosticTagSupported))
+				.map(m -> toDiagnostic(lines, m, isDiagnosticTagSupported))
 				.filter(d -> d != null)
 				.collect(Collectors.toList());
 		return diagnostics;
 	}
 
-	private static Diagnostic toDiagnostic(IDocument document, IMarker marker, boolean isDiagnosticTagSupported) {
+	private static Diagnostic toDiagnostic(Lines lines, IMarker marker, boolean isDiagnosticTagSupported) {
 		if (marker == null || !marker.exists()) {
 			return null;
 		}
@@ -356,7 +403,7 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 		int problemId = marker.getAttribute(IJavaModelMarker.ID, 0);
 		d.setCode(String.valueOf(problemId));
 		d.setSeverity(convertSeverity(marker.getAttribute(IMarker.SEVERITY, -1)));
-		d.setRange(convertRange(document, marker));
+		d.setRange(convertRange(lines, marker));
 		if (isDiagnosticTagSupported) {
 			d.setTags(DiagnosticsHandler.getDiagnosticTag(problemId));
 		}
@@ -367,22 +414,22 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 	 * @param marker
 	 * @return
 	 */
-	private static Range convertRange(IDocument document, IMarker marker) {
+	private static Range convertRange(Lines lines, IMarker marker) {
 		int line = marker.getAttribute(IMarker.LINE_NUMBER, -1) - 1;
 		if (line < 0) {
 			int end = marker.getAttribute(IMarker.CHAR_END, -1);
 			int start = marker.getAttribute(IMarker.CHAR_START, -1);
 			if (start >= 0 && end >= start) {
 				try {
-					Range range = getAnnotationRange(document, marker);
+					Range range = getAnnotationRange(lines, marker);
 					if (range != null) {
 						return range;
 					}
-				} catch (BadLocationException | JavaModelException e) {
+				} catch (BadLocationException e) {
 					JavaLanguageServerPlugin.logException(e.getMessage(), e);
 				}
-				int[] startPos = JsonRpcHelpers.toLine(document, start);
-				int[] endPos = JsonRpcHelpers.toLine(document, end);
+				int[] startPos = lines.toLine(start);
+				int[] endPos = lines.toLine(end);
 				return new Range(new Position(startPos[0], startPos[1]), new Position(endPos[0], endPos[1]));
 			}
 			return new Range(new Position(0, 0), new Position(0, 0));
@@ -397,7 +444,7 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 			} else {
 				if (marker.getAttribute(IJavaModelMarker.ID, -1) == IProblem.UndefinedType) {
 					try {
-						Range range = getAnnotationRange(document, marker);
+						Range range = getAnnotationRange(lines, marker);
 						if (range != null) {
 							return range;
 						}
@@ -407,7 +454,7 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 				} else {
 					int lineOffset = 0;
 					try {
-						lineOffset = document.getLineOffset(line);
+						lineOffset = lines.getLineOffset(line);
 					} catch (BadLocationException unlikelyException) {
 						JavaLanguageServerPlugin.logException(unlikelyException.getMessage(), unlikelyException);
 						return new Range(new Position(line, 0), new Position(line, 0));
@@ -424,25 +471,92 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 		return new Range(new Position(line, cStart), new Position(line, cEnd));
 	}
 
-	private static Range getAnnotationRange(IDocument document, IMarker marker) throws BadLocationException, JavaModelException {
+	private static Range getAnnotationRange(Lines lines, IMarker marker) throws BadLocationException {
 		if (marker.getAttribute(IJavaModelMarker.ID, -1) == IProblem.UndefinedType) {
 			int end = marker.getAttribute(IMarker.CHAR_END, -1);
 			int start = marker.getAttribute(IMarker.CHAR_START, -1);
 			if (start > 0) {
 				start--;
-				char ch = document.getChar(start);
+				char ch = lines.getChar(start);
 				while (Character.isWhitespace(ch)) {
 					start--;
-					ch = document.getChar(start);
+					ch = lines.getChar(start);
 				}
 				if (ch == '@') {
-					return JDTUtils.toRange(document, start, end - start);
+					int[] startPos = lines.toLine(start);
+					int[] endPos = lines.toLine(end);
+					Range range = JDTUtils.newRange();
+					if (startPos != null) {
+						range.setStart(new Position(startPos[0], startPos[1]));
+					}
+					if (endPos != null) {
+						range.setEnd(new Position(endPos[0], endPos[1]));
+					}
+					return range;
 				}
 			}
 		}
 		return null;
 	}
 
+	/**
+	 * The line information needed to convert marker offsets.
+	 */
+	private interface Lines {
+
+		int getLineOffset(int line) throws BadLocationException;
+
+		char getChar(int offset) throws BadLocationException;
+
+		int[] toLine(int offset);
+	}
+
+	private static class DocumentLines implements Lines {
+		private final IDocument document;
+
+		DocumentLines(IDocument document) {
+			this.document = document;
+		}
+
+		@Override
+		public int getLineOffset(int line) throws BadLocationException {
+			return document.getLineOffset(line);
+		}
+
+		@Override
+		public char getChar(int offset) throws BadLocationException {
+			return document.getChar(offset);
+		}
+
+		@Override
+		public int[] toLine(int offset) {
+			return JsonRpcHelpers.toLine(document, offset);
+		}
+	}
+
+	private static class IndexLines implements Lines {
+		private final LineOffsetIndex index;
+
+		IndexLines(LineOffsetIndex index) {
+			this.index = index;
+		}
+
+		@Override
+		public int getLineOffset(int line) throws BadLocationException {
+			return index.getLineOffset(line);
+		}
+
+		@Override
+		public char getChar(int offset) throws BadLocationException {
+			return index.getChar(offset);
+		}
+
+		@Override
+		public int[] toLine(int offset) {
+			return JsonRpcHelpers.toLine(index, offset);
+		}
+	}
+
 	/**
 	 * @param attribute
 	 * @return
@@ -32,6 +32,8 @@ import org.eclipse.jdt.core.search.TypeNameMatchRequestor;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.ProjectUtils;
+import org.eclipse.jdt.ls.core.internal.jfr.SearchEvent;
+import org.eclipse.jdt.ls.core.internal.jfr.ServerEvents;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
 import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.SymbolInformation;
@@ -55,9 +57,12 @@ public class WorkspaceSymbolHandler {
 			return symbols;
 		}
 
+		SearchEvent event = null;
 		try {
 			monitor.beginTask("Searching the types...", 100);
 			IJavaSearchScope searchScope = createSearchScope(projectName, sourceOnly);
+			SearchEvent searchEvent = ServerEvents.isAvailable() ? SearchEvent.start(query, searchScope) : null;
+			event = searchEvent;
 			int typeMatchRule = SearchPattern.R_CAMELCASE_MATCH;
 			if (query.contains("*") || query.contains("?")) {
 				typeMatchRule |= SearchPattern.R_PATTERN_MATCH;
@@ -68,6 +73,9 @@ public class WorkspaceSymbolHandler {
 
 				@Override
 				public void acceptTypeNameMatch(TypeNameMatch match) {
+					if (searchEvent != null) {
+						searchEvent.match();
+					}
 					try {
 						if (maxResults > 0 && symbols.size() >= maxResults) {
 							return;
@@ -131,6 +139,9 @@ public class WorkspaceSymbolHandler {
 
 					@Override
 					public void acceptMethodNameMatch(MethodNameMatch match) {
+						if (searchEvent != null) {
+							searchEvent.match();
+						}
 						try {
 							if (maxResults > 0 && symbols.size() >= maxResults) {
 								return;
@@ -177,6 +188,9 @@ public class WorkspaceSymbolHandler {
 				JavaLanguageServerPlugin.logException("Problem getting search for" + query, e);
 			}
 		} finally {
+			if (event != null) {
+				event.done();
+			}
 			monitor.done();
 		}
 
@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.StringReader;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.text.MessageFormat;
@@ -2506,9 +2507,33 @@ public class JavadocContentAccess2 {
 	}
 
 	public static Reader getMarkdownContentReader(IJavaElement element) {
+		String stored = JavadocStore.getInstance().getMarkdown(element);
+		if (stored != null) {
+			return stored.isEmpty() ? null : new StringReader(stored);
+		}
+		return computeMarkdownContentReader(element);
+	}
+
+	/**
+	 * Computes the Markdown content of the given element, bypassing the
+	 * {@link JavadocStore}
+	 */
+	static Reader computeMarkdownContentReader(IJavaElement element) {
+		return computeMarkdownContentReader(element, true);
+	}
+
+	/**
+	 * Computes the Markdown content of the given element, bypassing the
+	 * {@link JavadocStore}
+	 *
+	 * @param useAttachedJavadoc
+	 *            if <code>true</code> Javadoc will be extracted from attached
+	 *            Javadoc if there's no source
+	 */
+	static Reader computeMarkdownContentReader(IJavaElement element, boolean useAttachedJavadoc) {
 
 		try {
-			String rawHtml = JavadocContentAccess2.getHTMLContent(element, true);
+			String rawHtml = JavadocContentAccess2.getHTMLContent(element, useAttachedJavadoc);
 			Reader markdownReader = new JavaDoc2MarkdownConverter(rawHtml).getAsReader();
 			return markdownReader;
 		} catch (IOException | CoreException e) {
@@ -0,0 +1,512 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.javadoc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.IClassFile;
+import org.eclipse.jdt.core.IField;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IOrdinaryClassFile;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.internal.core.JrtPackageFragmentRoot;
+import org.eclipse.jdt.ls.core.internal.JDTEnvironmentUtils;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.CharStreams;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * On-disk store of the Markdown documentation of library members, so it's
+ * shared across servers and workspaces. Each library is parsed once, in the
+ * background, once its source or a local Javadoc is attached; documentation
+ * lookups then become a key-value read.
+ *
+ * The documentation of a library is keyed by the path and the checksum of its
+ * JAR, and its attachments, so it's shared by the projects using the library.
+ * The links of the Markdown contain the project of the element, which is
+ * replaced by a placeholder in the store, and by the project of the requested
+ * element when it's read.
+ *
+ * The documentation is stored as gzipped JSON. The files which aren't read for
+ * a month, then the least recently read ones past the size limit of the store,
+ * are deleted when a library is stored.
+ *
+ * The extraction never fetches a remote Javadoc. The members it would need
+ * aren't stored, so their documentation is computed when requested.
+ */
+public class JavadocStore {
+
+	private static final String FILE_EXTENSION = ".javadoc";
+
+	/**
+	 * Bumped when the content of the stored documentation changes
+	 */
+	private static final int FORMAT_VERSION = 3;
+
+	private static final int MAX_LOADED_LIBRARIES = 20;
+
+	private static final long MAX_AGE = TimeUnit.DAYS.toMillis(30);
+
+	private static final long MAX_SIZE = 256L * 1024 * 1024;
+
+	/**
+	 * Replaces the project in the query of the stored links, see
+	 * {@link #getLinkQuery(IJavaProject)}
+	 */
+	private static final String LINK_QUERY_PLACEHOLDER = "?{project}/";
+
+	/**
+	 * The family of the extraction jobs
+	 */
+	public static final String EXTRACTION_JOBS = "JavadocExtractionJobs";
+
+	private static JavadocStore instance;
+
+	private final File location;
+
+	/**
+	 * The checksums of the libraries, keyed by path, with the timestamp and size
+	 * of the JAR they were computed for
+	 */
+	private final Map<String, String[]> checksums = new ConcurrentHashMap<>();
+
+	private final Cache<String, Map<String, String>> loaded = CacheBuilder.newBuilder().maximumSize(MAX_LOADED_LIBRARIES).build();
+
+	private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+	public JavadocStore(File location) {
+		this.location = location;
+	}
+
+	/**
+	 * @return the store located by the
+	 *         {@link JDTEnvironmentUtils#JAVADOC_STORE javadoc.store} option
+	 */
+	public static synchronized JavadocStore getInstance() {
+		if (instance == null) {
+			instance = new JavadocStore(JDTEnvironmentUtils.getJavadocStoreLocation());
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns the stored Markdown documentation of the given library element.
+	 * Schedules the extraction of the documentation of its library if it isn't
+	 * stored yet, and the library has its source or a local Javadoc attached.
+	 *
+	 * @param element
+	 *            a member or package of a library
+	 * @return the documentation, an empty string if the element isn't
+	 *         documented, or <code>null</code> if the documentation isn't stored
+	 */
+	public String getMarkdown(IJavaElement element) {
+		IPackageFragmentRoot root = getLibrary(element);
+		if (root == null) {
+			return null;
+		}
+		try {
+			URL javadocLocation = JavaDocLocations.getLibraryJavadocLocation(root.getResolvedClasspathEntry());
+			boolean remoteJavadoc = javadocLocation != null && getLocalFile(javadocLocation) == null;
+			if (root.getSourceAttachmentPath() == null && (javadocLocation == null || remoteJavadoc)) {
+				return null;
+			}
+			String key = getStoreKey(root, javadocLocation);
+			Map<String, String> docs = load(key);
+			if (docs != null) {
+				String markdown = docs.get(getKey(element, root));
+				return markdown == null ? null : fromStored(markdown, element.getJavaProject());
+			}
+			if (pending.add(key)) {
+				new ExtractionJob(root, key, remoteJavadoc).schedule();
+			}
+		} catch (IOException | JavaModelException e) {
+			JavaLanguageServerPlugin.logException("Failed to read the stored Javadoc of " + element.getElementName(), e);
+		}
+		return null;
+	}
+
+	/**
+	 * @return the package fragment root of the given element if it's a JAR, or
+	 *         <code>null</code>
+	 */
+	private static IPackageFragmentRoot getLibrary(IJavaElement element) {
+		if (element == null || !(element.getOpenable() instanceof IClassFile || element instanceof IPackageFragment)) {
+			return null;
+		}
+		IPackageFragmentRoot root = (IPackageFragmentRoot) element.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+		// the JDK modules aren't extracted as a whole
+		if (root == null || !root.isArchive() || !root.isExternal() || root instanceof JrtPackageFragmentRoot) {
+			return null;
+		}
+		IPath path = root.getPath();
+		return path != null && path.toFile().isFile() ? root : null;
+	}
+
+	/**
+	 * @return the file of the given Javadoc location, or the archive containing
+	 *         it, or <code>null</code> if the location isn't local
+	 */
+	static File getLocalFile(URL location) {
+		String spec = location.toExternalForm();
+		if (spec.startsWith("jar:")) {
+			int separator = spec.indexOf("!/");
+			spec = spec.substring("jar:".length(), separator < 0 ? spec.length() : separator);
+		}
+		try {
+			URI uri = new URI(spec);
+			return "file".equals(uri.getScheme()) ? new File(uri) : null;
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the key of the stored documentation of the given library, which
+	 *         changes with its path, its content and its attachments
+	 */
+	String getStoreKey(IPackageFragmentRoot root, URL javadocLocation) throws IOException, JavaModelException {
+		File jar = root.getPath().toFile();
+		// the links of the documentation contain the path of the JAR
+		StringBuilder key = new StringBuilder(jar.getAbsolutePath());
+		key.append('\n').append(getChecksum(jar));
+		IPath source = root.getSourceAttachmentPath();
+		if (source != null) {
+			key.append('\n').append(source).append('\n').append(getStamp(source.toFile()));
+		}
+		if (javadocLocation != null) {
+			key.append('\n').append(javadocLocation);
+			File javadoc = getLocalFile(javadocLocation);
+			if (javadoc != null) {
+				key.append('\n').append(getStamp(javadoc));
+			}
+		}
+		return toHex(getDigest().digest(key.toString().getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * @return the beginning of the query of the links to the class files of the
+	 *         given project, see {@link org.eclipse.jdt.ls.core.internal.JDTUtils#toUri(IClassFile)},
+	 *         or <code>null</code> if it can't be encoded
+	 */
+	static String getLinkQuery(IJavaProject project) {
+		try {
+			String uri = new URI("jdt", "contents", "/", project.getHandleIdentifier() + "/", null).toASCIIString();
+			return uri.substring(uri.indexOf('?'));
+		} catch (URISyntaxException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the given Markdown with the project of its links replaced by a
+	 *         placeholder
+	 */
+	static String toStored(String markdown, IJavaProject project) {
+		String query = getLinkQuery(project);
+		return query == null ? markdown : markdown.replace(query, LINK_QUERY_PLACEHOLDER);
+	}
+
+	/**
+	 * @return the given stored Markdown with its links to the given project
+	 */
+	static String fromStored(String markdown, IJavaProject project) {
+		String query = getLinkQuery(project);
+		return query == null ? markdown : markdown.replace(LINK_QUERY_PLACEHOLDER, query);
+	}
+
+	private static String getStamp(File file) {
+		return file.lastModified() + ":" + file.length();
+	}
+
+	/**
+	 * @return the key of the given element, relative to its library so it doesn't
+	 *         depend on the project and the location of the JAR
+	 */
+	static String getKey(IJavaElement element, IPackageFragmentRoot root) {
+		String handle = element.getHandleIdentifier();
+		String rootHandle = root.getHandleIdentifier();
+		return handle.startsWith(rootHandle) ? handle.substring(rootHandle.length()) : handle;
+	}
+
+	String getChecksum(File jar) throws IOException {
+		String path = jar.getAbsolutePath();
+		String stamp = getStamp(jar);
+		String[] cached = checksums.get(path);
+		if (cached != null && cached[0].equals(stamp)) {
+			return cached[1];
+		}
+		try (InputStream in = new BufferedInputStream(new FileInputStream(jar))) {
+			MessageDigest digest = getDigest();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+			String checksum = toHex(digest.digest());
+			checksums.put(path, new String[] { stamp, checksum });
+			return checksum;
+		}
+	}
+
+	private static MessageDigest getDigest() throws IOException {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder();
+		for (byte b : bytes) {
+			hex.append(String.format("%02x", b));
+		}
+		return hex.toString();
+	}
+
+	private File getFile(String key) {
+		return new File(location, key + FILE_EXTENSION);
+	}
+
+	/**
+	 * @return the stored documentation with the given key, or <code>null</code>
+	 *         if it isn't stored or can't be read
+	 */
+	Map<String, String> load(String key) {
+		Map<String, String> docs = loaded.getIfPresent(key);
+		if (docs != null) {
+			return docs;
+		}
+		File file = getFile(key);
+		if (!file.isFile()) {
+			return null;
+		}
+		docs = read(file);
+		// a file which can't be read isn't cached, so it's extracted again
+		if (docs != null) {
+			loaded.put(key, docs);
+			// the least recently read files are pruned first
+			file.setLastModified(System.currentTimeMillis());
+		}
+		return docs;
+	}
+
+	private static Map<String, String> read(File file) {
+		try (Reader in = new InputStreamReader(new GZIPInputStream(new BufferedInputStream(new FileInputStream(file))), StandardCharsets.UTF_8)) {
+			StoredJavadoc stored = new Gson().fromJson(in, StoredJavadoc.class);
+			if (stored != null && stored.version == FORMAT_VERSION && stored.docs != null) {
+				return Collections.unmodifiableMap(stored.docs);
+			}
+		} catch (IOException | JsonParseException e) {
+			JavaLanguageServerPlugin.logException("Failed to read the stored Javadoc " + file, e);
+		}
+		// an outdated or corrupted file is extracted again
+		file.delete();
+		return null;
+	}
+
+	/**
+	 * Stores the documentation with the given key
+	 */
+	void store(String key, Map<String, String> docs) throws IOException {
+		location.mkdirs();
+		File file = getFile(key);
+		// written aside then moved, since other servers may read the store
+		File tmp = File.createTempFile(key, FILE_EXTENSION, location);
+		try {
+			try (Writer out = new OutputStreamWriter(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tmp))), StandardCharsets.UTF_8)) {
+				new Gson().toJson(new StoredJavadoc(docs), out);
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			tmp.delete();
+		}
+		loaded.invalidate(key);
+	}
+
+	/**
+	 * Deletes the stored documentation which wasn't read for the given time,
+	 * then the least recently read one until the store fits the given size
+	 */
+	void prune(long maxAge, long maxSize) {
+		File[] files = location.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+		if (files == null) {
+			return;
+		}
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed());
+		long now = System.currentTimeMillis();
+		long size = 0;
+		for (File file : files) {
+			long length = file.length();
+			if (now - file.lastModified() > maxAge || size + length > maxSize) {
+				String name = file.getName();
+				loaded.invalidate(name.substring(0, name.length() - FILE_EXTENSION.length()));
+				file.delete();
+			} else {
+				size += length;
+			}
+		}
+	}
+
+	/**
+	 * Extracts the documentation of a library: its packages, types, fields and
+	 * methods.
+	 *
+	 * @param remoteJavadoc
+	 *            whether the library has a remote Javadoc attached. The
+	 *            extraction doesn't fetch it, so the packages and the members
+	 *            without source documentation aren't stored.
+	 */
+	Map<String, String> extract(IPackageFragmentRoot root, boolean remoteJavadoc, IProgressMonitor monitor) throws JavaModelException {
+		Map<String, String> docs = new HashMap<>();
+		for (IJavaElement child : root.getChildren()) {
+			if (monitor.isCanceled()) {
+				return null;
+			}
+			IPackageFragment pkg = (IPackageFragment) child;
+			if (!remoteJavadoc) {
+				put(docs, pkg, root, false);
+			}
+			for (IClassFile classFile : pkg.getClassFiles()) {
+				if (!(classFile instanceof IOrdinaryClassFile)) {
+					continue;
+				}
+				IType type = ((IOrdinaryClassFile) classFile).getType();
+				if (type.isAnonymous() || type.isLocal()) {
+					continue;
+				}
+				put(docs, type, root, remoteJavadoc);
+				for (IField field : type.getFields()) {
+					put(docs, field, root, remoteJavadoc);
+				}
+				for (IMethod method : type.getMethods()) {
+					put(docs, method, root, remoteJavadoc);
+				}
+			}
+		}
+		return docs;
+	}
+
+	/**
+	 * @param remoteJavadoc
+	 *            whether the undocumented element may be documented by a
+	 *            remote Javadoc, which isn't fetched
+	 */
+	private static void put(Map<String, String> docs, IJavaElement element, IPackageFragmentRoot root, boolean remoteJavadoc) {
+		String markdown = null;
+		Reader reader = JavadocContentAccess2.computeMarkdownContentReader(element, !remoteJavadoc);
+		if (reader != null) {
+			try {
+				markdown = CharStreams.toString(reader);
+			} catch (IOException e) {
+				// not documented
+			}
+		}
+		if (markdown != null || !remoteJavadoc) {
+			docs.put(getKey(element, root), markdown == null ? "" : toStored(markdown, root.getJavaProject()));
+		}
+	}
+
+	private static class StoredJavadoc {
+
+		private int version;
+		private Map<String, String> docs;
+
+		StoredJavadoc(Map<String, String> docs) {
+			this.version = FORMAT_VERSION;
+			this.docs = docs;
+		}
+	}
+
+	private class ExtractionJob extends Job {
+
+		private final IPackageFragmentRoot root;
+		private final String key;
+		private final boolean remoteJavadoc;
+
+		ExtractionJob(IPackageFragmentRoot root, String key, boolean remoteJavadoc) {
+			super("Extract Javadoc of " + root.getElementName());
+			this.root = root;
+			this.key = key;
+			this.remoteJavadoc = remoteJavadoc;
+			setSystem(true);
+			setPriority(DECORATE);
+		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			return EXTRACTION_JOBS.equals(family);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			try {
+				long start = System.currentTimeMillis();
+				Map<String, String> docs = extract(root, remoteJavadoc, monitor);
+				if (docs == null) {
+					return Status.CANCEL_STATUS;
+				}
+				store(key, docs);
+				prune(MAX_AGE, MAX_SIZE);
+				JavaLanguageServerPlugin.logInfo("Extracted the Javadoc of " + docs.size() + " members of " + root.getElementName() + " in " + (System.currentTimeMillis() - start) + "ms");
+			} catch (IOException | JavaModelException e) {
+				JavaLanguageServerPlugin.logException("Failed to extract the Javadoc of " + root.getElementName(), e);
+			} finally {
+				pending.remove(key);
+			}
+			return Status.OK_STATUS;
+		}
+	}
+}
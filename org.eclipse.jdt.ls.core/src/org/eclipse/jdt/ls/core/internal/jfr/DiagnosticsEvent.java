@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The computation and publication of the diagnostics of a document.
+ */
+@Name("org.eclipse.jdt.ls.Diagnostics")
+@Label("Diagnostics")
+@Category(ServerEvents.CATEGORY)
+@Description("The computation and publication of the diagnostics of a document")
+public class DiagnosticsEvent extends Event {
+
+	@Label("URI")
+	public String uri;
+
+	@Label("Problems")
+	public int problems;
+
+	/**
+	 * @return the started event, or <code>null</code> if no recording enables it
+	 */
+	public static DiagnosticsEvent start(String uri) {
+		DiagnosticsEvent event = new DiagnosticsEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.uri = uri;
+		event.begin();
+		return event;
+	}
+
+	public void done(int problems) {
+		this.problems = problems;
+		commit();
+	}
+}
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A stage of the import or update of the projects.
+ */
+@Name("org.eclipse.jdt.ls.Import")
+@Label("Project Import")
+@Category(ServerEvents.CATEGORY)
+@Description("A stage of the import or update of the projects")
+public class ImportEvent extends Event {
+
+	@Label("Stage")
+	public String stage;
+
+	@Label("Location")
+	@Description("The imported root folder or the updated project")
+	public String location;
+
+	/**
+	 * @return the started event, or <code>null</code> if no recording enables it
+	 */
+	public static ImportEvent start(String stage, String location) {
+		ImportEvent event = new ImportEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.stage = stage;
+		event.location = location;
+		event.begin();
+		return event;
+	}
+
+	public void done() {
+		commit();
+	}
+}
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A reconcile pass over the changed working copies.
+ */
+@Name("org.eclipse.jdt.ls.Reconcile")
+@Label("Reconcile")
+@Category(ServerEvents.CATEGORY)
+@Description("A reconcile pass over the changed working copies")
+public class ReconcileEvent extends Event {
+
+	@Label("Units")
+	public int units;
+
+	@Label("Cancelled")
+	public boolean cancelled;
+
+	/**
+	 * @return the started event, or <code>null</code> if no recording enables it
+	 */
+	public static ReconcileEvent start() {
+		ReconcileEvent event = new ReconcileEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	public void done(int units, boolean cancelled) {
+		this.units = units;
+		this.cancelled = cancelled;
+		commit();
+	}
+}
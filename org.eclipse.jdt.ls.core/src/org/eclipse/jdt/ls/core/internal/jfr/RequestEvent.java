@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The handling of a language server request, on the thread computing its
+ * result.
+ */
+@Name("org.eclipse.jdt.ls.Request")
+@Label("Request")
+@Category(ServerEvents.CATEGORY)
+@Description("A language server request")
+public class RequestEvent extends Event {
+
+	@Label("Method")
+	public String method;
+
+	@Label("URI")
+	public String uri;
+
+	@Label("Queue Time")
+	@Timespan(Timespan.NANOSECONDS)
+	public long queueTime;
+
+	@Label("Cancelled")
+	public boolean cancelled;
+
+	@Label("Failed")
+	public boolean failed;
+
+	@Label("Result Size")
+	@Description("The number of returned items, or -1 if the result isn't a list")
+	public int resultSize;
+
+	/**
+	 * @return the started event, or <code>null</code> if no recording enables it
+	 */
+	public static RequestEvent start(String method, String uri, long queueTime) {
+		RequestEvent event = new RequestEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.method = method;
+		event.uri = uri;
+		event.queueTime = queueTime;
+		event.begin();
+		return event;
+	}
+
+	public void done(boolean cancelled, boolean failed, int resultSize) {
+		this.cancelled = cancelled;
+		this.failed = failed;
+		this.resultSize = resultSize;
+		commit();
+	}
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.jfr;
+
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.internal.core.JavaModelManager;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A {@link org.eclipse.jdt.core.search.SearchEngine} query.
+ */
+@Name("org.eclipse.jdt.ls.Search")
+@Label("Search")
+@Category(ServerEvents.CATEGORY)
+@Description("A search engine query")
+public class SearchEvent extends Event {
+
+	@Label("Pattern")
+	public String pattern;
+
+	@Label("Scope Size")
+	@Description("The number of projects and libraries in the search scope")
+	public int scopeSize;
+
+	@Label("Pending Index Jobs")
+	@Description("The number of indexing jobs the search had to wait for")
+	public int pendingIndexJobs;
+
+	@Label("Time to First Match")
+	@Description("The time until the first match, including the wait for the indexes")
+	@Timespan(Timespan.NANOSECONDS)
+	public long timeToFirstMatch;
+
+	@Label("Matches")
+	public int matches;
+
+	private transient long startNanos;
+
+	/**
+	 * @return the started event, or <code>null</code> if no recording enables it
+	 */
+	public static SearchEvent start(String pattern, IJavaSearchScope scope) {
+		SearchEvent event = new SearchEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.pattern = pattern;
+		event.scopeSize = scope.enclosingProjectsAndJars().length;
+		event.pendingIndexJobs = JavaModelManager.getIndexManager().awaitingJobsCount();
+		event.startNanos = System.nanoTime();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Counts a match. Called by the search requestor.
+	 */
+	public void match() {
+		if (matches++ == 0) {
+			timeToFirstMatch = System.nanoTime() - startNanos;
+		}
+	}
+
+	public void done() {
+		commit();
+	}
+}
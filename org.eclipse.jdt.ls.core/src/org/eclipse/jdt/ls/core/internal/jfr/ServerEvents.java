@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.jfr;
+
+/**
+ * Java Flight Recorder events of the language server, see
+ * {@link RequestEvent}, {@link ReconcileEvent}, {@link SearchEvent},
+ * {@link ImportEvent} and {@link DiagnosticsEvent}.
+ *
+ * The events are only created if the JDK provides the jdk.jfr module, so the
+ * event classes must only be referenced after checking
+ * {@link #isAvailable()}. The events are then committed if a recording
+ * enables them, e.g. with:
+ *
+ * <pre>
+ * jcmd &lt;pid&gt; JFR.start name=jdtls settings=profile
+ * </pre>
+ */
+public final class ServerEvents {
+
+	public static final String CATEGORY = "Java Language Server";
+
+	private static final boolean AVAILABLE = isJfrAvailable();
+
+	private ServerEvents() {
+		//avoid instantiation
+	}
+
+	/**
+	 * @return <code>true</code> if the running JDK supports the flight recorder
+	 */
+	public static boolean isAvailable() {
+		return AVAILABLE;
+	}
+
+	private static boolean isJfrAvailable() {
+		try {
+			Class.forName("jdk.jfr.Event", false, ServerEvents.class.getClassLoader());
+			return true;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+}
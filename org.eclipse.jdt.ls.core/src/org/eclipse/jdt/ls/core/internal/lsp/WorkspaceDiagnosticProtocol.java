@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.lsp;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.jdt.ls.core.internal.handlers.PullDiagnosticsHandler.WorkspaceDiagnosticParams;
+import org.eclipse.jdt.ls.core.internal.handlers.PullDiagnosticsHandler.WorkspaceDiagnosticReport;
+import org.eclipse.lsp4j.jsonrpc.services.JsonRequest;
+import org.eclipse.lsp4j.jsonrpc.services.JsonSegment;
+
+/**
+ * The workspace pull diagnostics request, not available in the lsp4j version
+ * in use.
+ */
+@JsonSegment("workspace")
+public interface WorkspaceDiagnosticProtocol {
+
+	/**
+	 * The workspace diagnostic request is sent from the client to the server
+	 * to ask the server to compute the diagnostics of the workspace.
+	 */
+	@JsonRequest
+	CompletableFuture<WorkspaceDiagnosticReport> diagnostic(WorkspaceDiagnosticParams params);
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.managers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.internal.gradle.checksums.HashProvider;
+import org.eclipse.m2e.core.embedder.ArtifactKey;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * Persistent cache of the identification of library JARs: their SHA-1
+ * checksum, keyed by path, size and modification time so JARs aren't hashed
+ * again, and the Maven artifact they were identified as.
+ *
+ * The changes are only written by {@link #flush()}, once per batch of
+ * identifications.
+ */
+public class ArtifactIdentificationCache {
+
+	public static final String CACHE_FILE = "artifact-identification.json";
+
+	/**
+	 * How long a JAR unknown to the remote repositories isn't looked up again
+	 */
+	private static final long NOT_FOUND_EXPIRATION = TimeUnit.DAYS.toMillis(7);
+
+	private static ArtifactIdentificationCache instance;
+
+	private final File file;
+
+	private final HashProvider hashProvider = new HashProvider(HashProvider.SHA1);
+
+	private State state;
+
+	private boolean dirty;
+
+	public ArtifactIdentificationCache(File file) {
+		this.file = file;
+		this.state = load(file);
+	}
+
+	/**
+	 * @return the cache stored in the state location of the server
+	 */
+	public static synchronized ArtifactIdentificationCache getInstance() {
+		if (instance == null) {
+			instance = new ArtifactIdentificationCache(JavaLanguageServerPlugin.getInstance().getStateLocation().append(CACHE_FILE).toFile());
+		}
+		return instance;
+	}
+
+	public static synchronized void shutdown() {
+		if (instance != null) {
+			instance.flush();
+			instance = null;
+		}
+	}
+
+	/**
+	 * Returns the SHA-1 checksum of the given file, only computed if the file
+	 * changed since the last call.
+	 */
+	public synchronized String getChecksum(File jar) throws IOException {
+		FileEntry entry = getEntry(jar);
+		if (entry.sha1 == null) {
+			entry.sha1 = hashProvider.getChecksum(jar);
+			dirty = true;
+		}
+		return entry.sha1;
+	}
+
+	/**
+	 * @return the artifact the given file was identified as, or <code>null</code>
+	 *         if it wasn't identified yet
+	 */
+	public synchronized ArtifactKey getArtifact(File jar) {
+		FileEntry entry = state.files.get(jar.getAbsolutePath());
+		if (entry == null || !entry.matches(jar) || entry.artifactId == null) {
+			return null;
+		}
+		return new ArtifactKey(entry.groupId, entry.artifactId, entry.version, entry.classifier);
+	}
+
+	public synchronized void putArtifact(File jar, ArtifactKey artifact) {
+		FileEntry entry = getEntry(jar);
+		entry.groupId = artifact.getGroupId();
+		entry.artifactId = artifact.getArtifactId();
+		entry.version = artifact.getVersion();
+		entry.classifier = artifact.getClassifier();
+		dirty = true;
+	}
+
+	/**
+	 * @return <code>true</code> if the JAR with the given checksum was recently
+	 *         looked up remotely without being found
+	 */
+	public synchronized boolean isNotFound(String sha1) {
+		Long timestamp = state.notFound.get(sha1);
+		return timestamp != null && System.currentTimeMillis() - timestamp < NOT_FOUND_EXPIRATION;
+	}
+
+	public synchronized void putNotFound(String sha1) {
+		state.notFound.put(sha1, System.currentTimeMillis());
+		dirty = true;
+	}
+
+	private FileEntry getEntry(File jar) {
+		String path = jar.getAbsolutePath();
+		FileEntry entry = state.files.get(path);
+		if (entry == null || !entry.matches(jar)) {
+			entry = new FileEntry();
+			entry.size = jar.length();
+			entry.lastModified = jar.lastModified();
+			state.files.put(path, entry);
+		}
+		return entry;
+	}
+
+	private static State load(File file) {
+		if (file.isFile()) {
+			try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+				State state = new Gson().fromJson(reader, State.class);
+				if (state != null && state.files != null && state.notFound != null) {
+					return state;
+				}
+			} catch (IOException | JsonParseException e) {
+				JavaLanguageServerPlugin.logException("Failed to read " + file, e);
+			}
+		}
+		return new State();
+	}
+
+	/**
+	 * Writes the changes, if any. The JARs which don't exist anymore and the
+	 * expired lookups are dropped.
+	 */
+	public synchronized void flush() {
+		if (!dirty) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		state.files.keySet().removeIf(path -> !new File(path).isFile());
+		state.notFound.values().removeIf(timestamp -> now - timestamp >= NOT_FOUND_EXPIRATION);
+		save();
+		dirty = false;
+	}
+
+	private void save() {
+		try {
+			File parent = file.getParentFile();
+			if (parent != null) {
+				parent.mkdirs();
+			}
+			File tmp = new File(file.getPath() + ".tmp");
+			try (Writer writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+				new Gson().toJson(state, writer);
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			JavaLanguageServerPlugin.logException("Failed to write " + file, e);
+		}
+	}
+
+	private static class State {
+		private Map<String, FileEntry> files = new HashMap<>();
+		private Map<String, Long> notFound = new HashMap<>();
+	}
+
+	private static class FileEntry {
+		private long size;
+		private long lastModified;
+		private String sha1;
+		private String groupId;
+		private String artifactId;
+		private String version;
+		private String classifier;
+
+		private boolean matches(File jar) {
+			return size == jar.length() && lastModified == jar.lastModified();
+		}
+	}
+}
@@ -12,7 +12,6 @@
  *******************************************************************************/
 package org.eclipse.jdt.ls.core.internal.managers;
 
-import org.codehaus.plexus.util.SelectorUtils;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -63,9 +62,11 @@ public class InvisibleProjectBuildSupport extends EclipseBuildSupport implements
 				return false; // skip if excluded
 			}
 		}
+		boolean file = resource.getLocation().toFile().isFile();
 		for (String pattern: libraries.getInclude()) {
-			if (matchPattern(projectFolder, pattern, resourcePath)) {
-				UpdateClasspathJob.getInstance().updateClasspath(JavaCore.create(project), libraries);
+			// a directory, or a deleted one, may contain included libraries
+			if (matchPattern(projectFolder, pattern, resourcePath) || (!file && ProjectUtils.matchPatternStart(projectFolder, pattern, resourcePath))) {
+				UpdateClasspathJob.getInstance().updateClasspath(JavaCore.create(project), libraries, resource.getLocation().toFile().toPath());
 				return false; // update if included in any pattern
 			}
 		}
@@ -90,12 +91,7 @@ public class InvisibleProjectBuildSupport extends EclipseBuildSupport implements
 	}
 
 	public boolean matchPattern(IPath base, String pattern, String path) {
-		String glob = ProjectUtils.resolveGlobPath(base, pattern).toOSString();
-		if (base.getDevice() != null) {
-			return SelectorUtils.matchPath(glob, path, false); // Case insensitive match in Windows
-		} else {
-			return SelectorUtils.matchPath(glob, path); // Case sensitive match in *nix
-		}
+		return ProjectUtils.matchPattern(base, pattern, path);
 	}
 
 	@Override
@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.managers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.m2e.core.MavenPlugin;
+import org.eclipse.m2e.core.embedder.ArtifactKey;
+
+/**
+ * Identifies the JARs of the local Maven repository, from their location in
+ * the repository layout, or from the <code>.jar.sha1</code> checksums of the
+ * repository for the copies of its JARs. Doesn't need the network, so it's
+ * consulted before the remote repositories.
+ *
+ * The checksums are indexed on the first lookup of a JAR outside of the
+ * repository. A lookup missing the index refreshes it once it's older than
+ * {@link #INDEX_EXPIRATION}: only the checksum files added or modified since
+ * are read. Cancelling the indexing keeps the checksums read so far for the
+ * next refresh.
+ */
+public class LocalRepositoryIdentifier implements IMavenArtifactIdentifier {
+
+	private static final String SHA1_EXTENSION = ".jar.sha1";
+
+	private static final long INDEX_EXPIRATION = TimeUnit.MINUTES.toMillis(10);
+
+	private final File repository;
+
+	private final ArtifactIdentificationCache cache;
+
+	/**
+	 * The checksums of the repository, by checksum file
+	 */
+	private final Map<Path, IndexEntry> index = new HashMap<>();
+
+	/**
+	 * The artifacts of the index, by checksum
+	 */
+	private final Map<String, ArtifactKey> artifacts = new HashMap<>();
+
+	/**
+	 * When the index was last completed, 0 if it never was
+	 */
+	private long indexTime;
+
+	public LocalRepositoryIdentifier() {
+		this(getLocalRepository(), ArtifactIdentificationCache.getInstance());
+	}
+
+	public LocalRepositoryIdentifier(File repository, ArtifactIdentificationCache cache) {
+		this.repository = repository;
+		this.cache = cache;
+	}
+
+	private static File getLocalRepository() {
+		try {
+			return new File(MavenPlugin.getMaven().getLocalRepository().getBasedir());
+		} catch (CoreException e) {
+			JavaLanguageServerPlugin.logException("Failed to get the local Maven repository", e);
+			return new File(System.getProperty("user.home"), ".m2/repository");
+		}
+	}
+
+	@Override
+	public ArtifactKey identify(IPath path, IProgressMonitor monitor) {
+		if (path == null || repository == null || !repository.isDirectory()) {
+			return null;
+		}
+		File file = path.toFile();
+		if (!file.isFile()) {
+			return null;
+		}
+		ArtifactKey artifact = fromLayout(repository.toPath(), file.toPath());
+		if (artifact != null) {
+			return artifact;
+		}
+		try {
+			return lookup(cache.getChecksum(file), monitor);
+		} catch (IOException e) {
+			JavaLanguageServerPlugin.logError("Failed to compute SHA1 checksum for " + file + " : " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the artifact of the given JAR from its location in the repository:
+	 * <code>group/artifact/version/artifact-version[-classifier].jar</code>
+	 *
+	 * @return the artifact, or <code>null</code> if the JAR isn't in the
+	 *         repository
+	 */
+	static ArtifactKey fromLayout(Path repository, Path jar) {
+		Path normalized = jar.toAbsolutePath().normalize();
+		Path base = repository.toAbsolutePath().normalize();
+		if (!normalized.startsWith(base)) {
+			return null;
+		}
+		Path relative = base.relativize(normalized);
+		int count = relative.getNameCount();
+		if (count < 4) {
+			return null;
+		}
+		String version = relative.getName(count - 2).toString();
+		String artifactId = relative.getName(count - 3).toString();
+		String prefix = artifactId + "-" + version;
+		String fileName = relative.getFileName().toString();
+		if (!fileName.startsWith(prefix) || !fileName.endsWith(".jar")) {
+			return null;
+		}
+		String classifier = fileName.substring(prefix.length(), fileName.length() - ".jar".length());
+		if (classifier.startsWith("-")) {
+			classifier = classifier.substring(1);
+		} else if (!classifier.isEmpty()) {
+			return null;
+		}
+		String groupId = relative.subpath(0, count - 3).toString().replace(File.separatorChar, '.');
+		return new ArtifactKey(groupId, artifactId, version, classifier.isEmpty() ? null : classifier);
+	}
+
+	private synchronized ArtifactKey lookup(String sha1, IProgressMonitor monitor) {
+		ArtifactKey artifact = artifacts.get(sha1);
+		if (artifact == null && System.currentTimeMillis() - indexTime > INDEX_EXPIRATION) {
+			refreshIndex(monitor);
+			artifact = artifacts.get(sha1);
+		}
+		return artifact;
+	}
+
+	/**
+	 * Walks the repository and reads the checksum files added or modified since
+	 * the last walk. The walk stops when the monitor is cancelled.
+	 */
+	private void refreshIndex(IProgressMonitor monitor) {
+		long start = System.currentTimeMillis();
+		Map<Path, IndexEntry> checksums = new HashMap<>();
+		boolean[] canceled = new boolean[1];
+		try {
+			Files.walkFileTree(repository.toPath(), new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					if (monitor != null && monitor.isCanceled()) {
+						canceled[0] = true;
+						return FileVisitResult.TERMINATE;
+					}
+					String name = file.getFileName().toString();
+					if (name.endsWith(SHA1_EXTENSION)) {
+						long lastModified = attrs.lastModifiedTime().toMillis();
+						IndexEntry entry = index.get(file);
+						if (entry == null || entry.lastModified != lastModified) {
+							entry = read(file, lastModified);
+						}
+						if (entry != null) {
+							checksums.put(file, entry);
+						}
+					}
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(Path file, IOException exc) {
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (IOException | RuntimeException e) {
+			JavaLanguageServerPlugin.logException("Failed to index the local Maven repository " + repository, e);
+			canceled[0] = true;
+		}
+		if (canceled[0]) {
+			// the checksums of the deleted files are only dropped by a complete walk
+			index.putAll(checksums);
+		} else {
+			index.clear();
+			index.putAll(checksums);
+			indexTime = System.currentTimeMillis();
+		}
+		artifacts.clear();
+		index.values().forEach(entry -> artifacts.put(entry.sha1, entry.artifact));
+		JavaLanguageServerPlugin.logInfo("Indexed " + artifacts.size() + " artifacts of " + repository + " in " + (System.currentTimeMillis() - start) + "ms");
+	}
+
+	private IndexEntry read(Path sha1File, long lastModified) {
+		String name = sha1File.getFileName().toString();
+		ArtifactKey artifact = fromLayout(repository.toPath(), sha1File.resolveSibling(name.substring(0, name.length() - ".sha1".length())));
+		if (artifact == null) {
+			return null;
+		}
+		try {
+			// the checksum may be followed by the file name
+			String sha1 = new String(Files.readAllBytes(sha1File), StandardCharsets.US_ASCII).trim().split("\\s")[0];
+			return new IndexEntry(lastModified, sha1.toLowerCase(), artifact);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private static class IndexEntry {
+		private final long lastModified;
+		private final String sha1;
+		private final ArtifactKey artifact;
+
+		IndexEntry(long lastModified, String sha1, ArtifactKey artifact) {
+			this.lastModified = lastModified;
+			this.sha1 = sha1;
+			this.artifact = artifact;
+		}
+	}
+}
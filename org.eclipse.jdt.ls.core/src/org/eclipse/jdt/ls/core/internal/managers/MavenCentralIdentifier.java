@@ -15,19 +15,32 @@ package org.eclipse.jdt.ls.core.internal.managers;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.ConnectException;
 import java.net.ProxySelector;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpClient.Version;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
-import org.eclipse.jdt.ls.internal.gradle.checksums.HashProvider;
 import org.eclipse.m2e.core.embedder.ArtifactKey;
 import org.eclipse.osgi.util.NLS;
 
@@ -47,70 +60,120 @@ public class MavenCentralIdentifier implements IMavenArtifactIdentifier {
 
 	private static final String SHA1_SEARCH_QUERY = "https://search.maven.org/solrsearch/select?q=1:%22{0}%22&rows=1&wt=json";
 
-	private HashProvider hashProvider = new HashProvider(HashProvider.SHA1);
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+	/**
+	 * How long Maven Central isn't queried after failing to connect, so
+	 * air-gapped environments don't wait for the timeout on every lookup
+	 */
+	private static final long OFFLINE_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+	private static final int MAX_CONCURRENT_LOOKUPS = 4;
+
+	private static HttpClient client;
+
+	private static volatile long offlineUntil;
 
 	@Override
 	public ArtifactKey identify(IPath path, IProgressMonitor monitor) {
 		if (path == null) {
 			return null;
 		}
-		return identify(path.toFile(), monitor);
+		return identifyAll(Collections.singletonList(path), monitor).get(path);
 	}
 
-	private ArtifactKey identify(File file, IProgressMonitor monitor) {
-		if (file == null || !file.isFile() || !file.canRead()) {
-			return null;
+	/**
+	 * Identifies the given JARs, looking them up concurrently with a shared HTTP
+	 * client.
+	 *
+	 * @return the identified artifacts, keyed by path
+	 */
+	public Map<IPath, ArtifactKey> identifyAll(List<IPath> paths, IProgressMonitor monitor) {
+		Map<IPath, ArtifactKey> result = new ConcurrentHashMap<>();
+		if (monitor == null) {
+			monitor = new NullProgressMonitor();
+		}
+		ArtifactIdentificationCache cache = ArtifactIdentificationCache.getInstance();
+		Map<IPath, String> checksums = new LinkedHashMap<>();
+		for (IPath path : paths) {
+			File file = path.toFile();
+			if (!file.isFile() || !file.canRead()) {
+				continue;
+			}
+			try {
+				String sha1 = cache.getChecksum(file);
+				if (sha1 != null && !sha1.isBlank() && !cache.isNotFound(sha1)) {
+					checksums.put(path, sha1);
+				}
+			} catch (IOException e) {
+				JavaLanguageServerPlugin.logError("Failed to compute SHA1 checksum for " + file + " : " + e.getMessage());
+			}
+		}
+		Semaphore permits = new Semaphore(MAX_CONCURRENT_LOOKUPS);
+		List<CompletableFuture<?>> lookups = new ArrayList<>();
+		for (Entry<IPath, String> entry : checksums.entrySet()) {
+			if (monitor.isCanceled() || isOffline()) {
+				break;
+			}
+			try {
+				permits.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			String sha1 = entry.getValue();
+			lookups.add(find(sha1).whenComplete((artifact, e) -> {
+				permits.release();
+				if (e != null) {
+					Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+					JavaLanguageServerPlugin.logError("Failed to identify " + sha1 + " with Maven Central : " + cause.getMessage());
+					if (cause instanceof ConnectException || cause instanceof HttpTimeoutException) {
+						offlineUntil = System.currentTimeMillis() + OFFLINE_DELAY_MILLIS;
+					}
+				} else if (artifact == null) {
+					cache.putNotFound(sha1);
+				} else {
+					result.put(entry.getKey(), artifact);
+				}
+			}));
 		}
-		String sha1 = null;
 		try {
-			sha1 = hashProvider.getChecksum(file);
-		} catch (IOException e) {
-			JavaLanguageServerPlugin.logError("Failed to compute SHA1 checksum for " + file + " : " + e.getMessage());
-			return null;
+			CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0])).join();
+		} catch (CompletionException | CancellationException e) {
+			// logged by each lookup
 		}
-		return identifySha1(sha1, monitor);
+		return result;
 	}
 
-	private ArtifactKey identifySha1(String sha1, IProgressMonitor monitor) {
-		if (sha1 == null || sha1.isBlank()) {
-			return null;
-		}
-		String searchUrl = NLS.bind(SHA1_SEARCH_QUERY, sha1);
-		try {
-			return find(searchUrl, monitor);
-		} catch (Exception e) {
-			JavaLanguageServerPlugin.logError("Failed to identify " + sha1 + " with Maven Central : " + e.getMessage());
+	private static boolean isOffline() {
+		return System.currentTimeMillis() < offlineUntil;
+	}
+
+	private static synchronized HttpClient getClient() {
+		if (client == null) {
+			client = HttpClient.newBuilder()
+					.connectTimeout(TIMEOUT)
+					.proxy(ProxySelector.getDefault())
+					.version(Version.HTTP_2)
+					.build();
 		}
-		return null;
+		return client;
 	}
 
-	private ArtifactKey find(String searchUrl, IProgressMonitor monitor) throws IOException, InterruptedException {
-		Duration timeout = Duration.ofSeconds(10);
-		HttpClient client = HttpClient.newBuilder()
-				.connectTimeout(timeout)
-				.proxy(ProxySelector.getDefault())
-	            .version(Version.HTTP_2)
-				.build();
+	private CompletableFuture<ArtifactKey> find(String sha1) {
+		String searchUrl = NLS.bind(SHA1_SEARCH_QUERY, sha1);
 		HttpRequest httpRequest = HttpRequest.newBuilder()
-				.timeout(timeout)
+				.timeout(TIMEOUT)
 		        .uri(URI.create(searchUrl))
 		        .GET()
 		        .build();
-
-		if (monitor == null) {
-			monitor = new NullProgressMonitor();
-		}
-		if (monitor.isCanceled()) {
+		return getClient().sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+			JsonElement jsonElement = new JsonParser().parse(response.body());
+			if (jsonElement != null && jsonElement.isJsonObject()) {
+				return extractKey(jsonElement.getAsJsonObject());
+			}
 			return null;
-		}
-
-		//TODO implement request cancellation, according to monitor status
-		HttpResponse<String> response = client.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-		JsonElement jsonElement = new JsonParser().parse(response.body());
-		if (jsonElement != null && jsonElement.isJsonObject()) {
-			return extractKey(jsonElement.getAsJsonObject());
-		}
-		return null;
+		});
 	}
 
 	private ArtifactKey extractKey(JsonObject modelNode) {
@@ -14,19 +14,35 @@ package org.eclipse.jdt.ls.core.internal.managers;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.ls.core.internal.DependencyUtil;
+import org.eclipse.jdt.ls.core.internal.JavaClientConnection;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.JobHelpers;
 import org.eclipse.jdt.ls.core.internal.ProjectUtils;
+import org.eclipse.jdt.ls.core.internal.ServerMetrics;
 import org.eclipse.m2e.core.embedder.ArtifactKey;
 import org.eclipse.m2e.jdt.IClasspathManager;
 import org.eclipse.m2e.jdt.MavenJdtPlugin;
@@ -44,9 +60,137 @@ import com.google.common.cache.CacheBuilder;
  */
 public class MavenSourceDownloader implements ISourceDownloader {
 
-	private static Cache<String, Boolean> downloadRequestsCache = CacheBuilder.newBuilder().maximumSize(100).expireAfterWrite(1, TimeUnit.HOURS).build();
+	/**
+	 * The family of the jobs identifying and downloading sources
+	 */
+	public static final Object JOB_FAMILY = MavenSourceDownloader.class;
+
+	/**
+	 * The notification sent to the client when sources are attached to a library,
+	 * with the library path
+	 */
+	public static final String SOURCES_ATTACHED_NOTIFICATION = "java.sourcesAttached";
+
 	private static final int MAX_TIME_MILLIS = 3000;
+	static final int MAX_QUEUED_REQUESTS = 50;
+
+	private final Cache<String, Boolean> downloadRequestsCache = CacheBuilder.newBuilder().maximumSize(100).expireAfterWrite(1, TimeUnit.HOURS).build();
+
+	private final BlockingQueue<DownloadRequest> queue = new LinkedBlockingQueue<>(MAX_QUEUED_REQUESTS);
+
+	/**
+	 * The libraries whose sources are still being downloaded by m2e, notified
+	 * once its download job attaches them
+	 */
+	private final Cache<IPath, IPackageFragmentRoot> pendingNotifications = CacheBuilder.newBuilder().expireAfterWrite(1, TimeUnit.HOURS).build();
+
+	private final Job downloadJob = new Job("Download sources") {
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			while (!queue.isEmpty()) {
+				List<DownloadRequest> requests = new ArrayList<>();
+				queue.drainTo(requests);
+				Map<IPath, ArtifactKey> artifacts = identify(requests.stream().map(r -> r.path).collect(Collectors.toList()), monitor);
+				for (DownloadRequest request : requests) {
+					if (monitor.isCanceled()) {
+						queue.clear();
+						return Status.CANCEL_STATUS;
+					}
+					ArtifactKey artifact = artifacts.get(request.path);
+					if (artifact != null) {
+						try {
+							download(request.fragment, request.path, artifact);
+							pendingNotifications.put(request.path, request.fragment);
+							notifySourcesAttached();
+						} catch (CoreException e) {
+							JavaLanguageServerPlugin.logException("Failed to download the sources of " + request.path, e);
+						}
+					}
+				}
+			}
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			return JOB_FAMILY.equals(family);
+		}
+	};
+
+	/**
+	 * The identifiers consulted before Maven Central
+	 */
+	private final List<IMavenArtifactIdentifier> localIdentifiers = new CopyOnWriteArrayList<>();
+
+	private final MavenCentralIdentifier centralIdentifier = new MavenCentralIdentifier();
+
+	public MavenSourceDownloader() {
+		downloadJob.setSystem(true);
+		// m2e may attach the sources after the download returned
+		Job.getJobManager().addJobChangeListener(new JobChangeAdapter() {
+			@Override
+			public void done(IJobChangeEvent event) {
+				if (JobHelpers.isDownloadSourcesJob(event.getJob()) && pendingNotifications.size() > 0) {
+					notifySourcesAttached();
+				}
+			}
+		});
+		localIdentifiers.add(new MavenPropertiesIdentifier());
+		localIdentifiers.add(new LocalRepositoryIdentifier());
+	}
+
+	/**
+	 * Adds an identifier of the JARs consulted before any remote lookup, e.g. an
+	 * index of an internal repository
+	 */
+	public void addLocalIdentifier(IMavenArtifactIdentifier identifier) {
+		localIdentifiers.add(identifier);
+	}
+
+	/**
+	 * Identifies the given JARs: from the persistent identification cache, then
+	 * the local identifiers, and finally with a batch of Maven Central lookups
+	 * for the remaining ones. The cache is written once for the batch.
+	 */
+	Map<IPath, ArtifactKey> identify(List<IPath> paths, IProgressMonitor monitor) {
+		ArtifactIdentificationCache cache = ArtifactIdentificationCache.getInstance();
+		Map<IPath, ArtifactKey> artifacts = new HashMap<>();
+		List<IPath> remote = new ArrayList<>();
+		for (IPath path : paths) {
+			File file = path.toFile();
+			ArtifactKey artifact = cache.getArtifact(file);
+			if (artifact == null) {
+				for (IMavenArtifactIdentifier identifier : localIdentifiers) {
+					artifact = identifier.identify(path, monitor);
+					if (artifact != null) {
+						cache.putArtifact(file, artifact);
+						break;
+					}
+				}
+			}
+			if (artifact == null) {
+				remote.add(path);
+			} else {
+				artifacts.put(path, artifact);
+			}
+		}
+		if (!remote.isEmpty() && !monitor.isCanceled()) {
+			centralIdentifier.identifyAll(remote, monitor).forEach((path, artifact) -> {
+				cache.putArtifact(path.toFile(), artifact);
+				artifacts.put(path, artifact);
+			});
+		}
+		cache.flush();
+		return artifacts;
+	}
 
+	/**
+	 * Queues the identification and download of the sources of the library of
+	 * the given class file. Slow artifact repositories mustn't block the
+	 * requests, so it returns immediately: the client is notified with
+	 * {@link #SOURCES_ATTACHED_NOTIFICATION} once the sources are attached.
+	 */
 	@Override
 	public void discoverSource(IClassFile classFile, IProgressMonitor monitor) throws CoreException {
 		if (classFile == null) {
@@ -70,47 +214,100 @@ public class MavenSourceDownloader implements ISourceDownloader {
 							return;
 						}
 					}
-					Boolean downloaded = downloadRequestsCache.getIfPresent(path.toString());
-					if (downloaded == null) {
-						downloadRequestsCache.put(path.toString(), true);
-						ArtifactKey artifact = new MavenPropertiesIdentifier().identify(path, monitor);
-						if (artifact == null) {
-							artifact = new MavenCentralIdentifier().identify(path, monitor);
-						}
-						if (artifact != null) {
-							if (!ProjectUtils.isMavenProject(element.getJavaProject().getProject())) {
-								// see https://github.com/eclipse-m2e/m2e-core/commit/b547ecc358c990e182a5eaf8d36f121e43f4a8c9#diff-3967743078be6a24ba1e3ec28bfc22bdf2c88a740695411f6d20e2444fef042fR943
-								long lastModified;
-								try {
-									File artifactFile = DependencyUtil.getArtifact(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(), artifact.getClassifier());
-									lastModified = artifactFile.lastModified();
-								} catch (FileNotFoundException | CoreException e1) {
-									lastModified = -1;
-								}
-								if (lastModified > -1) {
-									try {
-										File sources = DependencyUtil.getSources(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion());
-										sources.setLastModified(lastModified - 1);
-									} catch (FileNotFoundException | CoreException e) {
-										// ignore
-									}
-									try {
-										File javadoc = DependencyUtil.getJavadoc(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion());
-										javadoc.setLastModified(lastModified - 1);
-									} catch (FileNotFoundException | CoreException e) {
-										// ignore
-									}
-								}
-							}
-							BuildPathManager buildpathManager = (BuildPathManager) MavenJdtPlugin.getDefault().getBuildpathManager();
-							buildpathManager.scheduleDownload(fragment, artifact, true, true);
-							JobHelpers.waitForDownloadSourcesJobs(MAX_TIME_MILLIS);
-						}
-					}
+					request(fragment, path);
 					break;
 				}
 			}
 		}
 	}
 
+	/**
+	 * Queues the download of the sources of a library, unless they were
+	 * requested within the last hour or the queue is full.
+	 *
+	 * @return whether the download was queued
+	 */
+	boolean request(IPackageFragmentRoot fragment, IPath path) {
+		String key = path.toString();
+		if (downloadRequestsCache.asMap().putIfAbsent(key, Boolean.TRUE) != null) {
+			return false;
+		}
+		if (queue.offer(new DownloadRequest(fragment, path))) {
+			downloadJob.schedule();
+			return true;
+		}
+		// retried on a later request
+		downloadRequestsCache.invalidate(key);
+		return false;
+	}
+
+	void download(IPackageFragmentRoot fragment, IPath path, ArtifactKey artifact) throws CoreException {
+		if (!ProjectUtils.isMavenProject(fragment.getJavaProject().getProject())) {
+			// see https://github.com/eclipse-m2e/m2e-core/commit/b547ecc358c990e182a5eaf8d36f121e43f4a8c9#diff-3967743078be6a24ba1e3ec28bfc22bdf2c88a740695411f6d20e2444fef042fR943
+			long lastModified;
+			try {
+				File artifactFile = DependencyUtil.getArtifact(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(), artifact.getClassifier());
+				lastModified = artifactFile.lastModified();
+			} catch (FileNotFoundException | CoreException e1) {
+				lastModified = -1;
+			}
+			if (lastModified > -1) {
+				try {
+					File sources = DependencyUtil.getSources(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion());
+					sources.setLastModified(lastModified - 1);
+				} catch (FileNotFoundException | CoreException e) {
+					// ignore
+				}
+				try {
+					File javadoc = DependencyUtil.getJavadoc(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion());
+					javadoc.setLastModified(lastModified - 1);
+				} catch (FileNotFoundException | CoreException e) {
+					// ignore
+				}
+			}
+		}
+		long start = System.currentTimeMillis();
+		BuildPathManager buildpathManager = (BuildPathManager) MavenJdtPlugin.getDefault().getBuildpathManager();
+		buildpathManager.scheduleDownload(fragment, artifact, true, true);
+		JobHelpers.waitForDownloadSourcesJobs(MAX_TIME_MILLIS);
+		ServerMetrics.recordMillis(ServerMetrics.SOURCE_DOWNLOAD, System.currentTimeMillis() - start, -1);
+	}
+
+	/**
+	 * Sends {@link #SOURCES_ATTACHED_NOTIFICATION} for the pending libraries
+	 * whose sources are now attached
+	 */
+	void notifySourcesAttached() {
+		for (Map.Entry<IPath, IPackageFragmentRoot> entry : pendingNotifications.asMap().entrySet()) {
+			try {
+				IPath attachmentPath = entry.getValue().getSourceAttachmentPath();
+				// removed first, so the library is notified once
+				if (attachmentPath != null && !attachmentPath.isEmpty() && pendingNotifications.asMap().remove(entry.getKey(), entry.getValue())) {
+					JavaClientConnection connection = getClientConnection();
+					if (connection != null) {
+						connection.sendNotification(SOURCES_ATTACHED_NOTIFICATION, entry.getKey().toString());
+					}
+				}
+			} catch (CoreException e) {
+				pendingNotifications.invalidate(entry.getKey());
+				JavaLanguageServerPlugin.logException("Failed to read the sources of " + entry.getKey(), e);
+			}
+		}
+	}
+
+	JavaClientConnection getClientConnection() {
+		return JavaLanguageServerPlugin.getInstance().getClientConnection();
+	}
+
+	private static class DownloadRequest {
+
+		private final IPackageFragmentRoot fragment;
+		private final IPath path;
+
+		DownloadRequest(IPackageFragmentRoot fragment, IPath path) {
+			this.fragment = fragment;
+			this.path = path;
+		}
+	}
+
 }
@@ -69,9 +69,12 @@ import org.eclipse.jdt.ls.core.internal.JavaClientConnection.JavaLanguageClient;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.ProjectUtils;
 import org.eclipse.jdt.ls.core.internal.ResourceUtils;
+import org.eclipse.jdt.ls.core.internal.ServerMetrics;
 import org.eclipse.jdt.ls.core.internal.ServiceStatus;
 import org.eclipse.jdt.ls.core.internal.StatusFactory;
 import org.eclipse.jdt.ls.core.internal.handlers.BaseInitHandler;
+import org.eclipse.jdt.ls.core.internal.jfr.ImportEvent;
+import org.eclipse.jdt.ls.core.internal.jfr.ServerEvents;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
 
 public abstract class ProjectsManager implements ISaveParticipant, IProjectsManager {
@@ -96,7 +99,14 @@ public abstract class ProjectsManager implements ISaveParticipant, IProjectsMana
 	@Override
 	public void initializeProjects(final Collection<IPath> rootPaths, IProgressMonitor monitor) throws CoreException, OperationCanceledException {
 		SubMonitor subMonitor = SubMonitor.convert(monitor, 100);
-		cleanInvalidProjects(rootPaths, subMonitor.split(20));
+		ImportEvent event = ServerEvents.isAvailable() ? ImportEvent.start("cleanInvalidProjects", null) : null;
+		try {
+			cleanInvalidProjects(rootPaths, subMonitor.split(20));
+		} finally {
+			if (event != null) {
+				event.done();
+			}
+		}
 		createJavaProject(getDefaultProject(), subMonitor.split(10));
 		cleanupResources(getDefaultProject());
 		importProjects(rootPaths, subMonitor.split(70));
@@ -109,8 +119,25 @@ public abstract class ProjectsManager implements ISaveParticipant, IProjectsMana
 			File rootFolder = rootPath.toFile();
 			for (IProjectImporter importer : importers()) {
 				importer.initialize(rootFolder);
-				if (importer.applies(subMonitor.split(1))) {
-					importer.importToWorkspace(subMonitor.split(70));
+				String importerName = importer.getClass().getSimpleName();
+				ImportEvent event = ServerEvents.isAvailable() ? ImportEvent.start(importerName + ".applies", rootFolder.getPath()) : null;
+				boolean applies;
+				try {
+					applies = importer.applies(subMonitor.split(1));
+				} finally {
+					if (event != null) {
+						event.done();
+					}
+				}
+				if (applies) {
+					event = ServerEvents.isAvailable() ? ImportEvent.start(importerName + ".importToWorkspace", rootFolder.getPath()) : null;
+					try {
+						importer.importToWorkspace(subMonitor.split(70));
+					} finally {
+						if (event != null) {
+							event.done();
+						}
+					}
 					if (importer.isResolved(rootFolder)) {
 						break;
 					}
@@ -349,13 +376,21 @@ public abstract class ProjectsManager implements ISaveParticipant, IProjectsMana
 				SubMonitor progress = SubMonitor.convert(monitor, 100).checkCanceled();
 				try {
 					long start = System.currentTimeMillis();
-					project.refreshLocal(IResource.DEPTH_INFINITE, progress.split(5));
-					Optional<IBuildSupport> buildSupport = getBuildSupport(project);
-					if (buildSupport.isPresent()) {
-						buildSupport.get().update(project, force, progress.split(95));
-						registerWatchers(true);
+					ImportEvent event = ServerEvents.isAvailable() ? ImportEvent.start("updateProject", projectName) : null;
+					try {
+						project.refreshLocal(IResource.DEPTH_INFINITE, progress.split(5));
+						Optional<IBuildSupport> buildSupport = getBuildSupport(project);
+						if (buildSupport.isPresent()) {
+							buildSupport.get().update(project, force, progress.split(95));
+							registerWatchers(true);
+						}
+					} finally {
+						if (event != null) {
+							event.done();
+						}
 					}
 					long elapsed = System.currentTimeMillis() - start;
+					ServerMetrics.recordMillis(ServerMetrics.UPDATE_PROJECT, elapsed, -1);
 					JavaLanguageServerPlugin.logInfo("Updated " + projectName + " in " + elapsed + " ms");
 				} catch (CoreException e) {
 					String msg = "Error updating " + projectName;
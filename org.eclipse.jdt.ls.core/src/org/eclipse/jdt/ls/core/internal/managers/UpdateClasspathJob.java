@@ -12,19 +12,27 @@
  *******************************************************************************/
 package org.eclipse.jdt.ls.core.internal.managers;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.resources.WorkspaceJob;
 import org.eclipse.core.runtime.CoreException;
@@ -50,6 +58,25 @@ public class UpdateClasspathJob extends WorkspaceJob {
 
 	private static final UpdateClasspathJob instance = new UpdateClasspathJob();
 
+	/**
+	 * The libraries of the projects, as last computed, so file changes only
+	 * re-scan the affected files and directories
+	 */
+	private final Map<IJavaProject, ProjectLibraries> projectLibraries = new ConcurrentHashMap<>();
+
+	/**
+	 * Drops the libraries of the closed and deleted projects
+	 */
+	public static final IResourceChangeListener PROJECT_LISTENER = new IResourceChangeListener() {
+
+		@Override
+		public void resourceChanged(IResourceChangeEvent event) {
+			if (event.getResource() instanceof IProject) {
+				instance.projectLibraries.remove(JavaCore.create((IProject) event.getResource()));
+			}
+		}
+	};
+
 	UpdateClasspathJob() {
 		super("Update classpath Job");
 	}
@@ -61,26 +88,23 @@ public class UpdateClasspathJob extends WorkspaceJob {
 			requests = new ArrayList<>(this.queue);
 			this.queue.clear();
 		}
-		Map<IJavaProject, UpdateClasspathRequest> mergedRequestPerProject = requests.stream().collect(
-			Collectors.groupingBy(UpdateClasspathRequest::getProject,
-				Collectors.reducing(new UpdateClasspathRequest(), (mergedRequest, request) -> {
-					mergedRequest.setProject(request.getProject());
-					mergedRequest.getInclude().addAll(request.getInclude());
-					mergedRequest.getExclude().addAll(request.getExclude());
-					mergedRequest.getSources().putAll(request.getSources());
-					return mergedRequest;
-				})
-			)
-		);
+		Map<IJavaProject, UpdateClasspathRequest> mergedRequestPerProject = new LinkedHashMap<>();
+		for (UpdateClasspathRequest request : requests) {
+			UpdateClasspathRequest mergedRequest = mergedRequestPerProject.computeIfAbsent(request.getProject(), project -> {
+				UpdateClasspathRequest merged = new UpdateClasspathRequest();
+				merged.setProject(project);
+				return merged;
+			});
+			mergedRequest.getInclude().addAll(request.getInclude());
+			mergedRequest.getExclude().addAll(request.getExclude());
+			mergedRequest.getSources().putAll(request.getSources());
+			mergedRequest.mergeChanges(request.getChanges());
+		}
 		for (Map.Entry<IJavaProject, UpdateClasspathRequest> entry : mergedRequestPerProject.entrySet()) {
 			if (monitor.isCanceled()) {
 				return Status.CANCEL_STATUS;
 			}
-			if (entry.getValue() != null) {
-				final IJavaProject project = entry.getKey();
-				final UpdateClasspathRequest request = entry.getValue();
-				doUpdateClasspath(project, request.include, request.exclude, request.sources, monitor);
-			}
+			doUpdateClasspath(entry.getKey(), entry.getValue(), monitor);
 		}
 		synchronized (queue) {
 			if (!queue.isEmpty()) {
@@ -90,26 +114,67 @@ public class UpdateClasspathJob extends WorkspaceJob {
 		return Status.OK_STATUS;
 	}
 
-	private void doUpdateClasspath(IJavaProject javaProject, Set<String> include, Set<String> exclude, Map<String, String> sources, IProgressMonitor monitor) throws CoreException {
+	private void doUpdateClasspath(IJavaProject javaProject, UpdateClasspathRequest request, IProgressMonitor monitor) throws CoreException {
 		JavaLanguageServerPlugin.logInfo(">> Updating classpath for project " + javaProject.getElementName());
 		final IPath realFolder = ProjectUtils.getProjectRealFolder(javaProject.getProject());
-		final Set<Path> binaries = ProjectUtils.collectBinaries(realFolder, include, exclude, monitor);
+		final Set<String> include = request.getInclude();
+		final Set<String> exclude = request.getExclude();
 		final Map<Path, IPath> expandedSources = new HashMap<>();
-		for (final Map.Entry<String, String> entry: sources.entrySet()) { // Expand sources to absolute path
+		for (final Map.Entry<String, String> entry: request.getSources().entrySet()) { // Expand sources to absolute path
 			final Path realFolderPath = realFolder.toFile().toPath();
 			final Path binary = realFolderPath.resolve(entry.getKey());
 			final Path source = realFolderPath.resolve(entry.getValue());
 			expandedSources.put(binary, new org.eclipse.core.runtime.Path(source.toString()));
 		}
-		final Map<Path, IPath> libraries = new HashMap<>();
-		for (final Path binary: binaries) {
-			if (expandedSources.containsKey(binary)) {
-				libraries.put(binary, expandedSources.get(binary));
-			} else { // If not specified in source map, try to detect it
-				libraries.put(binary, ProjectUtils.detectSources(binary));
+		final Map<Path, IPath> libraries;
+		ProjectLibraries previous = projectLibraries.get(javaProject);
+		Set<Path> changes = request.getChanges();
+		if (previous != null && changes != null && previous.matches(realFolder, request)) {
+			libraries = new LinkedHashMap<>(previous.libraries);
+			for (Path changed : changes) {
+				rescan(realFolder, include, exclude, expandedSources, libraries, changed);
 			}
+		} else {
+			libraries = new LinkedHashMap<>();
+			for (final Path binary : ProjectUtils.collectBinaries(realFolder, include, exclude, monitor)) {
+				libraries.put(binary, getSources(binary, expandedSources));
+			}
+		}
+		if (monitor.isCanceled()) {
+			return;
+		}
+		projectLibraries.put(javaProject, new ProjectLibraries(realFolder, request, libraries));
+		ProjectUtils.updateBinaries(javaProject, libraries, changes, monitor);
+	}
+
+	/**
+	 * Updates the given libraries after a change of the given file or directory:
+	 * only the libraries under it are scanned again.
+	 */
+	private static void rescan(IPath realFolder, Set<String> include, Set<String> exclude, Map<Path, IPath> expandedSources, Map<Path, IPath> libraries, Path changed) {
+		libraries.keySet().removeIf(binary -> binary.startsWith(changed));
+		if (Files.isDirectory(changed)) {
+			try (Stream<Path> files = Files.walk(changed)) {
+				files.filter(file -> Files.isRegularFile(file) && ProjectUtils.isLibrary(realFolder, include, exclude, file)).forEach(file -> libraries.put(file, getSources(file, expandedSources)));
+			} catch (IOException | UncheckedIOException e) {
+				JavaLanguageServerPlugin.logException("Unable to collect binaries in " + changed, e);
+			}
+		} else if (Files.isRegularFile(changed) && ProjectUtils.isLibrary(realFolder, include, exclude, changed)) {
+			libraries.put(changed, getSources(changed, expandedSources));
+		}
+		// a created or deleted source JAR changes the sources detected for its siblings
+		Path folder = changed.getParent();
+		if (folder != null) {
+			libraries.replaceAll((binary, source) -> folder.equals(binary.getParent()) ? getSources(binary, expandedSources) : source);
+		}
+	}
+
+	private static IPath getSources(Path binary, Map<Path, IPath> expandedSources) {
+		if (expandedSources.containsKey(binary)) {
+			return expandedSources.get(binary);
 		}
-		ProjectUtils.updateBinaries(javaProject, libraries, monitor);
+		// If not specified in source map, try to detect it
+		return ProjectUtils.detectSources(binary);
 	}
 
 	public void updateClasspath(IJavaProject project, Set<String> include, Set<String> exclude, Map<String, String> sources) {
@@ -129,6 +194,20 @@ public class UpdateClasspathJob extends WorkspaceJob {
 		updateClasspath(project, libraries.getInclude(), libraries.getExclude(), libraries.getSources());
 	}
 
+	/**
+	 * Updates the classpath of the given project after a change of the given
+	 * library file or directory. Unless the referenced libraries changed, only
+	 * the changed file or directory is scanned again.
+	 */
+	public void updateClasspath(IJavaProject project, ReferencedLibraries libraries, Path changed) {
+		if (project == null || libraries.getInclude() == null) {
+			return;
+		}
+		UpdateClasspathRequest request = new UpdateClasspathRequest(project, libraries.getInclude(), libraries.getExclude() == null ? new HashSet<>() : libraries.getExclude(), libraries.getSources() == null ? new HashMap<>() : libraries.getSources());
+		request.setChanges(new HashSet<>(Collections.singleton(changed)));
+		update(request);
+	}
+
 	public void updateClasspath(IJavaProject project) {
 		updateClasspath(project, JavaLanguageServerPlugin.getPreferencesManager().getPreferences().getReferencedLibraries());
 	}
@@ -165,6 +244,11 @@ public class UpdateClasspathJob extends WorkspaceJob {
 		private Set<String> include;
 		private Set<String> exclude;
 		private Map<String, String> sources;
+		/**
+		 * The changed library files and directories, or <code>null</code> if all
+		 * the libraries are collected again
+		 */
+		private Set<Path> changes;
 
 		UpdateClasspathRequest(IJavaProject project, Set<String> include, Set<String> exclude, Map<String, String> sources) {
 			this.project = project;
@@ -175,6 +259,7 @@ public class UpdateClasspathJob extends WorkspaceJob {
 
 		UpdateClasspathRequest() {
 			this(null, new HashSet<>(), new HashSet<>(), new HashMap<>());
+			this.changes = new HashSet<>();
 		}
 
 		void setProject(IJavaProject project) {
@@ -197,9 +282,25 @@ public class UpdateClasspathJob extends WorkspaceJob {
 			return sources;
 		}
 
+		Set<Path> getChanges() {
+			return changes;
+		}
+
+		void setChanges(Set<Path> changes) {
+			this.changes = changes;
+		}
+
+		void mergeChanges(Set<Path> otherChanges) {
+			if (otherChanges == null) {
+				changes = null;
+			} else if (changes != null) {
+				changes.addAll(otherChanges);
+			}
+		}
+
 		@Override
 		public int hashCode() {
-			return Objects.hash(include, exclude, sources, project);
+			return Objects.hash(include, exclude, sources, project, changes);
 		}
 
 		@Override
@@ -217,11 +318,40 @@ public class UpdateClasspathJob extends WorkspaceJob {
 			return Objects.equals(project, other.project)
 				&& Objects.equals(include, other.include)
 				&& Objects.equals(exclude, other.exclude)
-				&& Objects.equals(sources, other.sources);
+				&& Objects.equals(sources, other.sources)
+				&& Objects.equals(changes, other.changes);
 		}
 
 	}
 
+	private static class ProjectLibraries {
+		private final IPath realFolder;
+		private final Set<String> include;
+		private final Set<String> exclude;
+		private final Map<String, String> sources;
+		private final Map<Path, IPath> libraries;
+
+		ProjectLibraries(IPath realFolder, UpdateClasspathRequest request, Map<Path, IPath> libraries) {
+			this.realFolder = realFolder;
+			this.include = new HashSet<>(request.getInclude());
+			this.exclude = new HashSet<>(request.getExclude());
+			this.sources = new HashMap<>(request.getSources());
+			this.libraries = libraries;
+		}
+
+		boolean matches(IPath folder, UpdateClasspathRequest request) {
+			return realFolder.equals(folder) && include.equals(request.getInclude()) && exclude.equals(request.getExclude()) && sources.equals(request.getSources());
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the libraries of the given project were
+	 *         computed
+	 */
+	boolean hasLibraries(IJavaProject project) {
+		return projectLibraries.containsKey(project);
+	}
+
 	public static UpdateClasspathJob getInstance() {
 		return instance;
 	}
@@ -271,6 +271,10 @@ public class ClientPreferences {
 		return Boolean.parseBoolean(extendedClientCapabilities.getOrDefault("gradleChecksumWrapperPromptSupport", "false").toString());
 	}
 
+	public boolean isPullDiagnosticsSupported() {
+		return Boolean.parseBoolean(extendedClientCapabilities.getOrDefault("pullDiagnosticsSupport", "false").toString());
+	}
+
 	public boolean isResolveAdditionalTextEditsSupport() {
 		return Boolean.parseBoolean(extendedClientCapabilities.getOrDefault("resolveAdditionalTextEditsSupport", "false").toString());
 	}
@@ -204,6 +204,32 @@ public class Preferences {
 	 */
 	public static final String RENAME_ENABLED_KEY = "java.rename.enabled";
 
+	/**
+	 * Experimental preference key for the maximum number of files of each
+	 * workspace edit of a rename. The edits of the larger renames are applied
+	 * in several <code>workspace/applyEdit</code> requests, and rolled back if
+	 * the client fails to apply one of them. Defaults to 0, i.e. a rename is
+	 * answered with a single edit.
+	 */
+	public static final String RENAME_MAX_FILES_PER_EDIT_KEY = "java.rename.maxFilesPerEdit";
+
+	/**
+	 * Experimental preference key for the maximum number of files of each
+	 * workspace edit of the organize imports of a project or folder. The edits
+	 * of the larger ones are applied in several
+	 * <code>workspace/applyEdit</code> requests, and rolled back if the client
+	 * fails to apply one of them. Defaults to 0, i.e. a single edit.
+	 */
+	public static final String IMPORTS_MAX_FILES_PER_EDIT_KEY = "java.sources.organizeImports.maxFilesPerEdit";
+
+	/**
+	 * Preference key to enable/disable the time budgets of the requests, such as
+	 * hover, code actions, document symbols or references. A request exceeding
+	 * its budget fails with a <code>RequestCancelled</code> error. Defaults to
+	 * false.
+	 */
+	public static final String REQUEST_TIMEOUTS_ENABLED_KEY = "java.requestTimeouts.enabled";
+
 	/**
 	 * Preference key to enable/disable executeCommand.
 	 */
@@ -430,6 +456,7 @@ public class Preferences {
 	public static final String WORKSPACE_CHANGE_FOLDERS = "workspace/didChangeWorkspaceFolders";
 	public static final String IMPLEMENTATION = "textDocument/implementation";
 	public static final String SELECTION_RANGE = "textDocument/selectionRange";
+	public static final String DIAGNOSTIC = "textDocument/diagnostic";
 
 	public static final String FORMATTING_ID = UUID.randomUUID().toString();
 	public static final String FORMATTING_ON_TYPE_ID = UUID.randomUUID().toString();
@@ -452,6 +479,7 @@ public class Preferences {
 	public static final String WORKSPACE_WATCHED_FILES_ID = UUID.randomUUID().toString();
 	public static final String IMPLEMENTATION_ID = UUID.randomUUID().toString();
 	public static final String SELECTION_RANGE_ID = UUID.randomUUID().toString();
+	public static final String DIAGNOSTIC_ID = UUID.randomUUID().toString();
 	private static final String GRADLE_OFFLINE_MODE = "gradle.offline.mode";
 	private static final int DEFAULT_TAB_SIZE = 4;
 
@@ -478,6 +506,9 @@ public class Preferences {
 	private boolean javaSaveActionsOrganizeImportsEnabled;
 	private boolean signatureHelpEnabled;
 	private boolean renameEnabled;
+	private int renameMaxFilesPerEdit;
+	private int organizeImportsMaxFilesPerEdit;
+	private boolean requestTimeoutsEnabled;
 	private boolean executeCommandEnabled;
 	private boolean autobuildEnabled;
 	private boolean completionEnabled;
@@ -701,6 +732,9 @@ public class Preferences {
 		javaSaveActionsOrganizeImportsEnabled = false;
 		signatureHelpEnabled = false;
 		renameEnabled = true;
+		renameMaxFilesPerEdit = 0;
+		organizeImportsMaxFilesPerEdit = 0;
+		requestTimeoutsEnabled = false;
 		executeCommandEnabled = true;
 		autobuildEnabled = true;
 		completionEnabled = true;
@@ -809,6 +843,15 @@ public class Preferences {
 		boolean renameEnabled = getBoolean(configuration, RENAME_ENABLED_KEY, true);
 		prefs.setRenameEnabled(renameEnabled);
 
+		int renameMaxFilesPerEdit = getInt(configuration, RENAME_MAX_FILES_PER_EDIT_KEY, 0);
+		prefs.setRenameMaxFilesPerEdit(renameMaxFilesPerEdit);
+
+		int organizeImportsMaxFilesPerEdit = getInt(configuration, IMPORTS_MAX_FILES_PER_EDIT_KEY, 0);
+		prefs.setOrganizeImportsMaxFilesPerEdit(organizeImportsMaxFilesPerEdit);
+
+		boolean requestTimeoutsEnabled = getBoolean(configuration, REQUEST_TIMEOUTS_ENABLED_KEY, false);
+		prefs.setRequestTimeoutsEnabled(requestTimeoutsEnabled);
+
 		boolean executeCommandEnable = getBoolean(configuration, EXECUTE_COMMAND_ENABLED_KEY, true);
 		prefs.setExecuteCommandEnabled(executeCommandEnable);
 
@@ -1158,6 +1201,35 @@ public class Preferences {
 		return this;
 	}
 
+	/**
+	 * Sets the maximum number of files of each workspace edit of a rename, which
+	 * is experimental. If maxFiles is set to 0 or lower, a rename is answered
+	 * with a single edit.
+	 *
+	 * @param maxFiles
+	 */
+	public Preferences setRenameMaxFilesPerEdit(int maxFiles) {
+		this.renameMaxFilesPerEdit = Math.max(0, maxFiles);
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of files of each workspace edit of the organize
+	 * imports of a project or folder, which is experimental. If maxFiles is set
+	 * to 0 or lower, the imports are organized with a single edit.
+	 *
+	 * @param maxFiles
+	 */
+	public Preferences setOrganizeImportsMaxFilesPerEdit(int maxFiles) {
+		this.organizeImportsMaxFilesPerEdit = Math.max(0, maxFiles);
+		return this;
+	}
+
+	public Preferences setRequestTimeoutsEnabled(boolean enabled) {
+		this.requestTimeoutsEnabled = enabled;
+		return this;
+	}
+
 	private Preferences setExecuteCommandEnabled(boolean enabled) {
 		this.executeCommandEnabled = enabled;
 		return this;
@@ -1442,6 +1514,18 @@ public class Preferences {
 		return renameEnabled;
 	}
 
+	public int getRenameMaxFilesPerEdit() {
+		return renameMaxFilesPerEdit;
+	}
+
+	public int getOrganizeImportsMaxFilesPerEdit() {
+		return organizeImportsMaxFilesPerEdit;
+	}
+
+	public boolean isRequestTimeoutsEnabled() {
+		return requestTimeoutsEnabled;
+	}
+
 	public boolean isExecuteCommandEnabled() {
 		return executeCommandEnabled;
 	}
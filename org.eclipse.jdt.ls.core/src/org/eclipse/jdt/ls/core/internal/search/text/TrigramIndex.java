@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.search.text;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.filebuffers.FileBuffers;
+import org.eclipse.core.filebuffers.LocationKind;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+
+/**
+ * Index of the trigrams of the text files of the workspace, narrowing the
+ * files searched for a literal text before matching them. Each file is
+ * summarized by a bit set of its hashed trigrams, computed the first time
+ * it's searched and dropped when a resource delta changes or removes it: a
+ * file can only contain the text if all the trigrams of the text are set.
+ */
+public class TrigramIndex implements IResourceChangeListener {
+
+	private static final int MIN_BITS = 1 << 10;
+	private static final int MAX_BITS = 1 << 14;
+
+	private static TrigramIndex instance;
+
+	private final Map<IPath, Signature> signatures = new ConcurrentHashMap<>();
+
+	public static synchronized TrigramIndex getInstance() {
+		if (instance == null) {
+			instance = new TrigramIndex();
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(instance, IResourceChangeEvent.POST_CHANGE);
+		}
+		return instance;
+	}
+
+	public static synchronized void shutdown() {
+		if (instance != null) {
+			ResourcesPlugin.getWorkspace().removeResourceChangeListener(instance);
+			instance = null;
+		}
+	}
+
+	/**
+	 * Returns the files which may contain the given text. Files opened in a
+	 * buffer or which can't be read are kept, since their content may differ
+	 * from the indexed one.
+	 *
+	 * @param files
+	 *            the searched files
+	 * @param text
+	 *            the literal text to search for, where <code>*</code> and
+	 *            <code>?</code> are wildcards
+	 * @param monitor
+	 *            the progress monitor
+	 * @return the candidate files
+	 */
+	public IFile[] filter(IFile[] files, String text, IProgressMonitor monitor) {
+		int[] trigrams = getTrigrams(text);
+		if (trigrams.length == 0) {
+			return files;
+		}
+		return Arrays.stream(files).parallel().filter(file -> monitor.isCanceled() || mayContain(file, trigrams)).toArray(IFile[]::new);
+	}
+
+	private boolean mayContain(IFile file, int[] trigrams) {
+		if (FileBuffers.getTextFileBufferManager().getTextFileBuffer(file.getFullPath(), LocationKind.IFILE) != null) {
+			return true;
+		}
+		Signature signature = signatures.get(file.getFullPath());
+		long stamp = file.getModificationStamp();
+		if (signature == null || signature.stamp != stamp) {
+			signature = index(file, stamp);
+			if (signature == null) {
+				return true;
+			}
+			signatures.put(file.getFullPath(), signature);
+		}
+		return signature.mayContain(trigrams);
+	}
+
+	private static Signature index(IFile file, long stamp) {
+		if (stamp == IResource.NULL_STAMP) {
+			return null;
+		}
+		try (Reader reader = new BufferedReader(new InputStreamReader(file.getContents(true), file.getCharset()))) {
+			StringBuilder content = new StringBuilder();
+			char[] buffer = new char[8192];
+			int read;
+			while ((read = reader.read(buffer)) != -1) {
+				content.append(buffer, 0, read);
+			}
+			return new Signature(stamp, content);
+		} catch (IOException | CoreException e) {
+			JavaLanguageServerPlugin.logException("Failed to index " + file.getFullPath(), e);
+			return null;
+		}
+	}
+
+	/**
+	 * @return the hashed trigrams of the literal parts of the given text
+	 */
+	static int[] getTrigrams(String text) {
+		return Arrays.stream(text.split("[*?]")).flatMapToInt(part -> {
+			int[] hashes = new int[Math.max(0, part.length() - 2)];
+			for (int i = 0; i < hashes.length; i++) {
+				hashes[i] = hash(part.charAt(i), part.charAt(i + 1), part.charAt(i + 2));
+			}
+			return Arrays.stream(hashes);
+		}).distinct().toArray();
+	}
+
+	private static int hash(char c0, char c1, char c2) {
+		return ((c0 * 31 + c1) * 31 + c2) * 0x9E3779B1;
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		if (event.getDelta() == null || signatures.isEmpty()) {
+			return;
+		}
+		try {
+			event.getDelta().accept(delta -> {
+				if (delta.getResource().getType() == IResource.FILE) {
+					if (delta.getKind() == IResourceDelta.REMOVED || (delta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED | IResourceDelta.ENCODING)) != 0) {
+						signatures.remove(delta.getResource().getFullPath());
+					}
+					return false;
+				}
+				if (delta.getKind() == IResourceDelta.REMOVED) {
+					IPath removed = delta.getResource().getFullPath();
+					signatures.keySet().removeIf(removed::isPrefixOf);
+					return false;
+				}
+				return true;
+			});
+		} catch (CoreException e) {
+			JavaLanguageServerPlugin.logException("Failed to update the trigram index", e);
+		}
+	}
+
+	/**
+	 * @return the number of indexed files
+	 */
+	int size() {
+		return signatures.size();
+	}
+
+	static class Signature {
+		private final long stamp;
+		private final BitSet bits;
+		private final int mask;
+
+		Signature(long stamp, CharSequence content) {
+			this.stamp = stamp;
+			int size = Math.min(MAX_BITS, Math.max(MIN_BITS, Integer.highestOneBit(Math.max(1, content.length())) << 1));
+			this.mask = size - 1;
+			this.bits = new BitSet(size);
+			for (int i = 0; i + 2 < content.length(); i++) {
+				bits.set(hash(content.charAt(i), content.charAt(i + 1), content.charAt(i + 2)) >>> 8 & mask);
+			}
+		}
+
+		boolean mayContain(int[] trigrams) {
+			for (int trigram : trigrams) {
+				if (!bits.get(trigram >>> 8 & mask)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
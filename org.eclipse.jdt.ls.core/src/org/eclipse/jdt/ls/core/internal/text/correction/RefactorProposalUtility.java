@@ -94,6 +94,12 @@ public class RefactorProposalUtility {
 	public static final String MOVE_TYPE_COMMAND = "moveType";
 	public static final String INTRODUCE_PARAMETER_COMMAND = "introduceParameter";
 
+	/**
+	 * The extract method refactoring of an inferred selection, whose conditions
+	 * are looser than those of {@link #EXTRACT_METHOD_COMMAND}
+	 */
+	private static final String EXTRACT_METHOD_INFER = EXTRACT_METHOD_COMMAND + ".infer";
+
 	public static List<CUCorrectionProposal> getMoveRefactoringProposals(CodeActionParams params, IInvocationContext context) {
 		int relevance = IProposalRelevance.MOVE_REFACTORING;
 		List<String> kindOfActions = params.getContext().getOnly();
@@ -338,7 +344,7 @@ public class RefactorProposalUtility {
 					continue;
 				}
 				ExtractTempRefactoring refactoring = new ExtractTempRefactoring(context.getASTRoot(), parent.getStartPosition(), parent.getLength());
-				if (refactoring.checkInitialConditions(new NullProgressMonitor()).isOK()) {
+				if (isAvailable(context, EXTRACT_VARIABLE_COMMAND, parent.getStartPosition(), parent.getLength(), true, refactoring)) {
 					return new CUCorrectionCommandProposal(label, JavaCodeActionKind.REFACTOR_EXTRACT_VARIABLE, cu, relevance, APPLY_REFACTORING_COMMAND_ID, Arrays.asList(EXTRACT_VARIABLE_ALL_OCCURRENCE_COMMAND, params));
 				}
 				parent = parent.getParent();
@@ -346,7 +352,7 @@ public class RefactorProposalUtility {
 			return null;
 		}
 		ExtractTempRefactoring extractTempRefactoring = new ExtractTempRefactoring(context.getASTRoot(), context.getSelectionOffset(), context.getSelectionLength(), formatterOptions);
-		if (extractTempRefactoring.checkInitialConditions(new NullProgressMonitor()).isOK()) {
+		if (isAvailable(context, EXTRACT_VARIABLE_COMMAND, context.getSelectionOffset(), context.getSelectionLength(), returnAsCommand, extractTempRefactoring)) {
 			if (returnAsCommand) {
 				return new CUCorrectionCommandProposal(label, JavaCodeActionKind.REFACTOR_EXTRACT_VARIABLE, cu, relevance, APPLY_REFACTORING_COMMAND_ID, Arrays.asList(EXTRACT_VARIABLE_ALL_OCCURRENCE_COMMAND, params));
 			}
@@ -392,7 +398,7 @@ public class RefactorProposalUtility {
 					continue;
 				}
 				ExtractTempRefactoring refactoring = new ExtractTempRefactoring(context.getASTRoot(), parent.getStartPosition(), parent.getLength());
-				if (refactoring.checkInitialConditions(new NullProgressMonitor()).isOK()) {
+				if (isAvailable(context, EXTRACT_VARIABLE_COMMAND, parent.getStartPosition(), parent.getLength(), true, refactoring)) {
 					return new CUCorrectionCommandProposal(label, JavaCodeActionKind.REFACTOR_EXTRACT_VARIABLE, cu, relevance, APPLY_REFACTORING_COMMAND_ID, Arrays.asList(EXTRACT_VARIABLE_COMMAND, params));
 				}
 				parent = parent.getParent();
@@ -401,7 +407,7 @@ public class RefactorProposalUtility {
 		}
 		ExtractTempRefactoring extractTempRefactoringSelectedOnly = new ExtractTempRefactoring(context.getASTRoot(), context.getSelectionOffset(), context.getSelectionLength(), formatterOptions);
 		extractTempRefactoringSelectedOnly.setReplaceAllOccurrences(false);
-		if (extractTempRefactoringSelectedOnly.checkInitialConditions(new NullProgressMonitor()).isOK()) {
+		if (isAvailable(context, EXTRACT_VARIABLE_COMMAND, context.getSelectionOffset(), context.getSelectionLength(), returnAsCommand, extractTempRefactoringSelectedOnly)) {
 			if (returnAsCommand) {
 				return new CUCorrectionCommandProposal(label, JavaCodeActionKind.REFACTOR_EXTRACT_VARIABLE, cu, relevance, APPLY_REFACTORING_COMMAND_ID, Arrays.asList(EXTRACT_VARIABLE_COMMAND, params));
 			}
@@ -423,6 +429,18 @@ public class RefactorProposalUtility {
 		return null;
 	}
 
+	/**
+	 * Checks the initial conditions of the given refactoring of the given
+	 * selection, unless the memoized result of the same selection is enough.
+	 *
+	 * @see RefactoringAvailabilityCache#isAvailable(ICompilationUnit, String,
+	 *      int, int, boolean,
+	 *      RefactoringAvailabilityCache.AvailabilityCheck)
+	 */
+	public static boolean isAvailable(IInvocationContext context, String command, int offset, int length, boolean memoized, Refactoring refactoring) throws CoreException {
+		return RefactoringAvailabilityCache.getInstance().isAvailable(context.getCompilationUnit(), command, offset, length, memoized, () -> refactoring.checkInitialConditions(new NullProgressMonitor()).isOK());
+	}
+
 	public static boolean containsMatchingProblem(IProblemLocationCore[] locations, int problemId) {
 		if (locations != null) {
 			for (IProblemLocationCore location : locations) {
@@ -553,7 +571,7 @@ public class RefactorProposalUtility {
 					continue;
 				}
 				ExtractFieldRefactoring refactoring = new ExtractFieldRefactoring(context.getASTRoot(), parent.getStartPosition(), parent.getLength());
-				if (refactoring.checkInitialConditions(new NullProgressMonitor()).isOK()) {
+				if (isAvailable(context, EXTRACT_FIELD_COMMAND, parent.getStartPosition(), parent.getLength(), false, refactoring)) {
 					InitializeScope scope = InitializeScope.fromName(initializeIn);
 					if (scope != null) {
 						refactoring.setInitializeIn(scope.ordinal());
@@ -569,7 +587,7 @@ public class RefactorProposalUtility {
 		}
 		ExtractFieldRefactoring extractFieldRefactoringSelectedOnly = new ExtractFieldRefactoring(context.getASTRoot(), context.getSelectionOffset(), context.getSelectionLength());
 		extractFieldRefactoringSelectedOnly.setFormatterOptions(formatterOptions);
-		if (extractFieldRefactoringSelectedOnly.checkInitialConditions(new NullProgressMonitor()).isOK()) {
+		if (isAvailable(context, EXTRACT_FIELD_COMMAND, context.getSelectionOffset(), context.getSelectionLength(), false, extractFieldRefactoringSelectedOnly)) {
 			InitializeScope scope = InitializeScope.fromName(initializeIn);
 			if (scope != null) {
 				extractFieldRefactoringSelectedOnly.setInitializeIn(scope.ordinal());
@@ -633,7 +651,7 @@ public class RefactorProposalUtility {
 					continue;
 				}
 				ExtractConstantRefactoring refactoring = new ExtractConstantRefactoring(context.getASTRoot(), parent.getStartPosition(), parent.getLength());
-				if (refactoring.checkInitialConditions(new NullProgressMonitor()).isOK()) {
+				if (isAvailable(context, EXTRACT_CONSTANT_COMMAND, parent.getStartPosition(), parent.getLength(), true, refactoring)) {
 					return new CUCorrectionCommandProposal(label, JavaCodeActionKind.REFACTOR_EXTRACT_CONSTANT, cu, relevance, APPLY_REFACTORING_COMMAND_ID, Arrays.asList(EXTRACT_CONSTANT_COMMAND, params));
 				}
 				parent = parent.getParent();
@@ -641,7 +659,7 @@ public class RefactorProposalUtility {
 			return null;
 		}
 		ExtractConstantRefactoring extractConstRefactoring = new ExtractConstantRefactoring(context.getASTRoot(), context.getSelectionOffset(), context.getSelectionLength(), formatterOptions);
-		if (extractConstRefactoring.checkInitialConditions(new NullProgressMonitor()).isOK()) {
+		if (isAvailable(context, EXTRACT_CONSTANT_COMMAND, context.getSelectionOffset(), context.getSelectionLength(), returnAsCommand, extractConstRefactoring)) {
 			if (returnAsCommand) {
 				return new CUCorrectionCommandProposal(label, JavaCodeActionKind.REFACTOR_EXTRACT_CONSTANT, cu, relevance, APPLY_REFACTORING_COMMAND_ID, Arrays.asList(EXTRACT_CONSTANT_COMMAND, params));
 			}
@@ -775,13 +793,13 @@ public class RefactorProposalUtility {
 					continue;
 				}
 				ExtractMethodRefactoring refactoring = new ExtractMethodRefactoring(context.getASTRoot(), parent.getStartPosition(), parent.getLength(), formattingOptions);
-				if (refactoring.checkInferConditions(new NullProgressMonitor()).isOK()) {
+				if (RefactoringAvailabilityCache.getInstance().isAvailable(cu, EXTRACT_METHOD_INFER, parent.getStartPosition(), parent.getLength(), true, () -> refactoring.checkInferConditions(new NullProgressMonitor()).isOK())) {
 					return new CUCorrectionCommandProposal(label, JavaCodeActionKind.REFACTOR_EXTRACT_METHOD, cu, relevance, APPLY_REFACTORING_COMMAND_ID, Arrays.asList(EXTRACT_METHOD_COMMAND, params));
 				}
 				parent = parent.getParent();
 			}
 			return null;
-		} else if (extractMethodRefactoring.checkInitialConditions(new NullProgressMonitor()).isOK()) {
+		} else if (isAvailable(context, EXTRACT_METHOD_COMMAND, context.getSelectionOffset(), context.getSelectionLength(), returnAsCommand, extractMethodRefactoring)) {
 			if (returnAsCommand) {
 				return new CUCorrectionCommandProposal(label, JavaCodeActionKind.REFACTOR_EXTRACT_METHOD, cu, relevance, APPLY_REFACTORING_COMMAND_ID, Arrays.asList(EXTRACT_METHOD_COMMAND, params));
 			}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.text.correction;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.ls.core.internal.ASTCache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Memoizes whether the extract refactorings are available for a selection of
+ * a document version, since the code action, resolve and refactor edit
+ * requests of the same selection check their initial conditions again, with
+ * a flow analysis of the selected statements.
+ *
+ * The results are dropped when a Java element changes, since they may depend
+ * on the bindings of other documents.
+ */
+public class RefactoringAvailabilityCache implements IElementChangedListener {
+
+	private static final int MAX_RESULTS = 1000;
+
+	private static RefactoringAvailabilityCache instance;
+
+	private final Cache<String, Boolean> results = CacheBuilder.newBuilder().maximumSize(MAX_RESULTS).build();
+
+	private final AtomicLong generation = new AtomicLong();
+
+	public static synchronized RefactoringAvailabilityCache getInstance() {
+		if (instance == null) {
+			instance = new RefactoringAvailabilityCache();
+			JavaCore.addElementChangedListener(instance, ElementChangedEvent.POST_CHANGE);
+		}
+		return instance;
+	}
+
+	public static synchronized void shutdown() {
+		if (instance != null) {
+			JavaCore.removeElementChangedListener(instance);
+			instance.invalidate();
+			instance = null;
+		}
+	}
+
+	/**
+	 * Checks the availability of a refactoring of the given selection
+	 */
+	@FunctionalInterface
+	public interface AvailabilityCheck {
+		boolean isAvailable() throws CoreException;
+	}
+
+	/**
+	 * Returns whether the given refactoring is available for the given
+	 * selection of the current version of the unit, from the memoized result
+	 * if it was already checked.
+	 *
+	 * @param unit
+	 *            the compilation unit
+	 * @param refactoring
+	 *            the refactoring, such as
+	 *            {@link RefactorProposalUtility#EXTRACT_METHOD_COMMAND}
+	 * @param offset
+	 *            the offset of the selection
+	 * @param length
+	 *            the length of the selection
+	 * @param memoized
+	 *            <code>false</code> if an available refactoring must be checked
+	 *            anyway, because it's performed afterwards and needs its initial
+	 *            conditions to be checked. Unavailable refactorings are never
+	 *            checked again.
+	 * @param check
+	 *            the check of the refactoring
+	 * @return <code>true</code> if the refactoring is available
+	 */
+	public boolean isAvailable(ICompilationUnit unit, String refactoring, int offset, int length, boolean memoized, AvailabilityCheck check) throws CoreException {
+		long stamp = ASTCache.getModificationStamp(unit);
+		if (stamp == IResource.NULL_STAMP) {
+			return check.isAvailable();
+		}
+		String key = generation.get() + "|" + unit.getHandleIdentifier() + "|" + stamp + "|" + refactoring + "|" + offset + "|" + length;
+		Boolean available = results.getIfPresent(key);
+		if (available != null && (!available || memoized)) {
+			return available;
+		}
+		boolean result = check.isAvailable();
+		results.put(key, result);
+		return result;
+	}
+
+	/**
+	 * Drops the memoized results
+	 */
+	public void invalidate() {
+		generation.incrementAndGet();
+		results.invalidateAll();
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		if (results.size() > 0) {
+			invalidate();
+		}
+	}
+
+	/**
+	 * @return the number of memoized results
+	 */
+	long size() {
+		return results.size();
+	}
+}
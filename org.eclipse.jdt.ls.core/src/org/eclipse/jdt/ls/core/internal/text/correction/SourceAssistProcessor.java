@@ -37,11 +37,11 @@ import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.eclipse.jdt.core.manipulation.CoreASTProvider;
-import org.eclipse.jdt.core.manipulation.OrganizeImportsOperation;
 import org.eclipse.jdt.internal.corext.dom.ASTNodes;
 import org.eclipse.jdt.internal.corext.fix.IProposableFix;
 import org.eclipse.jdt.internal.corext.fix.VariableDeclarationFixCore;
 import org.eclipse.jdt.internal.ui.text.correction.IProblemLocationCore;
+import org.eclipse.jdt.ls.core.internal.ASTCache;
 import org.eclipse.jdt.ls.core.internal.ChangeUtil;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaCodeActionKind;
@@ -212,14 +212,8 @@ public class SourceAssistProcessor {
 	private TextEdit getOrganizeImportsProposal(IInvocationContext context, IProgressMonitor monitor) {
 		ICompilationUnit unit = context.getCompilationUnit();
 		CompilationUnit astRoot = context.getASTRoot();
-		OrganizeImportsOperation op = new OrganizeImportsOperation(unit, astRoot, true, false, true, null);
 		try {
-			TextEdit edit = op.createTextEdit(monitor);
-			TextEdit staticEdit = OrganizeImportsHandler.wrapStaticImports(edit, astRoot, unit);
-			if (staticEdit.getChildrenSize() > 0) {
-				return staticEdit;
-			}
-			return edit;
+			return OrganizeImportsHandler.createOrganizeImportsEdit(unit, astRoot, null, true, monitor);
 		} catch (OperationCanceledException | CoreException e) {
 			JavaLanguageServerPlugin.logException("Resolve organize imports source action", e);
 		}
@@ -543,7 +537,7 @@ public class SourceAssistProcessor {
 		int start = DiagnosticsHelper.getStartOffset(unit, params.getRange());
 		int end = DiagnosticsHelper.getEndOffset(unit, params.getRange());
 		InnovationContext context = new InnovationContext(unit, start, end - start);
-		CompilationUnit astRoot = CoreASTProvider.getInstance().getAST(unit, CoreASTProvider.WAIT_YES, monitor);
+		CompilationUnit astRoot = ASTCache.getInstance().getAST(unit, CoreASTProvider.WAIT_YES, monitor);
 		if (astRoot == null) {
 			return null;
 		}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.manipulation.CoreASTProvider;
+import org.eclipse.jdt.ls.core.internal.managers.AbstractProjectsManagerBasedTest;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ASTCacheTest extends AbstractProjectsManagerBasedTest {
+
+	private ASTCache cache;
+	private ICompilationUnit unit1;
+	private ICompilationUnit unit2;
+
+	@Before
+	public void setup() throws Exception {
+		cache = new ASTCache(64);
+		CoreASTProvider.getInstance().disposeAST();
+		IJavaProject javaProject = newEmptyProject();
+		IPackageFragmentRoot sourceFolder = javaProject.getPackageFragmentRoot(javaProject.getProject().getFolder("src"));
+		IPackageFragment pack = sourceFolder.createPackageFragment("test1", false, null);
+		unit1 = pack.createCompilationUnit("A.java", "package test1;\npublic class A {\n}\n", false, null);
+		unit2 = pack.createCompilationUnit("B.java", "package test1;\npublic class B extends A {\n}\n", false, null);
+	}
+
+	@Test
+	public void testSwitchDocuments() throws Exception {
+		CompilationUnit ast1 = cache.getAST(unit1, CoreASTProvider.WAIT_YES, null);
+		CompilationUnit ast2 = cache.getAST(unit2, CoreASTProvider.WAIT_YES, null);
+		assertNotNull(ast1);
+		assertNotNull(ast2);
+		assertEquals(2, cache.size());
+		assertSame(ast1, cache.getAST(unit1, CoreASTProvider.WAIT_YES, null));
+		assertSame(ast2, cache.getAST(unit2, CoreASTProvider.WAIT_YES, null));
+	}
+
+	@Test
+	public void testModifiedDocument() throws Exception {
+		unit1.becomeWorkingCopy(new NullProgressMonitor());
+		try {
+			CompilationUnit ast = cache.getAST(unit1, CoreASTProvider.WAIT_YES, null);
+			assertSame(ast, cache.getAST(unit1, CoreASTProvider.WAIT_YES, null));
+			unit1.getBuffer().setContents("package test1;\npublic class A {\n  int a;\n}\n");
+			assertNotSame(ast, cache.getAST(unit1, CoreASTProvider.WAIT_YES, null));
+		} finally {
+			unit1.discardWorkingCopy();
+		}
+	}
+
+	@Test
+	public void testInvalidate() throws Exception {
+		CompilationUnit ast = cache.getAST(unit2, CoreASTProvider.WAIT_YES, null);
+		cache.invalidate();
+		assertEquals(0, cache.size());
+		assertNotSame(ast, cache.getAST(unit2, CoreASTProvider.WAIT_YES, null));
+	}
+
+	@Test
+	public void testDisabled() throws Exception {
+		cache = new ASTCache(0);
+		cache.getAST(unit1, CoreASTProvider.WAIT_YES, null);
+		assertEquals(0, cache.size());
+	}
+}
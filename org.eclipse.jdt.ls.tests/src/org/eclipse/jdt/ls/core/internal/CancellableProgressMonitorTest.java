@@ -18,6 +18,7 @@ import static org.mockito.Mockito.doThrow;
 
 import java.util.concurrent.CancellationException;
 
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -44,4 +45,28 @@ public class CancellableProgressMonitorTest {
 		assertFalse(new CancellableProgressMonitor(null).isCanceled());
 		assertFalse(new CancellableProgressMonitor(checker).isCanceled());
 	}
+
+	@Test
+	public void testDeadline() {
+		CancellableProgressMonitor expired = new CancellableProgressMonitor(checker, System.currentTimeMillis() - 1);
+		assertTrue(expired.isDeadlineExpired());
+		// the computation isn't cut short until it checks the monitor
+		assertFalse(CancellableProgressMonitor.isTimedOut(expired));
+		assertTrue(expired.isCanceled());
+		assertTrue(CancellableProgressMonitor.isTimedOut(expired));
+		CancellableProgressMonitor pending = new CancellableProgressMonitor(checker, System.currentTimeMillis() + 60000);
+		assertFalse(pending.isCanceled());
+		assertFalse(CancellableProgressMonitor.isTimedOut(pending));
+		assertFalse(CancellableProgressMonitor.isTimedOut(new CancellableProgressMonitor(checker)));
+		assertFalse(CancellableProgressMonitor.isTimedOut(new NullProgressMonitor()));
+	}
+
+	@Test
+	public void testCancelledBeforeDeadline() {
+		doThrow(CancellationException.class).when(checker).checkCanceled();
+		CancellableProgressMonitor monitor = new CancellableProgressMonitor(checker, System.currentTimeMillis() + 60000);
+		assertTrue(monitor.isCanceled());
+		assertFalse(CancellableProgressMonitor.isTimedOut(monitor));
+	}
+
 }
@@ -13,7 +13,9 @@
 package org.eclipse.jdt.ls.core.internal;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -42,6 +44,8 @@ import org.eclipse.lsp4j.WorkspaceEdit;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.ltk.core.refactoring.CompositeChange;
 import org.eclipse.text.edits.InsertEdit;
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -128,6 +132,133 @@ public class ChangeUtilTest extends AbstractProjectsManagerBasedTest {
 		assertTrue(edit.getDocumentChanges().get(1).getLeft() instanceof TextDocumentEdit);
 	}
 
+	@Test
+	public void testConvertChangeByEdit() throws Exception {
+		IPackageFragment pack1 = sourceFolder.createPackageFragment("test1", false, null);
+		String source = "package test1;\npublic class E {\n  E e = new E();\n}\n";
+		ICompilationUnit cu = pack1.createCompilationUnit("E.java", source, false, null);
+		CompilationUnitChange change = new CompilationUnitChange("rename", cu);
+		MultiTextEdit root = new MultiTextEdit();
+		int offset = -1;
+		while ((offset = source.indexOf('E', offset + 1)) >= 0) {
+			root.addChild(new ReplaceEdit(offset, 1, "ENew"));
+		}
+		change.setEdit(root);
+
+		WorkspaceEdit edit = ChangeUtil.convertToWorkspaceEditByEdit(change);
+
+		assertEquals(1, edit.getDocumentChanges().size());
+		List<TextEdit> textEdits = edit.getDocumentChanges().get(0).getLeft().getEdits();
+		// each occurrence is replaced, rather than the text between the first and the last one
+		assertEquals(3, textEdits.size());
+		assertEquals(new Range(new Position(2, 2), new Position(2, 3)), textEdits.get(1).getRange());
+		assertEquals("ENew", textEdits.get(1).getNewText());
+		assertEquals("package test1;\npublic class ENew {\n  ENew e = new ENew();\n}\n", TextEditUtil.apply(source, textEdits));
+	}
+
+	@Test
+	public void testSplitChanges() throws CoreException {
+		IPackageFragment pack1 = sourceFolder.createPackageFragment("test1", false, null);
+		CompositeChange change = new CompositeChange("composite change");
+		ICompilationUnit cu = null;
+		for (int i = 0; i < 4; i++) {
+			cu = pack1.createCompilationUnit("E" + i + ".java", "", false, null);
+			CompilationUnitChange textChange = new CompilationUnitChange("insertText", cu);
+			textChange.setEdit(new InsertEdit(0, "// some content"));
+			change.add(textChange);
+		}
+		// a second edit of the first document
+		CompilationUnitChange textChange = new CompilationUnitChange("insertText", pack1.getCompilationUnit("E0.java"));
+		textChange.setEdit(new InsertEdit(0, "// more content"));
+		change.add(textChange);
+		change.add(new RenameCompilationUnitChange(cu, "ENew.java"));
+		WorkspaceEdit edit = ChangeUtil.convertToWorkspaceEditByEdit(change);
+
+		List<WorkspaceEdit> edits = ChangeUtil.splitChanges(edit, 2, uri -> true);
+		assertEquals(2, edits.size());
+		// all the edits of a document are in the same edit
+		assertEquals(3, edits.get(0).getDocumentChanges().size());
+		assertEquals(JDTUtils.toURI(pack1.getCompilationUnit("E0.java")), edits.get(0).getDocumentChanges().get(1).getLeft().getTextDocument().getUri());
+		// the renamed document is in the last edit, after the documents it doesn't affect
+		assertEquals(3, edits.get(1).getDocumentChanges().size());
+		assertEquals(JDTUtils.toURI(pack1.getCompilationUnit("E2.java")), edits.get(1).getDocumentChanges().get(0).getLeft().getTextDocument().getUri());
+		assertEquals(JDTUtils.toURI(cu), edits.get(1).getDocumentChanges().get(1).getLeft().getTextDocument().getUri());
+		assertTrue(edits.get(1).getDocumentChanges().get(2).getRight() instanceof RenameFile);
+
+		edits = ChangeUtil.splitChanges(edit, 0, uri -> true);
+		assertEquals(1, edits.size());
+		assertEquals(6, edits.get(0).getDocumentChanges().size());
+
+		edits = ChangeUtil.splitChanges(new WorkspaceEdit(), 2, uri -> true);
+		assertEquals(1, edits.size());
+		assertFalse(ChangeUtil.hasChanges(edits.get(0)));
+	}
+
+	@Test
+	public void testApplyInChunks() throws CoreException {
+		IPackageFragment pack1 = sourceFolder.createPackageFragment("test1", false, null);
+		CompositeChange change = new CompositeChange("composite change");
+		for (int i = 0; i < 3; i++) {
+			ICompilationUnit cu = pack1.createCompilationUnit("E" + i + ".java", "class E {\n}\n", false, null);
+			CompilationUnitChange textChange = new CompilationUnitChange("insertText", cu);
+			textChange.setEdit(new InsertEdit(0, "// some content\n"));
+			change.add(textChange);
+		}
+		WorkspaceEdit edit = ChangeUtil.convertToWorkspaceEditByEdit(change);
+
+		List<WorkspaceEdit> applied = new ArrayList<>();
+		WorkspaceEdit last = ChangeUtil.applyInChunks(edit, 1, applied::add);
+		assertEquals(2, applied.size());
+		assertEquals(JDTUtils.toURI(pack1.getCompilationUnit("E2.java")), last.getDocumentChanges().get(0).getLeft().getTextDocument().getUri());
+
+		// the client fails to apply the second chunk
+		applied.clear();
+		assertNull(ChangeUtil.applyInChunks(edit, 1, chunk -> applied.add(chunk) && applied.size() != 2));
+		assertEquals(3, applied.size());
+		TextDocumentEdit rollback = applied.get(2).getDocumentChanges().get(0).getLeft();
+		assertEquals(JDTUtils.toURI(pack1.getCompilationUnit("E0.java")), rollback.getTextDocument().getUri());
+		// only the inserted text is reverted
+		assertEquals(1, rollback.getEdits().size());
+		assertEquals(new Range(new Position(0, 0), new Position(1, 0)), rollback.getEdits().get(0).getRange());
+		assertEquals("", rollback.getEdits().get(0).getNewText());
+	}
+
+	@Test
+	public void testApplyChangeInChunks() throws CoreException {
+		IPackageFragment pack1 = sourceFolder.createPackageFragment("test1", false, null);
+		CompositeChange change = new CompositeChange("composite change");
+		ICompilationUnit cu = null;
+		for (int i = 0; i < 3; i++) {
+			cu = pack1.createCompilationUnit("E" + i + ".java", "class E {\n}\n", false, null);
+			CompilationUnitChange textChange = new CompilationUnitChange("insertText", cu);
+			textChange.setEdit(new InsertEdit(0, "// some content\n"));
+			change.add(textChange);
+		}
+		change.add(new RenameCompilationUnitChange(cu, "ENew.java"));
+		// a change after the rename, of an already applied document
+		CompilationUnitChange textChange = new CompilationUnitChange("insertText", pack1.getCompilationUnit("E0.java"));
+		textChange.setEdit(new InsertEdit(0, "// more content\n"));
+		change.add(textChange);
+
+		List<WorkspaceEdit> applied = new ArrayList<>();
+		WorkspaceEdit last = ChangeUtil.applyInChunks(change, 2, applied::add);
+		// the first chunk is applied as soon as it's converted
+		assertEquals(1, applied.size());
+		assertEquals(2, applied.get(0).getDocumentChanges().size());
+		assertEquals(3, last.getDocumentChanges().size());
+		assertEquals(JDTUtils.toURI(cu), last.getDocumentChanges().get(0).getLeft().getTextDocument().getUri());
+		assertTrue(last.getDocumentChanges().get(1).getRight() instanceof RenameFile);
+		assertEquals(JDTUtils.toURI(pack1.getCompilationUnit("E0.java")), last.getDocumentChanges().get(2).getLeft().getTextDocument().getUri());
+
+		// the client fails to apply the first chunk, so there is nothing to roll back
+		applied.clear();
+		assertNull(ChangeUtil.applyInChunks(change, 2, chunk -> applied.add(chunk) && false));
+		assertEquals(1, applied.size());
+
+		// the change is converted to a single edit without chunks
+		assertEquals(5, ChangeUtil.applyInChunks(change, 0, chunk -> false).getDocumentChanges().size());
+	}
+
 	@Test
 	public void testMergeChanges() {
 		WorkspaceEdit editA = new WorkspaceEdit();
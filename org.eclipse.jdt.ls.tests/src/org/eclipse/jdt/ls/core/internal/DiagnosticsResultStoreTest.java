@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.eclipse.jdt.ls.core.internal.DiagnosticsResultStore.DiagnosticsResult;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.Test;
+
+public class DiagnosticsResultStoreTest {
+
+	private static final String URI = "file:///tmp/Foo.java";
+
+	@Test
+	public void testResultIdIsKeptForSameDiagnostics() {
+		DiagnosticsResultStore store = new DiagnosticsResultStore();
+		DiagnosticsResult first = store.update(URI, Arrays.asList(newDiagnostic("foo")), DiagnosticsResultStore.FULL_RECONCILE);
+		DiagnosticsResult second = store.update(URI, Arrays.asList(newDiagnostic("foo")), DiagnosticsResultStore.FULL_RECONCILE);
+		assertEquals(first.getResultId(), second.getResultId());
+		assertTrue(second.isUnchanged(first.getResultId()));
+	}
+
+	@Test
+	public void testResultIdChangesWithDiagnostics() {
+		DiagnosticsResultStore store = new DiagnosticsResultStore();
+		DiagnosticsResult first = store.update(URI, Arrays.asList(newDiagnostic("foo")), DiagnosticsResultStore.FULL_RECONCILE);
+		DiagnosticsResult second = store.update(URI, Collections.emptyList(), DiagnosticsResultStore.FULL_RECONCILE);
+		assertNotEquals(first.getResultId(), second.getResultId());
+		assertEquals(0, store.get(URI).getDiagnostics().size());
+	}
+
+	@Test
+	public void testRemove() {
+		DiagnosticsResultStore store = new DiagnosticsResultStore();
+		store.update(URI, Arrays.asList(newDiagnostic("foo")), DiagnosticsResultStore.SYNTAX_RECONCILE);
+		assertEquals(DiagnosticsResultStore.SYNTAX_RECONCILE, store.get(URI).getSignature());
+		store.remove(URI);
+		assertNull(store.get(URI));
+	}
+
+	private static Diagnostic newDiagnostic(String message) {
+		return new Diagnostic(new Range(new Position(0, 0), new Position(0, 1)), message);
+	}
+
+}
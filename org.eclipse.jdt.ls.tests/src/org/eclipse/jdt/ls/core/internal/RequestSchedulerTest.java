@@ -0,0 +1,259 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNotNull;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.eclipse.jdt.ls.core.internal.RequestScheduler.Priority;
+import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
+import org.eclipse.lsp4j.DocumentSymbolParams;
+import org.eclipse.lsp4j.HoverParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.eclipse.lsp4j.jsonrpc.MessageConsumer;
+import org.eclipse.lsp4j.jsonrpc.messages.RequestMessage;
+import org.junit.After;
+import org.junit.Test;
+
+public class RequestSchedulerTest {
+
+	private RequestScheduler scheduler = new RequestScheduler(2);
+
+	@After
+	public void tearDown() {
+		scheduler.shutdown();
+	}
+
+	@Test
+	public void testPriorities() {
+		assertEquals(Priority.INTERACTIVE, RequestScheduler.getPriority("textDocument/completion"));
+		assertEquals(Priority.INTERACTIVE, RequestScheduler.getPriority(null));
+		assertEquals(Priority.BACKGROUND, RequestScheduler.getPriority("textDocument/codeLens"));
+		assertEquals(Priority.BULK, RequestScheduler.getPriority("java/buildWorkspace"));
+	}
+
+	@Test
+	public void testTimeouts() throws Exception {
+		assertEquals(Long.getLong("textDocument.hover.timeout", 5000).longValue(), RequestScheduler.getTimeout("textDocument/hover"));
+		assertEquals(10000, RequestScheduler.getTimeout("textDocument/references"));
+		assertEquals(Long.getLong("completion.timeout", 5000).longValue(), RequestScheduler.getTimeout("textDocument/completion"));
+		assertEquals(0, RequestScheduler.getTimeout("textDocument/rename"));
+		assertEquals(0, RequestScheduler.getCurrentTimeout());
+		assertEquals(0, RequestScheduler.getDeadline(0));
+		// the budgets are disabled by default
+		List<Long> timeouts = new ArrayList<>();
+		dispatch("textDocument/references", cc -> null, () -> timeouts.add(RequestScheduler.getCurrentTimeout())).get(5, TimeUnit.SECONDS);
+		assertEquals(Long.valueOf(0), timeouts.get(0));
+	}
+
+	@Test
+	public void testEnabledTimeouts() throws Exception {
+		PreferenceManager preferenceManager = JavaLanguageServerPlugin.getPreferencesManager();
+		assumeNotNull(preferenceManager);
+		preferenceManager.getPreferences().setRequestTimeoutsEnabled(true);
+		try {
+			List<Long> timeouts = new ArrayList<>();
+			dispatch("textDocument/references", cc -> null, () -> timeouts.add(RequestScheduler.getCurrentTimeout())).get(5, TimeUnit.SECONDS);
+			dispatch("textDocument/rename", cc -> null, () -> timeouts.add(RequestScheduler.getCurrentTimeout())).get(5, TimeUnit.SECONDS);
+			assertEquals(Arrays.asList(10000L, 0L), timeouts);
+		} finally {
+			preferenceManager.getPreferences().setRequestTimeoutsEnabled(false);
+		}
+	}
+
+	@Test
+	public void testExpiredDeadline() {
+		CancellableProgressMonitor expired = new CancellableProgressMonitor(null, System.currentTimeMillis() - 1);
+		assertFalse(CancellableProgressMonitor.isTimedOut(expired));
+		// the computation sees the cancellation and returns what it found so far
+		assertTrue(expired.isCanceled());
+		assertTrue(CancellableProgressMonitor.isTimedOut(expired));
+		CancellableProgressMonitor pending = new CancellableProgressMonitor(null, System.currentTimeMillis() + 60000);
+		assertFalse(pending.isCanceled());
+		assertFalse(CancellableProgressMonitor.isTimedOut(pending));
+		CancellableProgressMonitor cancelled = new CancellableProgressMonitor(null, System.currentTimeMillis() - 1);
+		cancelled.setCanceled(true);
+		assertTrue(cancelled.isCanceled());
+		assertFalse(CancellableProgressMonitor.isTimedOut(cancelled));
+	}
+
+	@Test
+	public void testCompletionTimeout() throws Exception {
+		// completion has a budget even if the request timeouts are disabled
+		List<Long> timeouts = new ArrayList<>();
+		dispatch("textDocument/completion", cc -> null, () -> timeouts.add(RequestScheduler.getCurrentTimeout())).get(5, TimeUnit.SECONDS);
+		assertEquals(Long.valueOf(RequestScheduler.getTimeout("textDocument/completion")), timeouts.get(0));
+		assertTrue(timeouts.get(0) > 0);
+	}
+
+	@Test
+	public void testSupersedeKey() {
+		DocumentSymbolParams params = new DocumentSymbolParams(new TextDocumentIdentifier("file:///Foo.java"));
+		assertEquals("textDocument/documentSymbol|file:///Foo.java", RequestScheduler.getSupersedeKey("textDocument/documentSymbol", params));
+		assertEquals("workspace/symbol", RequestScheduler.getSupersedeKey("workspace/symbol", null));
+		assertNull(RequestScheduler.getSupersedeKey("textDocument/completion", params));
+		assertNull(RequestScheduler.getSupersedeKey("textDocument/documentSymbol", null));
+		// the hovers at other positions are kept
+		HoverParams hover = new HoverParams(new TextDocumentIdentifier("file:///Foo.java"), new Position(1, 2));
+		assertEquals("textDocument/hover|file:///Foo.java|1:2", RequestScheduler.getSupersedeKey("textDocument/hover", hover));
+	}
+
+	@Test
+	public void testTimeoutProperties() {
+		String diagnostic = System.getProperty("textDocument.diagnostic.timeout");
+		String completion = System.getProperty("completion.timeout");
+		try {
+			System.setProperty("textDocument.diagnostic.timeout", "1234");
+			assertEquals(1234, RequestScheduler.getTimeout("textDocument/diagnostic"));
+			assertEquals(0, RequestScheduler.getTimeout("workspace/diagnostic"));
+			// the former completion property is still read
+			System.setProperty("completion.timeout", "4321");
+			assertEquals(4321, RequestScheduler.getTimeout("textDocument/completion"));
+		} finally {
+			restoreProperty("textDocument.diagnostic.timeout", diagnostic);
+			restoreProperty("completion.timeout", completion);
+		}
+	}
+
+	private static void restoreProperty(String name, String value) {
+		if (value == null) {
+			System.clearProperty(name);
+		} else {
+			System.setProperty(name, value);
+		}
+	}
+
+	@Test
+	public void testSupersededRequestIsCancelled() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Object> first = dispatch("textDocument/documentSymbol", cc -> {
+			started.countDown();
+			await(release);
+			cc.checkCanceled();
+			return "first";
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		CompletableFuture<Object> second = dispatch("textDocument/documentSymbol", cc -> "second");
+		assertTrue(first.isCancelled());
+		release.countDown();
+		assertEquals("second", second.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testOtherRequestsAreNotCancelled() throws Exception {
+		CompletableFuture<Object> first = dispatch("textDocument/completion", cc -> "first");
+		CompletableFuture<Object> second = dispatch("textDocument/completion", cc -> "second");
+		assertEquals("first", first.get(5, TimeUnit.SECONDS));
+		assertEquals("second", second.get(5, TimeUnit.SECONDS));
+		assertFalse(first.isCancelled());
+	}
+
+	@Test
+	public void testVirtualThreads() throws Exception {
+		RequestScheduler virtualScheduler = new RequestScheduler(2, true);
+		try {
+			assertEquals(VirtualThreads.isSupported(), virtualScheduler.isVirtualThreads());
+			assertEquals("done", virtualScheduler.computeAsync(cc -> "done").get(5, TimeUnit.SECONDS));
+		} finally {
+			virtualScheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void testVirtualThreadsConcurrency() throws Exception {
+		assumeTrue(VirtualThreads.isSupported());
+		RequestScheduler virtualScheduler = new RequestScheduler(1, true);
+		scheduler.shutdown();
+		scheduler = virtualScheduler;
+		// a single processor allows 4 concurrent bulk requests
+		CountDownLatch started = new CountDownLatch(4);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		List<CompletableFuture<Object>> results = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			results.add(dispatch("java/buildWorkspace", cc -> {
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				started.countDown();
+				await(release);
+				running.decrementAndGet();
+				return "done";
+			}));
+		}
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		Thread.sleep(200);
+		assertEquals(4, maxRunning.get());
+		release.countDown();
+		for (CompletableFuture<Object> result : results) {
+			assertEquals("done", result.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(4, maxRunning.get());
+	}
+
+	@Test
+	public void testDaemonExecutor() throws Exception {
+		ThreadPoolExecutor executor = RequestScheduler.newDaemonExecutor("jdtls-test-", 2);
+		try {
+			Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+			assertTrue(thread.isDaemon());
+			assertEquals("jdtls-test-1", thread.getName());
+			assertTrue(executor.allowsCoreThreadTimeOut());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private CompletableFuture<Object> dispatch(String method, Function<CancelChecker, Object> code) {
+		return dispatch(method, code, () -> {
+		});
+	}
+
+	private CompletableFuture<Object> dispatch(String method, Function<CancelChecker, Object> code, Runnable onDispatch) {
+		List<CompletableFuture<Object>> result = new ArrayList<>();
+		MessageConsumer consumer = scheduler.wrapMessages(it -> it).apply(message -> {
+			onDispatch.run();
+			result.add(scheduler.computeAsync(code));
+		});
+		RequestMessage request = new RequestMessage();
+		request.setId(1);
+		request.setMethod(method);
+		request.setParams(new DocumentSymbolParams(new TextDocumentIdentifier("file:///Foo.java")));
+		consumer.consume(request);
+		return result.get(0);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
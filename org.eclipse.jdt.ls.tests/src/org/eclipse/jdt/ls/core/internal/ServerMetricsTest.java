@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.ls.core.internal.ServerMetrics.MetricsReport;
+import org.eclipse.jdt.ls.core.internal.ServerMetrics.OperationReport;
+import org.eclipse.jdt.ls.core.internal.ServerMetrics.Outcome;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionList;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.eclipse.lsp4j.jsonrpc.messages.RequestMessage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+public class ServerMetricsTest {
+
+	@Before
+	public void setUp() {
+		ServerMetrics.reset();
+	}
+
+	@After
+	public void tearDown() {
+		ServerMetrics.reset();
+	}
+
+	@Test
+	public void testReport() {
+		for (int i = 0; i < 98; i++) {
+			ServerMetrics.record("textDocument/hover", 0, TimeUnit.MILLISECONDS.toNanos(3), Outcome.COMPLETED, 2);
+		}
+		ServerMetrics.record("textDocument/hover", TimeUnit.MILLISECONDS.toNanos(10), TimeUnit.MILLISECONDS.toNanos(700), Outcome.CANCELLED, -1);
+		ServerMetrics.record("textDocument/hover", 0, TimeUnit.SECONDS.toNanos(40), Outcome.FAILED, -1);
+		OperationReport hover = ServerMetrics.getReport().operations.get("textDocument/hover");
+		assertEquals(100, hover.count);
+		assertEquals(1, hover.cancelled);
+		assertEquals(1, hover.failed);
+		assertEquals(5, hover.p50Ms);
+		assertEquals(5, hover.p90Ms);
+		assertEquals(1000, hover.p99Ms);
+		assertEquals(40000, hover.maxMs, 0.1);
+		assertEquals(10, hover.maxQueueMs, 0.1);
+		assertEquals(2, hover.meanSize, 0.01);
+		assertEquals(Long.valueOf(98), hover.histogram.get("<5ms"));
+		assertEquals(Long.valueOf(1), hover.histogram.get(">=30000ms"));
+	}
+
+	@Test
+	public void testSizeOf() {
+		assertEquals(2, ServerMetrics.sizeOf(Arrays.asList("a", "b")));
+		assertEquals(1, ServerMetrics.sizeOf(new String[] { "a" }));
+		CompletionList list = new CompletionList(Arrays.asList(new CompletionItem("a"), new CompletionItem("b"), new CompletionItem("c")));
+		assertEquals(3, ServerMetrics.sizeOf(Either.forRight(list)));
+		assertEquals(-1, ServerMetrics.sizeOf("hover"));
+		assertEquals(-1, ServerMetrics.sizeOf(null));
+	}
+
+	@Test
+	public void testScheduledRequests() throws Exception {
+		RequestScheduler scheduler = new RequestScheduler(2);
+		try {
+			dispatch(scheduler, "textDocument/references", () -> Arrays.asList("a", "b", "c")).get(5, TimeUnit.SECONDS);
+			try {
+				dispatch(scheduler, "textDocument/references", () -> {
+					throw new CancellationException();
+				}).get(5, TimeUnit.SECONDS);
+			} catch (ExecutionException | CancellationException e) {
+				// expected
+			}
+		} finally {
+			scheduler.shutdown();
+		}
+		OperationReport references = ServerMetrics.getReport().operations.get("textDocument/references");
+		assertNotNull(references);
+		assertEquals(2, references.count);
+		assertEquals(1, references.cancelled);
+		assertEquals(3, references.meanSize, 0.01);
+	}
+
+	@Test
+	public void testDump() throws Exception {
+		ServerMetrics.recordMillis(ServerMetrics.RECONCILE, 12, 1);
+		File file = File.createTempFile("metrics", ".json");
+		try {
+			ServerMetrics.dump(file);
+			String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+			MetricsReport report = new Gson().fromJson(json, MetricsReport.class);
+			assertEquals(1, report.operations.get(ServerMetrics.RECONCILE).count);
+			assertTrue(report.uptime >= 0);
+		} finally {
+			file.delete();
+		}
+	}
+
+	private static CompletableFuture<Object> dispatch(RequestScheduler scheduler, String method, Supplier<List<String>> code) {
+		List<CompletableFuture<Object>> result = new ArrayList<>();
+		RequestMessage request = new RequestMessage();
+		request.setId(1);
+		request.setMethod(method);
+		scheduler.wrapMessages(it -> it).apply(message -> result.add(scheduler.computeAsync(cc -> code.get()))).consume(request);
+		return result.get(0);
+	}
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.ls.core.internal.managers.AbstractProjectsManagerBasedTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TypeHierarchyCacheTest extends AbstractProjectsManagerBasedTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private TypeHierarchyCache cache;
+	private IJavaProject javaProject;
+	private IPackageFragment pack;
+	private IType typeA;
+	private IType typeB;
+
+	@Before
+	public void setup() throws Exception {
+		cache = new TypeHierarchyCache(folder.getRoot());
+		JavaCore.addElementChangedListener(cache, ElementChangedEvent.POST_CHANGE);
+		javaProject = newEmptyProject();
+		IPackageFragmentRoot sourceFolder = javaProject.getPackageFragmentRoot(javaProject.getProject().getFolder("src"));
+		pack = sourceFolder.createPackageFragment("test1", false, null);
+		ICompilationUnit unitA = pack.createCompilationUnit("A.java", "package test1;\npublic class A {\n}\n", false, null);
+		ICompilationUnit unitB = pack.createCompilationUnit("B.java", "package test1;\npublic class B extends A {\n}\n", false, null);
+		pack.createCompilationUnit("C.java", "package test1;\npublic class C extends B {\n}\n", false, null);
+		typeA = unitA.getType("A");
+		typeB = unitB.getType("B");
+	}
+
+	@After
+	public void tearDown() {
+		JavaCore.removeElementChangedListener(cache);
+	}
+
+	@Test
+	public void testCached() throws Exception {
+		ITypeHierarchy hierarchy = cache.getTypeHierarchy(typeA, javaProject, null);
+		assertEquals(2, hierarchy.getAllSubtypes(typeA).length);
+		assertSame(hierarchy, cache.getTypeHierarchy(typeA, javaProject, null));
+		// the hierarchy of A has all the subtypes of B
+		assertSame(hierarchy, cache.getTypeHierarchy(typeB, javaProject, null));
+	}
+
+	@Test
+	public void testRefresh() throws Exception {
+		ITypeHierarchy hierarchy = cache.getTypeHierarchy(typeA, javaProject, null);
+		pack.createCompilationUnit("D.java", "package test1;\npublic class D extends A {\n}\n", false, null);
+		hierarchy = cache.getTypeHierarchy(typeA, javaProject, null);
+		assertEquals(3, hierarchy.getAllSubtypes(typeA).length);
+	}
+
+	@Test
+	public void testStored() throws Exception {
+		ITypeHierarchy hierarchy = cache.getTypeHierarchy(typeA, null, null);
+		String key = TypeHierarchyCache.getKey(typeA, null);
+		long fingerprint = cache.getFingerprint(typeA, null);
+		ITypeHierarchy stored = new TypeHierarchyCache(folder.getRoot()).load(key, typeA, fingerprint, null);
+		assertNotNull(stored);
+		assertArrayEquals(hierarchy.getAllSubtypes(typeA), stored.getAllSubtypes(typeA));
+	}
+
+	@Test
+	public void testStoredOutdated() throws Exception {
+		cache.getTypeHierarchy(typeA, null, null);
+		pack.createCompilationUnit("D.java", "package test1;\npublic class D extends A {\n}\n", false, null);
+		String key = TypeHierarchyCache.getKey(typeA, null);
+		long fingerprint = cache.getFingerprint(typeA, null);
+		assertNull(new TypeHierarchyCache(folder.getRoot()).load(key, typeA, fingerprint, null));
+	}
+
+	@Test
+	public void testFingerprint() throws Exception {
+		long fingerprint = cache.getFingerprint(typeA, javaProject);
+		assertEquals(fingerprint, cache.getFingerprint(typeA, javaProject));
+		pack.createCompilationUnit("D.java", "package test1;\npublic class D extends A {\n}\n", false, null);
+		assertNotEquals(fingerprint, cache.getFingerprint(typeA, javaProject));
+	}
+}
@@ -26,6 +26,8 @@ import java.util.List;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
@@ -397,6 +399,31 @@ public class OrganizeImportsCommandTest extends AbstractProjectsManagerBasedTest
 		assertEquals(buf.toString(), getOrganizeImportResult(cu2, rootEdit));
 	}
 
+	@Test
+	public void testOrganizeImportsInProjectConcurrently() throws CoreException, BadLocationException {
+		IPackageFragment pack1 = fSourceFolder.createPackageFragment("test1", false, null);
+		int count = 20;
+		for (int i = 0; i < count; i++) {
+			pack1.createCompilationUnit("E" + i + ".java", "package test1;\n\nimport java.util.ArrayList;\n\npublic class E" + i + " {\n}\n", false, null);
+		}
+
+		WorkspaceEdit rootEdit = command.organizeImportsInProject(pack1.getJavaProject().getProject());
+		assertEquals(count, rootEdit.getChanges().size());
+		for (int i = 0; i < count; i++) {
+			assertEquals("package test1;\n\npublic class E" + i + " {\n}\n", getOrganizeImportResult(pack1.getCompilationUnit("E" + i + ".java"), rootEdit));
+		}
+	}
+
+	@Test(expected = OperationCanceledException.class)
+	public void testOrganizeImportsInProjectCanceled() throws CoreException {
+		IPackageFragment pack1 = fSourceFolder.createPackageFragment("test1", false, null);
+		pack1.createCompilationUnit("E.java", "package test1;\n\nimport java.util.ArrayList;\n\npublic class E {\n}\n", false, null);
+
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+		command.organizeImportsInProject(pack1.getJavaProject().getProject(), monitor);
+	}
+
 	@Test
 	public void testOrganizeImportsOnDemandThreshold() throws Exception {
 		int onDemandTreshold = preferenceManager.getPreferences().getImportOnDemandThreshold();
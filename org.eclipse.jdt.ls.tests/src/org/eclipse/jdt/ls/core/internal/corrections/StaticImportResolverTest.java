@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.corrections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.ls.core.internal.managers.AbstractProjectsManagerBasedTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StaticImportResolverTest extends AbstractProjectsManagerBasedTest {
+
+	private static final String[] FAVORITES = { "java.lang.Math.*", "java.util.Collections.emptyList", "test1.Constants.*" };
+
+	private StaticImportResolver resolver;
+	private IPackageFragment pack1;
+	private ICompilationUnit unit1;
+	private ICompilationUnit unit2;
+
+	@Before
+	public void setup() throws Exception {
+		resolver = new StaticImportResolver();
+		JavaCore.addElementChangedListener(resolver, ElementChangedEvent.POST_CHANGE);
+		IJavaProject javaProject = newEmptyProject();
+		IPackageFragmentRoot sourceFolder = javaProject.getPackageFragmentRoot(javaProject.getProject().getFolder("src"));
+		pack1 = sourceFolder.createPackageFragment("test1", false, null);
+		pack1.createCompilationUnit("Base.java", "package test1;\nclass Base {\n  public static int base() { return 0; }\n}\n", false, null);
+		pack1.createCompilationUnit("Constants.java", "package test1;\npublic class Constants extends Base {\n  public static final int ONE = 1;\n  static int TWO = 2;\n  private static int THREE = 3;\n  public static void max() {}\n}\n", false, null);
+		unit1 = pack1.createCompilationUnit("A.java", "package test1;\npublic class A {\n}\n", false, null);
+		IPackageFragment pack2 = sourceFolder.createPackageFragment("test2", false, null);
+		unit2 = pack2.createCompilationUnit("B.java", "package test2;\npublic class B {\n}\n", false, null);
+	}
+
+	@After
+	public void tearDown() {
+		JavaCore.removeElementChangedListener(resolver);
+	}
+
+	@Test
+	public void testResolveMethods() throws Exception {
+		Map<String, String[]> methods = resolver.resolve(unit1, Arrays.asList("max", "emptyList", "emptyMap", "base", "unknown"), true, FAVORITES);
+		assertArrayEquals(new String[] { "java.lang.Math.max", "test1.Constants.max" }, methods.get("max"));
+		assertArrayEquals(new String[] { "java.util.Collections.emptyList" }, methods.get("emptyList"));
+		// only emptyList is a favorite member of Collections
+		assertNull(methods.get("emptyMap"));
+		assertArrayEquals(new String[] { "test1.Base.base" }, methods.get("base"));
+		assertNull(methods.get("unknown"));
+		assertEquals(1, resolver.size());
+	}
+
+	@Test
+	public void testResolveFields() throws Exception {
+		Map<String, String[]> fields = resolver.resolve(unit1, Arrays.asList("PI", "ONE", "TWO", "THREE", "max"), false, FAVORITES);
+		assertArrayEquals(new String[] { "java.lang.Math.PI" }, fields.get("PI"));
+		assertArrayEquals(new String[] { "test1.Constants.ONE" }, fields.get("ONE"));
+		assertArrayEquals(new String[] { "test1.Constants.TWO" }, fields.get("TWO"));
+		assertNull(fields.get("THREE"));
+		assertNull(fields.get("max"));
+		// the package-private fields aren't visible from another package
+		fields = resolver.resolve(unit2, Arrays.asList("ONE", "TWO"), false, FAVORITES);
+		assertArrayEquals(new String[] { "test1.Constants.ONE" }, fields.get("ONE"));
+		assertNull(fields.get("TWO"));
+		assertEquals(2, resolver.size());
+	}
+
+	@Test
+	public void testChangedMembers() throws Exception {
+		assertEquals(0, resolver.resolve(unit1, "FOUR", false, FAVORITES).length);
+		pack1.createCompilationUnit("Constants.java", "package test1;\npublic class Constants {\n  public static final int FOUR = 4;\n}\n", true, null);
+		assertArrayEquals(new String[] { "test1.Constants.FOUR" }, resolver.resolve(unit1, "FOUR", false, FAVORITES));
+	}
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.corrections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.manipulation.CoreASTProvider;
+import org.eclipse.jdt.core.search.TypeNameMatch;
+import org.eclipse.jdt.ls.core.internal.managers.AbstractProjectsManagerBasedTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TypeNameResolverTest extends AbstractProjectsManagerBasedTest {
+
+	private TypeNameResolver resolver;
+	private IJavaProject javaProject;
+	private IPackageFragment pack1;
+	private ICompilationUnit unit1;
+	private ICompilationUnit unit2;
+
+	@Before
+	public void setup() throws Exception {
+		resolver = new TypeNameResolver();
+		JavaCore.addElementChangedListener(resolver, ElementChangedEvent.POST_CHANGE);
+		javaProject = newEmptyProject();
+		IPackageFragmentRoot sourceFolder = javaProject.getPackageFragmentRoot(javaProject.getProject().getFolder("src"));
+		pack1 = sourceFolder.createPackageFragment("test1", false, null);
+		pack1.createCompilationUnit("Foo.java", "package test1;\npublic class Foo {\n}\n", false, null);
+		pack1.createCompilationUnit("Hidden.java", "package test1;\nclass Hidden {\n}\n", false, null);
+		unit1 = pack1.createCompilationUnit("A.java", "package test1;\npublic class A {\n}\n", false, null);
+		IPackageFragment pack2 = sourceFolder.createPackageFragment("test2", false, null);
+		unit2 = pack2.createCompilationUnit("B.java", "package test2;\npublic class B {\n  List<Foo> foos;\n  Unknown unknown;\n  String name;\n}\n", false, null);
+	}
+
+	@After
+	public void tearDown() {
+		JavaCore.removeElementChangedListener(resolver);
+	}
+
+	private static List<String> getNames(List<TypeNameMatch> matches) {
+		return matches.stream().map(TypeNameMatch::getFullyQualifiedName).collect(Collectors.toList());
+	}
+
+	@Test
+	public void testResolve() throws Exception {
+		Map<String, List<TypeNameMatch>> types = resolver.resolve(unit2, Arrays.asList("Foo", "Hidden", "ArrayList", "Unknown"), null);
+		assertEquals(Arrays.asList("test1.Foo"), getNames(types.get("Foo")));
+		// the package-private types can't be imported
+		assertEquals(Collections.emptyList(), getNames(types.get("Hidden")));
+		assertTrue(getNames(types.get("ArrayList")).contains("java.util.ArrayList"));
+		assertEquals(Collections.emptyList(), getNames(types.get("Unknown")));
+		assertEquals(1, resolver.size());
+	}
+
+	@Test
+	public void testSamePackage() throws Exception {
+		Map<String, List<TypeNameMatch>> types = resolver.resolve(unit1, Arrays.asList("Foo"), null);
+		assertEquals(Collections.emptyList(), getNames(types.get("Foo")));
+	}
+
+	@Test
+	public void testUnresolvedTypeNames() throws Exception {
+		CompilationUnit astRoot = CoreASTProvider.getInstance().getAST(unit2, CoreASTProvider.WAIT_YES, null);
+		assertEquals(Arrays.asList("List", "Foo", "Unknown"), TypeNameResolver.getUnresolvedTypeNames(astRoot));
+	}
+
+	@Test
+	public void testNewSourceType() throws Exception {
+		assertEquals(Collections.emptyList(), getNames(resolver.resolve(unit2, Arrays.asList("Bar"), null).get("Bar")));
+		pack1.createCompilationUnit("Bar.java", "package test1;\npublic class Bar {\n}\n", false, null);
+		// the source types are always searched, so the library types are kept
+		assertEquals(Arrays.asList("test1.Bar"), getNames(resolver.resolve(unit2, Arrays.asList("Bar"), null).get("Bar")));
+		assertEquals(1, resolver.size());
+	}
+
+	@Test
+	public void testChangedClasspath() throws Exception {
+		resolver.resolve(unit2, Arrays.asList("ArrayList"), null);
+		assertEquals(1, resolver.size());
+		javaProject.getProject().getFolder("src2").create(true, true, null);
+		IClasspathEntry[] rawClasspath = javaProject.getRawClasspath();
+		IClasspathEntry[] newClasspath = Arrays.copyOf(rawClasspath, rawClasspath.length + 1);
+		newClasspath[rawClasspath.length] = JavaCore.newSourceEntry(javaProject.getProject().getFolder("src2").getFullPath());
+		javaProject.setRawClasspath(newClasspath, null);
+		assertEquals(0, resolver.size());
+	}
+}
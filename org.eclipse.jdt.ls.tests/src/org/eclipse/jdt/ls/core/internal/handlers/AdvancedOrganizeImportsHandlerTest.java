@@ -34,6 +34,9 @@ import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.WorkingCopyOwner;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.manipulation.CoreASTProvider;
 import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
 import org.eclipse.jdt.internal.corext.util.ValidateEditException;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
@@ -226,4 +229,22 @@ public class AdvancedOrganizeImportsHandlerTest extends AbstractSourceTestCase {
 			JavaLanguageServerPlugin.getPreferencesManager().getPreferences().setJavaCompletionFavoriteMembers(Arrays.asList(favourites));
 		}
 	}
+
+	@Test
+	public void testWorkingCopyOfOtherOwner() throws Exception {
+		ICompilationUnit unit = fPackageP.createCompilationUnit("B.java", "package p;\n\npublic class B {\n}\n", true, null);
+		ICompilationUnit workingCopy = unit.getWorkingCopy(new WorkingCopyOwner() {
+		}, null);
+		try {
+			workingCopy.getBuffer().setContents("package p;\n\npublic class B {\n	List<String> list;\n}\n");
+			CompilationUnit astRoot = CoreASTProvider.getInstance().getAST(workingCopy, CoreASTProvider.WAIT_YES, null);
+			TextEdit edit = OrganizeImportsHandler.createOrganizeImportsEdit(workingCopy, astRoot, null, false, null);
+			// the working copy of the caller is kept
+			assertTrue(workingCopy.isWorkingCopy());
+			workingCopy.applyTextEdit(edit, null);
+			compareSource("package p;\n\nimport java.util.List;\n\npublic class B {\n	List<String> list;\n}\n", workingCopy.getSource());
+		} finally {
+			workingCopy.discardWorkingCopy();
+		}
+	}
 }
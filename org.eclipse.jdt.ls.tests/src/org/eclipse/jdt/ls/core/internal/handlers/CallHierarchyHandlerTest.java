@@ -17,6 +17,7 @@ import static org.eclipse.lsp4j.SymbolKind.Constructor;
 import static org.eclipse.lsp4j.SymbolKind.Field;
 import static org.eclipse.lsp4j.SymbolKind.Method;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -24,7 +25,11 @@ import static org.junit.Assert.assertTrue;
 import java.util.Arrays;
 import java.util.List;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.ls.core.internal.ClassFileUtil;
 import org.eclipse.jdt.ls.core.internal.WorkspaceHelper;
@@ -101,6 +106,43 @@ public class CallHierarchyHandlerTest extends AbstractProjectsManagerBasedTest {
 		assertItem(calls.get(2).getFrom(), "method_1()" + JavaElementLabels.DECL_STRING + "void", Method, "org.sample.CallHierarchy$Base", false, 33);
 	}
 
+	@Test
+	public void incomingCalls_prefetch() throws Exception {
+		// Line 27 from `CallHierarchy`
+		//    public void <|>bar() {
+		String uri = getUriFromSrcProject("org.sample.CallHierarchy");
+		List<CallHierarchyItem> items = prepareCallHierarchy(uri, 26, 16);
+		assertNotNull(items);
+		assertNotNull(getIncomingCalls(items.get(0)));
+
+		// the callers of the caller `main` are searched ahead
+		IType type = JavaCore.create(WorkspaceHelper.getProject("hello")).findType("org.sample.CallHierarchy");
+		IMethod main = type.getMethod("main", new String[] { "[QString;" });
+		CallHierarchyCache cache = CallHierarchyCache.getInstance();
+		long timeout = System.currentTimeMillis() + 10000;
+		while (!cache.hasCalls(main, true) && System.currentTimeMillis() < timeout) {
+			Thread.sleep(50);
+		}
+		assertTrue(cache.hasCalls(main, true));
+
+		cache.invalidate();
+		assertFalse(cache.hasCalls(main, true));
+	}
+
+	@Test
+	public void incomingCalls_prefetchCancelled() throws Exception {
+		String uri = getUriFromSrcProject("org.sample.CallHierarchy");
+		List<CallHierarchyItem> items = prepareCallHierarchy(uri, 26, 16);
+		assertNotNull(getIncomingCalls(items.get(0)));
+		IProgressMonitor prefetch = CallHierarchyCache.getInstance().getPrefetchMonitor();
+		assertFalse(prefetch.isCanceled());
+
+		// a new hierarchy cancels the searches ahead of the previous one
+		prepareCallHierarchy(uri, 33, 19);
+		assertTrue(prefetch.isCanceled());
+		assertFalse(CallHierarchyCache.getInstance().getPrefetchMonitor().isCanceled());
+	}
+
 	@Test
 	public void outgoingCalls_src() throws Exception {
 		// Line 34 from `CallHierarchy`
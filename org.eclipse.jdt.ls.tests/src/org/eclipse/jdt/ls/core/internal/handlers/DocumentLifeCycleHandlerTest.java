@@ -431,7 +431,7 @@ public class DocumentLifeCycleHandlerTest extends AbstractProjectsManagerBasedTe
 		assertEquals(false, cu1.hasUnsavedChanges());
 		assertEquals(true, cu2.isWorkingCopy());
 		assertEquals(false, cu2.hasUnsavedChanges());
-		assertNewProblemReported(new ExpectedProblemReport(cu2, 1), new ExpectedProblemReport(cu1, 0));
+		assertNewProblemReported(new ExpectedProblemReport(cu1, 0), new ExpectedProblemReport(cu2, 1));
 		assertEquals(1, getCacheSize());
 		assertNewASTsCreated(2);
 
@@ -447,7 +447,7 @@ public class DocumentLifeCycleHandlerTest extends AbstractProjectsManagerBasedTe
 		assertEquals(true, cu1.hasUnsavedChanges());
 		assertEquals(true, cu2.isWorkingCopy());
 		assertEquals(false, cu2.hasUnsavedChanges());
-		assertNewProblemReported(new ExpectedProblemReport(cu2, 0), new ExpectedProblemReport(cu1, 0));
+		assertNewProblemReported(new ExpectedProblemReport(cu1, 0), new ExpectedProblemReport(cu2, 0));
 		assertEquals(1, getCacheSize());
 		assertNewASTsCreated(2);
 
@@ -482,6 +482,44 @@ public class DocumentLifeCycleHandlerTest extends AbstractProjectsManagerBasedTe
 		assertNewASTsCreated(0);
 	}
 
+	@Test
+	public void testValidateOpenDocuments() throws Exception {
+		IJavaProject javaProject = newEmptyProject();
+		IPackageFragmentRoot sourceFolder = javaProject.getPackageFragmentRoot(javaProject.getProject().getFolder("src"));
+		IPackageFragment pack1 = sourceFolder.createPackageFragment("test1", false, null);
+		List<ICompilationUnit> units = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			StringBuilder buf = new StringBuilder();
+			buf.append("package test1;\n");
+			buf.append("public class G" + i + " {\n");
+			buf.append("  { G.foo(); }\n");
+			buf.append("}\n");
+			ICompilationUnit cu = pack1.createCompilationUnit("G" + i + ".java", buf.toString(), false, null);
+			openDocument(cu, cu.getSource(), 1);
+			units.add(cu);
+		}
+		getClientRequests("publishDiagnostics").clear();
+
+		StringBuilder buf = new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class G {\n");
+		buf.append("  public static void foo() {}\n");
+		buf.append("}\n");
+		ICompilationUnit cu = pack1.createCompilationUnit("G.java", buf.toString(), false, null);
+		openDocument(cu, cu.getSource(), 1);
+
+		// the focused document is validated first, then the others in any order
+		List<PublishDiagnosticsParams> diags = getClientRequests("publishDiagnostics");
+		assertEquals(units.size() + 1, diags.size());
+		assertEquals(JDTUtils.toURI(cu), diags.get(0).getUri());
+		for (ICompilationUnit unit : units) {
+			PublishDiagnosticsParams diag = diags.stream().filter(d -> JDTUtils.toURI(unit).equals(d.getUri())).findFirst().orElse(null);
+			assertNotNull(diag);
+			assertEquals(0, diag.getDiagnostics().size());
+		}
+		diags.clear();
+	}
+
 	@Test
 	public void testDidOpenStandaloneFile() throws Exception {
 		IJavaProject javaProject = newDefaultProject();
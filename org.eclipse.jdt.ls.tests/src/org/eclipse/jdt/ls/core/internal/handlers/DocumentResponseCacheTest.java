@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.managers.AbstractProjectsManagerBasedTest;
+import org.eclipse.jdt.ls.core.internal.preferences.Preferences;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DocumentResponseCacheTest extends AbstractProjectsManagerBasedTest {
+
+	private DocumentResponseCache cache;
+	private ICompilationUnit unit;
+	private String uri;
+	private AtomicInteger requests;
+
+	@Before
+	public void setup() throws Exception {
+		cache = new DocumentResponseCache();
+		JavaCore.addElementChangedListener(cache, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+		requests = new AtomicInteger();
+		IJavaProject javaProject = newEmptyProject();
+		IPackageFragmentRoot sourceFolder = javaProject.getPackageFragmentRoot(javaProject.getProject().getFolder("src"));
+		IPackageFragment pack = sourceFolder.createPackageFragment("test1", false, null);
+		unit = pack.createCompilationUnit("A.java", "package test1;\npublic class A {\n}\n", false, null);
+		uri = JDTUtils.toURI(unit);
+	}
+
+	@After
+	public void tearDown() {
+		JavaCore.removeElementChangedListener(cache);
+	}
+
+	private String get(String method, List<?> arguments) {
+		return cache.get(uri, method, arguments, new NullProgressMonitor(), () -> method + requests.incrementAndGet());
+	}
+
+	@Test
+	public void testCachedResponses() throws Exception {
+		assertEquals(Preferences.FOLDINGRANGE + 1, get(Preferences.FOLDINGRANGE, Arrays.asList(false)));
+		assertEquals(Preferences.FOLDINGRANGE + 1, get(Preferences.FOLDINGRANGE, Arrays.asList(false)));
+		// the responses depend on the request and its arguments
+		assertEquals(Preferences.FOLDINGRANGE + 2, get(Preferences.FOLDINGRANGE, Arrays.asList(true)));
+		assertEquals(Preferences.DOCUMENT_SYMBOL + 3, get(Preferences.DOCUMENT_SYMBOL, Arrays.asList(false)));
+		assertEquals(3, cache.size());
+	}
+
+	@Test
+	public void testModifiedDocument() throws Exception {
+		unit.becomeWorkingCopy(new NullProgressMonitor());
+		try {
+			assertEquals(Preferences.DOCUMENT_SYMBOL + 1, get(Preferences.DOCUMENT_SYMBOL, null));
+			unit.getBuffer().setContents("package test1;\npublic class A {\n  int a;\n}\n");
+			assertEquals(Preferences.DOCUMENT_SYMBOL + 2, get(Preferences.DOCUMENT_SYMBOL, null));
+			assertEquals(Preferences.DOCUMENT_SYMBOL + 2, get(Preferences.DOCUMENT_SYMBOL, null));
+			// the responses of a reconciled document are dropped
+			unit.reconcile(ICompilationUnit.NO_AST, false, null, new NullProgressMonitor());
+			assertEquals(0, cache.size());
+		} finally {
+			unit.discardWorkingCopy();
+		}
+	}
+
+	@Test
+	public void testCanceledRequest() throws Exception {
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+		cache.get(uri, Preferences.SELECTION_RANGE, null, monitor, () -> "partial");
+		assertEquals(0, cache.size());
+		assertEquals(Preferences.SELECTION_RANGE + 1, get(Preferences.SELECTION_RANGE, null));
+	}
+
+	@Test
+	public void testInvalidate() throws Exception {
+		get(Preferences.DOCUMENT_HIGHLIGHT, null);
+		cache.invalidate();
+		assertEquals(0, cache.size());
+		get(Preferences.DOCUMENT_HIGHLIGHT, null);
+		assertEquals(2, requests.get());
+	}
+}
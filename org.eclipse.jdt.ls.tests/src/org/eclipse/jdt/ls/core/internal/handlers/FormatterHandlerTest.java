@@ -14,6 +14,7 @@ package org.eclipse.jdt.ls.core.internal.handlers;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
@@ -34,6 +35,9 @@ import org.eclipse.jdt.ls.core.internal.JavaLanguageServerTestPlugin;
 import org.eclipse.jdt.ls.core.internal.ResourceUtils;
 import org.eclipse.jdt.ls.core.internal.TextEditUtil;
 import org.eclipse.jdt.ls.core.internal.managers.StandardProjectsManager;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Region;
 import org.eclipse.lsp4j.DocumentFormattingParams;
 import org.eclipse.lsp4j.DocumentOnTypeFormattingParams;
 import org.eclipse.lsp4j.DocumentRangeFormattingParams;
@@ -332,6 +336,57 @@ public class FormatterHandlerTest extends AbstractCompilationUnitBasedTest {
 		assertEquals(expectedText, newText);
 	}
 
+	@Test
+	public void testRangeFormattingWithinMembers() throws Exception {
+		ICompilationUnit unit = getWorkingCopy("src/org/sample/Baz.java",
+		//@formatter:off
+			"package org.sample;\n" +
+			"public class Baz {\n"+
+			"  int a;\n" +
+			"\n" +
+			"  void foo(){\n" +
+			"    if (a>0) {\n" +
+			"  a--;\n" +
+			"    }\n" +
+			"  }\n"+
+			"}\n"
+		//@formatter:on
+		);
+
+		String uri = JDTUtils.toURI(unit);
+		TextDocumentIdentifier textDocument = new TextDocumentIdentifier(uri);
+		FormattingOptions options = new FormattingOptions(2, true);// ident == 2 spaces
+
+		// the if statement is formatted within foo(), rather than within the whole document
+		IDocument document = new Document(unit.getSource());
+		Map<String, String> formatterOptions = FormatterHandler.getOptions(options, unit);
+		int offset = document.getLineOffset(5);
+		assertNotNull(FormatterHandler.formatMembers(unit, document, new Region(offset, document.getLineOffset(7) + 5 - offset), formatterOptions, false, "\n"));
+		assertNull(FormatterHandler.formatMembers(unit, document, new Region(0, document.getLineOffset(3)), formatterOptions, false, "\n"));
+
+		Range range = new Range(new Position(5, 0), new Position(7, 5));// range around the if statement
+		DocumentRangeFormattingParams params = new DocumentRangeFormattingParams(range);
+		params.setTextDocument(textDocument);
+		params.setOptions(options);
+
+		List<? extends TextEdit> edits = server.rangeFormatting(params).get();
+		//@formatter:off
+		String expectedText =
+			"package org.sample;\n" +
+			"public class Baz {\n"+
+			"  int a;\n" +
+			"\n" +
+			"  void foo(){\n" +
+			"    if (a > 0) {\n" +
+			"      a--;\n" +
+			"    }\n" +
+			"  }\n"+
+			"}\n";
+		//@formatter:on
+		String newText = TextEditUtil.apply(unit, edits);
+		assertEquals(expectedText, newText);
+	}
+
 	@Test
 	public void testDocumentFormattingWithCustomOption() throws Exception {
 		ICompilationUnit unit = getWorkingCopy("src/org/sample/Baz.java",
@@ -16,6 +16,7 @@ import static org.eclipse.jdt.ls.core.internal.JsonMessageHelper.getParams;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -28,21 +29,26 @@ import java.util.List;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.IClasspathAttribute;
 import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.ls.core.internal.ClassFileUtil;
 import org.eclipse.jdt.ls.core.internal.DependencyUtil;
+import org.eclipse.jdt.ls.core.internal.HoverInfoProvider;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.ResourceUtils;
 import org.eclipse.jdt.ls.core.internal.WorkspaceHelper;
+import org.eclipse.jdt.ls.core.internal.javadoc.JavadocStore;
 import org.eclipse.jdt.ls.core.internal.managers.AbstractProjectsManagerBasedTest;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
 import org.eclipse.jdt.ls.core.internal.preferences.Preferences;
@@ -97,6 +103,7 @@ public class HoverHandlerTest extends AbstractProjectsManagerBasedTest {
 		preferenceManager = mock(PreferenceManager.class);
 		when(preferenceManager.getPreferences()).thenReturn(new Preferences());
 		handler = new HoverHandler(preferenceManager);
+		HoverInfoProvider.clearCache();
 	}
 
 	@Test
@@ -119,6 +126,36 @@ public class HoverHandlerTest extends AbstractProjectsManagerBasedTest {
 		assertEquals("Unexpected hover " + doc, "This is foo", doc);
 	}
 
+	@Test
+	public void testHoverCache() throws Exception {
+		//Hovers on the Foo type
+		String payload = createHoverRequest("src/java/Foo.java", 5, 15);
+		TextDocumentPositionParams position = getParams(payload);
+		Hover hover = handler.hover(position, monitor);
+		Hover cached = handler.hover(position, monitor);
+		assertEquals(hover.getContents(), cached.getContents());
+
+		ICompilationUnit cu = JDTUtils.resolveCompilationUnit(position.getTextDocument().getUri());
+		IJavaElement[] elements = JDTUtils.findElementsAtSelection(cu, 5, 15, preferenceManager, monitor);
+		String key = HoverInfoProvider.getCacheKey(elements[0]);
+		assertNotNull(key);
+		assertTrue(key, key.startsWith(elements[0].getHandleIdentifier() + "|"));
+		// System.out has no attached source, its source may still be discovered
+		elements = JDTUtils.findElementsAtSelection(cu, 8, 10, preferenceManager, monitor);
+		assertNull(HoverInfoProvider.getCacheKey(elements[0]));
+		// the Javadoc of Bar.foo() is inherited from Foo
+		position = getParams(createHoverRequest("src/java/Bar.java", 22, 19));
+		ICompilationUnit bar = JDTUtils.resolveCompilationUnit(position.getTextDocument().getUri());
+		elements = JDTUtils.findElementsAtSelection(bar, 22, 19, preferenceManager, monitor);
+		assertNull(HoverInfoProvider.getCacheKey(elements[0]));
+		cu.becomeWorkingCopy(monitor);
+		try {
+			assertNull(HoverInfoProvider.getCacheKey(cu.getTypes()[0]));
+		} finally {
+			cu.discardWorkingCopy();
+		}
+	}
+
 	@Test
 	public void testHoverStandalone() throws Exception {
 		//given
@@ -669,6 +706,32 @@ public class HoverHandlerTest extends AbstractProjectsManagerBasedTest {
 		testClassContentSupport("Uses \\[WordUtils\\]\\(jdt:.*\\)");
 	}
 
+	@Test
+	public void testHoverWithStoredJavadoc() throws Exception {
+		assertNotNull(DependencyUtil.getSources("org.apache.commons", "commons-lang3", "3.5"));
+		when(preferenceManager.isClientSupportsClassFileContent()).thenReturn(true);
+		importProjects("maven/salut");
+		project = WorkspaceHelper.getProject("salut");
+		handler = new HoverHandler(preferenceManager);
+		//Hovers on StringUtils.capitalize
+		String payload = createHoverRequest("src/main/java/java/Foo.java", 10, 38);
+		TextDocumentPositionParams position = getParams(payload);
+		Hover hover = handler.hover(position, monitor);
+		assertNotNull(hover);
+		String javadoc = hover.getContents().getLeft().get(1).getLeft();
+		assertMatches("(?s).*\\[.*\\]\\(jdt://contents/commons-lang3-3\\.5\\.jar/.*\\?=salut/.*", javadoc);
+
+		// the library is extracted in the background
+		Job.getJobManager().join(JavadocStore.EXTRACTION_JOBS, null);
+		IType type = JavaCore.create(project).findType("org.apache.commons.lang3.StringUtils");
+		IMethod capitalize = type.getMethod("capitalize", new String[] { "Ljava.lang.String;" });
+		assertEquals(javadoc, JavadocStore.getInstance().getMarkdown(capitalize));
+		HoverInfoProvider.clearCache();
+		hover = handler.hover(position, monitor);
+		assertNotNull(hover);
+		assertEquals(javadoc, hover.getContents().getLeft().get(1).getLeft());
+	}
+
 	private void testClassContentSupport(String expectedJavadoc) throws Exception {
 		importProjects("maven/salut");
 		project = WorkspaceHelper.getProject("salut");
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.eclipse.jdt.internal.core.Buffer;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.junit.Test;
+
+public class LineOffsetIndexTest {
+
+	@Test
+	public void testSameLinesAsDocument() throws BadLocationException {
+		String[] texts = { "", "a", "a\n", "a\nb", "a\r\nb\r\n", "a\rb\r\rc", "\n\n\n", "class A {\r\n\tint a;\n}\r" };
+		for (String text : texts) {
+			Document document = new Document(text);
+			LineOffsetIndex index = LineOffsetIndex.of(text);
+			assertEquals(text, document.getNumberOfLines(), index.getNumberOfLines());
+			for (int line = 0; line < document.getNumberOfLines(); line++) {
+				assertEquals(text, document.getLineOffset(line), index.getLineOffset(line));
+			}
+			for (int offset = 0; offset <= text.length(); offset++) {
+				assertEquals(text, document.getLineOfOffset(offset), index.getLineOfOffset(offset));
+				assertArrayEquals(text, JsonRpcHelpers.toLine(document, offset), index.toLine(offset));
+			}
+		}
+	}
+
+	@Test
+	public void testToOffset() throws BadLocationException {
+		LineOffsetIndex index = LineOffsetIndex.of("first\r\nsecond\nthird");
+		assertEquals(0, index.toOffset(0, 0));
+		assertEquals(9, index.toOffset(1, 2));
+		assertEquals(17, index.toOffset(2, 3));
+		assertEquals(-1, JsonRpcHelpers.toOffset(index, 3, 0));
+	}
+
+	@Test
+	public void testSurrogatePairs() throws BadLocationException {
+		// U+1F600 is encoded as 2 UTF-16 code units
+		String text = "a\uD83D\uDE00b\n\uD83D\uDE00";
+		LineOffsetIndex index = LineOffsetIndex.of(text);
+		assertArrayEquals(new int[] { 0, 3 }, index.toLine(3));
+		assertArrayEquals(new int[] { 0, 1 }, index.toLine(2));
+		assertEquals(4, index.toOffset(0, 4));
+		assertEquals(5, index.toOffset(1, 0));
+		assertEquals(5, index.toOffset(1, 1));
+		assertEquals(7, index.toOffset(1, 2));
+	}
+
+	@Test
+	public void testSharedPerModificationStamp() throws BadLocationException {
+		Document document = new Document("a\nb");
+		LineOffsetIndex index = LineOffsetIndex.get(document);
+		assertSame(index, LineOffsetIndex.get(document));
+		document.replace(0, 0, "\n");
+		LineOffsetIndex changed = LineOffsetIndex.get(document);
+		assertNotSame(index, changed);
+		assertEquals(3, changed.getNumberOfLines());
+	}
+
+	@Test
+	public void testSharedPerReadOnlyContent() throws BadLocationException {
+		ReadOnlyBuffer buffer = new ReadOnlyBuffer("a\nb");
+		LineOffsetIndex index = LineOffsetIndex.get(buffer);
+		assertSame(index, LineOffsetIndex.get(buffer));
+		// an edit keeping the length of the contents
+		buffer.update("\nab");
+		LineOffsetIndex changed = LineOffsetIndex.get(buffer);
+		assertNotSame(index, changed);
+		assertEquals("\nab", changed.getText());
+		assertEquals(1, changed.getLineOffset(1));
+	}
+
+	private static class ReadOnlyBuffer extends Buffer {
+
+		ReadOnlyBuffer(String contents) {
+			super(null, null, false);
+			update(contents);
+		}
+
+		void update(String contents) {
+			setReadOnly(false);
+			setContents(contents);
+			setReadOnly(true);
+		}
+	}
+}
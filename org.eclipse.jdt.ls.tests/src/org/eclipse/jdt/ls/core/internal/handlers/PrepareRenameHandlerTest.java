@@ -13,6 +13,7 @@
 
 package org.eclipse.jdt.ls.core.internal.handlers;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -274,6 +275,44 @@ public class PrepareRenameHandlerTest extends AbstractProjectsManagerBasedTest {
 		assertTrue(result.getLeft().getStart().getLine() > 0);
 	}
 
+	@Test
+	public void testRenameConstructor() throws JavaModelException, BadLocationException {
+		IPackageFragment pack1 = sourceFolder.createPackageFragment("test1", false, null);
+
+		String[] codes = {
+				"package test1;\n",
+				"public class E {\n",
+				"   public E|*() {\n",
+				"   }\n",
+				"}\n"
+		};
+		StringBuilder builder = new StringBuilder();
+		Position pos = mergeCode(builder, codes);
+		ICompilationUnit cu = pack1.createCompilationUnit("E.java", builder.toString(), false, null);
+
+		Either<Range, PrepareRenameResult> result = prepareRename(cu, pos, "Newname");
+		assertEquals(new Range(new Position(2, 10), new Position(2, 11)), result.getLeft());
+	}
+
+	@Test(expected = ResponseErrorException.class)
+	public void testRenameToString() throws JavaModelException, BadLocationException {
+		IPackageFragment pack1 = sourceFolder.createPackageFragment("test1", false, null);
+
+		String[] codes = {
+				"package test1;\n",
+				"public class E {\n",
+				"   public String toS|*tring() {\n",
+				"		return \"\";\n",
+				"   }\n",
+				"}\n"
+		};
+		StringBuilder builder = new StringBuilder();
+		Position pos = mergeCode(builder, codes);
+		ICompilationUnit cu = pack1.createCompilationUnit("E.java", builder.toString(), false, null);
+
+		prepareRename(cu, pos, "newname");
+	}
+
 	@Test(expected = ResponseErrorException.class)
 	public void testRenamePackage() throws JavaModelException, BadLocationException {
 		when(clientPreferences.isResourceOperationSupported()).thenReturn(true);
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaModelMarker;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.JavaClientConnection;
+import org.eclipse.jdt.ls.core.internal.handlers.PullDiagnosticsHandler.DocumentDiagnosticParams;
+import org.eclipse.jdt.ls.core.internal.handlers.PullDiagnosticsHandler.DocumentDiagnosticReport;
+import org.eclipse.jdt.ls.core.internal.managers.AbstractProjectsManagerBasedTest;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PullDiagnosticsHandlerTest extends AbstractProjectsManagerBasedTest {
+
+	private JavaClientConnection javaClient;
+	private PullDiagnosticsHandler handler;
+
+	@Before
+	public void setup() throws Exception {
+		javaClient = new JavaClientConnection(client);
+		DocumentLifeCycleHandler lifeCycleHandler = new DocumentLifeCycleHandler(javaClient, preferenceManager, projectsManager, false);
+		handler = new PullDiagnosticsHandler(lifeCycleHandler, projectsManager, true);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		javaClient.disconnect();
+	}
+
+	@Test
+	public void testDiagnosticsFromMarkers() throws Exception {
+		IJavaProject javaProject = newEmptyProject();
+		IPackageFragmentRoot sourceFolder = javaProject.getPackageFragmentRoot(javaProject.getProject().getFolder("src"));
+		IPackageFragment pack = sourceFolder.createPackageFragment("test1", false, null);
+		ICompilationUnit unit = pack.createCompilationUnit("E.java", "package test1;\npublic class E {\n	Strin s;\n}\n", false, null);
+		javaProject.getProject().build(IncrementalProjectBuilder.FULL_BUILD, new NullProgressMonitor());
+		String uri = JDTUtils.toURI(unit);
+
+		DocumentDiagnosticReport report = diagnostic(uri, null);
+		assertEquals(PullDiagnosticsHandler.FULL, report.kind);
+		assertEquals(1, report.items.size());
+		assertEquals(DiagnosticSeverity.Error, report.items.get(0).getSeverity());
+		assertEquals(2, report.items.get(0).getRange().getStart().getLine());
+
+		DocumentDiagnosticReport unchanged = diagnostic(uri, report.resultId);
+		assertEquals(PullDiagnosticsHandler.UNCHANGED, unchanged.kind);
+		assertEquals(report.resultId, unchanged.resultId);
+		assertNull(unchanged.items);
+
+		// a changed attribute changes the diagnostics, the file didn't change
+		IMarker[] markers = unit.getResource().findMarkers(IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER, false, IResource.DEPTH_ZERO);
+		assertEquals(1, markers.length);
+		markers[0].setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
+		DocumentDiagnosticReport changed = diagnostic(uri, report.resultId);
+		assertEquals(PullDiagnosticsHandler.FULL, changed.kind);
+		assertNotEquals(report.resultId, changed.resultId);
+		assertEquals(DiagnosticSeverity.Warning, changed.items.get(0).getSeverity());
+
+		// the problem is fixed
+		unit.getBuffer().setContents("package test1;\npublic class E {\n	String s;\n}\n");
+		unit.getBuffer().save(new NullProgressMonitor(), true);
+		javaProject.getProject().build(IncrementalProjectBuilder.FULL_BUILD, new NullProgressMonitor());
+		DocumentDiagnosticReport fixed = diagnostic(uri, changed.resultId);
+		assertEquals(PullDiagnosticsHandler.FULL, fixed.kind);
+		assertEquals(0, fixed.items.size());
+	}
+
+	private DocumentDiagnosticReport diagnostic(String uri, String previousResultId) throws Exception {
+		DocumentDiagnosticParams params = new DocumentDiagnosticParams();
+		params.textDocument = new TextDocumentIdentifier(uri);
+		params.previousResultId = previousResultId;
+		return handler.documentDiagnostic(params, new NullProgressMonitor());
+	}
+}
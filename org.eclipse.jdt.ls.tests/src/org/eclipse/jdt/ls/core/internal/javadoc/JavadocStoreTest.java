@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.javadoc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JavadocStoreTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testStore() throws Exception {
+		JavadocStore store = new JavadocStore(folder.newFolder("store"));
+		assertNull(store.load("abc"));
+		Map<String, String> docs = new HashMap<>();
+		docs.put("<java.util(List.class[List~add~TE;", "Appends the specified element");
+		docs.put("<java.util(List.class[List~clear", "");
+		store.store("abc", docs);
+		assertEquals(docs, store.load("abc"));
+		// another server sharing the store
+		assertEquals(docs, new JavadocStore(folder.getRoot().toPath().resolve("store").toFile()).load("abc"));
+	}
+
+	@Test
+	public void testCorruptedStore() throws Exception {
+		File location = folder.newFolder("store");
+		JavadocStore store = new JavadocStore(location);
+		Files.write(new File(location, "abc.javadoc").toPath(), "corrupted".getBytes(StandardCharsets.UTF_8));
+		assertNull(store.load("abc"));
+		// the corrupted file isn't cached, so the extracted documentation is loaded
+		Map<String, String> docs = new HashMap<>();
+		docs.put("<java.util(List.class[List~clear", "");
+		store.store("abc", docs);
+		assertEquals(docs, store.load("abc"));
+	}
+
+	@Test
+	public void testOutdatedStore() throws Exception {
+		File location = folder.newFolder("store");
+		JavadocStore store = new JavadocStore(location);
+		Files.write(new File(location, "abc.javadoc").toPath(), new byte[0]);
+		assertNull(store.load("abc"));
+		assertFalse(new File(location, "abc.javadoc").exists());
+	}
+
+	@Test
+	public void testPrune() throws Exception {
+		File location = folder.newFolder("store");
+		JavadocStore store = new JavadocStore(location);
+		Map<String, String> docs = new HashMap<>();
+		docs.put("<java.util(List.class[List~clear", "Removes all of the elements");
+		store.store("old", docs);
+		store.store("recent", docs);
+		store.store("read", docs);
+		long now = System.currentTimeMillis();
+		new File(location, "old.javadoc").setLastModified(now - TimeUnit.DAYS.toMillis(60));
+		new File(location, "recent.javadoc").setLastModified(now - TimeUnit.DAYS.toMillis(2));
+		new File(location, "read.javadoc").setLastModified(now - TimeUnit.DAYS.toMillis(3));
+		assertEquals(docs, store.load("read"));
+		store.prune(TimeUnit.DAYS.toMillis(30), Long.MAX_VALUE);
+		assertNull(store.load("old"));
+		assertTrue(new File(location, "recent.javadoc").exists());
+		// the least recently read files are deleted past the size limit
+		store.prune(TimeUnit.DAYS.toMillis(30), new File(location, "read.javadoc").length());
+		assertTrue(new File(location, "read.javadoc").exists());
+		assertFalse(new File(location, "recent.javadoc").exists());
+	}
+
+	@Test
+	public void testLinks() throws Exception {
+		IJavaProject project = mock(IJavaProject.class);
+		when(project.getHandleIdentifier()).thenReturn("=salut");
+		IJavaProject other = mock(IJavaProject.class);
+		when(other.getHandleIdentifier()).thenReturn("=my project");
+		String markdown = "Uses [WordUtils](jdt://contents/commons-lang3-3.5.jar/org.apache.commons.lang3.text/WordUtils.class?=salut/%5C/home%5C/.m2%5C/commons-lang3-3.5.jar%3Corg.apache.commons.lang3.text(WordUtils.class#37)";
+		String stored = JavadocStore.toStored(markdown, project);
+		assertFalse(stored.contains("salut"));
+		assertEquals(markdown, JavadocStore.fromStored(stored, project));
+		assertEquals(markdown.replace("?=salut/", "?=my%20project/"), JavadocStore.fromStored(stored, other));
+	}
+
+	@Test
+	public void testLocalJavadoc() throws Exception {
+		File javadoc = folder.newFile("lib-javadoc.jar");
+		assertEquals(javadoc, JavadocStore.getLocalFile(new URL("jar:" + javadoc.toURI() + "!/")));
+		assertEquals(folder.getRoot(), JavadocStore.getLocalFile(folder.getRoot().toURI().toURL()));
+		assertNull(JavadocStore.getLocalFile(new URL("https://docs.oracle.com/javase/8/docs/api/")));
+		assertNull(JavadocStore.getLocalFile(new URL("jar:https://repo.maven.apache.org/lib-javadoc.jar!/")));
+	}
+
+	@Test
+	public void testChecksum() throws Exception {
+		JavadocStore store = new JavadocStore(folder.newFolder("store"));
+		File jar = folder.newFile("lib.jar");
+		Files.write(jar.toPath(), "first".getBytes(StandardCharsets.UTF_8));
+		String checksum = store.getChecksum(jar);
+		assertEquals(40, checksum.length());
+		assertEquals(checksum, store.getChecksum(jar));
+		Files.write(jar.toPath(), "second!".getBytes(StandardCharsets.UTF_8));
+		assertNotEquals(checksum, store.getChecksum(jar));
+	}
+}
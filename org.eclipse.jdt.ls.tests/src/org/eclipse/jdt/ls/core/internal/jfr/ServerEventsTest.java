@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class ServerEventsTest {
+
+	@Test
+	public void testNotEnabled() {
+		assumeTrue(ServerEvents.isAvailable());
+		assertNull(RequestEvent.start("textDocument/hover", null, 0));
+	}
+
+	@Test
+	public void testRecorded() throws Exception {
+		assumeTrue(ServerEvents.isAvailable());
+		Path file = Files.createTempFile("jdtls", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(RequestEvent.class);
+			recording.start();
+			RequestEvent request = RequestEvent.start("textDocument/references", "file:///Foo.java", 1000);
+			request.done(false, false, 3);
+			recording.stop();
+			recording.dump(file);
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream().filter(e -> e.getEventType().getName().equals("org.eclipse.jdt.ls.Request")).collect(Collectors.toList());
+			assertEquals(1, events.size());
+			RecordedEvent event = events.get(0);
+			assertEquals("textDocument/references", event.getString("method"));
+			assertEquals("file:///Foo.java", event.getString("uri"));
+			assertEquals(3, event.getInt("resultSize"));
+			assertFalse(event.getBoolean("cancelled"));
+			assertTrue(event.getDuration().toNanos() >= 0);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+}
@@ -113,13 +113,16 @@ public abstract class AbstractProjectsManagerBasedTest {
 		@Override
 		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
 			if (args.length == 1) {
-				String name = method.getName();
-				List<Object> params = clientRequests.get(name);
-				if (params == null) {
-					params = new ArrayList<>();
-					clientRequests.put(name, params);
+				// the diagnostics of the open documents are published concurrently
+				synchronized (clientRequests) {
+					String name = method.getName();
+					List<Object> params = clientRequests.get(name);
+					if (params == null) {
+						params = new ArrayList<>();
+						clientRequests.put(name, params);
+					}
+					params.add(args[0]);
 				}
-				params.add(args[0]);
 			}
 			return null;
 		}
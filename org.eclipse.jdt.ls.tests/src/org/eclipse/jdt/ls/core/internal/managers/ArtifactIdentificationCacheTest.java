@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.m2e.core.embedder.ArtifactKey;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ArtifactIdentificationCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testPersistence() throws Exception {
+		File state = new File(folder.getRoot(), ArtifactIdentificationCache.CACHE_FILE);
+		File jar = folder.newFile("foo.jar");
+		Files.write(jar.toPath(), "foo".getBytes(StandardCharsets.UTF_8));
+		ArtifactIdentificationCache cache = new ArtifactIdentificationCache(state);
+		String sha1 = cache.getChecksum(jar);
+		assertEquals("0beec7b5ea3f0fdbc95d0dd47f3c5bc275da8a33", sha1);
+		assertNull(cache.getArtifact(jar));
+		cache.putArtifact(jar, new ArtifactKey("org.foo", "foo", "1.0", null));
+		cache.putNotFound("abc");
+		// the changes are written by flush
+		assertFalse(state.exists());
+		cache.flush();
+
+		cache = new ArtifactIdentificationCache(state);
+		assertEquals(sha1, cache.getChecksum(jar));
+		assertEquals(new ArtifactKey("org.foo", "foo", "1.0", null), cache.getArtifact(jar));
+		assertTrue(cache.isNotFound("abc"));
+		assertFalse(cache.isNotFound(sha1));
+
+		// a modified JAR is identified again
+		Files.write(jar.toPath(), "foo2".getBytes(StandardCharsets.UTF_8));
+		assertNull(cache.getArtifact(jar));
+		assertNotEquals(sha1, cache.getChecksum(jar));
+	}
+
+	@Test
+	public void testDeletedJarsArePruned() throws Exception {
+		File state = new File(folder.getRoot(), ArtifactIdentificationCache.CACHE_FILE);
+		File foo = folder.newFile("foo.jar");
+		File bar = folder.newFile("bar.jar");
+		ArtifactIdentificationCache cache = new ArtifactIdentificationCache(state);
+		cache.putArtifact(foo, new ArtifactKey("org.foo", "foo", "1.0", null));
+		cache.putArtifact(bar, new ArtifactKey("org.bar", "bar", "1.0", null));
+		assertTrue(bar.delete());
+		cache.flush();
+		String content = new String(Files.readAllBytes(state.toPath()), StandardCharsets.UTF_8);
+		assertTrue(content, content.contains("org.foo"));
+		assertFalse(content, content.contains("org.bar"));
+	}
+
+	@Test
+	public void testLocalRepositoryLayout() {
+		Path repository = Paths.get("repository");
+		assertEquals(new ArtifactKey("org.apache.commons", "commons-lang3", "3.5", null), LocalRepositoryIdentifier.fromLayout(repository, repository.resolve("org/apache/commons/commons-lang3/3.5/commons-lang3-3.5.jar")));
+		assertEquals(new ArtifactKey("junit", "junit", "4.13", "tests"), LocalRepositoryIdentifier.fromLayout(repository, repository.resolve("junit/junit/4.13/junit-4.13-tests.jar")));
+		assertNull(LocalRepositoryIdentifier.fromLayout(repository, repository.resolve("junit/junit/4.13/other-4.13.jar")));
+		assertNull(LocalRepositoryIdentifier.fromLayout(repository, Paths.get("lib", "junit", "junit", "4.13", "junit-4.13.jar")));
+	}
+
+	@Test
+	public void testLocalRepositoryChecksums() throws Exception {
+		File repository = folder.newFolder("repository");
+		Path version = repository.toPath().resolve("org/foo/foo/1.0");
+		Files.createDirectories(version);
+		Files.write(version.resolve("foo-1.0.jar.sha1"), "0beec7b5ea3f0fdbc95d0dd47f3c5bc275da8a33  foo-1.0.jar".getBytes(StandardCharsets.US_ASCII));
+		// a copy of the JAR outside of the repository
+		File jar = folder.newFile("foo.jar");
+		Files.write(jar.toPath(), "foo".getBytes(StandardCharsets.UTF_8));
+		ArtifactIdentificationCache cache = new ArtifactIdentificationCache(new File(folder.getRoot(), ArtifactIdentificationCache.CACHE_FILE));
+		LocalRepositoryIdentifier identifier = new LocalRepositoryIdentifier(repository, cache);
+		ArtifactKey artifact = identifier.identify(org.eclipse.core.runtime.Path.fromOSString(jar.getAbsolutePath()), null);
+		assertEquals(new ArtifactKey("org.foo", "foo", "1.0", null), artifact);
+		// a cancelled indexing stops the walk, and is completed by the next lookup
+		File bar = folder.newFile("bar.jar");
+		Files.write(bar.toPath(), "bar".getBytes(StandardCharsets.UTF_8));
+		Path barVersion = Files.createDirectories(repository.toPath().resolve("org/foo/bar/1.0"));
+		Files.write(barVersion.resolve("bar-1.0.jar.sha1"), "62cdb7020ff920e5aa642c3d4066950dd1f01f4d".getBytes(StandardCharsets.US_ASCII));
+		identifier = new LocalRepositoryIdentifier(repository, cache);
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+		assertNull(identifier.identify(org.eclipse.core.runtime.Path.fromOSString(bar.getAbsolutePath()), monitor));
+		artifact = identifier.identify(org.eclipse.core.runtime.Path.fromOSString(bar.getAbsolutePath()), null);
+		assertEquals(new ArtifactKey("org.foo", "bar", "1.0", null), artifact);
+	}
+}
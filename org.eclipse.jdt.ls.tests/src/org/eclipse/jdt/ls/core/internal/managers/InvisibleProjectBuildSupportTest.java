@@ -14,6 +14,7 @@ package org.eclipse.jdt.ls.core.internal.managers;
 
 import static org.eclipse.jdt.ls.core.internal.JsonMessageHelper.getParams;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -22,6 +23,7 @@ import java.io.File;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -29,8 +31,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IPath;
@@ -40,6 +46,7 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.ls.core.internal.ClassFileUtil;
 import org.eclipse.jdt.ls.core.internal.DependencyUtil;
@@ -122,6 +129,70 @@ public class InvisibleProjectBuildSupportTest extends AbstractInvisibleProjectBa
 
 	}
 
+	@Test
+	public void testLibFolderChanges() throws Exception {
+		File projectFolder = createSourceFolderWithMissingLibs("libFolderChanges");
+		IProject project = importRootFolder(projectFolder, "Test.java");
+		IJavaProject javaProject = JavaCore.create(project);
+		Path libPath = Files.createDirectories(projectFolder.toPath().resolve(InvisibleProjectBuildSupport.LIB_FOLDER));
+		Path jar = libPath.resolve("foo.jar");
+
+		// add a JAR
+		FileUtils.copyFile(new File(getSourceProjectDirectory(), "eclipse/source-attachment/foo.jar"), jar.toFile());
+		projectsManager.fileChanged(jar.toUri().toString(), CHANGE_TYPE.CREATED);
+		waitForBackgroundJobs();
+		IClasspathEntry[] classpath = javaProject.getRawClasspath();
+		assertEquals("Unexpected classpath:\n" + JavaProjectHelper.toString(classpath), 3, classpath.length);
+		assertEquals("foo.jar", classpath[2].getPath().lastSegment());
+		IPackageFragmentRoot root = javaProject.getPackageFragmentRoot(jar.toString());
+		assertFalse(root.getPackageFragment("foo").getOrdinaryClassFile("Baz.class").exists());
+
+		// modify the JAR, the change is reported for the lib folder
+		Path modified = libPath.getParent().resolve("foo-modified.jar");
+		try (JarFile original = new JarFile(jar.toFile()); JarOutputStream out = new JarOutputStream(Files.newOutputStream(modified))) {
+			byte[] bar = IOUtils.toByteArray(original.getInputStream(original.getEntry("foo/bar.class")));
+			out.putNextEntry(new JarEntry("foo/bar.class"));
+			out.write(bar);
+			out.putNextEntry(new JarEntry("foo/Baz.class"));
+			out.write(bar);
+		}
+		long lastModified = jar.toFile().lastModified();
+		Files.move(modified, jar, StandardCopyOption.REPLACE_EXISTING);
+		jar.toFile().setLastModified(lastModified + 10000);
+		projectsManager.fileChanged(libPath.toUri().toString(), CHANGE_TYPE.CHANGED);
+		waitForBackgroundJobs();
+		assertTrue(Arrays.equals(classpath, javaProject.getRawClasspath()));
+		assertTrue(root.getPackageFragment("foo").getOrdinaryClassFile("Baz.class").exists());
+
+		// remove the JAR
+		Files.delete(jar);
+		projectsManager.fileChanged(jar.toUri().toString(), CHANGE_TYPE.DELETED);
+		waitForBackgroundJobs();
+		classpath = javaProject.getRawClasspath();
+		assertEquals("Unexpected classpath:\n" + JavaProjectHelper.toString(classpath), 2, classpath.length);
+	}
+
+	@Test
+	public void testLibFolderCreated() throws Exception {
+		File projectFolder = createSourceFolderWithMissingLibs("libFolderCreated");
+		IProject project = importRootFolder(projectFolder, "Test.java");
+		IJavaProject javaProject = JavaCore.create(project);
+		Path libPath = Files.createDirectories(projectFolder.toPath().resolve(InvisibleProjectBuildSupport.LIB_FOLDER));
+		FileUtils.copyFile(new File(getSourceProjectDirectory(), "eclipse/source-attachment/foo.jar"), libPath.resolve("foo.jar").toFile());
+
+		// only the creation of the lib folder is reported
+		projectsManager.fileChanged(libPath.toUri().toString(), CHANGE_TYPE.CREATED);
+		waitForBackgroundJobs();
+		IClasspathEntry[] classpath = javaProject.getRawClasspath();
+		assertEquals("Unexpected classpath:\n" + JavaProjectHelper.toString(classpath), 3, classpath.length);
+		assertEquals("foo.jar", classpath[2].getPath().lastSegment());
+		assertTrue(UpdateClasspathJob.getInstance().hasLibraries(javaProject));
+
+		// the libraries of a deleted project are dropped
+		project.delete(false, true, null);
+		assertFalse(UpdateClasspathJob.getInstance().hasLibraries(javaProject));
+	}
+
 	@Test
 	public void testDebounceJarDetection() throws Exception {
 		File projectFolder = createSourceFolderWithMissingLibs("dynamicLibDetection");
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.ls.core.internal.JavaClientConnection;
+import org.eclipse.jdt.ls.core.internal.WorkspaceHelper;
+import org.eclipse.lsp4j.ExecuteCommandParams;
+import org.eclipse.m2e.core.embedder.ArtifactKey;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MavenSourceDownloaderTest extends AbstractProjectsManagerBasedTest {
+
+	private IPackageFragmentRoot root;
+	private TestSourceDownloader downloader;
+
+	@Before
+	public void setup() throws Exception {
+		importProjects("eclipse/source-attachment");
+		IJavaProject javaProject = JavaCore.create(WorkspaceHelper.getProject("source-attachment"));
+		root = javaProject.getPackageFragmentRoot(javaProject.getProject().getFile("foo.jar"));
+		downloader = new TestSourceDownloader();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		downloader.release.countDown();
+		waitForDownloads();
+	}
+
+	@Test
+	public void testDeduplication() throws Exception {
+		downloader.release.countDown();
+		IPath path = root.getPath();
+		assertTrue(downloader.request(root, path));
+		assertFalse(downloader.request(root, path));
+		waitForDownloads();
+		// the sources were requested within the last hour
+		assertFalse(downloader.request(root, path));
+		waitForDownloads();
+		assertEquals(1, downloader.downloads.size());
+	}
+
+	@Test
+	public void testQueueOverflow() throws Exception {
+		assertTrue(downloader.request(root, new Path("/lib/first.jar")));
+		// the job is identifying the first request, the next ones are queued
+		assertTrue(downloader.identifying.await(10, TimeUnit.SECONDS));
+		for (int i = 0; i < MavenSourceDownloader.MAX_QUEUED_REQUESTS; i++) {
+			assertTrue(downloader.request(root, new Path("/lib/lib" + i + ".jar")));
+		}
+		IPath overflow = new Path("/lib/overflow.jar");
+		assertFalse(downloader.request(root, overflow));
+		downloader.release.countDown();
+		waitForDownloads();
+		assertEquals(MavenSourceDownloader.MAX_QUEUED_REQUESTS + 1, downloader.downloads.size());
+		assertFalse(downloader.downloads.contains(overflow));
+		// the rejected request is accepted once the queue has room
+		assertTrue(downloader.request(root, overflow));
+		waitForDownloads();
+		assertTrue(downloader.downloads.contains(overflow));
+	}
+
+	@Test
+	public void testSourcesAttachedNotification() throws Exception {
+		downloader.release.countDown();
+		downloader.attachSources = true;
+		IPath path = root.getPath();
+		assertTrue(downloader.request(root, path));
+		waitForDownloads();
+		assertEquals("foo-sources.jar", root.getSourceAttachmentPath().lastSegment());
+		List<Object> notifications = clientRequests.get("sendNotification");
+		assertNotNull(notifications);
+		assertEquals(1, notifications.size());
+		ExecuteCommandParams params = (ExecuteCommandParams) notifications.get(0);
+		assertEquals(MavenSourceDownloader.SOURCES_ATTACHED_NOTIFICATION, params.getCommand());
+		assertEquals(path.toString(), params.getArguments().get(0));
+	}
+
+	@Test
+	public void testDelayedSourcesAttachedNotification() throws Exception {
+		downloader.release.countDown();
+		IPath path = root.getPath();
+		assertTrue(downloader.request(root, path));
+		waitForDownloads();
+		assertNull(clientRequests.get("sendNotification"));
+		// m2e attaches the sources after the download returned
+		downloader.attachSources(root);
+		downloader.notifySourcesAttached();
+		List<Object> notifications = clientRequests.get("sendNotification");
+		assertNotNull(notifications);
+		assertEquals(1, notifications.size());
+		assertEquals(path.toString(), ((ExecuteCommandParams) notifications.get(0)).getArguments().get(0));
+		downloader.notifySourcesAttached();
+		assertEquals(1, notifications.size());
+	}
+
+	private static void waitForDownloads() throws InterruptedException {
+		Job.getJobManager().join(MavenSourceDownloader.JOB_FAMILY, null);
+	}
+
+	/**
+	 * Identifies every library without any lookup, and records the downloads
+	 * instead of running them
+	 */
+	private class TestSourceDownloader extends MavenSourceDownloader {
+
+		private final CountDownLatch identifying = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+		private final List<IPath> downloads = new CopyOnWriteArrayList<>();
+		private boolean attachSources;
+
+		@Override
+		Map<IPath, ArtifactKey> identify(List<IPath> paths, IProgressMonitor monitor) {
+			identifying.countDown();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			Map<IPath, ArtifactKey> artifacts = new HashMap<>();
+			for (IPath path : paths) {
+				artifacts.put(path, new ArtifactKey("org.example", path.removeFileExtension().lastSegment(), "1.0", null));
+			}
+			return artifacts;
+		}
+
+		@Override
+		void download(IPackageFragmentRoot fragment, IPath path, ArtifactKey artifact) throws CoreException {
+			downloads.add(path);
+			if (attachSources) {
+				attachSources(fragment);
+			}
+		}
+
+		void attachSources(IPackageFragmentRoot fragment) throws CoreException {
+			IJavaProject javaProject = fragment.getJavaProject();
+			IClasspathEntry[] classpath = javaProject.getRawClasspath();
+			for (int i = 0; i < classpath.length; i++) {
+				if (classpath[i].getPath().equals(fragment.getPath())) {
+					classpath[i] = JavaCore.newLibraryEntry(fragment.getPath(), javaProject.getProject().getFile("foo-sources.jar").getFullPath(), null);
+				}
+			}
+			javaProject.setRawClasspath(classpath, null);
+		}
+
+		@Override
+		JavaClientConnection getClientConnection() {
+			return new JavaClientConnection(client);
+		}
+	}
+}
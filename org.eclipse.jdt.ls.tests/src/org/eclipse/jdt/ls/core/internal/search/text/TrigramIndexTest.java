@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.search.text;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.jdt.ls.core.internal.search.text.TrigramIndex.Signature;
+import org.junit.Test;
+
+public class TrigramIndexTest {
+
+	private static final String CONTENT = "<bean id=\"service\" class=\"org.sample.MyService\"/>";
+
+	@Test
+	public void testTrigrams() {
+		assertEquals(0, TrigramIndex.getTrigrams("ab").length);
+		assertEquals(1, TrigramIndex.getTrigrams("abc").length);
+		assertEquals(2, TrigramIndex.getTrigrams("abcd").length);
+		// the wildcards split the literal parts
+		assertEquals(2, TrigramIndex.getTrigrams("abc*def?g").length);
+		// the repeated trigrams are only checked once
+		assertEquals(3, TrigramIndex.getTrigrams("abcabc").length);
+	}
+
+	@Test
+	public void testMayContain() {
+		Signature signature = new Signature(1, CONTENT);
+		assertTrue(signature.mayContain(TrigramIndex.getTrigrams("org.sample.MyService")));
+		assertTrue(signature.mayContain(TrigramIndex.getTrigrams("org.sample.*Service")));
+		assertFalse(signature.mayContain(TrigramIndex.getTrigrams("org.sample.OtherService")));
+		assertFalse(signature.mayContain(TrigramIndex.getTrigrams("com.example.MyService")));
+	}
+
+	@Test
+	public void testEmptyContent() {
+		Signature signature = new Signature(1, "");
+		assertTrue(signature.mayContain(new int[0]));
+		assertFalse(signature.mayContain(TrigramIndex.getTrigrams("org.sample.MyService")));
+	}
+}
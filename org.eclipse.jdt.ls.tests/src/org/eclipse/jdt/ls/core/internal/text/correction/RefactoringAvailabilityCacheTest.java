@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.text.correction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.ls.core.internal.managers.AbstractProjectsManagerBasedTest;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RefactoringAvailabilityCacheTest extends AbstractProjectsManagerBasedTest {
+
+	private RefactoringAvailabilityCache cache;
+	private ICompilationUnit unit;
+	private AtomicInteger checks;
+
+	@Before
+	public void setup() throws Exception {
+		cache = new RefactoringAvailabilityCache();
+		checks = new AtomicInteger();
+		IJavaProject javaProject = newEmptyProject();
+		IPackageFragmentRoot sourceFolder = javaProject.getPackageFragmentRoot(javaProject.getProject().getFolder("src"));
+		IPackageFragment pack = sourceFolder.createPackageFragment("test1", false, null);
+		unit = pack.createCompilationUnit("A.java", "package test1;\npublic class A {\n  int a = 1 + 2;\n}\n", false, null);
+	}
+
+	private boolean isAvailable(String refactoring, boolean memoized, boolean available) throws Exception {
+		return cache.isAvailable(unit, refactoring, 40, 5, memoized, () -> {
+			checks.incrementAndGet();
+			return available;
+		});
+	}
+
+	@Test
+	public void testMemoized() throws Exception {
+		assertTrue(isAvailable(RefactorProposalUtility.EXTRACT_VARIABLE_COMMAND, true, true));
+		assertTrue(isAvailable(RefactorProposalUtility.EXTRACT_VARIABLE_COMMAND, true, true));
+		assertEquals(1, checks.get());
+		// the refactoring is performed, so its conditions are checked again
+		assertTrue(isAvailable(RefactorProposalUtility.EXTRACT_VARIABLE_COMMAND, false, true));
+		assertEquals(2, checks.get());
+		assertFalse(isAvailable(RefactorProposalUtility.EXTRACT_METHOD_COMMAND, true, false));
+		assertFalse(isAvailable(RefactorProposalUtility.EXTRACT_METHOD_COMMAND, false, false));
+		assertEquals(3, checks.get());
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testModifiedDocument() throws Exception {
+		unit.becomeWorkingCopy(new NullProgressMonitor());
+		try {
+			assertFalse(isAvailable(RefactorProposalUtility.EXTRACT_CONSTANT_COMMAND, true, false));
+			unit.getBuffer().setContents("package test1;\npublic class A {\n  int a = 3 + 4;\n}\n");
+			assertTrue(isAvailable(RefactorProposalUtility.EXTRACT_CONSTANT_COMMAND, true, true));
+			assertEquals(2, checks.get());
+		} finally {
+			unit.discardWorkingCopy();
+		}
+	}
+
+	@Test
+	public void testInvalidate() throws Exception {
+		isAvailable(RefactorProposalUtility.EXTRACT_FIELD_COMMAND, true, false);
+		cache.invalidate();
+		assertEquals(0, cache.size());
+		isAvailable(RefactorProposalUtility.EXTRACT_FIELD_COMMAND, true, false);
+		assertEquals(2, checks.get());
+	}
+}